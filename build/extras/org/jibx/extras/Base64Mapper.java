@@ -0,0 +1,186 @@
+/*
+Copyright (c) 2026, agent.
+All rights reserved.
+
+Redistribution and use in source and binary forms, with or without modification,
+are permitted provided that the following conditions are met:
+
+ * Redistributions of source code must retain the above copyright notice, this
+   list of conditions and the following disclaimer.
+ * Redistributions in binary form must reproduce the above copyright notice,
+   this list of conditions and the following disclaimer in the documentation
+   and/or other materials provided with the distribution.
+ * Neither the name of JiBX nor the names of its contributors may be used
+   to endorse or promote products derived from this software without specific
+   prior written permission.
+
+THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+(INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON
+ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+(INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+*/
+
+package org.jibx.extras;
+
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+
+import org.jibx.runtime.IAliasable;
+import org.jibx.runtime.IMarshaller;
+import org.jibx.runtime.IMarshallingContext;
+import org.jibx.runtime.IUnmarshaller;
+import org.jibx.runtime.IUnmarshallingContext;
+import org.jibx.runtime.JiBXException;
+import org.jibx.runtime.impl.MarshallingContext;
+import org.jibx.runtime.impl.UnmarshallingContext;
+
+/**
+ * <p>Custom marshaller/unmarshaller for binary data represented as base64 text
+ * content of an element. This handles properties typed as
+ * <code>byte[]</code>, <code>java.io.InputStream</code>, or
+ * <code>java.nio.ByteBuffer</code>. When marshalling the data is encoded
+ * directly to the output a piece at a time, and when unmarshalling it is
+ * decoded directly from the parser text, so the content is never held in full
+ * as text. A stream being marshalled is read to the end, but not closed; a
+ * buffer being marshalled is not modified. An element name must be supplied by
+ * the mapping which references this custom marshaller/unmarshaller.</p>
+ * 
+ * <p>Unmarshalling always decodes the complete content into a single
+ * <code>byte[]</code> before it is returned, so the full binary value is held
+ * in memory whatever the property type. An <code>InputStream</code> or
+ * <code>ByteBuffer</code> property just wraps the decoded array. This mapper
+ * is therefore not suitable for unmarshalling binary content which is too
+ * large to fit comfortably in memory.</p>
+ * 
+ * @author agent
+ */
+public class Base64Mapper implements IMarshaller, IUnmarshaller, IAliasable
+{
+    private static final int BYTES_TYPE = 0;
+    private static final int STREAM_TYPE = 1;
+    private static final int BUFFER_TYPE = 2;
+    
+    private final String m_uri;
+    private final int m_index;
+    private final String m_name;
+    private final int m_type;
+    
+    /**
+     * Aliased constructor with type. This takes a name definition for the
+     * element, along with the type of the property.
+     *
+     * @param uri namespace URI for the element
+     * @param index namespace index corresponding to the defined URI within the
+     * marshalling context definitions
+     * @param name local name for the element
+     * @param type class name for type of property (<code>byte[]</code>,
+     * <code>java.io.InputStream</code>, or <code>java.nio.ByteBuffer</code>)
+     */
+    public Base64Mapper(String uri, int index, String name, String type) {
+        if (name == null) {
+            throw new IllegalArgumentException
+                ("Element name required for base64 content");
+        }
+        m_uri = uri;
+        m_index = index;
+        m_name = name;
+        if ("byte[]".equals(type)) {
+            m_type = BYTES_TYPE;
+        } else if ("java.io.InputStream".equals(type)) {
+            m_type = STREAM_TYPE;
+        } else if ("java.nio.ByteBuffer".equals(type)) {
+            m_type = BUFFER_TYPE;
+        } else {
+            throw new IllegalArgumentException
+                ("Unsupported type for base64 content: " + type);
+        }
+    }
+    
+    /**
+     * Aliased constructor. This takes a name definition for the element, and
+     * handles the property as a <code>byte[]</code>.
+     *
+     * @param uri namespace URI for the element
+     * @param index namespace index corresponding to the defined URI within the
+     * marshalling context definitions
+     * @param name local name for the element
+     */
+    public Base64Mapper(String uri, int index, String name) {
+        this(uri, index, name, "byte[]");
+    }
+    
+    /* (non-Javadoc)
+     * @see org.jibx.runtime.IMarshaller#isExtension(java.lang.String)
+     */
+    public boolean isExtension(String mapname) {
+        return false;
+    }
+
+    /* (non-Javadoc)
+     * @see org.jibx.runtime.IMarshaller#marshal(java.lang.Object,
+     *  org.jibx.runtime.IMarshallingContext)
+     */
+    public void marshal(Object obj, IMarshallingContext ictx)
+        throws JiBXException {
+        
+        // make sure the parameters are as expected
+        if (!(ictx instanceof MarshallingContext)) {
+            throw new JiBXException("Marshalling context not of expected type");
+        } else if (obj != null) {
+            
+            // write the element with content from the data source
+            MarshallingContext ctx = (MarshallingContext)ictx;
+            ctx.startTag(m_index, m_name);
+            if (obj instanceof byte[]) {
+                ctx.contentBase64((byte[])obj);
+            } else if (obj instanceof InputStream) {
+                ctx.contentBase64((InputStream)obj);
+            } else if (obj instanceof ByteBuffer) {
+                ctx.contentBase64((ByteBuffer)obj);
+            } else {
+                throw new JiBXException("Invalid object type for marshaller");
+            }
+            ctx.endTag(m_index, m_name);
+            
+        }
+    }
+
+    /* (non-Javadoc)
+     * @see org.jibx.runtime.IUnmarshaller#isPresent(org.jibx.runtime.IUnmarshallingContext)
+     */
+    public boolean isPresent(IUnmarshallingContext ctx) throws JiBXException {
+        return ctx.isAt(m_uri, m_name);
+    }
+
+    /* (non-Javadoc)
+     * @see org.jibx.runtime.IUnmarshaller#unmarshal(java.lang.Object,
+     *  org.jibx.runtime.IUnmarshallingContext)
+     */
+    public Object unmarshal(Object obj, IUnmarshallingContext ictx)
+        throws JiBXException {
+        
+        // make sure we're at the appropriate start tag
+        UnmarshallingContext ctx = (UnmarshallingContext)ictx;
+        if (!ctx.isAt(m_uri, m_name)) {
+            return null;
+        }
+        
+        // decode the content and wrap as appropriate for property type
+        byte[] bytes = ctx.parseElementBase64(m_uri, m_name);
+        switch (m_type) {
+            case STREAM_TYPE:
+                return new ByteArrayInputStream(bytes);
+            case BUFFER_TYPE:
+                return ByteBuffer.wrap(bytes);
+            default:
+                return bytes;
+        }
+    }
+}
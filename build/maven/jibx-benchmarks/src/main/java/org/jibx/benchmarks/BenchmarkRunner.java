@@ -0,0 +1,76 @@
+/*
+Copyright (c) 2026, agent.
+All rights reserved.
+
+Redistribution and use in source and binary forms, with or without modification,
+are permitted provided that the following conditions are met:
+
+ * Redistributions of source code must retain the above copyright notice, this
+   list of conditions and the following disclaimer.
+ * Redistributions in binary form must reproduce the above copyright notice,
+   this list of conditions and the following disclaimer in the documentation
+   and/or other materials provided with the distribution.
+ * Neither the name of JiBX nor the names of its contributors may be used
+   to endorse or promote products derived from this software without specific
+   prior written permission.
+
+THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+(INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON
+ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+(INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+*/
+package org.jibx.benchmarks;
+
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.results.format.ResultFormatType;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.ChainedOptionsBuilder;
+import org.openjdk.jmh.runner.options.CommandLineOptions;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Benchmark launcher. This runs the JMH benchmarks with the GC profiler
+ * enabled, so that the results include bytes allocated per operation, and
+ * writes the results in JSON format for comparison between runs. Any standard
+ * JMH command line options may be supplied to override these defaults (so
+ * <code>-rff other.json</code> changes the output file, and a regular
+ * expression argument restricts the benchmarks run).
+ *
+ * @author agent
+ */
+public class BenchmarkRunner
+{
+    /** Default results file name. */
+    public static final String DEFAULT_RESULTS_FILE = "jibx-benchmarks.json";
+    
+    /**
+     * Run benchmarks.
+     *
+     * @param args JMH command line options
+     * @throws Exception on any error
+     */
+    public static void main(String[] args) throws Exception {
+        CommandLineOptions cmdopts = new CommandLineOptions(args);
+        ChainedOptionsBuilder builder = new OptionsBuilder().parent(cmdopts);
+        if (cmdopts.getIncludes().isEmpty()) {
+            builder.include(BenchmarkRunner.class.getPackage().getName() +
+                ".*Benchmark");
+        }
+        if (!cmdopts.getResultFormat().hasValue()) {
+            builder.resultFormat(ResultFormatType.JSON);
+        }
+        if (!cmdopts.getResult().hasValue()) {
+            builder.result(DEFAULT_RESULTS_FILE);
+        }
+        if (cmdopts.getProfilers().isEmpty()) {
+            builder.addProfiler(GCProfiler.class);
+        }
+        new Runner(builder.build()).run();
+    }
+}
@@ -0,0 +1,147 @@
+/*
+Copyright (c) 2026, agent.
+All rights reserved.
+
+Redistribution and use in source and binary forms, with or without modification,
+are permitted provided that the following conditions are met:
+
+ * Redistributions of source code must retain the above copyright notice, this
+   list of conditions and the following disclaimer.
+ * Redistributions in binary form must reproduce the above copyright notice,
+   this list of conditions and the following disclaimer in the documentation
+   and/or other materials provided with the distribution.
+ * Neither the name of JiBX nor the names of its contributors may be used
+   to endorse or promote products derived from this software without specific
+   prior written permission.
+
+THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+(INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON
+ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+(INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+*/
+package org.jibx.benchmarks;
+
+import java.io.ByteArrayOutputStream;
+import java.util.concurrent.TimeUnit;
+
+import org.jibx.runtime.impl.ISO88591StreamWriter;
+import org.jibx.runtime.impl.MarshallingContext;
+import org.jibx.runtime.impl.OutByteBuffer;
+import org.jibx.runtime.impl.StreamWriterBase;
+import org.jibx.runtime.impl.UTF8StreamWriter;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * Text escaping benchmarks. Each invocation writes a batch of elements with
+ * the same value as both an attribute and the element content, directly to
+ * the selected stream writer. The text is plain ASCII, Latin-1, or CJK, each
+ * with a few characters which need to be escaped. The ISO-8859-1 writer
+ * outputs the CJK characters as character references.
+ *
+ * @author agent
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 2)
+@Fork(2)
+public class EscapingBenchmark
+{
+    /** Number of elements written. */
+    private static final int BATCH_SIZE = 1000;
+    
+    /** Namespace URIs for writer. */
+    private static final String[] URIS = {
+        "", MarshallingContext.XML_NAMESPACE
+    };
+    
+    /** Text form ("ascii", "latin1", or "cjk"). */
+    @Param({ "ascii", "latin1", "cjk" })
+    public String text;
+    
+    /** Writer name ("utf8" or "iso88591"). */
+    @Param({ "utf8", "iso88591" })
+    public String writer;
+    
+    /** Text value written. */
+    private String m_value;
+    
+    /** Reused output stream. */
+    private ByteArrayOutputStream m_stream;
+    
+    /** Reused output buffer. */
+    private OutByteBuffer m_buffer;
+    
+    /** Reused writer for selected encoding. */
+    private StreamWriterBase m_writer;
+    
+    /**
+     * Set up the text value and writer.
+     */
+    @Setup
+    public void setup() {
+        if ("ascii".equals(text)) {
+            m_value = "Smith & Sons, Widgets <and> \"Supplies\"";
+        } else if ("latin1".equals(text)) {
+            m_value = "M\u00FCller & S\u00F6hne, Stra\u00DFe <und> " +
+                "\"Gr\u00FC\u00DFe\"";
+        } else if ("cjk".equals(text)) {
+            m_value = "\u682A\u5F0F\u4F1A\u793E & \u6771\u4EAC\u90FD " +
+                "<\u5343\u4EE3\u7530\u533A> \"\u4E38\u306E\u5185\"";
+        } else {
+            throw new IllegalArgumentException("Unknown text form " + text);
+        }
+        if ("utf8".equals(writer)) {
+            m_writer = new UTF8StreamWriter(URIS);
+        } else if ("iso88591".equals(writer)) {
+            m_writer = new ISO88591StreamWriter(URIS);
+        } else {
+            throw new IllegalArgumentException("Unknown writer " + writer);
+        }
+        m_stream = new ByteArrayOutputStream();
+        m_buffer = new OutByteBuffer();
+    }
+    
+    /**
+     * Write the batch of elements.
+     *
+     * @param hole sink for results
+     * @throws Exception on any error
+     */
+    @Benchmark
+    public void writeText(Blackhole hole) throws Exception {
+        m_stream.reset();
+        m_buffer.setOutput(m_stream);
+        m_writer.reset();
+        m_writer.setBuffer(m_buffer);
+        m_writer.startTagClosed(0, "values");
+        for (int i = 0; i < BATCH_SIZE; i++) {
+            m_writer.startTagOpen(0, "v");
+            m_writer.addAttribute(0, "a", m_value);
+            m_writer.closeStartTag();
+            m_writer.writeTextContent(m_value);
+            m_writer.endTag(0, "v");
+        }
+        m_writer.endTag(0, "values");
+        m_writer.flush();
+        hole.consume(m_stream.size());
+    }
+}
@@ -0,0 +1,126 @@
+/*
+Copyright (c) 2026, agent.
+All rights reserved.
+
+Redistribution and use in source and binary forms, with or without modification,
+are permitted provided that the following conditions are met:
+
+ * Redistributions of source code must retain the above copyright notice, this
+   list of conditions and the following disclaimer.
+ * Redistributions in binary form must reproduce the above copyright notice,
+   this list of conditions and the following disclaimer in the documentation
+   and/or other materials provided with the distribution.
+ * Neither the name of JiBX nor the names of its contributors may be used
+   to endorse or promote products derived from this software without specific
+   prior written permission.
+
+THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+(INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON
+ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+(INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+*/
+package org.jibx.benchmarks;
+
+import java.io.ByteArrayOutputStream;
+import java.io.OutputStreamWriter;
+import java.util.concurrent.TimeUnit;
+
+import javax.xml.stream.XMLOutputFactory;
+
+import org.jibx.runtime.impl.MarshallingContext;
+import org.jibx.runtime.impl.StAXWriter;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Marshalling benchmarks. Each invocation marshals a complete document from a
+ * previously unmarshalled object graph to a reused in-memory byte stream,
+ * using a reused marshalling context and the selected writer backend.
+ * Throughput mode gives documents per unit time, and sample mode gives the
+ * latency percentiles.
+ *
+ * @author agent
+ */
+@State(Scope.Thread)
+@BenchmarkMode({ Mode.Throughput, Mode.SampleTime })
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 2)
+@Fork(2)
+public class MarshalBenchmark
+{
+    /** Data set name. */
+    @Param({ TestDocument.CUSTOMER, TestDocument.TIMETABLE })
+    public String dataset;
+    
+    /** Writer backend name. */
+    @Param({ "utf8", "generic", "stax" })
+    public String writer;
+    
+    /** Document being marshalled. */
+    private TestDocument m_document;
+    
+    /** Reused marshalling context. */
+    private MarshallingContext m_context;
+    
+    /** Reused output stream. */
+    private ByteArrayOutputStream m_stream;
+    
+    /** StAX output factory (only used with StAX writer backend). */
+    private XMLOutputFactory m_outputFactory;
+    
+    /**
+     * Load the document and set up the context for the selected backend.
+     *
+     * @throws Exception on any error
+     */
+    @Setup
+    public void setup() throws Exception {
+        m_document = TestDocument.load(dataset);
+        if (!"utf8".equals(writer) && !"generic".equals(writer) &&
+            !"stax".equals(writer)) {
+            throw new IllegalArgumentException("Unknown writer " + writer);
+        }
+        m_context = (MarshallingContext)m_document.getFactory().
+            createMarshallingContext();
+        m_stream = new ByteArrayOutputStream(m_document.getBytes().length*2);
+        m_outputFactory = XMLOutputFactory.newInstance();
+    }
+    
+    /**
+     * Marshal the document.
+     *
+     * @return number of bytes written
+     * @throws Exception on any error
+     */
+    @Benchmark
+    public int marshal() throws Exception {
+        m_stream.reset();
+        if ("utf8".equals(writer)) {
+            m_context.setOutput(m_stream, "UTF-8");
+        } else if ("generic".equals(writer)) {
+            m_context.setOutput(new OutputStreamWriter(m_stream, "UTF-8"));
+        } else {
+            m_context.setXmlWriter(new StAXWriter(m_context.getNamespaces(),
+                m_outputFactory.createXMLStreamWriter(m_stream, "UTF-8")));
+        }
+        m_context.marshalDocument(m_document.getRoot(), "UTF-8", null);
+        m_context.reset();
+        return m_stream.size();
+    }
+}
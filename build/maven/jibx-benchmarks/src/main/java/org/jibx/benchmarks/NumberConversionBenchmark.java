@@ -0,0 +1,285 @@
+/*
+Copyright (c) 2026, agent.
+All rights reserved.
+
+Redistribution and use in source and binary forms, with or without modification,
+are permitted provided that the following conditions are met:
+
+ * Redistributions of source code must retain the above copyright notice, this
+   list of conditions and the following disclaimer.
+ * Redistributions in binary form must reproduce the above copyright notice,
+   this list of conditions and the following disclaimer in the documentation
+   and/or other materials provided with the distribution.
+ * Neither the name of JiBX nor the names of its contributors may be used
+   to endorse or promote products derived from this software without specific
+   prior written permission.
+
+THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+(INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON
+ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+(INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+*/
+package org.jibx.benchmarks;
+
+import java.io.ByteArrayOutputStream;
+import java.math.BigDecimal;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.jibx.runtime.Java5DecimalConvert;
+import org.jibx.runtime.JiBXException;
+import org.jibx.runtime.Utility;
+import org.jibx.runtime.impl.MarshallingContext;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * Floating point and decimal conversion benchmarks, comparing the JiBX
+ * conversions against the previous implementations using the standard Java
+ * methods. Each invocation converts a batch of values, using either prices
+ * (two decimal places, as typical of financial feeds) or values with full
+ * precision.
+ *
+ * @author agent
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 2)
+@Fork(2)
+public class NumberConversionBenchmark
+{
+    /** Number of values in each batch. */
+    private static final int BATCH_SIZE = 1000;
+    
+    /** Value set name. */
+    @Param({ "price", "full" })
+    public String values;
+    
+    /** Conversion implementation ("jdk" for the standard Java methods). */
+    @Param({ "jdk", "jibx" })
+    public String impl;
+    
+    private boolean m_jibx;
+    private double[] m_doubles;
+    private float[] m_floats;
+    private BigDecimal[] m_decimals;
+    private String[] m_doubleTexts;
+    private String[] m_floatTexts;
+    private String[] m_decimalTexts;
+    private MarshallingContext m_context;
+    private ByteArrayOutputStream m_stream;
+    
+    /**
+     * Generate the values for the selected value set.
+     */
+    @Setup
+    public void setup() {
+        if (!"jdk".equals(impl) && !"jibx".equals(impl)) {
+            throw new IllegalArgumentException("Unknown implementation " +
+                impl);
+        }
+        m_jibx = "jibx".equals(impl);
+        boolean price = "price".equals(values);
+        if (!price && !"full".equals(values)) {
+            throw new IllegalArgumentException("Unknown value set " + values);
+        }
+        Random rand = new Random(12345);
+        m_doubles = new double[BATCH_SIZE];
+        m_floats = new float[BATCH_SIZE];
+        m_decimals = new BigDecimal[BATCH_SIZE];
+        m_doubleTexts = new String[BATCH_SIZE];
+        m_floatTexts = new String[BATCH_SIZE];
+        m_decimalTexts = new String[BATCH_SIZE];
+        for (int i = 0; i < BATCH_SIZE; i++) {
+            double value;
+            if (price) {
+                value = rand.nextInt(10000000) / 100.0;
+                m_decimals[i] = BigDecimal.valueOf(rand.nextInt(10000000), 2);
+            } else {
+                value = rand.nextDouble() *
+                    Math.pow(10, rand.nextInt(40) - 20);
+                m_decimals[i] = new BigDecimal(rand.nextLong()).
+                    movePointLeft(rand.nextInt(20));
+            }
+            m_doubles[i] = value;
+            m_floats[i] = (float)value;
+            m_doubleTexts[i] = Double.toString(value);
+            m_floatTexts[i] = Float.toString((float)value);
+            m_decimalTexts[i] = m_decimals[i].toPlainString();
+        }
+        m_context = new MarshallingContext(new String[0], new String[0],
+            new String[] { "" }, null);
+        m_stream = new ByteArrayOutputStream(BATCH_SIZE * 64);
+    }
+    
+    private static String jdkSerializeDouble(double value) {
+        if (Double.isInfinite(value)) {
+            return (value < 0.0f) ? "-INF" : "INF";
+        } else {
+            return Double.toString(value);
+        }
+    }
+    
+    private static double jdkParseDouble(String text) throws JiBXException {
+        text = text.trim();
+        if ("-INF".equals(text)) {
+            return Double.NEGATIVE_INFINITY;
+        } else if ("INF".equals(text)) {
+            return Double.POSITIVE_INFINITY;
+        } else {
+            try {
+                return Double.parseDouble(text);
+            } catch (NumberFormatException ex) {
+                throw new JiBXException(ex.getMessage());
+            }
+        }
+    }
+    
+    private static String jdkSerializeFloat(float value) {
+        if (Float.isInfinite(value)) {
+            return (value < 0.0f) ? "-INF" : "INF";
+        } else {
+            return Float.toString(value);
+        }
+    }
+    
+    private static float jdkParseFloat(String text) throws JiBXException {
+        text = text.trim();
+        if ("-INF".equals(text)) {
+            return Float.NEGATIVE_INFINITY;
+        } else if ("INF".equals(text)) {
+            return Float.POSITIVE_INFINITY;
+        } else {
+            try {
+                return Float.parseFloat(text);
+            } catch (NumberFormatException ex) {
+                throw new JiBXException(ex.getMessage());
+            }
+        }
+    }
+    
+    /**
+     * Serialize double values to text.
+     *
+     * @param hole sink for results
+     */
+    @Benchmark
+    public void serializeDouble(Blackhole hole) {
+        for (int i = 0; i < BATCH_SIZE; i++) {
+            hole.consume(m_jibx ? Utility.serializeDouble(m_doubles[i]) :
+                jdkSerializeDouble(m_doubles[i]));
+        }
+    }
+    
+    /**
+     * Parse double values from text.
+     *
+     * @param hole sink for results
+     * @throws JiBXException on conversion error
+     */
+    @Benchmark
+    public void parseDouble(Blackhole hole) throws JiBXException {
+        for (int i = 0; i < BATCH_SIZE; i++) {
+            hole.consume(m_jibx ? Utility.parseDouble(m_doubleTexts[i]) :
+                jdkParseDouble(m_doubleTexts[i]));
+        }
+    }
+    
+    /**
+     * Serialize float values to text.
+     *
+     * @param hole sink for results
+     */
+    @Benchmark
+    public void serializeFloat(Blackhole hole) {
+        for (int i = 0; i < BATCH_SIZE; i++) {
+            hole.consume(m_jibx ? Utility.serializeFloat(m_floats[i]) :
+                jdkSerializeFloat(m_floats[i]));
+        }
+    }
+    
+    /**
+     * Parse float values from text.
+     *
+     * @param hole sink for results
+     * @throws JiBXException on conversion error
+     */
+    @Benchmark
+    public void parseFloat(Blackhole hole) throws JiBXException {
+        for (int i = 0; i < BATCH_SIZE; i++) {
+            hole.consume(m_jibx ? Utility.parseFloat(m_floatTexts[i]) :
+                jdkParseFloat(m_floatTexts[i]));
+        }
+    }
+    
+    /**
+     * Serialize decimal values to text.
+     *
+     * @param hole sink for results
+     */
+    @Benchmark
+    public void serializeDecimal(Blackhole hole) {
+        for (int i = 0; i < BATCH_SIZE; i++) {
+            hole.consume(m_jibx ?
+                Java5DecimalConvert.serializeDecimal(m_decimals[i]) :
+                m_decimals[i].toPlainString());
+        }
+    }
+    
+    /**
+     * Parse decimal values from text.
+     *
+     * @param hole sink for results
+     */
+    @Benchmark
+    public void parseDecimal(Blackhole hole) {
+        for (int i = 0; i < BATCH_SIZE; i++) {
+            hole.consume(m_jibx ?
+                Java5DecimalConvert.deserializeDecimal(m_decimalTexts[i]) :
+                new BigDecimal(m_decimalTexts[i]));
+        }
+    }
+    
+    /**
+     * Marshal double values as element content, either written directly to
+     * the output buffer or converted to text first.
+     *
+     * @return number of bytes written
+     * @throws Exception on any error
+     */
+    @Benchmark
+    public int marshalDouble() throws Exception {
+        m_stream.reset();
+        m_context.setOutput(m_stream, "UTF-8");
+        m_context.startTag(0, "values");
+        for (int i = 0; i < BATCH_SIZE; i++) {
+            if (m_jibx) {
+                m_context.element(0, "v", m_doubles[i]);
+            } else {
+                m_context.element(0, "v", jdkSerializeDouble(m_doubles[i]));
+            }
+        }
+        m_context.endTag(0, "values");
+        m_context.endDocument();
+        m_context.reset();
+        return m_stream.size();
+    }
+}
@@ -0,0 +1,156 @@
+/*
+Copyright (c) 2026, agent.
+All rights reserved.
+
+Redistribution and use in source and binary forms, with or without modification,
+are permitted provided that the following conditions are met:
+
+ * Redistributions of source code must retain the above copyright notice, this
+   list of conditions and the following disclaimer.
+ * Redistributions in binary form must reproduce the above copyright notice,
+   this list of conditions and the following disclaimer in the documentation
+   and/or other materials provided with the distribution.
+ * Neither the name of JiBX nor the names of its contributors may be used
+   to endorse or promote products derived from this software without specific
+   prior written permission.
+
+THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+(INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON
+ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+(INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+*/
+package org.jibx.benchmarks;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+
+import org.jibx.runtime.BindingDirectory;
+import org.jibx.runtime.IBindingFactory;
+import org.jibx.runtime.IUnmarshallingContext;
+import org.jibx.runtime.JiBXException;
+
+/**
+ * Sample document used as benchmark input. Each instance holds the raw bytes
+ * of a test document loaded from the classpath, the binding factory for the
+ * document root class, and an unmarshalled instance of the document for use
+ * in marshalling benchmarks.
+ *
+ * @author agent
+ */
+public class TestDocument
+{
+    /** Data set name for the customer/company binding sample. */
+    public static final String CUSTOMER = "customer";
+    
+    /** Data set name for the airline timetable binding sample. */
+    public static final String TIMETABLE = "timetable";
+    
+    /** Document resource path. */
+    private final String m_path;
+    
+    /** Binding factory for root class. */
+    private final IBindingFactory m_factory;
+    
+    /** Raw document bytes. */
+    private final byte[] m_bytes;
+    
+    /** Unmarshalled document root object. */
+    private final Object m_root;
+    
+    /**
+     * Constructor.
+     *
+     * @param path document resource path
+     * @param clas document root class
+     * @throws JiBXException on error in binding
+     * @throws IOException on error reading document
+     */
+    private TestDocument(String path, Class clas)
+        throws JiBXException, IOException {
+        m_path = path;
+        m_factory = BindingDirectory.getFactory(clas);
+        InputStream is = TestDocument.class.getResourceAsStream(path);
+        if (is == null) {
+            throw new IOException("Resource " + path + " not found");
+        }
+        try {
+            ByteArrayOutputStream bos = new ByteArrayOutputStream();
+            byte[] buff = new byte[4096];
+            int count;
+            while ((count = is.read(buff)) >= 0) {
+                bos.write(buff, 0, count);
+            }
+            m_bytes = bos.toByteArray();
+        } finally {
+            is.close();
+        }
+        IUnmarshallingContext uctx = m_factory.createUnmarshallingContext();
+        m_root = uctx.unmarshalDocument(new ByteArrayInputStream(m_bytes),
+            path, "UTF-8");
+    }
+    
+    /**
+     * Load a named data set.
+     *
+     * @param name data set name ({@link #CUSTOMER} or {@link #TIMETABLE})
+     * @return loaded document
+     * @throws JiBXException on error in binding
+     * @throws IOException on error reading document
+     */
+    public static TestDocument load(String name)
+        throws JiBXException, IOException {
+        if (CUSTOMER.equals(name)) {
+            return new TestDocument("/simple/simple10.xml",
+                simple.Customer10.class);
+        } else if (TIMETABLE.equals(name)) {
+            return new TestDocument("/data/timetable2.xml",
+                multiple.TimeTableBean.class);
+        } else {
+            throw new IllegalArgumentException("Unknown data set " + name);
+        }
+    }
+    
+    /**
+     * Get document resource path.
+     *
+     * @return path
+     */
+    public String getPath() {
+        return m_path;
+    }
+    
+    /**
+     * Get binding factory for document.
+     *
+     * @return factory
+     */
+    public IBindingFactory getFactory() {
+        return m_factory;
+    }
+    
+    /**
+     * Get raw document bytes. The returned array must not be modified.
+     *
+     * @return bytes
+     */
+    public byte[] getBytes() {
+        return m_bytes;
+    }
+    
+    /**
+     * Get unmarshalled document root object.
+     *
+     * @return root
+     */
+    public Object getRoot() {
+        return m_root;
+    }
+}
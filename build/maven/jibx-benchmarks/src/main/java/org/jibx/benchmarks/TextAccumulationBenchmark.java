@@ -0,0 +1,141 @@
+/*
+Copyright (c) 2026, agent.
+All rights reserved.
+
+Redistribution and use in source and binary forms, with or without modification,
+are permitted provided that the following conditions are met:
+
+ * Redistributions of source code must retain the above copyright notice, this
+   list of conditions and the following disclaimer.
+ * Redistributions in binary form must reproduce the above copyright notice,
+   this list of conditions and the following disclaimer in the documentation
+   and/or other materials provided with the distribution.
+ * Neither the name of JiBX nor the names of its contributors may be used
+   to endorse or promote products derived from this software without specific
+   prior written permission.
+
+THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+(INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON
+ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+(INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+*/
+package org.jibx.benchmarks;
+
+import java.io.ByteArrayInputStream;
+import java.util.concurrent.TimeUnit;
+
+import org.jibx.runtime.impl.IXMLReaderFactory;
+import org.jibx.runtime.impl.StAXReaderFactory;
+import org.jibx.runtime.impl.UTF8ReaderFactory;
+import org.jibx.runtime.impl.UnmarshallingContext;
+import org.jibx.runtime.impl.XMLPullReaderFactory;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * Text accumulation benchmarks. Each invocation parses a document with a batch
+ * of simple text elements, using the unmarshalling context to read the text of
+ * each element. The text is either plain (a single parse event), or split into
+ * multiple events by entity references or CDATA sections, which requires the
+ * context to accumulate the pieces.
+ *
+ * @author agent
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 2)
+@Fork(2)
+public class TextAccumulationBenchmark
+{
+    /** Number of text elements in document. */
+    private static final int BATCH_SIZE = 1000;
+    
+    /** Text form ("plain", "entities", or "cdata"). */
+    @Param({ "plain", "entities", "cdata" })
+    public String text;
+    
+    /** Parser backend name. */
+    @Param({ "xpp3", "stax", "utf8" })
+    public String parser;
+    
+    /** Document bytes. */
+    private byte[] m_bytes;
+    
+    /** Parser factory for selected backend. */
+    private IXMLReaderFactory m_readerFactory;
+    
+    /** Reused unmarshalling context. */
+    private UnmarshallingContext m_context;
+    
+    /**
+     * Build the document and set up the context for the selected backend.
+     *
+     * @throws Exception on any error
+     */
+    @Setup
+    public void setup() throws Exception {
+        String value;
+        if ("plain".equals(text)) {
+            value = "Smith and Sons, Widgets and Supplies";
+        } else if ("entities".equals(text)) {
+            value = "Smith &amp; Sons, Widgets &lt;and&gt; Supplies";
+        } else if ("cdata".equals(text)) {
+            value = "Smith <![CDATA[& Sons]]>, Widgets <![CDATA[<and>]]> " +
+                "Supplies";
+        } else {
+            throw new IllegalArgumentException("Unknown text form " + text);
+        }
+        StringBuilder buff = new StringBuilder("<values>");
+        for (int i = 0; i < BATCH_SIZE; i++) {
+            buff.append("<v>").append(value).append("</v>");
+        }
+        buff.append("</values>");
+        m_bytes = buff.toString().getBytes("UTF-8");
+        if ("xpp3".equals(parser)) {
+            m_readerFactory = XMLPullReaderFactory.getInstance();
+        } else if ("stax".equals(parser)) {
+            m_readerFactory = StAXReaderFactory.getInstance();
+        } else if ("utf8".equals(parser)) {
+            m_readerFactory = UTF8ReaderFactory.getInstance();
+        } else {
+            throw new IllegalArgumentException("Unknown parser " + parser);
+        }
+        m_context = new UnmarshallingContext();
+    }
+    
+    /**
+     * Parse the document, reading the text of each element.
+     *
+     * @param hole sink for results
+     * @throws Exception on any error
+     */
+    @Benchmark
+    public void parseText(Blackhole hole) throws Exception {
+        m_context.setDocument(m_readerFactory.createReader(
+            new ByteArrayInputStream(m_bytes), null, "UTF-8", true));
+        m_context.parsePastStartTag(null, "values");
+        for (int i = 0; i < BATCH_SIZE; i++) {
+            hole.consume(m_context.parseElementText(null, "v"));
+        }
+        m_context.parsePastEndTag(null, "values");
+        m_context.reset();
+    }
+}
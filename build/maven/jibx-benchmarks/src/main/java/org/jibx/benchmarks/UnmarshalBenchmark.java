@@ -0,0 +1,119 @@
+/*
+Copyright (c) 2026, agent.
+All rights reserved.
+
+Redistribution and use in source and binary forms, with or without modification,
+are permitted provided that the following conditions are met:
+
+ * Redistributions of source code must retain the above copyright notice, this
+   list of conditions and the following disclaimer.
+ * Redistributions in binary form must reproduce the above copyright notice,
+   this list of conditions and the following disclaimer in the documentation
+   and/or other materials provided with the distribution.
+ * Neither the name of JiBX nor the names of its contributors may be used
+   to endorse or promote products derived from this software without specific
+   prior written permission.
+
+THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+(INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON
+ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+(INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+*/
+package org.jibx.benchmarks;
+
+import java.io.ByteArrayInputStream;
+import java.util.concurrent.TimeUnit;
+
+import org.jibx.runtime.impl.IXMLReaderFactory;
+import org.jibx.runtime.impl.StAXReaderFactory;
+import org.jibx.runtime.impl.UTF8ReaderFactory;
+import org.jibx.runtime.impl.UnmarshallingContext;
+import org.jibx.runtime.impl.XMLPullReaderFactory;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Unmarshalling benchmarks. Each invocation parses a complete document from an
+ * in-memory byte array and unmarshals it to an object graph, using a reused
+ * unmarshalling context and the selected parser backend. Throughput mode gives
+ * documents per unit time, and sample mode gives the latency percentiles.
+ *
+ * @author agent
+ */
+@State(Scope.Thread)
+@BenchmarkMode({ Mode.Throughput, Mode.SampleTime })
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 2)
+@Fork(2)
+public class UnmarshalBenchmark
+{
+    /** Data set name. */
+    @Param({ TestDocument.CUSTOMER, TestDocument.TIMETABLE })
+    public String dataset;
+    
+    /** Parser backend name. */
+    @Param({ "xpp3", "stax", "utf8" })
+    public String parser;
+    
+    /** Document being unmarshalled. */
+    private TestDocument m_document;
+    
+    /** Parser factory for selected backend. */
+    private IXMLReaderFactory m_readerFactory;
+    
+    /** Reused unmarshalling context. */
+    private UnmarshallingContext m_context;
+    
+    /**
+     * Load the document and set up the context for the selected backend.
+     *
+     * @throws Exception on any error
+     */
+    @Setup
+    public void setup() throws Exception {
+        m_document = TestDocument.load(dataset);
+        if ("xpp3".equals(parser)) {
+            m_readerFactory = XMLPullReaderFactory.getInstance();
+        } else if ("stax".equals(parser)) {
+            m_readerFactory = StAXReaderFactory.getInstance();
+        } else if ("utf8".equals(parser)) {
+            m_readerFactory = UTF8ReaderFactory.getInstance();
+        } else {
+            throw new IllegalArgumentException("Unknown parser " + parser);
+        }
+        m_context = (UnmarshallingContext)m_document.getFactory().
+            createUnmarshallingContext();
+    }
+    
+    /**
+     * Unmarshal the document.
+     *
+     * @return unmarshalled root object
+     * @throws Exception on any error
+     */
+    @Benchmark
+    public Object unmarshal() throws Exception {
+        m_context.setDocument(m_readerFactory.createReader(
+            new ByteArrayInputStream(m_document.getBytes()),
+            m_document.getPath(), "UTF-8", true));
+        Object obj = m_context.unmarshalElement();
+        m_context.reset();
+        return obj;
+    }
+}
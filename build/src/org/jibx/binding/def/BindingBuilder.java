@@ -342,6 +342,9 @@ public abstract class BindingBuilder
         "_jibx_serialize";
     private static final String CUSTOM_ENUM_DESERIALIZER_NAME =
         "_jibx_deserialize";
+    private static final String ENUM_TABLE_CLASS =
+        "org.jibx.runtime.impl.EnumValueTable";
+    private static final String ENUM_TABLE_SUFFIX = "_jibx_enumTable";
 
     /**
      * Check if attributes supply a name definition.
@@ -582,7 +585,11 @@ public abstract class BindingBuilder
 	}
 
 	/**
-	 * Fill in the body of an enum deserialization method.
+	 * Fill in the body of an enum deserialization method. The generated code
+	 * uses a lookup table for the text values of the enum instances, built
+	 * the first time the method is called and saved in a static field of the
+	 * class containing the method. The table is built without locking, since
+	 * any thread doing so gets an equivalent result.
 	 *
 	 * @param type
 	 * @param typesig
@@ -599,58 +606,61 @@ public abstract class BindingBuilder
 		dmeth.appendReturn(type);
 		dmeth.targetNext(nonnull);
 		
-		// set up locals for array of values and decrementing index
+		// add the static field for the lookup table, and check if built
+		ClassFile cf = dmeth.getClassFile();
+		ClassItem table = cf.addField(ENUM_TABLE_CLASS,
+		    '_' + type.replace('.', '_') + ENUM_TABLE_SUFFIX,
+		    Constants.ACC_PRIVATE | Constants.ACC_STATIC);
+		dmeth.appendGetStatic(table);
+		BranchWrapper built = dmeth.appendIFNONNULL(dmeth);
+		
+		// set up locals for array of values, array of texts, and index
 		dmeth.appendCallStatic(type + ".values", "()[" + typesig);
 		dmeth.appendDUP();
+		dmeth.appendARRAYLENGTH();
+		dmeth.appendCreateArray("java.lang.String");
+		int textslocal = dmeth.addLocal("texts",
+		    ClassItem.typeFromName("java.lang.String[]"));
+		dmeth.appendDUP();
 		int arraylocal = dmeth.addLocal("values",
 		    ClassItem.typeFromName(type + "[]"));
 		dmeth.appendARRAYLENGTH();
 		int arrayindex = dmeth.addLocal("index",
 		    ClassItem.typeFromName("int"));
 		
-		// start comparison loop with check for off bottom of array
+		// loop through values getting the text for each
 		BranchTarget start = dmeth.appendTargetNOP();
 		dmeth.appendIncrementLocal(-1, arrayindex);
 		dmeth.appendLoadLocal(arrayindex);
-		BranchWrapper loadnext = dmeth.appendIFGE(dmeth);
-		
-		// throw an exception for value not found
-		dmeth.appendCreateNew("java.lang.StringBuffer");
-		dmeth.appendDUP();
-		dmeth.appendLoadConstant("No match found for value '");
-		dmeth.appendCallInit("java.lang.StringBuffer",
-		    "(Ljava/lang/String;)V");
-		dmeth.appendLoadLocal(0);
-		dmeth.appendCallVirtual("java.lang.StringBuffer.append",
-		    "(Ljava/lang/String;)Ljava/lang/StringBuffer;");
-		dmeth.appendLoadConstant("' in enum class " + type);
-		dmeth.appendCallVirtual("java.lang.StringBuffer.append",
-		    "(Ljava/lang/String;)Ljava/lang/StringBuffer;");
-		dmeth.appendCallVirtual("java.lang.StringBuffer.toString",
-		    "()Ljava/lang/String;");
-		dmeth.appendCreateNew(MethodBuilder.FRAMEWORK_EXCEPTION_CLASS);
-		dmeth.appendDUP_X1();
-		dmeth.appendSWAP();
-		dmeth.appendCallInit(MethodBuilder.FRAMEWORK_EXCEPTION_CLASS,
-		    MethodBuilder.EXCEPTION_CONSTRUCTOR_SIGNATURE1);
-		dmeth.appendThrow();
-		
-		// load and compare the value
-		dmeth.targetNext(loadnext);
-		dmeth.appendLoadLocal(0);
+		BranchWrapper done = dmeth.appendIFLT(dmeth);
+		dmeth.appendLoadLocal(textslocal);
+		dmeth.appendLoadLocal(arrayindex);
 		dmeth.appendLoadLocal(arraylocal);
 		dmeth.appendLoadLocal(arrayindex);
 		dmeth.appendALOAD(type);
 		dmeth.appendCallVirtual(evfull, "()Ljava/lang/String;");
-		dmeth.appendCallVirtual("java.lang.Object.equals",
-		    "(Ljava/lang/Object;)Z");
-		BranchWrapper tonext = dmeth.appendIFEQ(dmeth);
+		dmeth.appendAASTORE();
+		BranchWrapper tonext = dmeth.appendUnconditionalBranch(dmeth);
 		tonext.setTarget(start, dmeth);
 		
-		// return the matching instance
+		// create and save the lookup table
+		dmeth.targetNext(done);
+		dmeth.appendCreateNew(ENUM_TABLE_CLASS);
+		dmeth.appendDUP();
 		dmeth.appendLoadLocal(arraylocal);
-		dmeth.appendLoadLocal(arrayindex);
-		dmeth.appendALOAD(type);
+		dmeth.appendLoadLocal(textslocal);
+		dmeth.appendLoadConstant(type);
+		dmeth.appendCallInit(ENUM_TABLE_CLASS,
+		    "([Ljava/lang/Object;[Ljava/lang/String;Ljava/lang/String;)V");
+		dmeth.appendPutStatic(table);
+		
+		// look up the text (throws an exception if not found)
+		dmeth.targetNext(built);
+		dmeth.appendGetStatic(table);
+		dmeth.appendLoadLocal(0);
+		dmeth.appendCallVirtual(ENUM_TABLE_CLASS + ".get",
+		    "(Ljava/lang/String;)Ljava/lang/Object;");
+		dmeth.appendCreateCast(type);
 		dmeth.appendReturn(type);
 	}
 
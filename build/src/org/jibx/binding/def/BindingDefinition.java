@@ -46,6 +46,7 @@ import org.jibx.binding.classes.ClassItem;
 import org.jibx.binding.classes.ExceptionMethodBuilder;
 import org.jibx.binding.classes.MethodBuilder;
 import org.jibx.binding.classes.MungedClass;
+import org.jibx.binding.model.BuiltinFormats;
 import org.jibx.binding.util.ArrayMap;
 import org.jibx.binding.util.IntegerCache;
 import org.jibx.runtime.BindingDirectory;
@@ -187,10 +188,40 @@ implements IContainer
         "org.jibx.runtime.JodaConvert.serializeUTCDateTime", 
         "org.jibx.runtime.JodaConvert.deserializeStrictUTCDateTime",
         "org.joda.time.DateTime");
+    private static final StringConversion s_java8LocalDateConversion =
+        new ObjectStringConversion(null,
+        "org.jibx.runtime.JavaTimeConvert.serializeLocalDate", 
+        "org.jibx.runtime.JavaTimeConvert.deserializeLocalDate",
+        "java.time.LocalDate");
+    private static final StringConversion s_java8LocalDateTimeConversion =
+        new ObjectStringConversion(null,
+        "org.jibx.runtime.JavaTimeConvert.serializeLocalDateTime", 
+        "org.jibx.runtime.JavaTimeConvert.deserializeLocalDateTime",
+        "java.time.LocalDateTime");
+    private static final StringConversion s_java8OffsetDateTimeConversion =
+        new ObjectStringConversion(null,
+        "org.jibx.runtime.JavaTimeConvert.serializeOffsetDateTime", 
+        "org.jibx.runtime.JavaTimeConvert.deserializeOffsetDateTime",
+        "java.time.OffsetDateTime");
+    private static final StringConversion s_java8ZonedDateTimeConversion =
+        new ObjectStringConversion(null,
+        "org.jibx.runtime.JavaTimeConvert.serializeZonedDateTime", 
+        "org.jibx.runtime.JavaTimeConvert.deserializeZonedDateTime",
+        "java.time.ZonedDateTime");
+    private static final StringConversion s_java8InstantConversion =
+        new ObjectStringConversion(null,
+        "org.jibx.runtime.JavaTimeConvert.serializeInstant", 
+        "org.jibx.runtime.JavaTimeConvert.deserializeInstant",
+        "java.time.Instant");
+    private static final StringConversion s_java8DurationConversion =
+        new ObjectStringConversion(null,
+        "org.jibx.runtime.JavaTimeConvert.serializeDuration", 
+        "org.jibx.runtime.JavaTimeConvert.deserializeDuration",
+        "java.time.Duration");
     private static final StringConversion s_java5DecimalConversion =
         new ObjectStringConversion(null,
         "org.jibx.runtime.Java5DecimalConvert.serializeDecimal", 
-        null,
+        "org.jibx.runtime.Java5DecimalConvert.deserializeDecimal",
         "java.math.BigDecimal");
 //#j2me}
     private static final StringConversion s_base64Conversion =
@@ -473,6 +504,20 @@ implements IContainer
             s_jodaStrictLocalDateTimeConversion.derive(null, null, conv, null, null));
         m_outerContext.setNamedConversion(new QName("DateTime.strict-UTC"),
             s_jodaStrictUTCDateTimeConversion.derive(null, null, conv, null, null));
+        if (BuiltinFormats.isJavaTimeAvailable()) {
+            m_outerContext.setDefaultConversion(new QName("LocalDate.java8"),
+                s_java8LocalDateConversion.derive(null, null, conv, null, null));
+            m_outerContext.setDefaultConversion(new QName("LocalDateTime.java8"),
+                s_java8LocalDateTimeConversion.derive(null, null, conv, null, null));
+            m_outerContext.setDefaultConversion(new QName("OffsetDateTime.java8"),
+                s_java8OffsetDateTimeConversion.derive(null, null, conv, null, null));
+            m_outerContext.setDefaultConversion(new QName("ZonedDateTime.java8"),
+                s_java8ZonedDateTimeConversion.derive(null, null, conv, null, null));
+            m_outerContext.setDefaultConversion(new QName("Instant.java8"),
+                s_java8InstantConversion.derive(null, null, conv, null, null));
+            m_outerContext.setDefaultConversion(new QName("Duration.java8"),
+                s_java8DurationConversion.derive(null, null, conv, null, null));
+        }
         m_outerContext.setDefaultConversion(new QName("BigDecimal.java5"),
             s_java5DecimalConversion.derive(null, null, conv, null, null));
 //#j2me}
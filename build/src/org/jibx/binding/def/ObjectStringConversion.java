@@ -191,6 +191,21 @@ public class ObjectStringConversion extends StringConversion
         if (m_converter != null) {
             mb.appendCall(m_converter);
         }
+        genFromConvertedText(mb);
+    }
+
+    /**
+     * Generate code to convert <code>String</code> representation with any
+     * whitespace conversion already applied. The code generated by this
+     * method assumes that the <code>String</code> value has already been
+     * pushed on the stack. It consumes this and leaves the converted value on
+     * the stack.
+     *
+     * @param mb method builder
+     * @throws JiBXException Error if no de-serializer
+     */
+    private void genFromConvertedText(ContextMethodBuilder mb)
+        throws JiBXException {
         if (m_deserializer != null || m_initFromString != null ||
             m_needDeserialize) {
             
@@ -254,13 +269,11 @@ public class ObjectStringConversion extends StringConversion
         
         // first part of generated instruction sequence is to push the default
         //  value, then call the appropriate unmarshalling context method to get
-        //  the value as a String
-        mb.appendLoadConstant((String)m_default);
-        String name = attr ? UNMARSHAL_OPT_ATTRIBUTE : UNMARSHAL_OPT_ELEMENT;
-        mb.appendCallVirtual(name, UNMARSHAL_OPT_SIGNATURE);
+        //  the value as a String with whitespace converted
+        genParseOptionalText(attr, (String)m_default, mb);
         
         // second part is to actually convert to an instance of the type
-        genFromText(mb);
+        genFromConvertedText(mb);
     }
 
     /**
@@ -279,12 +292,11 @@ public class ObjectStringConversion extends StringConversion
         
         // first part of generated instruction sequence is a call to the
         //  appropriate unmarshalling context method to get the value as a
-        //  String
-        String name = attr ? UNMARSHAL_REQ_ATTRIBUTE : UNMARSHAL_REQ_ELEMENT;
-        mb.appendCallVirtual(name, UNMARSHAL_REQ_SIGNATURE);
+        //  String with whitespace converted
+        genParseRequiredText(attr, mb);
         
         // second part is to actually convert to an instance of the type
-        genFromText(mb);
+        genFromConvertedText(mb);
     }
     
     /**
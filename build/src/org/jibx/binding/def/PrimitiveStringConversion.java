@@ -71,6 +71,13 @@ public class PrimitiveStringConversion extends StringConversion
     private static final String UNMARSHAL_SIG_LEAD =
         "(Ljava/lang/String;Ljava/lang/String;";
     
+    /** Marshalling context method name prefix for direct value writes. */
+    private static final String MARSHAL_DIRECT_SIG_LEAD = "(ILjava/lang/String;";
+    
+    /** Marshalling context method signature suffix for direct value writes. */
+    private static final String MARSHAL_DIRECT_SIG_TAIL =
+        ")Lorg/jibx/runtime/impl/MarshallingContext;";
+    
     /** Constant argument type array for finding conversion methods. */
     private static final Class[] SINGLE_STRING_ARGS =
         new Class[] { String.class };
@@ -178,6 +185,19 @@ public class PrimitiveStringConversion extends StringConversion
         if (m_converter != null) {
             mb.appendCall(m_converter);
         }
+        genFromConvertedText(mb);
+    }
+
+    /**
+     * Generate code to convert <code>String</code> representation with any
+     * whitespace conversion already applied. The code generated by this
+     * method assumes that the <code>String</code> value has already been
+     * pushed on the stack. It consumes this and leaves the converted value on
+     * the stack.
+     *
+     * @param mb method builder
+     */
+    private void genFromConvertedText(ContextMethodBuilder mb) {
         
         // check if a deserializer is used for this type
         if (m_deserializer != null) {
@@ -222,20 +242,18 @@ public class PrimitiveStringConversion extends StringConversion
             
             // first part of generated instruction sequence is to push the
             //  default value text, then call the appropriate unmarshalling
-            //  context method to get the value as a String
+            //  context method to get the value as a String with whitespace
+            //  converted
             String dflt;
             if (m_default instanceof String || m_default == null) {
                 dflt = (String)m_default;
             } else {
                 dflt = m_default.toString();
             }
-            mb.appendLoadConstant(dflt);
-            String name = attr ? UNMARSHAL_OPT_ATTRIBUTE : 
-                UNMARSHAL_OPT_ELEMENT;
-            mb.appendCallVirtual(name, UNMARSHAL_OPT_SIGNATURE);
+            genParseOptionalText(attr, dflt, mb);
             
             // second part is to generate call to deserializer
-            genFromText(mb);
+            genFromConvertedText(mb);
             
         } else {
             
@@ -268,13 +286,11 @@ public class PrimitiveStringConversion extends StringConversion
             
             // first part of generated instruction sequence is a call to
             //  the appropriate unmarshalling context method to get the value
-            //  as a String
-            String name = attr ? UNMARSHAL_REQ_ATTRIBUTE : 
-                UNMARSHAL_REQ_ELEMENT;
-            mb.appendCallVirtual(name, UNMARSHAL_REQ_SIGNATURE);
+            //  as a String with whitespace converted
+            genParseRequiredText(attr, mb);
             
             // second part is to generate call to deserializer
-            genFromText(mb);
+            genFromConvertedText(mb);
             
         } else {
             
@@ -302,6 +318,26 @@ public class PrimitiveStringConversion extends StringConversion
      */
     protected BranchWrapper genToOptionalText(String type,
         ContextMethodBuilder mb, int extra) throws JiBXException {
+        BranchWrapper toend = genSkipDefault(mb, extra);
+        genToText(m_stackType, mb);
+        return toend;
+    }
+
+    /**
+     * Generate code to skip an optional value equal to the default. The code
+     * generated by this method assumes that the actual value has already been
+     * pushed on the stack. If the value is equal to the default it pops the
+     * value and the extra values, then branches; otherwise it leaves the
+     * value on the stack.
+     *
+     * @param mb method builder
+     * @param extra count of extra values to be popped from stack if missing
+     * @return handle for branch taken when value is equal to the default
+     * (target must be set by caller)
+     * @throws JiBXException if error in configuration
+     */
+    private BranchWrapper genSkipDefault(ContextMethodBuilder mb, int extra)
+        throws JiBXException {
     
         // set instructions based on value size
         if (m_valueType == LONG_TYPE || m_valueType == DOUBLE_TYPE) {
@@ -384,10 +420,102 @@ public class PrimitiveStringConversion extends StringConversion
         genPopValues(extra, mb);
         BranchWrapper toend = mb.appendUnconditionalBranch(this);
         mb.targetNext(ifne);
-        genToText(m_stackType, mb);
         return toend;
     }
     
+    /**
+     * Get the type code for values which can be written directly by the
+     * marshalling context, without first converting to text. This is only
+     * possible for numeric types using the standard serializer methods.
+     *
+     * @return type code ("I", "J", "F", or "D"), or <code>null</code> if values
+     * must be converted to text
+     */
+    private String getDirectWriteCode() {
+        if (m_serializer != null) {
+            String name = m_serializer.getFullName();
+            if (m_valueType == INT_TYPE) {
+                if (name.equals(UTILITY_CLASS_NAME + ".serializeInt") ||
+                    name.equals(UTILITY_CLASS_NAME + ".serializeShort") ||
+                    name.equals(UTILITY_CLASS_NAME + ".serializeByte")) {
+                    return "I";
+                }
+            } else if (m_valueType == LONG_TYPE) {
+                if (name.equals(UTILITY_CLASS_NAME + ".serializeLong")) {
+                    return "J";
+                }
+            } else if (m_valueType == FLOAT_TYPE) {
+                if (name.equals(UTILITY_CLASS_NAME + ".serializeFloat")) {
+                    return "F";
+                }
+            } else if (m_valueType == DOUBLE_TYPE) {
+                if (name.equals(UTILITY_CLASS_NAME + ".serializeDouble")) {
+                    return "D";
+                }
+            }
+        }
+        return null;
+    }
+    
+    /**
+     * Generate code to write value directly to generated document. The code
+     * generated by this method assumes that the marshalling context, the name
+     * information, and the actual value have already been pushed on the
+     * stack. It consumes these, leaving the marshalling context on the stack.
+     *
+     * @param attr item is an attribute (vs element) flag
+     * @param code type code for value
+     * @param mb method builder
+     */
+    private void genWriteDirect(boolean attr, String code,
+        ContextMethodBuilder mb) {
+        String name = attr ? MARSHAL_ATTRIBUTE : MARSHAL_ELEMENT;
+        mb.appendCallVirtual(name,
+            MARSHAL_DIRECT_SIG_LEAD + code + MARSHAL_DIRECT_SIG_TAIL);
+    }
+
+    /**
+     * Generate code to convert and write optional value to generated document.
+     * This override of the base class method writes numeric values directly,
+     * without conversion to text, when the standard serializer is used.
+     *
+     * @param attr item is an attribute (vs element) flag
+     * @param type fully qualified class name for value on stack
+     * @param mb method builder
+     * @throws JiBXException if error in configuration
+     */
+    public void genWriteOptional(boolean attr, String type,
+        ContextMethodBuilder mb) throws JiBXException {
+        String code = getDirectWriteCode();
+        if (code == null) {
+            super.genWriteOptional(attr, type, mb);
+        } else {
+            BranchWrapper toend = genSkipDefault(mb, MARSHAL_NAME_VALUES);
+            genWriteDirect(attr, code, mb);
+            mb.targetNext(toend);
+        }
+    }
+
+    /**
+     * Generate code to convert and write required value to generated document.
+     * This override of the base class method writes numeric values directly,
+     * without conversion to text, when the standard serializer is used.
+     *
+     * @param attr item is an attribute (vs element) flag
+     * @param type fully qualified class name for value on stack
+     * @param mb method builder
+     * @throws JiBXException if error in configuration
+     */
+    public void genWriteRequired(boolean attr, String type,
+        ContextMethodBuilder mb) throws JiBXException {
+        String code = getDirectWriteCode();
+        if (code == null) {
+            super.genWriteRequired(attr, type, mb);
+        } else {
+            genWriteDirect(attr, code, mb);
+        }
+    }
+    
     /**
      * Convert text representation into default value object. This override of
      * the base class method uses reflection to call the actual deserialization
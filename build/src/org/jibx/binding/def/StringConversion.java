@@ -32,6 +32,7 @@ import org.apache.bcel.classfile.Utility;
 
 import org.jibx.binding.classes.*;
 import org.jibx.runtime.JiBXException;
+import org.jibx.runtime.WhitespaceConversions;
 
 /**
  * String conversion handling. Defines serialization handling for converting
@@ -59,6 +60,13 @@ public abstract class StringConversion
         "org.jibx.runtime.impl.UnmarshallingContext.parseElementText";
     protected static final String UNMARSHAL_REQ_SIGNATURE =
         "(Ljava/lang/String;Ljava/lang/String;)Ljava/lang/String;";
+    protected static final String UNMARSHAL_OPT_WHITESPACE_SIGNATURE =
+        "(Ljava/lang/String;Ljava/lang/String;Ljava/lang/String;I)" +
+        "Ljava/lang/String;";
+    protected static final String UNMARSHAL_REQ_WHITESPACE_SIGNATURE =
+        "(Ljava/lang/String;Ljava/lang/String;I)Ljava/lang/String;";
+    protected static final String WHITESPACE_CONVERSIONS_CLASS =
+        "org.jibx.runtime.WhitespaceConversions";
     protected static final String MARSHAL_ATTRIBUTE =
         "org.jibx.runtime.impl.MarshallingContext.attribute";
     protected static final String MARSHAL_ELEMENT =
@@ -95,6 +103,11 @@ public abstract class StringConversion
     
     /** Whitespace conversion method information. */
     protected ClassItem m_converter;
+    
+    /** Whitespace handling code applied by the unmarshalling context when
+     reading text (<code>WhitespaceConversions.PRESERVE</code> if the whitespace
+     conversion, if any, is not one of the standard forms). */
+    protected int m_whitespaceMode;
 
     /** Deserializer method information. */
     protected ClassItem m_deserializer;
@@ -127,6 +140,7 @@ public abstract class StringConversion
         m_default = inherit.m_default;
         m_serializer = inherit.m_serializer;
         m_converter = inherit.m_converter;
+        m_whitespaceMode = inherit.m_whitespaceMode;
         m_deserializer = inherit.m_deserializer;
     }
 
@@ -185,6 +199,62 @@ public abstract class StringConversion
     public abstract void genFromText(ContextMethodBuilder mb)
         throws JiBXException;
 
+    /**
+     * Generate code to read optional attribute or element text with whitespace
+     * conversion applied. The code generated by this method assumes that the
+     * unmarshalling context and name information for the attribute or element
+     * have already been pushed on the stack. It consumes these and leaves the
+     * converted text (or converted default text, if the item itself is
+     * missing) on the stack. When the whitespace conversion is one of the
+     * standard forms the unmarshalling context applies it as the text is read,
+     * so no separate conversion call is needed.
+     *
+     * @param attr item is an attribute (vs element) flag
+     * @param dflt default text (<code>null</code> if none)
+     * @param mb method builder
+     */
+    protected void genParseOptionalText(boolean attr, String dflt,
+        ContextMethodBuilder mb) {
+        String name = attr ? UNMARSHAL_OPT_ATTRIBUTE : UNMARSHAL_OPT_ELEMENT;
+        if (m_whitespaceMode == WhitespaceConversions.PRESERVE) {
+            mb.appendLoadConstant(dflt);
+            mb.appendCallVirtual(name, UNMARSHAL_OPT_SIGNATURE);
+            if (m_converter != null) {
+                mb.appendCall(m_converter);
+            }
+        } else {
+            mb.appendLoadConstant
+                (WhitespaceConversions.convert(dflt, m_whitespaceMode));
+            mb.appendLoadConstant(m_whitespaceMode);
+            mb.appendCallVirtual(name, UNMARSHAL_OPT_WHITESPACE_SIGNATURE);
+        }
+    }
+
+    /**
+     * Generate code to read required attribute or element text with
+     * whitespace conversion applied. The code generated by this method assumes
+     * that the unmarshalling context and name information for the attribute or
+     * element have already been pushed on the stack. It consumes these and
+     * leaves the converted text on the stack. When the whitespace conversion
+     * is one of the standard forms the unmarshalling context applies it as the
+     * text is read, so no separate conversion call is needed.
+     *
+     * @param attr item is an attribute (vs element) flag
+     * @param mb method builder
+     */
+    protected void genParseRequiredText(boolean attr, ContextMethodBuilder mb) {
+        String name = attr ? UNMARSHAL_REQ_ATTRIBUTE : UNMARSHAL_REQ_ELEMENT;
+        if (m_whitespaceMode == WhitespaceConversions.PRESERVE) {
+            mb.appendCallVirtual(name, UNMARSHAL_REQ_SIGNATURE);
+            if (m_converter != null) {
+                mb.appendCall(m_converter);
+            }
+        } else {
+            mb.appendLoadConstant(m_whitespaceMode);
+            mb.appendCallVirtual(name, UNMARSHAL_REQ_WHITESPACE_SIGNATURE);
+        }
+    }
+
     /**
      * Generate code to parse and convert optional attribute or element. This
      * abstract base class method must be implemented by every subclass. The
@@ -416,6 +486,20 @@ public abstract class StringConversion
         if (m_converter == null) {
             throw new JiBXException("Whitespace converter " + wsconv + " not found");
         }
+        
+        // check for standard conversion which can be applied while reading
+        m_whitespaceMode = WhitespaceConversions.PRESERVE;
+        String cname = m_converter.getClassFile().getName();
+        if (WHITESPACE_CONVERSIONS_CLASS.equals(cname)) {
+            String mname = m_converter.getName();
+            if ("replace".equals(mname)) {
+                m_whitespaceMode = WhitespaceConversions.REPLACE;
+            } else if ("collapse".equals(mname)) {
+                m_whitespaceMode = WhitespaceConversions.COLLAPSE;
+            } else if ("trim".equals(mname)) {
+                m_whitespaceMode = WhitespaceConversions.TRIM;
+            }
+        }
     }
 
     /**
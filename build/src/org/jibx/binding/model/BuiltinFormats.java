@@ -28,8 +28,11 @@ package org.jibx.binding.model;
  */
 public abstract class BuiltinFormats
 {
+    /** Flag for java.time conversions available. */
+    private static final boolean s_javaTimeAvailable = checkJavaTime();
+    
     /** Default format definitions. */
-    public static final FormatElement[] s_builtinFormats = {
+    public static final FormatElement[] s_builtinFormats = compactFormats(new FormatElement[] {
         buildFormat("byte.default", "byte", true, "org.jibx.runtime.Utility.serializeByte",
             "org.jibx.runtime.Utility.parseByte", "0"),
         buildFormat("char.default", "char", true, "org.jibx.runtime.Utility.serializeChar",
@@ -88,6 +91,24 @@ public abstract class BuiltinFormats
         buildFormat("DateTime.strict-UTC", "org.joda.time.DateTime", false,
             "org.jibx.runtime.JodaConvert.serializeUTCDateTime",
             "org.jibx.runtime.JodaConvert.deserializeStrictUTCDateTime", null),
+        buildJavaTimeFormat("LocalDate.java8", "java.time.LocalDate",
+            "org.jibx.runtime.JavaTimeConvert.serializeLocalDate",
+            "org.jibx.runtime.JavaTimeConvert.deserializeLocalDate"),
+        buildJavaTimeFormat("LocalDateTime.java8", "java.time.LocalDateTime",
+            "org.jibx.runtime.JavaTimeConvert.serializeLocalDateTime",
+            "org.jibx.runtime.JavaTimeConvert.deserializeLocalDateTime"),
+        buildJavaTimeFormat("OffsetDateTime.java8", "java.time.OffsetDateTime",
+            "org.jibx.runtime.JavaTimeConvert.serializeOffsetDateTime",
+            "org.jibx.runtime.JavaTimeConvert.deserializeOffsetDateTime"),
+        buildJavaTimeFormat("ZonedDateTime.java8", "java.time.ZonedDateTime",
+            "org.jibx.runtime.JavaTimeConvert.serializeZonedDateTime",
+            "org.jibx.runtime.JavaTimeConvert.deserializeZonedDateTime"),
+        buildJavaTimeFormat("Instant.java8", "java.time.Instant",
+            "org.jibx.runtime.JavaTimeConvert.serializeInstant",
+            "org.jibx.runtime.JavaTimeConvert.deserializeInstant"),
+        buildJavaTimeFormat("Duration.java8", "java.time.Duration",
+            "org.jibx.runtime.JavaTimeConvert.serializeDuration",
+            "org.jibx.runtime.JavaTimeConvert.deserializeDuration"),
 //#j2me}
         buildFormat("byte-array.default", "byte[]", true, "org.jibx.runtime.Utility.serializeBase64",
             "org.jibx.runtime.Utility.deserializeBase64", null),
@@ -95,7 +116,36 @@ public abstract class BuiltinFormats
             "org.jibx.runtime.QName.deserialize", null),
         buildFormat("String.default", "java.lang.String", true, null, null, null),
         buildFormat("Object.default", "java.lang.Object", true, null, null, null)
-    };
+    });
+    
+    /**
+     * Check if the java.time conversions can be used. The conversion class is
+     * only included in the runtime when built with Java 8 or later, and it needs
+     * the java.time classes.
+     *
+     * @return <code>true</code> if available, <code>false</code> if not
+     */
+    private static boolean checkJavaTime() {
+        try {
+            Class.forName("java.time.Duration");
+            Class.forName("org.jibx.runtime.JavaTimeConvert", false,
+                BuiltinFormats.class.getClassLoader());
+            return true;
+        } catch (ClassNotFoundException e) {
+            return false;
+        } catch (LinkageError e) {
+            return false;
+        }
+    }
+    
+    /**
+     * Check if the java.time conversions can be used.
+     *
+     * @return <code>true</code> if available, <code>false</code> if not
+     */
+    public static boolean isJavaTimeAvailable() {
+        return s_javaTimeAvailable;
+    }
     
     /**
      * Default format builder.
@@ -119,4 +169,48 @@ public abstract class BuiltinFormats
         format.setDefaultText(dflt);
         return format;
     }
+    
+    /**
+     * java.time format builder. These are default formats with no default
+     * value, only built if the java.time conversions are available.
+     *
+     * @param name
+     * @param type
+     * @param sname
+     * @param dname
+     * @return constructed format, or <code>null</code> if not available
+     */
+    private static FormatElement buildJavaTimeFormat(String name, String type, String sname, String dname) {
+        if (s_javaTimeAvailable) {
+            return buildFormat(name, type, true, sname, dname, null);
+        } else {
+            return null;
+        }
+    }
+    
+    /**
+     * Remove the formats which were not built from an array.
+     *
+     * @param formats
+     * @return formats with <code>null</code> entries removed
+     */
+    private static FormatElement[] compactFormats(FormatElement[] formats) {
+        int count = 0;
+        for (int i = 0; i < formats.length; i++) {
+            if (formats[i] != null) {
+                count++;
+            }
+        }
+        if (count == formats.length) {
+            return formats;
+        }
+        FormatElement[] result = new FormatElement[count];
+        int fill = 0;
+        for (int i = 0; i < formats.length; i++) {
+            if (formats[i] != null) {
+                result[fill++] = formats[i];
+            }
+        }
+        return result;
+    }
 }
\ No newline at end of file
@@ -28,9 +28,14 @@ SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
 
 package org.jibx.runtime;
 
+import java.lang.ref.Reference;
+import java.lang.ref.ReferenceQueue;
+import java.lang.ref.WeakReference;
 import java.lang.reflect.Field;
 import java.lang.reflect.InvocationTargetException;
 import java.lang.reflect.Method;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
 
 /**
  * Abstract class with static methods to find the binding factory corresponding
@@ -54,6 +59,115 @@ public abstract class BindingDirectory
     
     /** Empty argument list. */
     public static final Class[] EMPTY_ARGS = new Class[0];
+    
+    /** Cache of factories found, as weak references keyed by lookup. */
+    private static final ConcurrentHashMap s_factoryCache =
+        new ConcurrentHashMap();
+    
+    /** Queue for cleared lookup key references. */
+    private static final ReferenceQueue s_clearedQueue = new ReferenceQueue();
+    
+    /** Reusable key for cache lookups, one per thread. */
+    private static final ThreadLocal s_lookupKey = new ThreadLocal() {
+        protected Object initialValue() {
+            return new FactoryKey();
+        }
+    };
+    
+    /** Number of factory lookups satisfied from cache. */
+    private static final AtomicLong s_cacheHits = new AtomicLong();
+    
+    /** Number of factory lookups requiring the factory to be loaded. */
+    private static final AtomicLong s_cacheMisses = new AtomicLong();
+    
+    /**
+     * Get cached factory. The lookup uses a key object reused by the thread, so
+     * no objects are created. Any cache entries made obsolete by class
+     * unloading are also purged by this call. This only checks the cache; hits
+     * and misses are counted by the public lookup methods.
+     *
+     * @param clas target class (<code>null</code> if none)
+     * @param name binding name or factory class name (<code>null</code> if
+     * none)
+     * @param loader class loader (<code>null</code> if bootstrap loader)
+     * @return cached factory, or <code>null</code> if not found
+     */
+    private static IBindingFactory getCachedFactory(Class clas, String name,
+        ClassLoader loader) {
+        Reference ref;
+        while ((ref = s_clearedQueue.poll()) != null) {
+            s_factoryCache.remove(((KeyReference)ref).m_key);
+        }
+        FactoryKey key = (FactoryKey)s_lookupKey.get();
+        key.setLookup(clas, name, loader);
+        Reference value = (Reference)s_factoryCache.get(key);
+        key.setLookup(null, null, null);
+        return value == null ? null : (IBindingFactory)value.get();
+    }
+    
+    /**
+     * Count a factory lookup as a cache hit or miss. This is called once by
+     * each public lookup method.
+     *
+     * @param fact factory found in cache (<code>null</code> if not found)
+     * @return factory
+     */
+    private static IBindingFactory countLookup(IBindingFactory fact) {
+        if (fact == null) {
+            s_cacheMisses.incrementAndGet();
+        } else {
+            s_cacheHits.incrementAndGet();
+        }
+        return fact;
+    }
+    
+    /**
+     * Add factory to cache. The factory is held by a weak reference, so that
+     * the cache does not prevent the class loader from being unloaded (the
+     * factory instance is held strongly by the factory class itself, so it
+     * will not be collected while still usable).
+     *
+     * @param clas target class (<code>null</code> if none)
+     * @param name binding name or factory class name (<code>null</code> if
+     * none)
+     * @param loader class loader (<code>null</code> if bootstrap loader)
+     * @param fact factory
+     * @return factory
+     */
+    private static IBindingFactory cacheFactory(Class clas, String name,
+        ClassLoader loader, IBindingFactory fact) {
+        s_factoryCache.put(new FactoryKey(clas, name, loader),
+            new WeakReference(fact));
+        return fact;
+    }
+    
+    /**
+     * Get the number of factory lookups satisfied from the cache.
+     *
+     * @return hit count
+     */
+    public static long getCacheHitCount() {
+        return s_cacheHits.get();
+    }
+    
+    /**
+     * Get the number of factory lookups which were not satisfied from the
+     * cache.
+     *
+     * @return miss count
+     */
+    public static long getCacheMissCount() {
+        return s_cacheMisses.get();
+    }
+    
+    /**
+     * Clear the factory cache and reset the hit and miss counts.
+     */
+    public static void clearCache() {
+        s_factoryCache.clear();
+        s_cacheHits.set(0);
+        s_cacheMisses.set(0);
+    }
  
     /**
      * Get list of bindings for class. This just accesses the static variable
@@ -162,6 +276,27 @@ public abstract class BindingDirectory
      * @throws JiBXException on any error in finding or accessing factory
      */
     public static IBindingFactory getFactory(String name, Class clas,
+        ClassLoader loader) throws JiBXException {
+        IBindingFactory fact =
+            countLookup(getCachedFactory(clas, name, loader));
+        if (fact == null) {
+            fact = cacheFactory(clas, name, loader,
+                findFactory(name, clas, loader));
+        }
+        return fact;
+    }
+ 
+    /**
+     * Find binding factory for the named binding on the target class, then
+     * load that factory and return an instance.
+     *
+     * @param name binding name
+     * @param clas target class for binding
+     * @param loader class loader to be used for loading factory
+     * @return binding factory instance
+     * @throws JiBXException on any error in finding or accessing factory
+     */
+    private static IBindingFactory findFactory(String name, Class clas,
         ClassLoader loader) throws JiBXException {
         String list = getBindingList(clas);
         String match = GENERATE_PREFIX + convertName(name) +
@@ -208,11 +343,18 @@ public abstract class BindingDirectory
      * @throws JiBXException on any error in finding or accessing factory
      */
     public static IBindingFactory getFactory(Class clas) throws JiBXException {
+        ClassLoader loader = clas.getClassLoader();
+        IBindingFactory cached =
+            countLookup(getCachedFactory(clas, null, loader));
+        if (cached != null) {
+            return cached;
+        }
         String list = getBindingList(clas);
         if (list != null && list.length() > 2) {
             String fact = list.substring(1, list.length()-1);
             if (fact.indexOf('|') < 0) {
-                return getFactoryFromName(fact, clas, clas.getClassLoader());
+                return cacheFactory(clas, null, loader,
+                    getFactoryFromName(fact, clas, loader));
             }
         }
         throw new JiBXException("Multiple bindings defined for class " +
@@ -234,6 +376,11 @@ public abstract class BindingDirectory
         ClassLoader loader) throws JiBXException {
         String cname = (pack == null ? "" : pack + '.') +
             GENERATE_PREFIX + convertName(bname) + BINDINGFACTORY_SUFFIX;
+        IBindingFactory cached =
+            countLookup(getCachedFactory(null, cname, loader));
+        if (cached != null) {
+            return cached;
+        }
         Throwable ex = null;
         Object result = null;
         IBindingFactory ifact = null;
@@ -277,7 +424,7 @@ public abstract class BindingDirectory
                     "binding compiler are available at runtime", ex);
             }
         }
-        return ifact;
+        return cacheFactory(null, cname, loader, ifact);
     }
  
     /**
@@ -307,7 +454,7 @@ public abstract class BindingDirectory
     public static String convertName(String name) {
         
         // convert name to use only legal characters
-        StringBuffer buff = new StringBuffer(name);
+        StringBuilder buff = new StringBuilder(name);
         for (int i = 0; i < buff.length(); i++) {
             if (!Character.isJavaIdentifierPart(buff.charAt(i))) {
                 buff.setCharAt(i, '_');
@@ -315,4 +462,154 @@ public abstract class BindingDirectory
         }
         return buff.toString();
     }
-}
\ No newline at end of file
+    
+    /**
+     * Weak reference to a class or class loader used in a factory lookup key.
+     * This links back to the key, so that the key can be removed from the cache
+     * when the reference is cleared.
+     */
+    private static class KeyReference extends WeakReference
+    {
+        /** Key using this reference. */
+        private final FactoryKey m_key;
+        
+        /**
+         * Constructor.
+         *
+         * @param obj referenced object
+         * @param key key using this reference
+         */
+        private KeyReference(Object obj, FactoryKey key) {
+            super(obj, s_clearedQueue);
+            m_key = key;
+        }
+    }
+    
+    /**
+     * Factory lookup key. Keys stored in the cache hold the target class and
+     * class loader by weak references, so that the cache entry does not
+     * prevent unloading. The key used for a lookup instead holds these
+     * directly, and is reused by the thread for each lookup.
+     */
+    private static class FactoryKey
+    {
+        /** Target class, or reference to class for stored key
+         (<code>null</code> if none). */
+        private Object m_class;
+        
+        /** Binding name or factory class name (<code>null</code> if none). */
+        private String m_name;
+        
+        /** Class loader, or reference to class loader for stored key
+         (<code>null</code> if bootstrap loader). */
+        private Object m_loader;
+        
+        /** Hash code computed from the components. */
+        private int m_hash;
+        
+        /**
+         * Constructor for lookup key.
+         */
+        private FactoryKey() {}
+        
+        /**
+         * Constructor for stored key.
+         *
+         * @param clas target class (<code>null</code> if none)
+         * @param name binding name or factory class name (<code>null</code> if
+         * none)
+         * @param loader class loader (<code>null</code> if bootstrap loader)
+         */
+        private FactoryKey(Class clas, String name, ClassLoader loader) {
+            m_class = clas == null ? null : new KeyReference(clas, this);
+            m_name = name;
+            m_loader = loader == null ? null : new KeyReference(loader, this);
+            m_hash = computeHash(clas, name, loader);
+        }
+        
+        /**
+         * Set the components of a lookup key.
+         *
+         * @param clas target class (<code>null</code> if none)
+         * @param name binding name or factory class name (<code>null</code> if
+         * none)
+         * @param loader class loader (<code>null</code> if bootstrap loader)
+         */
+        private void setLookup(Class clas, String name, ClassLoader loader) {
+            m_class = clas;
+            m_name = name;
+            m_loader = loader;
+            m_hash = computeHash(clas, name, loader);
+        }
+        
+        /**
+         * Compute hash code for key components.
+         *
+         * @param clas target class (<code>null</code> if none)
+         * @param name binding name or factory class name (<code>null</code> if
+         * none)
+         * @param loader class loader (<code>null</code> if bootstrap loader)
+         * @return hash code
+         */
+        private static int computeHash(Class clas, String name,
+            ClassLoader loader) {
+            return System.identityHashCode(clas) * 31 +
+                (name == null ? 0 : name.hashCode()) +
+                System.identityHashCode(loader);
+        }
+        
+        /**
+         * Check if two key components are the same object. Each component may
+         * be either the actual object or a reference to the object. A cleared
+         * reference never matches, so that keys for unloaded classes are only
+         * matched by identity.
+         *
+         * @param a first component (<code>null</code> if none)
+         * @param b second component (<code>null</code> if none)
+         * @return <code>true</code> if same, <code>false</code> if not
+         */
+        private static boolean isSame(Object a, Object b) {
+            if (a == null || b == null) {
+                return a == b;
+            } else {
+                if (a instanceof KeyReference) {
+                    a = ((KeyReference)a).get();
+                }
+                if (b instanceof KeyReference) {
+                    b = ((KeyReference)b).get();
+                }
+                return a != null && a == b;
+            }
+        }
+        
+        /**
+         * Compute hash code.
+         *
+         * @return hash code
+         */
+        public int hashCode() {
+            return m_hash;
+        }
+        
+        /**
+         * Check if equal to another key.
+         *
+         * @param obj comparison object
+         * @return <code>true</code> if equal, <code>false</code> if not
+         */
+        public boolean equals(Object obj) {
+            if (obj == this) {
+                return true;
+            } else if (obj instanceof FactoryKey) {
+                FactoryKey other = (FactoryKey)obj;
+                return m_hash == other.m_hash &&
+                    (m_name == null ? other.m_name == null :
+                        m_name.equals(other.m_name)) &&
+                    isSame(m_class, other.m_class) &&
+                    isSame(m_loader, other.m_loader);
+            } else {
+                return false;
+            }
+        }
+    }
+}
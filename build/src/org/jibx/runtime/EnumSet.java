@@ -28,8 +28,7 @@ SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
 
 package org.jibx.runtime;
 
-import java.util.Arrays;
-import java.util.Comparator;
+import org.jibx.runtime.impl.StringIntHashMap;
 
 /**
  * Named value set support class. This provides convenience methods to support
@@ -50,35 +49,22 @@ public class EnumSet
     /** Enumeration names in index number order. */
     private final String[] m_indexedNames;
     
-    /** Enumeration names in sort order. */
-    private final String[] m_orderedNames;
-    
-    /** Index values corresponding to sorted names. */
-    private final int[] m_orderedIndexes;
+    /** Map from enumeration name to value (read-only once constructed). */
+    private final StringIntHashMap m_nameMap;
 
 	/**
 	 * Constructor from array of enumeration items. The supplied items can be in
      * any order, and the numeric values do not need to be contiguous (but must
-     * be unique, nonnegative, and should be fairly small). Note that this
-     * constructor will reorder the items in the supplied array as a side
-     * effect.
+     * be unique, nonnegative, and should be fairly small).
 	 *
-	 * @param items array of enumeration items (will be reordered)
+	 * @param items array of enumeration items
 	 */
 	public EnumSet(EnumItem[] items) {
         m_items = items;
+        m_nameMap = new StringIntHashMap(items.length);
         if (items.length > 0) {
             
-            // first sort items in ascending name order
-            Arrays.sort(items, new Comparator() {
-                public int compare(Object a, Object b) {
-                    return ((EnumItem)a).m_name.compareTo(((EnumItem)b).m_name);
-                }
-            });
-            
-            // populate arrays for name lookup
-            m_orderedNames = new String[items.length];
-            m_orderedIndexes = new int[items.length];
+            // populate map for name lookup
             int high = -1;
             for (int i = 0; i < items.length; i++) {
                 EnumItem item = items[i];
@@ -93,8 +79,7 @@ public class EnumSet
                             high + " too large to be used.");
                     }
                 }
-                m_orderedNames[i] = item.m_name;
-                m_orderedIndexes[i] = item.m_value;
+                m_nameMap.add(item.m_name, item.m_value);
             }
             
             // populate array for indexed lookup of names
@@ -111,8 +96,6 @@ public class EnumSet
             
         } else {
             m_indexedNames = new String[0];
-            m_orderedNames = new String[0];
-            m_orderedIndexes = new int[0];
         }
 	}
 
@@ -214,22 +197,8 @@ public class EnumSet
      * @return value for name, or <code>-1</code> if not found in enumeration
      */
     public int getValue(String name) {
-        int base = 0;
-        int limit = m_orderedNames.length - 1;
-        while (base <= limit) {
-            int cur = (base + limit) >> 1;
-            int diff = name.compareTo(m_orderedNames[cur]);
-            if (diff < 0) {
-                limit = cur - 1;
-            } else if (diff > 0) {
-                base = cur + 1;
-            } else if (m_orderedIndexes != null) {
-                return m_orderedIndexes[cur];
-            } else {
-                return cur;
-            }
-        }
-        return -1;
+        int value = m_nameMap.get(name);
+        return value < 0 ? -1 : value;
     }
     
     /**
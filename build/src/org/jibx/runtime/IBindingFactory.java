@@ -108,6 +108,51 @@ public interface IBindingFactory
      */
     IUnmarshallingContext createUnmarshallingContext() throws JiBXException;
     
+    /**
+     * Get marshalling context instance from pool. If the pool is empty a new
+     * context is created. The context should be returned to the pool with
+     * {@link #releaseMarshallingContext(IMarshallingContext)} once it is no
+     * longer in use.
+     *
+     * @return marshalling context instance
+     * @throws JiBXException if error creating context
+     * @throws UnsupportedOperationException if marshalling not supported
+     * by binding
+     */
+    IMarshallingContext borrowMarshallingContext() throws JiBXException;
+    
+    /**
+     * Return marshalling context instance to pool. The context is reset before
+     * being added to the pool, and must not be used by the caller after this
+     * call. Contexts created by a different binding factory are ignored.
+     *
+     * @param ctx marshalling context instance (<code>null</code> ignored)
+     */
+    void releaseMarshallingContext(IMarshallingContext ctx);
+    
+    /**
+     * Get unmarshalling context instance from pool. If the pool is empty a new
+     * context is created. The context should be returned to the pool with
+     * {@link #releaseUnmarshallingContext(IUnmarshallingContext)} once it is
+     * no longer in use. Pooled contexts keep the parser used for the last
+     * document, so that it can be recycled for the next document.
+     *
+     * @return unmarshalling context instance
+     * @throws JiBXException if error creating context
+     * @throws UnsupportedOperationException if unmarshalling not supported
+     * by binding
+     */
+    IUnmarshallingContext borrowUnmarshallingContext() throws JiBXException;
+    
+    /**
+     * Return unmarshalling context instance to pool. The context is reset
+     * before being added to the pool, and must not be used by the caller after
+     * this call. Contexts created by a different binding factory are ignored.
+     *
+     * @param ctx unmarshalling context instance (<code>null</code> ignored)
+     */
+    void releaseUnmarshallingContext(IUnmarshallingContext ctx);
+    
     /**
      * Get version number for binding compiler used.
      *
@@ -30,6 +30,8 @@ package org.jibx.runtime;
 
 import java.io.OutputStream;
 import java.io.Writer;
+import java.nio.channels.WritableByteChannel;
+import java.util.Iterator;
 
 /**
  * User interface for serializer to XML. This provides methods used to set up
@@ -64,6 +66,16 @@ public interface IMarshallingContext
      */
     void setOutput(OutputStream outs, String enc) throws JiBXException;
     
+    /**
+     * Set output channel and encoding. The channel should be in blocking mode.
+     *
+     * @param chan channel for document data output
+     * @param enc document output encoding, or <code>null</code> uses UTF-8
+     * default
+     * @throws JiBXException if error setting output
+     */
+    void setOutput(WritableByteChannel chan, String enc) throws JiBXException;
+    
     /**
      * Set output writer and escaper.
      *
@@ -192,6 +204,27 @@ public interface IMarshallingContext
      * @throws JiBXException on any error (possibly wrapping other exception)
      */
     void marshalDocument(Object root) throws JiBXException;
+
+    /**
+     * Marshal wrapper element with content supplied by an iterator. This
+     * writes the wrapper element start tag, then marshals each item returned
+     * by the iterator (all of which must have top-level mappings in the
+     * binding), and finally writes the wrapper end tag. Output is flushed
+     * periodically while the items are being marshalled, so that only the
+     * current item needs to be held in memory. This can be called in place of
+     * marshalling a root object, between calls to {@link
+     * #startDocument(String, Boolean)} (or one of the other start document
+     * methods) and {@link #endDocument()}.
+     *
+     * @param ns namespace URI for wrapper element (may be <code>null</code>
+     * or the empty string for the empty namespace; otherwise must be a
+     * namespace defined in the binding)
+     * @param name wrapper element name
+     * @param iter iterator supplying items to be marshalled
+     * @throws JiBXException on any error (possibly wrapping other exception)
+     */
+    void marshalElements(String ns, String name, Iterator iter)
+        throws JiBXException;
     
     /**
      * Marshal document from root object. This can only be validly called
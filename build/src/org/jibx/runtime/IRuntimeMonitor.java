@@ -0,0 +1,133 @@
+/*
+Copyright (c) 2026, agent.
+All rights reserved.
+
+Redistribution and use in source and binary forms, with or without modification,
+are permitted provided that the following conditions are met:
+
+ * Redistributions of source code must retain the above copyright notice, this
+   list of conditions and the following disclaimer.
+ * Redistributions in binary form must reproduce the above copyright notice,
+   this list of conditions and the following disclaimer in the documentation
+   and/or other materials provided with the distribution.
+ * Neither the name of JiBX nor the names of its contributors may be used
+   to endorse or promote products derived from this software without specific
+   prior written permission.
+
+THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+(INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON
+ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+(INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+*/
+
+package org.jibx.runtime;
+
+/**
+ * Runtime instrumentation interface. An implementation of this interface
+ * receives notification of the significant events in marshalling and
+ * unmarshalling, allowing applications to track document counts, data volumes,
+ * and processing times. The default implementation does nothing, and a
+ * different implementation can be installed globally using {@link
+ * org.jibx.runtime.impl.RuntimeSupport#setDefaultMonitor(IRuntimeMonitor)} or
+ * for an individual context. Implementations must be threadsafe, since a
+ * single instance is normally shared by all contexts.
+ * <p>
+ * Timing is left to the implementation: the context calls a start method,
+ * which returns a value saved by the context and later passed to the matching
+ * completion or failure method. This way the context never needs to read the
+ * clock itself, so the cost of instrumentation when using the default
+ * implementation is just an empty method call (which the JIT will eliminate).
+ *
+ * @author agent
+ */
+public interface IRuntimeMonitor
+{
+    /**
+     * Input document opened by unmarshalling context.
+     */
+    void documentOpened();
+    
+    /**
+     * Unmarshalling of a root element started.
+     *
+     * @return start value to be passed to {@link #unmarshalCompleted(Class,
+     * long, int, int)} or {@link #unmarshalFailed(long)}
+     */
+    long unmarshalStarted();
+    
+    /**
+     * Unmarshalling of a root element completed.
+     *
+     * @param clas class of unmarshalled object
+     * @param start value returned by {@link #unmarshalStarted()}
+     * @param ids number of IDs defined since the last completed root element
+     * in the same document
+     * @param fills number of forward references to IDs back-filled since the
+     * last completed root element in the same document
+     */
+    void unmarshalCompleted(Class clas, long start, int ids, int fills);
+    
+    /**
+     * Unmarshalling of a root element failed.
+     *
+     * @param start value returned by {@link #unmarshalStarted()}
+     */
+    void unmarshalFailed(long start);
+    
+    /**
+     * Marshalling of a root object started.
+     *
+     * @return start value to be passed to {@link #marshalCompleted(Class,
+     * long)} or {@link #marshalFailed(long)}
+     */
+    long marshalStarted();
+    
+    /**
+     * Marshalling of a root object completed.
+     *
+     * @param clas class of marshalled object
+     * @param start value returned by {@link #marshalStarted()}
+     */
+    void marshalCompleted(Class clas, long start);
+    
+    /**
+     * Marshalling of a root object failed.
+     *
+     * @param start value returned by {@link #marshalStarted()}
+     */
+    void marshalFailed(long start);
+    
+    /**
+     * Output document ended by marshalling context.
+     */
+    void documentEnded();
+    
+    /**
+     * Bytes read from input by a runtime input buffer. This is only reported
+     * for input handled by the runtime buffer classes, not by the parsers
+     * supplied by XMLPull or StAX implementations.
+     *
+     * @param count number of bytes read
+     */
+    void bytesRead(int count);
+    
+    /**
+     * Bytes written to output by a runtime output buffer.
+     *
+     * @param count number of bytes written
+     */
+    void bytesWritten(int count);
+    
+    /**
+     * Runtime buffer array enlarged to handle data.
+     *
+     * @param size new buffer size in bytes
+     */
+    void bufferGrown(int size);
+}
@@ -28,8 +28,11 @@ SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
 
 package org.jibx.runtime;
 
+import java.io.File;
 import java.io.InputStream;
 import java.io.Reader;
+import java.nio.ByteBuffer;
+import java.util.Iterator;
 
 /**
  * User interface for deserializer from XML. This provides methods used to set
@@ -79,6 +82,32 @@ public interface IUnmarshallingContext {
      */
     void setDocument(Reader rdr, String name) throws JiBXException;
 
+    /**
+     * Set named document to be parsed from buffer. The remaining content of the
+     * buffer is used as the document, without changing the buffer position. A
+     * buffer backed by an array is parsed directly from the array.
+     *
+     * @param buff buffer containing document data
+     * @param name document name (<code>null</code> if unknown)
+     * @param enc document input encoding, or <code>null</code> if to be
+     * determined by parser
+     * @throws JiBXException if error creating parser
+     */
+    void setDocument(ByteBuffer buff, String name, String enc)
+        throws JiBXException;
+
+    /**
+     * Set document to be parsed from file. The file is memory-mapped for
+     * parsing, and is closed when the end of the document is reached, when a
+     * parse error occurs, or when the next document is set.
+     *
+     * @param file document file
+     * @param enc document input encoding, or <code>null</code> if to be
+     * determined by parser
+     * @throws JiBXException if error accessing file or creating parser
+     */
+    void setDocument(File file, String enc) throws JiBXException;
+
     /**
      * Reset unmarshalling information. This releases all references to
      * unmarshalled objects and prepares the context for potential reuse.
@@ -97,6 +126,24 @@ public interface IUnmarshallingContext {
      */
     Object unmarshalElement() throws JiBXException;
 
+    /**
+     * Iterate over the child elements of the current element. If not currently
+     * positioned at a start tag this first advances the parse to the next start
+     * tag, then parses past that start tag. Each call to <code>next()</code> on
+     * the returned iterator unmarshals a single child element using the
+     * unmarshalling defined for that element, so that a document consisting of
+     * a wrapper around any number of repeated elements can be processed
+     * without building the entire collection in memory. The parse is left
+     * positioned following the end tag of the wrapper element when the
+     * iteration is complete. Errors during the iteration are reported as an
+     * <code>IllegalStateException</code> wrapping the original {@link
+     * JiBXException}.
+     *
+     * @return iterator over unmarshalled child element objects
+     * @throws JiBXException on any error (possibly wrapping other exception)
+     */
+    Iterator iterateElements() throws JiBXException;
+
     /**
      * Unmarshal document from stream to object. The effect of this is the same
      * as if {@link #setDocument} were called, followed by {@link
@@ -176,6 +176,32 @@ public interface IXMLReader
      */
     String getAttributeValue(String ns, String name);
     
+    /**
+     * Get the index of an attribute in the current start tag.
+     *
+     * @param ns namespace URI for expected attribute (may be <code>null</code>
+     * or the empty string for the empty namespace)
+     * @param name attribute name expected
+     * @return attribute index, or <code>-1</code> if missing
+     * @throws IllegalStateException if not at a start tag
+     */
+    int getAttributeIndex(String ns, String name);
+    
+    /**
+     * Get an attribute value from the current start tag as a range of
+     * characters. This gives access to the value without requiring a string to
+     * be created. The returned array must not be modified, and is only valid
+     * until the next call to a method of this reader.
+     *
+     * @param index attribute index
+     * @param holder array of at least two values, with the start offset of the
+     * value in the returned array set in the first and the length of the value
+     * set in the second
+     * @return array containing value characters
+     * @throws IllegalStateException if not at a start tag or invalid index
+     */
+    char[] getAttributeCharacters(int index, int[] holder);
+    
     /**
      * Get current text. When positioned on a TEXT event this returns the actual
      * text; for CDSECT it returns the text inside the CDATA section; for
@@ -186,6 +212,20 @@ public interface IXMLReader
      */
     String getText();
     
+    /**
+     * Get current text as a range of characters. This gives the same text as
+     * {@link #getText()}, but without requiring a string to be created. The
+     * returned array must not be modified, and is only valid until the next
+     * call to a method of this reader.
+     *
+     * @param holder array of at least two values, with the start offset of the
+     * text in the returned array set in the first and the length of the text
+     * set in the second
+     * @return array containing text characters, or <code>null</code> if no text
+     * for current event
+     */
+    char[] getTextCharacters(int[] holder);
+    
     /**
      * Get current element nesting depth. The returned depth always includes the
      * current start or end tag (if positioned on a start or end tag).
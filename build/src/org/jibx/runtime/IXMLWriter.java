@@ -36,6 +36,13 @@ import java.io.IOException;
  * stream equivalents. This makes heavy use of state information, so each
  * method call defined is only valid in certain states.
  *
+ * The methods for writing <code>int</code>, <code>long</code>,
+ * <code>float</code>, and <code>double</code> values and base64 binary data
+ * were added in JiBX 1.4.6, so classes implementing this interface directly
+ * need to be updated. Implementations should normally extend {@link
+ * org.jibx.runtime.impl.XMLWriterNamespaceBase}, which supplies defaults for
+ * these methods that convert the values to text.
+ *
  * @author Dennis M. Sosnoski
  */
 public interface IXMLWriter
@@ -131,6 +138,54 @@ public interface IXMLWriter
      */
     void addAttribute(int index, String name, String value) throws IOException;
     
+    /**
+     * Add attribute with <code>int</code> value to current open start tag.
+     * This is only valid after a call to {@link #startTagOpen} and before the
+     * corresponding call to {@link #closeStartTag}.
+     *
+     * @param index namespace URI index number
+     * @param name unqualified attribute name
+     * @param value attribute value
+     * @throws IOException on error writing to document
+     */
+    void addAttribute(int index, String name, int value) throws IOException;
+    
+    /**
+     * Add attribute with <code>long</code> value to current open start tag.
+     * This is only valid after a call to {@link #startTagOpen} and before the
+     * corresponding call to {@link #closeStartTag}.
+     *
+     * @param index namespace URI index number
+     * @param name unqualified attribute name
+     * @param value attribute value
+     * @throws IOException on error writing to document
+     */
+    void addAttribute(int index, String name, long value) throws IOException;
+    
+    /**
+     * Add attribute with <code>float</code> value to current open start tag.
+     * This is only valid after a call to {@link #startTagOpen} and before the
+     * corresponding call to {@link #closeStartTag}.
+     *
+     * @param index namespace URI index number
+     * @param name unqualified attribute name
+     * @param value attribute value
+     * @throws IOException on error writing to document
+     */
+    void addAttribute(int index, String name, float value) throws IOException;
+    
+    /**
+     * Add attribute with <code>double</code> value to current open start tag.
+     * This is only valid after a call to {@link #startTagOpen} and before the
+     * corresponding call to {@link #closeStartTag}.
+     *
+     * @param index namespace URI index number
+     * @param name unqualified attribute name
+     * @param value attribute value
+     * @throws IOException on error writing to document
+     */
+    void addAttribute(int index, String name, double value) throws IOException;
+    
     /**
      * Close the current open start tag. This is only valid after a call to
      * {@link #startTagOpen}.
@@ -174,6 +229,55 @@ public interface IXMLWriter
      */
     void writeTextContent(String text) throws IOException;
     
+    /**
+     * Write <code>int</code> value as character data text content to document.
+     *
+     * @param value content value
+     * @throws IOException on error writing to document
+     */
+    void writeTextContent(int value) throws IOException;
+    
+    /**
+     * Write <code>long</code> value as character data text content to
+     * document.
+     *
+     * @param value content value
+     * @throws IOException on error writing to document
+     */
+    void writeTextContent(long value) throws IOException;
+    
+    /**
+     * Write <code>float</code> value as character data text content to
+     * document.
+     *
+     * @param value content value
+     * @throws IOException on error writing to document
+     */
+    void writeTextContent(float value) throws IOException;
+    
+    /**
+     * Write <code>double</code> value as character data text content to
+     * document.
+     *
+     * @param value content value
+     * @throws IOException on error writing to document
+     */
+    void writeTextContent(double value) throws IOException;
+    
+    /**
+     * Write binary data as base64 text content to document. No line breaks are
+     * added. Padding is used at the end if the length of the data is not a
+     * multiple of three, so when the data for a single item of content is
+     * written using several calls all but the last must use multiples of three
+     * bytes.
+     *
+     * @param data binary data
+     * @param offset starting offset of data to be written
+     * @param length number of bytes of data to be written
+     * @throws IOException on error writing to document
+     */
+    void writeBase64(byte[] data, int offset, int length) throws IOException;
+    
     /**
      * Write CDATA text to document.
      *
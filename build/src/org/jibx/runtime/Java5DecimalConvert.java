@@ -29,6 +29,7 @@ SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
 package org.jibx.runtime;
 
 import java.math.BigDecimal;
+import java.math.BigInteger;
 
 /**
  * Utility class supplying a static method for <code>java.math.BigDecimal</code> serialization using Java 1.5 and later.
@@ -40,13 +41,107 @@ import java.math.BigDecimal;
  */
 public abstract class Java5DecimalConvert
 {
+    /** Maximum number of significant digits converted directly from text. */
+    private static final int MAX_DIRECT_DIGITS = 18;
+    
     /**
-     * Serialize decimal value to text using the 
+     * Serialize decimal value to text using the plain (non-exponent) format. Values with an unscaled value which fits in
+     * a <code>long</code> and a non-negative scale are formatted directly, others use <code>toPlainString()</code>.
      *
      * @param value BigDecimal value to serialize
      * @return converted decimal text
      */
     public static String serializeDecimal(BigDecimal value) {
-        return value.toPlainString();
+        int scale = value.scale();
+        BigInteger unscaled = value.unscaledValue();
+        if (scale < 0 || unscaled.bitLength() > 62) {
+            return value.toPlainString();
+        }
+        
+        // find the number of digits, with leading zeros to at least one digit before the decimal point
+        long digits = unscaled.longValue();
+        boolean negative = digits < 0;
+        if (negative) {
+            digits = -digits;
+        }
+        int count = 1;
+        for (long rem = digits / 10; rem != 0; rem /= 10) {
+            count++;
+        }
+        count = Math.max(count, scale + 1);
+        
+        // fill in the digits from the end, adding the decimal point when reached
+        int length = count + (negative ? 1 : 0) + (scale > 0 ? 1 : 0);
+        char[] chars = new char[length];
+        int fill = length;
+        for (int i = 0; i < count; i++) {
+            if (i == scale && scale > 0) {
+                chars[--fill] = '.';
+            }
+            long next = digits / 10;
+            chars[--fill] = (char)('0' + (int)(digits - next * 10));
+            digits = next;
+        }
+        if (negative) {
+            chars[0] = '-';
+        }
+        return new String(chars);
+    }
+    
+    /**
+     * Deserialize decimal value from text. Plain decimal text with no more than 18 significant digits is converted
+     * directly, anything else is passed to the <code>BigDecimal(String)</code> constructor.
+     *
+     * @param text value text (may be <code>null</code>)
+     * @return converted value, or <code>null</code> if passed <code>null</code>
+     * @throws NumberFormatException if text is not a valid number
+     */
+    public static BigDecimal deserializeDecimal(String text) {
+        if (text == null) {
+            return null;
+        }
+        
+        // check for leading sign
+        int length = text.length();
+        int index = 0;
+        boolean negative = false;
+        if (length > 0) {
+            char chr = text.charAt(0);
+            if (chr == '-' || chr == '+') {
+                negative = chr == '-';
+                index++;
+            }
+        }
+        
+        // accumulate digits, both before and after decimal point
+        long unscaled = 0;
+        int count = 0;
+        int scale = 0;
+        boolean digits = false;
+        boolean fraction = false;
+        for (; index < length; index++) {
+            char chr = text.charAt(index);
+            if (chr >= '0' && chr <= '9') {
+                if (unscaled != 0 || chr != '0') {
+                    if (++count > MAX_DIRECT_DIGITS) {
+                        break;
+                    }
+                }
+                unscaled = unscaled * 10 + (chr - '0');
+                digits = true;
+                if (fraction) {
+                    scale++;
+                }
+            } else if (chr == '.' && !fraction) {
+                fraction = true;
+            } else {
+                break;
+            }
+        }
+        if (digits && index == length) {
+            return BigDecimal.valueOf(negative ? -unscaled : unscaled, scale);
+        } else {
+            return new BigDecimal(text);
+        }
     }
 }
\ No newline at end of file
@@ -0,0 +1,719 @@
+/*
+Copyright (c) 2026, agent.
+All rights reserved.
+
+Redistribution and use in source and binary forms, with or without modification,
+are permitted provided that the following conditions are met:
+
+ * Redistributions of source code must retain the above copyright notice, this
+   list of conditions and the following disclaimer.
+ * Redistributions in binary form must reproduce the above copyright notice,
+   this list of conditions and the following disclaimer in the documentation
+   and/or other materials provided with the distribution.
+ * Neither the name of JiBX nor the names of its contributors may be used
+   to endorse or promote products derived from this software without specific
+   prior written permission.
+
+THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+(INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON
+ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+(INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+*/
+
+package org.jibx.runtime;
+
+import java.time.DateTimeException;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.time.ZonedDateTime;
+
+/**
+ * Utility class supplying static methods for Java 8 <code>java.time</code> conversions. The parsers work directly on
+ * the characters of the text value and the serializers append directly to a presized buffer, without going through
+ * <code>java.time.format.DateTimeFormatter</code>. As with the other date/time conversions, year numbers follow the
+ * W3C XML Schema convention where there is no year 0, so year -0001 in text corresponds to proleptic year 0 in
+ * <code>java.time</code>. Leap seconds are not supported. The actual serializer/deserializer methods are all public so
+ * that they'll be included in JavaDocs; support methods are protected, so that they'll be exposed for user classes
+ * extending this class. This class can only be used on a Java 8 or later JVM.
+ *
+ * @author agent
+ */
+public abstract class JavaTimeConvert
+{
+    /** Number of nanoseconds in a second. */
+    private static final long NANOS_PER_SECOND = 1000000000L;
+    
+    /** Number of nanoseconds in a day. */
+    private static final long NANOS_PER_DAY = 86400L * NANOS_PER_SECOND;
+    
+    /** Maximum number of seconds in a time zone offset (14 hours). */
+    private static final int MAX_OFFSET_SECONDS = 14 * 60 * 60;
+    
+    /** Number of years in a Gregorian calendar cycle, which always has the same number of days. */
+    private static final int YEARS_PER_CYCLE = 400;
+    
+    /** Number of seconds in a Gregorian calendar cycle. */
+    private static final long SECONDS_PER_CYCLE = 146097L * 86400L;
+    
+    /**
+     * Find the offset of the end of the date portion of an xs:date or xs:dateTime text representation. This checks
+     * the separators and the number of digits in the year, month, and day values, but not the ranges of the values.
+     *
+     * @param text xs:date or xs:dateTime value
+     * @return offset past end of date portion of text
+     * @throws JiBXException if not a valid date format
+     */
+    protected static int findDateEnd(String text) throws JiBXException {
+        int length = text.length();
+        int base = (length > 0 && text.charAt(0) == '-') ? 1 : 0;
+        int split = base;
+        while (split < length) {
+            char chr = text.charAt(split);
+            if (chr < '0' || chr > '9') {
+                break;
+            }
+            split++;
+        }
+        int digits = split - base;
+        if (digits < 4 || (digits > 4 && text.charAt(base) == '0') || length < split + 6 ||
+            text.charAt(split) != '-' || text.charAt(split+3) != '-') {
+            throw new JiBXException("Invalid date format: " + text);
+        }
+        return split + 6;
+    }
+    
+    /**
+     * Parse the date portion of an xs:date or xs:dateTime text representation.
+     *
+     * @param text xs:date or xs:dateTime value
+     * @param end offset past end of date portion of text, as returned by {@link #findDateEnd(String)}
+     * @return date
+     * @throws JiBXException on parse error
+     */
+    protected static LocalDate parseDate(String text, int end) throws JiBXException {
+        return parseDate(text, end, 0);
+    }
+    
+    /**
+     * Parse the date portion of an xs:date or xs:dateTime text representation, shifted by a number of 400 year
+     * calendar cycles. Dates in different cycles have the same month and day values, so this allows years just
+     * outside the range supported by <code>java.time.LocalDate</code> to be handled.
+     *
+     * @param text xs:date or xs:dateTime value
+     * @param end offset past end of date portion of text, as returned by {@link #findDateEnd(String)}
+     * @param cycles number of 400 year cycles to add to the year from the text
+     * @return date
+     * @throws JiBXException on parse error
+     */
+    protected static LocalDate parseDate(String text, int end, int cycles) throws JiBXException {
+        int split = end - 6;
+        boolean negate = text.charAt(0) == '-';
+        int base = negate ? 1 : 0;
+        int digits = split - base;
+        if (digits > 10 || (digits == 10 && text.charAt(base) > '1')) {
+            throw new JiBXException("Year value out of range: " + text);
+        }
+        int year = Utility.parseDigits(text, base, digits);
+        if (year == 0) {
+            throw new JiBXException("Year value 0 is not allowed");
+        } else if (negate) {
+            year = 1 - year;
+        }
+        year += cycles * YEARS_PER_CYCLE;
+        int month = Utility.parseDigits(text, split+1, 2);
+        int day = Utility.parseDigits(text, split+4, 2);
+        try {
+            return LocalDate.of(year, month, day);
+        } catch (DateTimeException e) {
+            throw new JiBXException("Invalid date value: " + text, e);
+        }
+    }
+    
+    /**
+     * Parse the time portion of an xs:time or xs:dateTime text representation, as nanoseconds within the day. The time
+     * must be formatted as hh:mm:ss with optional fractional seconds, which are truncated to nanosecond precision. The
+     * special value 24:00:00 is returned as the number of nanoseconds in a full day.
+     *
+     * @param text xs:time or xs:dateTime value
+     * @param start offset of start of time portion of text
+     * @param end offset past end of time portion of text (excluding any time zone)
+     * @return nanoseconds within day
+     * @throws JiBXException on parse error
+     */
+    protected static long parseNanoOfDay(String text, int start, int end) throws JiBXException {
+        if (end - start < 8 || text.charAt(start+2) != ':' || text.charAt(start+5) != ':') {
+            throw new JiBXException("Invalid time format: " + text);
+        }
+        int hour = Utility.parseDigits(text, start, 2);
+        int minute = Utility.parseDigits(text, start+3, 2);
+        int second = Utility.parseDigits(text, start+6, 2);
+        long nanos = 0;
+        int offset = start + 8;
+        if (offset < end) {
+            if (text.charAt(offset) != '.' || ++offset == end) {
+                throw new JiBXException("Invalid time format: " + text);
+            }
+            long scale = NANOS_PER_SECOND;
+            while (offset < end) {
+                char chr = text.charAt(offset++);
+                if (chr < '0' || chr > '9') {
+                    throw new JiBXException("Invalid time format: " + text);
+                }
+                scale /= 10;
+                nanos += (chr - '0') * scale;
+            }
+        }
+        if (hour == 24 && minute == 0 && second == 0 && nanos == 0) {
+            return NANOS_PER_DAY;
+        } else if (hour > 23 || minute > 59 || second > 59) {
+            throw new JiBXException("Invalid time value: " + text);
+        } else {
+            return ((hour * 60 + minute) * 60 + second) * NANOS_PER_SECOND + nanos;
+        }
+    }
+    
+    /**
+     * Find the length of the time zone suffix on an xs:date, xs:time, or xs:dateTime text representation.
+     *
+     * @param text value
+     * @param min minimum offset for start of time zone suffix
+     * @return number of characters in time zone suffix (<code>0</code> if none)
+     */
+    protected static int findZoneLength(String text, int min) {
+        int length = text.length();
+        if (length > min && text.charAt(length-1) == 'Z') {
+            return 1;
+        } else if (length - 6 >= min && text.charAt(length-3) == ':') {
+            char chr = text.charAt(length-6);
+            if (chr == '+' || chr == '-') {
+                return 6;
+            }
+        }
+        return 0;
+    }
+    
+    /**
+     * Parse a time zone suffix. This is also used to validate a time zone suffix which is otherwise ignored.
+     *
+     * @param text value
+     * @param length number of characters in time zone suffix, as returned by {@link #findZoneLength(String, int)}
+     * @return offset
+     * @throws JiBXException on parse error
+     */
+    protected static ZoneOffset parseZone(String text, int length) throws JiBXException {
+        if (length == 1) {
+            return ZoneOffset.UTC;
+        } else {
+            int start = text.length() - length;
+            int hour = Utility.parseDigits(text, start+1, 2);
+            int minute = Utility.parseDigits(text, start+4, 2);
+            int seconds = (hour * 60 + minute) * 60;
+            if (minute > 59 || seconds > MAX_OFFSET_SECONDS) {
+                throw new JiBXException("Invalid time zone offset: " + text);
+            }
+            return ZoneOffset.ofTotalSeconds(text.charAt(start) == '-' ? -seconds : seconds);
+        }
+    }
+    
+    /**
+     * Parse an xs:dateTime text representation as a local date/time, ignoring any time zone.
+     *
+     * @param text value
+     * @param end offset past end of date/time portion of text (excluding any time zone)
+     * @return date/time
+     * @throws JiBXException on parse error
+     */
+    protected static LocalDateTime parseDateTime(String text, int end) throws JiBXException {
+        return parseDateTime(text, end, 0);
+    }
+    
+    /**
+     * Parse an xs:dateTime text representation as a local date/time, ignoring any time zone and shifting the date by
+     * a number of 400 year calendar cycles.
+     *
+     * @param text value
+     * @param end offset past end of date/time portion of text (excluding any time zone)
+     * @param cycles number of 400 year cycles to add to the year from the text
+     * @return date/time
+     * @throws JiBXException on parse error
+     */
+    protected static LocalDateTime parseDateTime(String text, int end, int cycles) throws JiBXException {
+        int split = findDateEnd(text);
+        if (split >= end || text.charAt(split) != 'T') {
+            throw new JiBXException("Invalid dateTime format: " + text);
+        }
+        LocalDate date = parseDate(text, split, cycles);
+        long nanos = parseNanoOfDay(text, split+1, end);
+        try {
+            if (nanos == NANOS_PER_DAY) {
+                return date.plusDays(1).atStartOfDay();
+            } else {
+                return LocalDateTime.of(date, LocalTime.ofNanoOfDay(nanos));
+            }
+        } catch (DateTimeException e) {
+            throw new JiBXException("Invalid dateTime value: " + text, e);
+        }
+    }
+    
+    /**
+     * Deserialize date value from text as local date. Date values are expected to match W3C XML Schema standard format
+     * as CCYY-MM-DD, with optional leading sign and trailing time zone (with the time zone ignored in this case). This
+     * method follows standard JiBX deserializer usage requirements by accepting a <code>null</code> input.
+     *
+     * @param text text to be parsed (may be <code>null</code>)
+     * @return converted date, or <code>null</code> if passed <code>null</code> input
+     * @throws JiBXException on parse error
+     */
+    public static LocalDate deserializeLocalDate(String text) throws JiBXException {
+        if (text == null) {
+            return null;
+        } else {
+            int end = findDateEnd(text);
+            int zone = findZoneLength(text, end);
+            if (end != text.length() - zone) {
+                throw new JiBXException("Invalid date format: " + text);
+            } else if (zone > 0) {
+                parseZone(text, zone);
+            }
+            return parseDate(text, end);
+        }
+    }
+    
+    /**
+     * Serialize local date value to date text without time zone. Date values are formatted in W3C XML Schema standard
+     * format as CCYY-MM-DD, with optional leading sign included if necessary.
+     *
+     * @param date date to be converted
+     * @return converted date text
+     */
+    public static String serializeLocalDate(LocalDate date) {
+        StringBuilder buff = new StringBuilder(12);
+        formatDate(date, buff);
+        return buff.toString();
+    }
+    
+    /**
+     * Deserialize date/time value from text as local date/time. Date/time values are expected to match W3C XML Schema
+     * standard format as CCYY-MM-DDThh:mm:ss.fff, with optional leading sign and trailing time zone (with the time zone
+     * ignored in this case). This method follows standard JiBX deserializer usage requirements by accepting a
+     * <code>null</code> input.
+     *
+     * @param text text to be parsed (may be <code>null</code>)
+     * @return converted date/time, or <code>null</code> if passed <code>null</code> input
+     * @throws JiBXException on parse error
+     */
+    public static LocalDateTime deserializeLocalDateTime(String text) throws JiBXException {
+        if (text == null) {
+            return null;
+        } else {
+            int zone = findZoneLength(text, 19);
+            if (zone > 0) {
+                parseZone(text, zone);
+            }
+            return parseDateTime(text, text.length() - zone);
+        }
+    }
+    
+    /**
+     * Serialize local date/time value to dateTime text without time zone. Date/time values are formatted in W3C XML
+     * Schema standard format as CCYY-MM-DDThh:mm:ss.fff, with optional leading sign included if necessary and with
+     * fractional seconds only as needed.
+     *
+     * @param time date/time to be converted
+     * @return converted date/time text
+     */
+    public static String serializeLocalDateTime(LocalDateTime time) {
+        StringBuilder buff = new StringBuilder(32);
+        formatDateTime(time, buff);
+        return buff.toString();
+    }
+    
+    /**
+     * Deserialize date/time value from text as offset date/time. Date/time values are expected to match W3C XML Schema
+     * standard format as CCYY-MM-DDThh:mm:ss.fff, with optional leading sign and trailing time zone. If no time zone
+     * is given the value is assumed to be UTC. This method follows standard JiBX deserializer usage requirements by
+     * accepting a <code>null</code> input.
+     *
+     * @param text text to be parsed (may be <code>null</code>)
+     * @return converted date/time, or <code>null</code> if passed <code>null</code> input
+     * @throws JiBXException on parse error
+     */
+    public static OffsetDateTime deserializeOffsetDateTime(String text) throws JiBXException {
+        if (text == null) {
+            return null;
+        } else {
+            int zone = findZoneLength(text, 19);
+            LocalDateTime time = parseDateTime(text, text.length() - zone);
+            return OffsetDateTime.of(time, zone == 0 ? ZoneOffset.UTC : parseZone(text, zone));
+        }
+    }
+    
+    /**
+     * Serialize offset date/time value to dateTime text. Date/time values are formatted in W3C XML Schema standard
+     * format as CCYY-MM-DDThh:mm:ss.fff, with optional leading sign included if necessary and with fractional seconds
+     * only as needed. The time zone offset is always included, as 'Z' if the offset is zero.
+     *
+     * @param time date/time to be converted
+     * @return converted date/time text
+     */
+    public static String serializeOffsetDateTime(OffsetDateTime time) {
+        StringBuilder buff = new StringBuilder(38);
+        formatDateTime(time.toLocalDateTime(), buff);
+        formatZone(time.getOffset(), buff);
+        return buff.toString();
+    }
+    
+    /**
+     * Deserialize date/time value from text as zoned date/time. Date/time values are expected to match W3C XML Schema
+     * standard format as CCYY-MM-DDThh:mm:ss.fff, with optional leading sign and trailing time zone. The time zone of
+     * the result is the fixed offset given in the text, or UTC if no time zone is given. This method follows standard
+     * JiBX deserializer usage requirements by accepting a <code>null</code> input.
+     *
+     * @param text text to be parsed (may be <code>null</code>)
+     * @return converted date/time, or <code>null</code> if passed <code>null</code> input
+     * @throws JiBXException on parse error
+     */
+    public static ZonedDateTime deserializeZonedDateTime(String text) throws JiBXException {
+        if (text == null) {
+            return null;
+        } else {
+            int zone = findZoneLength(text, 19);
+            LocalDateTime time = parseDateTime(text, text.length() - zone);
+            return ZonedDateTime.of(time, zone == 0 ? ZoneOffset.UTC : parseZone(text, zone));
+        }
+    }
+    
+    /**
+     * Serialize zoned date/time value to dateTime text. Date/time values are formatted in W3C XML Schema standard
+     * format as CCYY-MM-DDThh:mm:ss.fff, with optional leading sign included if necessary and with fractional seconds
+     * only as needed. The time zone offset in effect for the value is always included, as 'Z' if the offset is zero
+     * (the time zone identifier itself cannot be represented).
+     *
+     * @param time date/time to be converted
+     * @return converted date/time text
+     */
+    public static String serializeZonedDateTime(ZonedDateTime time) {
+        StringBuilder buff = new StringBuilder(38);
+        formatDateTime(time.toLocalDateTime(), buff);
+        formatZone(time.getOffset(), buff);
+        return buff.toString();
+    }
+    
+    /**
+     * Deserialize date/time value from text as an instant. Date/time values are expected to match W3C XML Schema
+     * standard format as CCYY-MM-DDThh:mm:ss.fff, with optional leading sign and trailing time zone. If no time zone
+     * is given the value is assumed to be UTC. The full range of <code>java.time.Instant</code> is supported, which
+     * extends slightly beyond the range of the local date/time types. This method follows standard JiBX deserializer
+     * usage requirements by accepting a <code>null</code> input.
+     *
+     * @param text text to be parsed (may be <code>null</code>)
+     * @return converted instant, or <code>null</code> if passed <code>null</code> input
+     * @throws JiBXException on parse error
+     */
+    public static Instant deserializeInstant(String text) throws JiBXException {
+        if (text == null) {
+            return null;
+        } else {
+            
+            // parse the date/time one calendar cycle closer to year 0, to stay within the LocalDateTime range
+            int zone = findZoneLength(text, 19);
+            int cycles = (text.length() > 0 && text.charAt(0) == '-') ? 1 : -1;
+            LocalDateTime time = parseDateTime(text, text.length() - zone, cycles);
+            try {
+                return time.toInstant(zone == 0 ? ZoneOffset.UTC : parseZone(text, zone)).
+                    minusSeconds(cycles * SECONDS_PER_CYCLE);
+            } catch (DateTimeException e) {
+                throw new JiBXException("Instant value out of range: " + text, e);
+            }
+        }
+    }
+    
+    /**
+     * Serialize instant to UTC dateTime text. Date/time values are formatted in W3C XML Schema standard format as
+     * CCYY-MM-DDThh:mm:ss.fffZ, with optional leading sign included if necessary and with fractional seconds only as
+     * needed.
+     *
+     * @param time instant to be converted
+     * @return converted date/time text
+     */
+    public static String serializeInstant(Instant time) {
+        
+        // convert one calendar cycle closer to year 0, since the Instant range is larger than the LocalDateTime range
+        long seconds = time.getEpochSecond();
+        int cycles = seconds < 0 ? 1 : -1;
+        LocalDateTime local = LocalDateTime.ofEpochSecond(seconds + cycles * SECONDS_PER_CYCLE, time.getNano(),
+            ZoneOffset.UTC);
+        StringBuilder buff = new StringBuilder(32);
+        formatDateTime(local, -cycles, buff);
+        buff.append('Z');
+        return buff.toString();
+    }
+    
+    /**
+     * Deserialize duration value from text. Duration values are expected to match W3C XML Schema standard format as
+     * PnDTnHnMn.nS, with optional leading sign and with any zero components omitted. Year and month components are
+     * only allowed with zero values, since they do not have a fixed length. This method follows standard JiBX
+     * deserializer usage requirements by accepting a <code>null</code> input.
+     *
+     * @param text text to be parsed (may be <code>null</code>)
+     * @return converted duration, or <code>null</code> if passed <code>null</code> input
+     * @throws JiBXException on parse error
+     */
+    public static Duration deserializeDuration(String text) throws JiBXException {
+        if (text == null) {
+            return null;
+        }
+        int length = text.length();
+        boolean negate = length > 0 && text.charAt(0) == '-';
+        int offset = negate ? 1 : 0;
+        if (offset >= length || text.charAt(offset++) != 'P' || offset == length || text.charAt(length-1) == 'T') {
+            throw new JiBXException("Invalid duration format: " + text);
+        }
+        
+        // accumulate seconds and nanoseconds from each component in turn, with the sign applied as they're added so
+        // that the full range down to Long.MIN_VALUE seconds can be represented
+        String order = "YMDTHMS";
+        int position = 0;
+        boolean time = false;
+        long seconds = 0;
+        long nanos = 0;
+        while (offset < length) {
+            char chr = text.charAt(offset);
+            if (chr == 'T') {
+                if (time) {
+                    throw new JiBXException("Invalid duration format: " + text);
+                }
+                time = true;
+                position = 4;
+                offset++;
+                continue;
+            }
+            
+            // parse value digits, with fractional part allowed only for seconds
+            long value = 0;
+            int start = offset;
+            while (offset < length && (chr = text.charAt(offset)) >= '0' && chr <= '9') {
+                if (value > (Long.MAX_VALUE - (chr - '0')) / 10) {
+                    throw new JiBXException("Duration value too large: " + text);
+                }
+                value = value * 10 + (chr - '0');
+                offset++;
+            }
+            if (offset == start) {
+                throw new JiBXException("Invalid duration format: " + text);
+            }
+            long fraction = 0;
+            if (offset < length && chr == '.' && time) {
+                int fstart = offset + 1;
+                long scale = NANOS_PER_SECOND;
+                while (++offset < length && (chr = text.charAt(offset)) >= '0' && chr <= '9') {
+                    scale /= 10;
+                    fraction += (chr - '0') * scale;
+                }
+                if (offset == fstart || chr != 'S') {
+                    throw new JiBXException("Invalid duration format: " + text);
+                }
+            }
+            if (offset >= length) {
+                throw new JiBXException("Invalid duration format: " + text);
+            }
+            
+            // find the component designator, which must follow the prior one
+            int index = order.indexOf(chr, position);
+            if (index < 0 || (index < 3) == time) {
+                throw new JiBXException("Invalid duration format: " + text);
+            }
+            position = index + 1;
+            offset++;
+            long scale;
+            switch (index) {
+                case 0:
+                case 1:
+                    if (value != 0) {
+                        throw new JiBXException("Year and month durations are not supported: " + text);
+                    }
+                    scale = 0;
+                    break;
+                case 2:
+                    scale = 86400;
+                    break;
+                case 4:
+                    scale = 3600;
+                    break;
+                case 5:
+                    scale = 60;
+                    break;
+                default:
+                    scale = 1;
+                    nanos = fraction;
+                    break;
+            }
+            if (scale > 1 && value > Long.MAX_VALUE / scale) {
+                throw new JiBXException("Duration value too large: " + text);
+            }
+            if (negate) {
+                seconds -= value * scale;
+                if (seconds > 0) {
+                    throw new JiBXException("Duration value too large: " + text);
+                }
+            } else {
+                seconds += value * scale;
+                if (seconds < 0) {
+                    throw new JiBXException("Duration value too large: " + text);
+                }
+            }
+        }
+        try {
+            return Duration.ofSeconds(seconds, negate ? -nanos : nanos);
+        } catch (ArithmeticException e) {
+            throw new JiBXException("Duration value too large: " + text, e);
+        }
+    }
+    
+    /**
+     * Serialize duration to duration text. Duration values are formatted in W3C XML Schema standard format as
+     * PnDTnHnMn.nS, with optional leading sign and with zero components omitted (with the zero duration formatted as
+     * PT0S).
+     *
+     * @param duration duration to be converted
+     * @return converted duration text
+     */
+    public static String serializeDuration(Duration duration) {
+        StringBuilder buff = new StringBuilder(32);
+        long seconds = duration.getSeconds();
+        int nanos = duration.getNano();
+        long days;
+        int rest;
+        if (seconds < 0) {
+            buff.append('-');
+            if (nanos > 0) {
+                seconds++;
+                nanos = (int)NANOS_PER_SECOND - nanos;
+            }
+            
+            // split before negating, since Long.MIN_VALUE seconds cannot be negated
+            days = -(seconds / 86400);
+            rest = (int)-(seconds % 86400);
+        } else {
+            days = seconds / 86400;
+            rest = (int)(seconds % 86400);
+        }
+        buff.append('P');
+        if (days > 0) {
+            buff.append(days).append('D');
+        }
+        if (rest > 0 || nanos > 0 || days == 0) {
+            buff.append('T');
+            int hours = rest / 3600;
+            if (hours > 0) {
+                buff.append(hours).append('H');
+            }
+            int minutes = rest / 60 % 60;
+            if (minutes > 0) {
+                buff.append(minutes).append('M');
+            }
+            int secs = rest % 60;
+            if (secs > 0 || nanos > 0 || rest == 0) {
+                buff.append(secs);
+                formatFraction(nanos, buff);
+                buff.append('S');
+            }
+        }
+        return buff.toString();
+    }
+    
+    /**
+     * Format date as CCYY-MM-DD, with optional leading sign included if necessary.
+     *
+     * @param date date to be formatted
+     * @param buff text formatting buffer
+     */
+    protected static void formatDate(LocalDate date, StringBuilder buff) {
+        formatDate(date, 0, buff);
+    }
+    
+    /**
+     * Format date as CCYY-MM-DD, with optional leading sign included if necessary, shifting the date by a number of
+     * 400 year calendar cycles.
+     *
+     * @param date date to be formatted
+     * @param cycles number of 400 year cycles to add to the year of the date
+     * @param buff text formatting buffer
+     */
+    protected static void formatDate(LocalDate date, int cycles, StringBuilder buff) {
+        Utility.formatYearNumber(date.getYear() + (long)cycles * YEARS_PER_CYCLE, buff);
+        buff.append('-');
+        Utility.formatTwoDigits(date.getMonthValue(), buff);
+        buff.append('-');
+        Utility.formatTwoDigits(date.getDayOfMonth(), buff);
+    }
+    
+    /**
+     * Format date/time as CCYY-MM-DDThh:mm:ss.fff, with optional leading sign included if necessary and with fractional
+     * seconds only as needed.
+     *
+     * @param time date/time to be formatted
+     * @param buff text formatting buffer
+     */
+    protected static void formatDateTime(LocalDateTime time, StringBuilder buff) {
+        formatDateTime(time, 0, buff);
+    }
+    
+    /**
+     * Format date/time as CCYY-MM-DDThh:mm:ss.fff, with optional leading sign included if necessary and with fractional
+     * seconds only as needed, shifting the date by a number of 400 year calendar cycles.
+     *
+     * @param time date/time to be formatted
+     * @param cycles number of 400 year cycles to add to the year of the date
+     * @param buff text formatting buffer
+     */
+    protected static void formatDateTime(LocalDateTime time, int cycles, StringBuilder buff) {
+        formatDate(time.toLocalDate(), cycles, buff);
+        buff.append('T');
+        Utility.formatTwoDigits(time.getHour(), buff);
+        buff.append(':');
+        Utility.formatTwoDigits(time.getMinute(), buff);
+        buff.append(':');
+        Utility.formatTwoDigits(time.getSecond(), buff);
+        formatFraction(time.getNano(), buff);
+    }
+    
+    /**
+     * Format fractional seconds, with trailing zeros suppressed. Nothing is added if the value is zero.
+     *
+     * @param nanos nanoseconds (<code>0</code> to <code>999999999</code>)
+     * @param buff text formatting buffer
+     */
+    protected static void formatFraction(int nanos, StringBuilder buff) {
+        if (nanos > 0) {
+            buff.append('.');
+            int scale = (int)NANOS_PER_SECOND;
+            while (nanos > 0) {
+                scale /= 10;
+                buff.append((char)('0' + nanos / scale));
+                nanos %= scale;
+            }
+        }
+    }
+    
+    /**
+     * Format time zone offset as +/-hh:mm, or 'Z' if the offset is zero. Any seconds in the offset are dropped.
+     *
+     * @param offset time zone offset
+     * @param buff text formatting buffer
+     */
+    protected static void formatZone(ZoneOffset offset, StringBuilder buff) {
+        Utility.serializeOffset(offset.getTotalSeconds() / 60 * 60000, buff);
+    }
+}
@@ -56,7 +56,7 @@ public class JiBXConstrainedParseException extends JiBXParseException {
 	 * @return the default message with "constraint" text appended.
 	 */
 	public String getMessage() {
-		StringBuffer constraint = new StringBuffer();
+		StringBuilder constraint = new StringBuilder();
 		constraint.append(".  Acceptable values are ");
 		for (int i = 0; i < m_allowableValues.length; i++) {
 			constraint.append("'" + m_allowableValues[i] + "'");
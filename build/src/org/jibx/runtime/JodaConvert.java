@@ -229,7 +229,7 @@ public abstract class JodaConvert
         int offset = date.getZone().getOffset(millis);
         
         // start serialization with the year, month, and day
-        StringBuffer buff = new StringBuffer(25);
+        StringBuilder buff = new StringBuilder(25);
         Utility.formatYearMonthDay((millis + offset) + Utility.TIME_BASE, buff);
         
         // finish with time zone offset
@@ -251,7 +251,7 @@ public abstract class JodaConvert
         int offset = date.getZone().getOffset(millis);
         
         // start serialization with the year, month, and day
-        StringBuffer buff = new StringBuffer(25);
+        StringBuilder buff = new StringBuilder(25);
         Utility.formatYearMonthDay((millis + offset) + Utility.TIME_BASE, buff);
         
         // finish with time zone offset
@@ -284,7 +284,7 @@ public abstract class JodaConvert
      * @return converted time text
      */
     public static String serializeUnzonedLocalTime(LocalTime time) {
-        StringBuffer buff = new StringBuffer(12);
+        StringBuilder buff = new StringBuilder(12);
         Utility.serializeTime(time.getMillisOfDay(), buff);
         return buff.toString();
     }
@@ -297,7 +297,7 @@ public abstract class JodaConvert
      * @return converted time text
      */
     public static String serializeUTCLocalTime(LocalTime time) {
-        StringBuffer buff = new StringBuffer(13);
+        StringBuilder buff = new StringBuilder(13);
         Utility.serializeTime(time.getMillisOfDay(), buff);
         buff.append('Z');
         return buff.toString();
@@ -469,7 +469,7 @@ public abstract class JodaConvert
         long msec = time.getMillis() + offset;
         
         // start serialization with the year, month, and day
-        StringBuffer buff = new StringBuffer(25);
+        StringBuilder buff = new StringBuilder(25);
         int extra = Utility.formatYearMonthDay(msec + Utility.TIME_BASE, buff);
         
         // append the time for full form
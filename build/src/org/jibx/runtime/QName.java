@@ -368,7 +368,7 @@ public class QName
      */
     public static String serializeList(QName[] qnames, IMarshallingContext ictx)
         throws JiBXException {
-        StringBuffer buff = new StringBuffer();
+        StringBuilder buff = new StringBuilder();
         for (int i = 0; i < qnames.length; i++) {
             QName qname = qnames[i];
             if (qname != null) {
@@ -38,6 +38,10 @@ import java.util.Date;
 import java.util.GregorianCalendar;
 import java.util.List;
 
+import org.jibx.runtime.impl.Base64Decoder;
+import org.jibx.runtime.impl.DoubleFormatter;
+import org.jibx.runtime.impl.DoubleParser;
+
 /**
  * Utility class supplying static methods. Date serialization is based on the
  * algorithms published by Peter Baum (http://www.capecod.net/~pbaum). All date
@@ -117,18 +121,7 @@ public abstract class Utility
 		'y', 'z', '0', '1', '2', '3', '4', '5', '6', '7',
 		'8', '9', '+', '/'
 	};
-    
-    /** Values corresponding to characters used in bas64 encoding. */
-	private static final byte[] s_base64Values = new byte[128];
-    static {
-        for (int i = 0; i < s_base64Values.length; i++) {
-            s_base64Values[i] = -1;
-        }
-        s_base64Values[PAD_CHAR] = 0;
-        for (int i = 0; i < s_base64Chars.length; i++) {
-            s_base64Values[s_base64Chars[i]] = (byte)i;
-        }
-    }
+
 
     /**
      * Parse digits in text as integer value. This internal method is used
@@ -223,6 +216,86 @@ public abstract class Utility
         }
     }
     
+    /**
+     * Parse long value from a range of characters, with a check against the
+     * supplied lower bound. This internal method is used for all the range
+     * parses of integer values. The value is accumulated as a negative number
+     * so that the full range of values can be handled without overflow.
+     *
+     * @param chars array containing characters to be parsed
+     * @param offset starting offset in array
+     * @param length number of characters to be parsed
+     * @param min minimum value allowed (must be negative)
+     * @param max maximum value allowed
+     * @return converted long value
+     * @throws JiBXException on parse error
+     */
+    private static long parseRange(char[] chars, int offset, int length,
+        long min, long max) throws JiBXException {
+
+        // make sure there's text to be processed
+        int limit = offset + length;
+        while (offset < limit && chars[offset] <= ' ') {
+            offset++;
+        }
+        while (limit > offset && chars[limit-1] <= ' ') {
+            limit--;
+        }
+        if (offset == limit) {
+            throw new JiBXException("Empty number value");
+        }
+
+        // check leading sign present in text
+        boolean negate = false;
+        char chr = chars[offset];
+        if (chr == '-') {
+            negate = true;
+            offset++;
+        } else if (chr == '+') {
+            offset++;
+        }
+        if (offset >= limit) {
+            throw new JiBXException("Invalid number format");
+        }
+
+        // accumulate digits as negative value
+        long bound = negate ? min : -max;
+        long multmin = bound / 10;
+        long value = 0;
+        while (offset < limit) {
+            chr = chars[offset++];
+            if (chr < '0' || chr > '9') {
+                throw new JiBXException("Non-digit in number value");
+            }
+            int digit = chr - '0';
+            if (value < multmin) {
+                throw new JiBXException("Value out of range");
+            }
+            value *= 10;
+            if (value < bound + digit) {
+                throw new JiBXException("Value out of range");
+            }
+            value -= digit;
+        }
+        return negate ? value : -value;
+    }
+
+    /**
+     * Parse integer value from a range of characters. This is equivalent to
+     * {@link #parseInt(String)}, but works directly from the characters.
+     *
+     * @param chars array containing characters to be parsed
+     * @param offset starting offset in array
+     * @param length number of characters to be parsed
+     * @return converted integer value
+     * @throws JiBXException on parse error
+     */
+    public static int parseInt(char[] chars, int offset, int length)
+        throws JiBXException {
+        return (int)parseRange(chars, offset, length, Integer.MIN_VALUE,
+            Integer.MAX_VALUE);
+    }
+    
     /**
      * Serialize int value to text.
      *
@@ -308,6 +381,22 @@ public abstract class Utility
         return value;
     }
 
+    /**
+     * Parse long value from a range of characters. This is equivalent to
+     * {@link #parseLong(String)}, but works directly from the characters.
+     *
+     * @param chars array containing characters to be parsed
+     * @param offset starting offset in array
+     * @param length number of characters to be parsed
+     * @return converted long value
+     * @throws JiBXException on parse error
+     */
+    public static long parseLong(char[] chars, int offset, int length)
+        throws JiBXException {
+        return parseRange(chars, offset, length, Long.MIN_VALUE,
+            Long.MAX_VALUE);
+    }
+
     /**
      * Serialize long value to text.
      *
@@ -373,6 +462,22 @@ public abstract class Utility
         return (short)value;
     }
 
+    /**
+     * Parse short value from a range of characters. This is equivalent to
+     * {@link #parseShort(String)}, but works directly from the characters.
+     *
+     * @param chars array containing characters to be parsed
+     * @param offset starting offset in array
+     * @param length number of characters to be parsed
+     * @return converted short value
+     * @throws JiBXException on parse error
+     */
+    public static short parseShort(char[] chars, int offset, int length)
+        throws JiBXException {
+        return (short)parseRange(chars, offset, length, Short.MIN_VALUE,
+            Short.MAX_VALUE);
+    }
+
     /**
      * Serialize short value to text.
      *
@@ -399,6 +504,22 @@ public abstract class Utility
         return (byte)value;
     }
 
+    /**
+     * Parse byte value from a range of characters. This is equivalent to
+     * {@link #parseByte(String)}, but works directly from the characters.
+     *
+     * @param chars array containing characters to be parsed
+     * @param offset starting offset in array
+     * @param length number of characters to be parsed
+     * @return converted byte value
+     * @throws JiBXException on parse error
+     */
+    public static byte parseByte(char[] chars, int offset, int length)
+        throws JiBXException {
+        return (byte)parseRange(chars, offset, length, Byte.MIN_VALUE,
+            Byte.MAX_VALUE);
+    }
+
     /**
      * Serialize byte value to text.
      *
@@ -488,6 +609,27 @@ public abstract class Utility
         return (char)value;
     }
 
+    /**
+     * Parse char value from a range of characters as unsigned 16-bit integer.
+     * This is equivalent to {@link #parseChar(String)}, but works directly
+     * from the characters.
+     *
+     * @param chars array containing characters to be parsed
+     * @param offset starting offset in array
+     * @param length number of characters to be parsed
+     * @return converted char value
+     * @throws JiBXException on parse error
+     */
+    public static char parseChar(char[] chars, int offset, int length)
+        throws JiBXException {
+        long value = parseRange(chars, offset, length, Integer.MIN_VALUE,
+            Character.MAX_VALUE);
+        if (value < Character.MIN_VALUE) {
+            throw new JiBXException("Value out of range");
+        }
+        return (char)value;
+    }
+
     /**
      * Serialize char value to text as unsigned 16-bit integer.
      *
@@ -558,7 +700,7 @@ public abstract class Utility
             return Float.POSITIVE_INFINITY;
         } else {
             try {
-                return Float.parseFloat(text);
+                return DoubleParser.parseFloat(text);
             } catch (NumberFormatException ex) {
                 throw new JiBXException(ex.getMessage());
             }
@@ -566,17 +708,15 @@ public abstract class Utility
     }
 
     /**
-     * Serialize float value to text.
+     * Serialize float value to text. This uses the shortest decimal
+     * representation which converts back to the same value, in the same layout
+     * as <code>Float.toString()</code>.
      *
      * @param value float value to be serialized
      * @return text representation of value
      */
     public static String serializeFloat(float value) {
-        if (Float.isInfinite(value)) {
-            return (value < 0.0f) ? "-INF" : "INF";
-        } else {
-            return Float.toString(value);
-        }
+        return DoubleFormatter.toString(value);
     }
 
     /**
@@ -597,7 +737,7 @@ public abstract class Utility
             return Double.POSITIVE_INFINITY;
         } else {
             try {
-                return Double.parseDouble(text);
+                return DoubleParser.parseDouble(text);
             } catch (NumberFormatException ex) {
                 throw new JiBXException(ex.getMessage());
             }
@@ -605,17 +745,15 @@ public abstract class Utility
     }
 
     /**
-     * Serialize double value to text.
+     * Serialize double value to text. This uses the shortest decimal
+     * representation which converts back to the same value, in the same layout
+     * as <code>Double.toString()</code>.
      *
      * @param value double value to be serialized
      * @return text representation of value
      */
     public static String serializeDouble(double value) {
-        if (Double.isInfinite(value)) {
-            return (value < 0.0f) ? "-INF" : "INF";
-        } else {
-            return Double.toString(value);
-        }
+        return DoubleFormatter.toString(value);
     }
 
     /**
@@ -1045,7 +1183,7 @@ public abstract class Utility
      * @param year number to be formatted
      * @param buff text formatting buffer
      */
-    protected static void formatYearNumber(long year, StringBuffer buff) {
+    protected static void formatYearNumber(long year, StringBuilder buff) {
         
         // start with minus sign for dates prior to 1 C.E.
         if (year <= 0) {
@@ -1068,6 +1206,20 @@ public abstract class Utility
         buff.append(year);
     }
 
+    /**
+     * Format year number to synchronized buffer. This is provided for backward
+     * compatibility with subclasses, {@link #formatYearNumber(long,
+     * StringBuilder)} should be used instead.
+     *
+     * @param year number to be formatted
+     * @param buff text formatting buffer
+     */
+    protected static void formatYearNumber(long year, StringBuffer buff) {
+        StringBuilder builder = new StringBuilder(12);
+        formatYearNumber(year, builder);
+        buff.append(builder);
+    }
+
     /**
      * Format a positive number as two digits. This uses an optional leading
      * zero digit for values less than ten.
@@ -1075,6 +1227,21 @@ public abstract class Utility
      * @param value number to be formatted (<code>0</code> to <code>99</code>)
      * @param buff text formatting buffer
      */
+    protected static void formatTwoDigits(int value, StringBuilder buff) {
+        if (value < 10) {
+            buff.append('0');
+        }
+        buff.append(value);
+    }
+
+    /**
+     * Format a positive number as two digits to synchronized buffer. This is
+     * provided for backward compatibility with subclasses, {@link
+     * #formatTwoDigits(int, StringBuilder)} should be used instead.
+     *
+     * @param value number to be formatted (<code>0</code> to <code>99</code>)
+     * @param buff text formatting buffer
+     */
     protected static void formatTwoDigits(int value, StringBuffer buff) {
         if (value < 10) {
             buff.append('0');
@@ -1091,7 +1258,7 @@ public abstract class Utility
      * @param value time in milliseconds to be converted (from 1 C.E.)
      * @param buff text formatting buffer
      */
-    protected static void formatYear(long value, StringBuffer buff) {
+    protected static void formatYear(long value, StringBuilder buff) {
         
         // find the actual year and month number; this uses a integer arithmetic
         //  conversion based on Baum, first making the millisecond count
@@ -1116,6 +1283,20 @@ public abstract class Utility
         formatYearNumber(year, buff);
     }
 
+    /**
+     * Format time in milliseconds to year number in synchronized buffer. This
+     * is provided for backward compatibility with subclasses, {@link
+     * #formatYear(long, StringBuilder)} should be used instead.
+     *
+     * @param value time in milliseconds to be converted (from 1 C.E.)
+     * @param buff text formatting buffer
+     */
+    protected static void formatYear(long value, StringBuffer buff) {
+        StringBuilder builder = new StringBuilder(12);
+        formatYear(value, builder);
+        buff.append(builder);
+    }
+
     /**
      * Format time in milliseconds to year number and month number. The 
      * resulting year number format is consistent with W3C XML Schema
@@ -1126,7 +1307,7 @@ public abstract class Utility
      * @param buff text formatting buffer
      * @return number of milliseconds into month
      */
-    protected static long formatYearMonth(long value, StringBuffer buff) {
+    protected static long formatYearMonth(long value, StringBuilder buff) {
         
         // find the actual year and month number; this uses a integer arithmetic
         //  conversion based on Baum, first making the millisecond count
@@ -1170,6 +1351,23 @@ public abstract class Utility
         return rem;
     }
 
+    /**
+     * Format time in milliseconds to year number and month number in
+     * synchronized buffer. This is provided for backward compatibility with
+     * subclasses, {@link #formatYearMonth(long, StringBuilder)} should be used
+     * instead.
+     *
+     * @param value time in milliseconds to be converted (from 1 C.E.)
+     * @param buff text formatting buffer
+     * @return number of milliseconds into month
+     */
+    protected static long formatYearMonth(long value, StringBuffer buff) {
+        StringBuilder builder = new StringBuilder(16);
+        long rem = formatYearMonth(value, builder);
+        buff.append(builder);
+        return rem;
+    }
+
     /**
      * Format time in milliseconds to year number, month number, and day
      * number. The resulting year number format is consistent with W3C XML
@@ -1180,7 +1378,7 @@ public abstract class Utility
      * @param buff text formatting buffer
      * @return number of milliseconds into day
      */
-    protected static int formatYearMonthDay(long value, StringBuffer buff) {
+    protected static int formatYearMonthDay(long value, StringBuilder buff) {
         
         // convert year and month
         long extra = formatYearMonth(value, buff);
@@ -1194,6 +1392,23 @@ public abstract class Utility
         return (int)(extra % MSPERDAY);
     }
 
+    /**
+     * Format time in milliseconds to year number, month number, and day number
+     * in synchronized buffer. This is provided for backward compatibility with
+     * subclasses, {@link #formatYearMonthDay(long, StringBuilder)} should be
+     * used instead.
+     *
+     * @param value time in milliseconds to be converted (from 1 C.E.)
+     * @param buff text formatting buffer
+     * @return number of milliseconds into day
+     */
+    protected static int formatYearMonthDay(long value, StringBuffer buff) {
+        StringBuilder builder = new StringBuilder(20);
+        int rem = formatYearMonthDay(value, builder);
+        buff.append(builder);
+        return rem;
+    }
+
     /**
      * Serialize time to general gYear text. Date values are formatted in
      * W3C XML Schema standard format as CCYY, with optional
@@ -1203,7 +1418,7 @@ public abstract class Utility
      * @return converted gYear text
      */
     public static String serializeYear(long time) {
-        StringBuffer buff = new StringBuffer(6);
+        StringBuilder buff = new StringBuilder(6);
         formatYear(time + TIME_BASE, buff);
         return buff.toString();
     }
@@ -1229,7 +1444,7 @@ public abstract class Utility
      * @return converted gYearMonth text
      */
     public static String serializeYearMonth(long time) {
-        StringBuffer buff = new StringBuffer(12);
+        StringBuilder buff = new StringBuilder(12);
         formatYearMonth(time + TIME_BASE, buff);
         return buff.toString();
     }
@@ -1255,7 +1470,7 @@ public abstract class Utility
      * @return converted date text
      */
     public static String serializeDate(long time) {
-        StringBuffer buff = new StringBuffer(12);
+        StringBuilder buff = new StringBuilder(12);
         formatYearMonthDay(time + TIME_BASE, buff);
         return buff.toString();
     }
@@ -1296,7 +1511,7 @@ public abstract class Utility
         GregorianCalendar cal = new GregorianCalendar();
         cal.setGregorianChange(BEGINNING_OF_TIME);
         cal.setTime(date);
-        StringBuffer buff = new StringBuffer(12);
+        StringBuilder buff = new StringBuilder(12);
         int year = cal.get(Calendar.YEAR);
         if (date.getTime() < 0) {
             if (cal.get(Calendar.ERA) == GregorianCalendar.BC) {
@@ -1320,7 +1535,8 @@ public abstract class Utility
      * @param offset milliseconds to be subtracted to get UTC from local time
      * @param buff buffer for appending time text
      */
-    public static void serializeExplicitOffset(int offset, StringBuffer buff) {
+    public static void serializeExplicitOffset(int offset,
+        StringBuilder buff) {
         
         // start with sign of offset, and convert to absolute value
         int abs;
@@ -1340,6 +1556,20 @@ public abstract class Utility
         
     }
 
+    /**
+     * Serialize time zone offset to synchronized buffer. This is provided for
+     * backward compatibility, {@link #serializeExplicitOffset(int,
+     * StringBuilder)} should be used instead.
+     *
+     * @param offset milliseconds to be subtracted to get UTC from local time
+     * @param buff buffer for appending time text
+     */
+    public static void serializeExplicitOffset(int offset, StringBuffer buff) {
+        StringBuilder builder = new StringBuilder(6);
+        serializeExplicitOffset(offset, builder);
+        buff.append(builder);
+    }
+
     /**
      * Serialize time zone offset to buffer. Time zone offset values are
      * formatted in W3C XML Schema standard format as +/-hh:mm, with 'Z' used if
@@ -1348,7 +1578,7 @@ public abstract class Utility
      * @param offset milliseconds to be subtracted to get UTC from local time
      * @param buff buffer for appending time text
      */
-    public static void serializeOffset(int offset, StringBuffer buff) {
+    public static void serializeOffset(int offset, StringBuilder buff) {
         if (offset == 0) {
             buff.append('Z');
         } else {
@@ -1356,6 +1586,20 @@ public abstract class Utility
         }
     }
 
+    /**
+     * Serialize time zone offset to synchronized buffer. This is provided for
+     * backward compatibility, {@link #serializeOffset(int, StringBuilder)}
+     * should be used instead.
+     *
+     * @param offset milliseconds to be subtracted to get UTC from local time
+     * @param buff buffer for appending time text
+     */
+    public static void serializeOffset(int offset, StringBuffer buff) {
+        StringBuilder builder = new StringBuilder(6);
+        serializeOffset(offset, builder);
+        buff.append(builder);
+    }
+
     /**
      * Serialize time to general time text in buffer. Time values are formatted
      * in W3C XML Schema standard format as hh:mm:ss, with optional trailing
@@ -1365,7 +1609,7 @@ public abstract class Utility
      * @param time time to be converted, as milliseconds in day
      * @param buff buffer for appending time text
      */
-    public static void serializeTime(int time, StringBuffer buff) {
+    public static void serializeTime(int time, StringBuilder buff) {
         
         // append the hour, minute, and second
         formatTwoDigits(time/MSPERHOUR, buff);
@@ -1392,6 +1636,20 @@ public abstract class Utility
         }
     }
 
+    /**
+     * Serialize time to general time text in synchronized buffer. This is
+     * provided for backward compatibility, {@link #serializeTime(int,
+     * StringBuilder)} should be used instead.
+     *
+     * @param time time to be converted, as milliseconds in day
+     * @param buff buffer for appending time text
+     */
+    public static void serializeTime(int time, StringBuffer buff) {
+        StringBuilder builder = new StringBuilder(12);
+        serializeTime(time, builder);
+        buff.append(builder);
+    }
+
     /**
      * Serialize time to general dateTime text. Date values are formatted in
      * W3C XML Schema standard format as CCYY-MM-DDThh:mm:ss, with optional
@@ -1404,7 +1662,7 @@ public abstract class Utility
     public static String serializeDateTime(long time, boolean zone) {
         
         // start with the year, month, and day
-        StringBuffer buff = new StringBuffer(25);
+        StringBuilder buff = new StringBuilder(25);
         int extra = formatYearMonthDay(time + TIME_BASE, buff);
         
         // append the time for full form
@@ -1461,7 +1719,7 @@ public abstract class Utility
             String value = serializeInt(nano);
             
             // pad with leading zeros if less than 9 digits
-            StringBuffer digits = new StringBuffer(9);
+            StringBuilder digits = new StringBuilder(9);
             if (value.length() < 9) {
                 int lead = 9 - value.length();
                 for (int i = 0; i < lead; i++) {
@@ -1499,7 +1757,7 @@ public abstract class Utility
      * @return converted time text
      */
     public static String serializeSqlTime(Time time) {
-        StringBuffer buff = new StringBuffer(12);
+        StringBuilder buff = new StringBuilder(12);
         serializeTime((int)time.getTime(), buff);
         return buff.toString();
     }
@@ -1553,97 +1811,21 @@ public abstract class Utility
             "\" not found in enumeration");
     }
 
-    /**
-     * Decode a chunk of data from base64 encoding. The length of a chunk is
-     * always 4 characters in the base64 representation, but may be 1, 2, or 3
-     * bytes of data, as determined by whether there are any pad characters at
-     * the end of the base64 representation 
-     *
-     * @param base starting offset within base64 character array
-     * @param chrs character array for base64 text representation
-     * @param fill starting offset within byte data array
-     * @param byts byte data array
-     * @return number of decoded bytes
-     */
-	private static int decodeChunk(int base, char[] chrs, int fill,
-        byte[] byts) {
-        
-        // find the byte count to be decoded
-		int length = 3;
-		if (chrs[base+3] == PAD_CHAR) {
-			length = 2;
-			if (chrs[base+2] == PAD_CHAR) {
-				length = 1;
-			}
-		}
-        
-        // get 6-bit values
-		int v0 = s_base64Values[chrs[base+0]];
-		int v1 = s_base64Values[chrs[base+1]];
-		int v2 = s_base64Values[chrs[base+2]];
-		int v3 = s_base64Values[chrs[base+3]];
-        
-        // convert and store bytes of data
-		switch (length) {
-			case 3:
-				byts[fill+2] = (byte)(v2 << 6 | v3);
-			case 2:
-				byts[fill+1] = (byte)(v1 << 4 | v2 >> 2);
-			case 1:
-				byts[fill] = (byte)(v0 << 2 | v1 >> 4);
-				break;
-		}
-		return length;
-	}
-
     /**
      * Parse base64 data from text. This converts the base64 data into a byte
      * array of the appopriate length. In keeping with the recommendations,
+     * characters outside the base64 alphabet are ignored. The text is decoded
+     * directly, without first being copied to a filtered array.
      *
      * @param text text to be parsed (may include extra characters)
      * @return byte array of data
      * @throws JiBXException if invalid character in base64 representation
      */
 	public static byte[] parseBase64(String text) throws JiBXException {
-        
-        // convert raw text to base64 character array
-        char[] chrs = new char[text.length()];
-        int length = 0;
-        for (int i = 0; i < text.length(); i++) {
-            char chr = text.charAt(i);
-            if (chr < 128 && s_base64Values[chr] >= 0) {
-                chrs[length++] = chr;
-            }
-        }
-        
-        // check the text length
-		if (length % 4 != 0) {
-			throw new JiBXException
-                ("Text length for base64 must be a multiple of 4");
-		} else if (length == 0) {
-			return new byte[0];
-		}
-        
-        // find corresponding byte count for data
-		int blength = length / 4 * 3;
-		if (chrs[length-1] == PAD_CHAR) {
-			blength--;
-			if (chrs[length-2] == PAD_CHAR) {
-				blength--;
-			}
-		}
-        
-        // convert text to actual bytes of data
-		byte[] byts = new byte[blength];
-		int fill = 0;
-		for (int i = 0; i < length; i += 4) {
-			fill += decodeChunk(i, chrs, fill, byts);
-		}
-		if (fill != blength) {
-			throw new JiBXException
-                ("Embedded padding characters in byte64 text");
-		}
-		return byts;
+        Base64Decoder decoder = new Base64Decoder(text.length() / 4 * 3);
+        decoder.decode(text);
+        decoder.finish();
+        return decoder.getBytes();
 	}
 
     /**
@@ -1669,9 +1851,12 @@ public abstract class Utility
      *
      * @param base starting offset within byte array
      * @param byts byte data array
-     * @param buff buffer for encoded text
+     * @param chrs character array for encoded text
+     * @param fill starting offset within character array
+     * @return offset past end of encoded text
      */
-	public static void encodeChunk(int base, byte[] byts, StringBuffer buff) {
+	private static int encodeChunk(int base, byte[] byts, char[] chrs,
+        int fill) {
         
         // get actual byte data length to be encoded
 		int length = 3;
@@ -1682,46 +1867,149 @@ public abstract class Utility
         // convert up to three bytes of data to four characters of text
 		int b0 = byts[base];
 		int value = (b0 >> 2) & 0x3F;
-		buff.append(s_base64Chars[value]);
+		chrs[fill++] = s_base64Chars[value];
 		if (length > 1) {
 			int b1 = byts[base+1];
 			value = ((b0 & 3) << 4) + ((b1 >> 4) & 0x0F);
-			buff.append(s_base64Chars[value]);
+			chrs[fill++] = s_base64Chars[value];
 			if (length > 2) {
 				int b2 = byts[base+2];
 				value = ((b1 & 0x0F) << 2) + ((b2 >> 6) & 3);
-				buff.append(s_base64Chars[value]);
+				chrs[fill++] = s_base64Chars[value];
 				value = b2 & 0x3F;
-				buff.append(s_base64Chars[value]);
+				chrs[fill++] = s_base64Chars[value];
 			} else {
 				value = (b1 & 0x0F) << 2;
-				buff.append(s_base64Chars[value]);
-				buff.append(PAD_CHAR);
+				chrs[fill++] = s_base64Chars[value];
+				chrs[fill++] = PAD_CHAR;
 			}
 		} else {
 			value = (b0 & 3) << 4;
-			buff.append(s_base64Chars[value]);
-			buff.append(PAD_CHAR);
-			buff.append(PAD_CHAR);
+			chrs[fill++] = s_base64Chars[value];
+			chrs[fill++] = PAD_CHAR;
+			chrs[fill++] = PAD_CHAR;
 		}
+        return fill;
+	}
+
+    /**
+     * Encode a chunk of data to base64 encoding. Converts the next three bytes
+     * of data into four characters of text representation, using padding at the
+     * end of less than three bytes of data remain.
+     *
+     * @param base starting offset within byte array
+     * @param byts byte data array
+     * @param buff buffer for encoded text
+     */
+	public static void encodeChunk(int base, byte[] byts, StringBuffer buff) {
+        char[] chrs = new char[4];
+        buff.append(chrs, 0, encodeChunk(base, byts, chrs, 0));
 	}
 
+    /**
+     * Encode a range of data to base64 text in a character array. No line
+     * breaks are added. Padding is used at the end if the length of the data
+     * is not a multiple of three, so data split into several ranges must use
+     * multiples of three bytes for all but the last range.
+     *
+     * @param byts byte data array
+     * @param offset starting offset of data to be encoded
+     * @param length number of bytes of data to be encoded
+     * @param chrs character array for encoded text (must have space for
+     * <code>(length + 2) / 3 * 4</code> characters)
+     * @param fill starting offset within character array
+     * @return offset past end of encoded text
+     */
+    public static int encodeBase64(byte[] byts, int offset, int length,
+        char[] chrs, int fill) {
+        int limit = offset + length;
+        int full = limit - length % 3;
+        while (offset < full) {
+            int bits = (byts[offset] & 0xFF) << 16 |
+                (byts[offset+1] & 0xFF) << 8 | (byts[offset+2] & 0xFF);
+            offset += 3;
+            chrs[fill++] = s_base64Chars[bits >> 18];
+            chrs[fill++] = s_base64Chars[(bits >> 12) & 0x3F];
+            chrs[fill++] = s_base64Chars[(bits >> 6) & 0x3F];
+            chrs[fill++] = s_base64Chars[bits & 0x3F];
+        }
+        if (offset < limit) {
+            int bits = (byts[offset] & 0xFF) << 16;
+            if (offset + 1 < limit) {
+                bits |= (byts[offset+1] & 0xFF) << 8;
+            }
+            chrs[fill++] = s_base64Chars[bits >> 18];
+            chrs[fill++] = s_base64Chars[(bits >> 12) & 0x3F];
+            chrs[fill++] = offset + 1 < limit ?
+                s_base64Chars[(bits >> 6) & 0x3F] : PAD_CHAR;
+            chrs[fill++] = PAD_CHAR;
+        }
+        return fill;
+    }
+
+    /**
+     * Encode a range of data to base64 text as single-byte characters in a byte
+     * array. This is equivalent to {@link #encodeBase64(byte[], int, int,
+     * char[], int)}, but for use by writers working directly with an output
+     * buffer (the base64 characters are represented the same way in all
+     * ASCII-compatible encodings).
+     *
+     * @param byts byte data array
+     * @param offset starting offset of data to be encoded
+     * @param length number of bytes of data to be encoded
+     * @param buff byte array for encoded text (must have space for
+     * <code>(length + 2) / 3 * 4</code> characters)
+     * @param fill starting offset within byte array
+     * @return offset past end of encoded text
+     */
+    public static int encodeBase64(byte[] byts, int offset, int length,
+        byte[] buff, int fill) {
+        int limit = offset + length;
+        int full = limit - length % 3;
+        while (offset < full) {
+            int bits = (byts[offset] & 0xFF) << 16 |
+                (byts[offset+1] & 0xFF) << 8 | (byts[offset+2] & 0xFF);
+            offset += 3;
+            buff[fill++] = (byte)s_base64Chars[bits >> 18];
+            buff[fill++] = (byte)s_base64Chars[(bits >> 12) & 0x3F];
+            buff[fill++] = (byte)s_base64Chars[(bits >> 6) & 0x3F];
+            buff[fill++] = (byte)s_base64Chars[bits & 0x3F];
+        }
+        if (offset < limit) {
+            int bits = (byts[offset] & 0xFF) << 16;
+            if (offset + 1 < limit) {
+                bits |= (byts[offset+1] & 0xFF) << 8;
+            }
+            buff[fill++] = (byte)s_base64Chars[bits >> 18];
+            buff[fill++] = (byte)s_base64Chars[(bits >> 12) & 0x3F];
+            buff[fill++] = (byte)(offset + 1 < limit ?
+                s_base64Chars[(bits >> 6) & 0x3F] : PAD_CHAR);
+            buff[fill++] = (byte)PAD_CHAR;
+        }
+        return fill;
+    }
+
     /**
      * Serialize byte array to base64 text. In keeping with the specification,
      * this adds a line break every 76 characters in the encoded representation.
+     * The text is encoded directly into a character array of the exact size
+     * required.
      *
      * @param byts byte data array
      * @return base64 encoded text
      */
 	public static String serializeBase64(byte[] byts) {
-        StringBuffer buff = new StringBuffer((byts.length + 2) / 3 * 4);
+        int breaks = byts.length > 3 ? (byts.length - 4) / 57 : 0;
+        char[] chrs = new char[(byts.length + 2) / 3 * 4 + breaks * 2];
+        int fill = 0;
 		for (int i = 0; i < byts.length; i += 3) {
-			encodeChunk(i, byts, buff);
+			fill = encodeChunk(i, byts, chrs, fill);
             if (i > 0 && i % 57 == 0 && (i + 3) < byts.length) {
-                buff.append("\r\n");
+                chrs[fill++] = '\r';
+                chrs[fill++] = '\n';
             }
 		}
-		return buff.toString();
+		return new String(chrs, 0, fill);
 	}
     
     /**
@@ -1861,7 +2149,7 @@ public abstract class Utility
      * @return list text
      */
     public static String serializeTokenList(String[] tokens) {
-        StringBuffer buff = new StringBuffer();
+        StringBuilder buff = new StringBuilder();
         for (int i = 0; i < tokens.length; i++) {
             if (buff.length() > 0) {
                 buff.append(' ');
@@ -109,7 +109,7 @@ public class ValidationException extends RecoverableException
         if (obj instanceof ITrackSource) {
             ITrackSource track = (ITrackSource)obj;
             if (track.jibx_getColumnNumber() != 0 || track.jibx_getLineNumber() != 0 || track.jibx_getDocumentName() != null) {
-                StringBuffer text = new StringBuffer();
+                StringBuilder text = new StringBuilder();
                 text.append("(line ");
                 text.append(track.jibx_getLineNumber());
                 text.append(", col ");
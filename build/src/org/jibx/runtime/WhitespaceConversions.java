@@ -28,6 +28,18 @@ package org.jibx.runtime;
  */
 public final class WhitespaceConversions
 {
+    /** Whitespace handling code for text used as-is. */
+    public static final int PRESERVE = 0;
+    
+    /** Whitespace handling code for text with non-space whitespace replaced. */
+    public static final int REPLACE = 1;
+    
+    /** Whitespace handling code for text with whitespace sequences collapsed. */
+    public static final int COLLAPSE = 2;
+    
+    /** Whitespace handling code for text with leading and trailing whitespace trimmed. */
+    public static final int TRIM = 3;
+    
     /** Non-constructor for class with no instances. */
     private WhitespaceConversions() {}
     
@@ -43,7 +55,7 @@ public final class WhitespaceConversions
         
         // allocate and initialize copy to first replacement
         int length = text.length();
-        StringBuffer buff = new StringBuffer(length - 1);
+        StringBuilder buff = new StringBuilder(length - 1);
         for (int i = 0; i < index; i++) {
             buff.append(text.charAt(i));
         }
@@ -121,7 +133,7 @@ public final class WhitespaceConversions
         
         // allocate and initialize copy to first drop
         int length = text.length();
-        StringBuffer buff = new StringBuffer(length - 1);
+        StringBuilder buff = new StringBuilder(length - 1);
         if (index > 0) {
             
             // copy all the non-whitespace characters
@@ -273,4 +285,168 @@ public final class WhitespaceConversions
             return "";
         }
     }
+    
+    /**
+     * Apply whitespace handling to string.
+     * 
+     * @param text value to be converted (<code>null</code> if none)
+     * @param mode whitespace handling code ({@link #PRESERVE}, {@link #REPLACE}, {@link #COLLAPSE}, or {@link #TRIM})
+     * @return converted string value (<code>null</code> if none)
+     */
+    public static String convert(String text, int mode) {
+        switch (mode)
+        {
+            
+            case REPLACE:
+                return replace(text);
+            
+            case COLLAPSE:
+                return collapse(text);
+            
+            case TRIM:
+                return trim(text);
+            
+            default:
+                return text;
+            
+        }
+    }
+    
+    /**
+     * Append a range of characters to a buffer, applying whitespace handling as the characters are copied. A single
+     * value may be built from any number of ranges by appending each in turn, starting with an empty buffer, then
+     * calling {@link #finishNormalized(int, char[], int)} to complete the handling. The buffer must have room for the
+     * full range of characters past the current fill position.
+     * 
+     * @param mode whitespace handling code ({@link #PRESERVE}, {@link #REPLACE}, {@link #COLLAPSE}, or {@link #TRIM})
+     * @param chars source characters
+     * @param offset start offset of range in source characters
+     * @param length number of characters in range
+     * @param buff destination buffer, with value starting at offset 0
+     * @param fill number of characters already in buffer
+     * @return number of characters in buffer after append
+     */
+    public static int appendNormalized(int mode, char[] chars, int offset, int length, char[] buff, int fill) {
+        int limit = offset + length;
+        switch (mode)
+        {
+            
+            case REPLACE:
+                // copy each character, replacing non-space whitespace
+                for (int i = offset; i < limit; i++) {
+                    char chr = chars[i];
+                    switch (chr)
+                    {
+                        
+                        case 0x09:
+                        case 0x0A:
+                        case 0x0D:
+                            buff[fill++] = ' ';
+                            break;
+                        
+                        default:
+                            buff[fill++] = chr;
+                            break;
+                        
+                    }
+                }
+                return fill;
+            
+            case COLLAPSE:
+                // copy each character, dropping leading whitespace and whitespace following a space already in buffer
+                for (int i = offset; i < limit; i++) {
+                    char chr = chars[i];
+                    switch (chr)
+                    {
+                        
+                        case 0x09:
+                        case 0x0A:
+                        case 0x0D:
+                        case ' ':
+                            if (fill > 0 && buff[fill-1] != ' ') {
+                                buff[fill++] = ' ';
+                            }
+                            break;
+                        
+                        default:
+                            buff[fill++] = chr;
+                            break;
+                        
+                    }
+                }
+                return fill;
+            
+            case TRIM:
+                // skip leading whitespace, then copy remainder of range
+                if (fill == 0) {
+                    loop: for (; offset < limit; offset++) {
+                        switch (chars[offset])
+                        {
+                            
+                            case 0x09:
+                            case 0x0A:
+                            case 0x0D:
+                            case ' ':
+                                break;
+                            
+                            default:
+                                break loop;
+                            
+                        }
+                    }
+                }
+                // fall through to copy
+            
+            default:
+                System.arraycopy(chars, offset, buff, fill, limit - offset);
+                return fill + limit - offset;
+            
+        }
+    }
+    
+    /**
+     * Finish whitespace handling for a value built by {@link #appendNormalized(int, char[], int, int, char[], int)}.
+     * This drops any trailing whitespace left by the collapse or trim handling.
+     * 
+     * @param mode whitespace handling code ({@link #PRESERVE}, {@link #REPLACE}, {@link #COLLAPSE}, or {@link #TRIM})
+     * @param buff buffer containing value, starting at offset 0
+     * @param fill number of characters in buffer
+     * @return number of characters in final value
+     */
+    public static int finishNormalized(int mode, char[] buff, int fill) {
+        switch (mode)
+        {
+            
+            case COLLAPSE:
+                // collapsed value has at most a single trailing space
+                if (fill > 0 && buff[fill-1] == ' ') {
+                    fill--;
+                }
+                return fill;
+            
+            case TRIM:
+                // scan back past all trailing whitespace
+                loop: while (fill > 0) {
+                    switch (buff[fill-1])
+                    {
+                        
+                        case 0x09:
+                        case 0x0A:
+                        case 0x0D:
+                        case ' ':
+                            fill--;
+                            break;
+                        
+                        default:
+                            break loop;
+                        
+                    }
+                }
+                return fill;
+            
+            default:
+                return fill;
+            
+        }
+    }
 }
\ No newline at end of file
@@ -0,0 +1,254 @@
+/*
+Copyright (c) 2026, agent.
+All rights reserved.
+
+Redistribution and use in source and binary forms, with or without modification,
+are permitted provided that the following conditions are met:
+
+ * Redistributions of source code must retain the above copyright notice, this
+   list of conditions and the following disclaimer.
+ * Redistributions in binary form must reproduce the above copyright notice,
+   this list of conditions and the following disclaimer in the documentation
+   and/or other materials provided with the distribution.
+ * Neither the name of JiBX nor the names of its contributors may be used
+   to endorse or promote products derived from this software without specific
+   prior written permission.
+
+THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+(INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON
+ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+(INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+*/
+
+package org.jibx.runtime.impl;
+
+import java.io.IOException;
+import java.io.OutputStream;
+
+import org.jibx.runtime.JiBXException;
+
+/**
+ * Incremental base64 decoder. Text can be supplied in any number of pieces,
+ * split at arbitrary points, so that large values can be decoded directly
+ * from the text events reported by a parser without first being combined into
+ * a single string. Characters outside the base64 alphabet (such as the line
+ * breaks normally included in base64 text) are ignored. The decoded data is
+ * either collected in an array owned by the decoder or written to an output
+ * stream as it becomes available.
+ *
+ * @author agent
+ */
+public class Base64Decoder
+{
+    /** Size of buffer used for output stream writes. */
+    private static final int STREAM_BUFFER_SIZE = 3 * 1024;
+    
+    /** Padding character. */
+    private static final char PAD_CHAR = '=';
+    
+    /** Values of base64 characters (<code>-1</code> if not base64). */
+    private static final byte[] s_values = new byte[128];
+    
+    static {
+        for (int i = 0; i < s_values.length; i++) {
+            s_values[i] = -1;
+        }
+        for (int i = 0; i < 26; i++) {
+            s_values['A' + i] = (byte)i;
+            s_values['a' + i] = (byte)(i + 26);
+        }
+        for (int i = 0; i < 10; i++) {
+            s_values['0' + i] = (byte)(i + 52);
+        }
+        s_values['+'] = 62;
+        s_values['/'] = 63;
+    }
+    
+    /** Stream for decoded data (<code>null</code> if collecting in array). */
+    private final OutputStream m_stream;
+    
+    /** Decoded data buffer. */
+    private byte[] m_bytes;
+    
+    /** Number of bytes of decoded data in buffer. */
+    private int m_fill;
+    
+    /** Bits accumulated for current group of four characters. */
+    private int m_bits;
+    
+    /** Number of characters in current group (including padding). */
+    private int m_count;
+    
+    /** Number of padding characters in current group. */
+    private int m_pads;
+    
+    /** Flag for final (padded) group completed. */
+    private boolean m_ended;
+    
+    /**
+     * Constructor for decoding to array.
+     *
+     * @param size expected number of bytes of decoded data (the array is
+     * grown as necessary if this is too small)
+     */
+    public Base64Decoder(int size) {
+        m_stream = null;
+        m_bytes = new byte[Math.max(size, 3)];
+    }
+    
+    /**
+     * Constructor for decoding to stream.
+     *
+     * @param stream destination for decoded data
+     */
+    public Base64Decoder(OutputStream stream) {
+        m_stream = stream;
+        m_bytes = new byte[STREAM_BUFFER_SIZE];
+    }
+    
+    /**
+     * Add a character of text.
+     *
+     * @param chr character
+     * @throws JiBXException on invalid padding or error writing to stream
+     */
+    private void add(char chr) throws JiBXException {
+        int value = chr < 128 ? s_values[chr] : -1;
+        if (value >= 0 || chr == PAD_CHAR) {
+            if (m_ended || (m_pads > 0 && value >= 0)) {
+                throw new JiBXException
+                    ("Embedded padding characters in byte64 text");
+            } else if (value < 0) {
+                if (m_count < 2) {
+                    throw new JiBXException
+                        ("Embedded padding characters in byte64 text");
+                }
+                m_pads++;
+                value = 0;
+            }
+            m_bits = (m_bits << 6) | value;
+            if (++m_count == 4) {
+                
+                // store the decoded bytes for the group
+                if (m_fill + 3 > m_bytes.length) {
+                    makeSpace();
+                }
+                byte[] bytes = m_bytes;
+                int fill = m_fill;
+                int bits = m_bits;
+                bytes[fill++] = (byte)(bits >> 16);
+                if (m_pads < 2) {
+                    bytes[fill++] = (byte)(bits >> 8);
+                    if (m_pads == 0) {
+                        bytes[fill++] = (byte)bits;
+                    } else {
+                        m_ended = true;
+                    }
+                } else {
+                    m_ended = true;
+                }
+                m_fill = fill;
+                m_bits = 0;
+                m_count = 0;
+            }
+        }
+    }
+    
+    /**
+     * Make space for another group of decoded data, by either writing the
+     * buffered data to the stream or growing the array.
+     *
+     * @throws JiBXException on error writing to stream
+     */
+    private void makeSpace() throws JiBXException {
+        if (m_stream == null) {
+            byte[] grow = new byte[m_bytes.length * 2];
+            System.arraycopy(m_bytes, 0, grow, 0, m_fill);
+            m_bytes = grow;
+        } else {
+            flush();
+        }
+    }
+    
+    /**
+     * Write buffered data to stream.
+     *
+     * @throws JiBXException on error writing to stream
+     */
+    private void flush() throws JiBXException {
+        try {
+            m_stream.write(m_bytes, 0, m_fill);
+            m_fill = 0;
+        } catch (IOException e) {
+            throw new JiBXException("Error writing decoded base64 data", e);
+        }
+    }
+    
+    /**
+     * Decode text from a range of characters.
+     *
+     * @param chars array containing text characters
+     * @param offset offset of first character
+     * @param length number of characters
+     * @throws JiBXException on invalid padding or error writing to stream
+     */
+    public void decode(char[] chars, int offset, int length)
+        throws JiBXException {
+        int limit = offset + length;
+        for (int i = offset; i < limit; i++) {
+            add(chars[i]);
+        }
+    }
+    
+    /**
+     * Decode text from a string.
+     *
+     * @param text text to be decoded
+     * @throws JiBXException on invalid padding or error writing to stream
+     */
+    public void decode(String text) throws JiBXException {
+        int length = text.length();
+        for (int i = 0; i < length; i++) {
+            add(text.charAt(i));
+        }
+    }
+    
+    /**
+     * Finish decoding. This checks that the text ended on a group boundary,
+     * and writes any remaining data to the stream when decoding to a stream.
+     *
+     * @throws JiBXException if the text was incomplete, or on error writing to
+     * stream
+     */
+    public void finish() throws JiBXException {
+        if (m_count != 0) {
+            throw new JiBXException
+                ("Text length for base64 must be a multiple of 4");
+        }
+        if (m_stream != null) {
+            flush();
+        }
+    }
+    
+    /**
+     * Get the decoded data when decoding to array. This returns the internal
+     * array directly if it is exactly the right size, or a copy if not.
+     *
+     * @return decoded data
+     */
+    public byte[] getBytes() {
+        if (m_fill == m_bytes.length) {
+            return m_bytes;
+        } else {
+            byte[] bytes = new byte[m_fill];
+            System.arraycopy(m_bytes, 0, bytes, 0, m_fill);
+            return bytes;
+        }
+    }
+}
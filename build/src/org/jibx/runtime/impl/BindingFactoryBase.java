@@ -32,10 +32,13 @@ import java.lang.reflect.InvocationTargetException;
 import java.lang.reflect.Method;
 import java.util.HashMap;
 import java.util.Map;
+import java.util.concurrent.atomic.AtomicReferenceArray;
 
 import org.jibx.runtime.BindingDirectory;
 import org.jibx.runtime.IBindingFactory;
+import org.jibx.runtime.IMarshaller;
 import org.jibx.runtime.IMarshallingContext;
+import org.jibx.runtime.IUnmarshaller;
 import org.jibx.runtime.IUnmarshallingContext;
 import org.jibx.runtime.JiBXException;
 
@@ -50,6 +53,47 @@ public abstract class BindingFactoryBase implements IBindingFactory
 {
     private static final int[] EMPTY_INT_ARRAY = new int[0];
     
+    /** System property used to set the default context pool size. */
+    public static final String POOL_SIZE_PROPERTY =
+        "org.jibx.runtime.impl.poolsize";
+    
+    /** Default maximum number of contexts of each type retained in pools. */
+    private static final int s_defaultPoolSize;
+    static {
+        int size = Runtime.getRuntime().availableProcessors() * 2;
+        try {
+            String prop = System.getProperty(POOL_SIZE_PROPERTY);
+            if (prop != null) {
+                size = Integer.parseInt(prop.trim());
+            }
+        } catch (SecurityException e) {
+            /* exception just means the default value will be used */
+        } catch (NumberFormatException e) {
+            /* deliberately empty, use default value */
+        }
+        s_defaultPoolSize = size;
+    }
+    
+    /** System property used to disable sharing of generated marshaller and
+     unmarshaller instances between contexts (value "false" disables). */
+    public static final String SHARE_HANDLERS_PROPERTY =
+        "org.jibx.runtime.impl.sharehandlers";
+    
+    /** Default for sharing generated handler instances. */
+    private static final boolean s_defaultShareHandlers;
+    static {
+        boolean share = true;
+        try {
+            String prop = System.getProperty(SHARE_HANDLERS_PROPERTY);
+            if (prop != null) {
+                share = !"false".equalsIgnoreCase(prop.trim());
+            }
+        } catch (SecurityException e) {
+            /* exception just means the default value will be used */
+        }
+        s_defaultShareHandlers = share;
+    }
+    
     private final String m_bindingName;
     private final int m_majorVersion;
     private final int m_minorVersion;
@@ -74,7 +118,15 @@ public abstract class BindingFactoryBase implements IBindingFactory
     private final int m_hash;
     private boolean m_verified;
     private String[] m_bindingClassesClosure;
-    private Map m_unmarshalMap;
+    private volatile Map m_unmarshalMap;
+    private volatile ElementDispatchTable m_dispatchTable;
+    private volatile ContextPool m_marshalPool;
+    private volatile ContextPool m_unmarshalPool;
+    private final boolean[] m_marshallerShareable;
+    private final boolean[] m_unmarshallerShareable;
+    private final AtomicReferenceArray m_sharedMarshallers;
+    private final AtomicReferenceArray m_sharedUnmarshallers;
+    private volatile boolean m_shareHandlers;
     
     /**
      * Constructor used in generated binding factories.
@@ -174,6 +226,15 @@ public abstract class BindingFactoryBase implements IBindingFactory
             }
         }
         m_bindingNamespaceTables = tablemap;
+        m_marshalPool = new ContextPool(s_defaultPoolSize);
+        m_unmarshalPool = new ContextPool(s_defaultPoolSize);
+        m_marshallerShareable = findShareable(m_marshallers);
+        m_unmarshallerShareable = findShareable(m_unmarshallers);
+        m_sharedMarshallers =
+            new AtomicReferenceArray(m_marshallerShareable.length);
+        m_sharedUnmarshallers =
+            new AtomicReferenceArray(m_unmarshallerShareable.length);
+        m_shareHandlers = s_defaultShareHandlers;
         
         // compute the hash code for this binding
         int hash = name.hashCode() + majorver + minorver +
@@ -206,6 +267,34 @@ public abstract class BindingFactoryBase implements IBindingFactory
         m_hash = hash;
     }
     
+    /**
+     * Flag handler classes which can safely be shared between contexts. Only
+     * the classes generated by the binding compiler (with names using the
+     * {@link BindingDirectory#GENERATE_PREFIX} prefix) are stateless, so only
+     * these are flagged as shareable. User-defined marshallers and
+     * unmarshallers may keep state, and are always instantiated per context.
+     *
+     * @param names handler class names (<code>null</code> if none, entries
+     * <code>null</code> if not global)
+     * @return shareable flags
+     */
+    private static boolean[] findShareable(String[] names) {
+        if (names == null) {
+            return new boolean[0];
+        } else {
+            boolean[] shares = new boolean[names.length];
+            for (int i = 0; i < names.length; i++) {
+                String name = names[i];
+                if (name != null) {
+                    int split = name.lastIndexOf('.') + 1;
+                    shares[i] = name.startsWith(BindingDirectory.GENERATE_PREFIX,
+                        split);
+                }
+            }
+            return shares;
+        }
+    }
+    
     /**
      * Load a class. This first tries to load the specified class using the
      * classloader that loaded the binding factory instance, then tries the
@@ -270,6 +359,206 @@ public abstract class BindingFactoryBase implements IBindingFactory
             m_globalUris, m_globalNames, m_idClassNames, this);
     }
 
+    /**
+     * Get marshalling context from pool, creating a new context if the pool is
+     * empty.
+     *
+     * @return context Marshalling context
+     * @throws JiBXException If error
+     */
+    public IMarshallingContext borrowMarshallingContext() throws JiBXException {
+        IMarshallingContext ctx =
+            (IMarshallingContext)m_marshalPool.borrow();
+        if (ctx == null) {
+            ctx = createMarshallingContext();
+        }
+        return ctx;
+    }
+
+    /**
+     * Return marshalling context to pool. The context is reset, and the user
+     * context and indentation settings are cleared, before it is pooled. A
+     * context which is already in the pool is ignored, so that releasing a
+     * context twice does not let it be handed out to two callers.
+     *
+     * @param ctx Marshalling context (<code>null</code> ignored)
+     */
+    public void releaseMarshallingContext(IMarshallingContext ctx) {
+        if (ctx instanceof MarshallingContext &&
+            ((MarshallingContext)ctx).getFactory() == this &&
+            !m_marshalPool.contains(ctx)) {
+            MarshallingContext mctx = (MarshallingContext)ctx;
+            mctx.reset();
+            mctx.setUserContext(null);
+            mctx.setIndent(-1, "\n", ' ');
+            m_marshalPool.release(mctx);
+        }
+    }
+
+    /**
+     * Get unmarshalling context from pool, creating a new context if the pool
+     * is empty.
+     *
+     * @return context Unmarshalling context
+     * @throws JiBXException If error
+     */
+    public IUnmarshallingContext borrowUnmarshallingContext()
+        throws JiBXException {
+        IUnmarshallingContext ctx =
+            (IUnmarshallingContext)m_unmarshalPool.borrow();
+        if (ctx == null) {
+            ctx = createUnmarshallingContext();
+        }
+        return ctx;
+    }
+
+    /**
+     * Return unmarshalling context to pool. The context is reset and the
+     * document cleared before it is pooled, so that the document input is not
+     * retained, but a reusable reader is kept. A context which is already in
+     * the pool is ignored, as for {@link
+     * #releaseMarshallingContext(IMarshallingContext)}.
+     *
+     * @param ctx Unmarshalling context (<code>null</code> ignored)
+     */
+    public void releaseUnmarshallingContext(IUnmarshallingContext ctx) {
+        if (ctx instanceof UnmarshallingContext &&
+            ((UnmarshallingContext)ctx).getFactory() == this &&
+            !m_unmarshalPool.contains(ctx)) {
+            UnmarshallingContext uctx = (UnmarshallingContext)ctx;
+            uctx.reset();
+            uctx.clearDocument();
+            m_unmarshalPool.release(uctx);
+        }
+    }
+
+    /**
+     * Set the maximum number of contexts of each type retained in the pools
+     * used by {@link #borrowMarshallingContext()} and {@link
+     * #borrowUnmarshallingContext()}. Any contexts currently pooled are
+     * discarded. The default size is set by the
+     * <code>org.jibx.runtime.impl.poolsize</code> system property, or twice
+     * the number of available processors if the property is not set.
+     *
+     * @param size maximum number of pooled contexts (zero disables pooling)
+     */
+    public void setContextPoolSize(int size) {
+        m_marshalPool = new ContextPool(size);
+        m_unmarshalPool = new ContextPool(size);
+    }
+
+    /**
+     * Get the maximum number of contexts of each type retained in the pools.
+     *
+     * @return maximum number of pooled contexts
+     */
+    public int getContextPoolSize() {
+        return m_marshalPool.getCapacity();
+    }
+
+    /**
+     * Set whether generated marshaller and unmarshaller instances are shared
+     * between all contexts created by this factory. The generated handlers are
+     * stateless, so sharing is normally safe; the default is taken from the
+     * <code>org.jibx.runtime.impl.sharehandlers</code> system property, and is
+     * <code>true</code> if the property is not set. User-defined handlers are
+     * never shared, regardless of this setting.
+     *
+     * @param share <code>true</code> if generated handlers are shared,
+     * <code>false</code> if each context creates its own instances
+     */
+    public void setHandlerSharing(boolean share) {
+        m_shareHandlers = share;
+    }
+
+    /**
+     * Check whether generated marshaller and unmarshaller instances are shared
+     * between contexts.
+     *
+     * @return <code>true</code> if shared, <code>false</code> if not
+     */
+    public boolean isHandlerSharing() {
+        return m_shareHandlers;
+    }
+
+    /**
+     * Create an instance of a handler class.
+     *
+     * @param clas handler class (<code>null</code> if unable to load)
+     * @param name handler class name
+     * @param type handler type text, for error reporting
+     * @return handler instance
+     * @throws JiBXException if unable to create instance
+     */
+    private static Object createHandler(Class clas, String name, String type)
+        throws JiBXException {
+        if (clas == null) {
+            throw new JiBXException("Unable to load " + type + " class " +
+                name);
+        }
+        try {
+            return clas.newInstance();
+        } catch (Exception e) {
+            throw new JiBXException("Unable to create " + type + " of class " +
+                name + ":", e);
+        }
+    }
+
+    /**
+     * Get the shared marshaller instance for a global mapping. The instance is
+     * created on first use and published to all contexts using this factory.
+     * This returns <code>null</code> if the marshaller is user-defined, or if
+     * handler sharing is disabled, in which case the caller needs to create its
+     * own instance.
+     *
+     * @param index marshaller class index
+     * @return shared marshaller, or <code>null</code> if not shareable
+     * @throws JiBXException if unable to create marshaller
+     */
+    public IMarshaller getSharedMarshaller(int index) throws JiBXException {
+        if (m_shareHandlers && m_marshallerShareable[index]) {
+            Object inst = m_sharedMarshallers.get(index);
+            if (inst == null) {
+                inst = createHandler(getMarshallerClass(index),
+                    m_marshallers[index], "marshaller");
+                if (!m_sharedMarshallers.compareAndSet(index, null, inst)) {
+                    inst = m_sharedMarshallers.get(index);
+                }
+            }
+            return (IMarshaller)inst;
+        } else {
+            return null;
+        }
+    }
+
+    /**
+     * Get the shared unmarshaller instance for a global mapping. The instance
+     * is created on first use and published to all contexts using this
+     * factory. This returns <code>null</code> if the unmarshaller is
+     * user-defined, or if handler sharing is disabled, in which case the caller
+     * needs to create its own instance.
+     *
+     * @param index unmarshaller class index
+     * @return shared unmarshaller, or <code>null</code> if not shareable
+     * @throws JiBXException if unable to create unmarshaller
+     */
+    public IUnmarshaller getSharedUnmarshaller(int index)
+        throws JiBXException {
+        if (m_shareHandlers && m_unmarshallerShareable[index]) {
+            Object inst = m_sharedUnmarshallers.get(index);
+            if (inst == null) {
+                inst = createHandler(getUnmarshallerClass(index),
+                    m_unmarshallers[index], "unmarshaller");
+                if (!m_sharedUnmarshallers.compareAndSet(index, null, inst)) {
+                    inst = m_sharedUnmarshallers.get(index);
+                }
+            }
+            return (IUnmarshaller)inst;
+        } else {
+            return null;
+        }
+    }
+
     /**
      * Get the binding name.
      *
@@ -526,9 +815,12 @@ public abstract class BindingFactoryBase implements IBindingFactory
      *
      * @return map from local name to class index array
      */
-    public synchronized Map getUnmarshalMap() {
-        if (m_unmarshalMap == null) {
-            Map map = new HashMap();
+    public Map getUnmarshalMap() {
+        
+        // build without locking, since any thread doing so gets the same result
+        Map map = m_unmarshalMap;
+        if (map == null) {
+            map = new HashMap();
             for (int i = 0; i < m_globalNames.length; i++) {
                 String name = m_globalNames[i];
                 if (name != null) {
@@ -552,7 +844,26 @@ public abstract class BindingFactoryBase implements IBindingFactory
             }
             m_unmarshalMap = map;
         }
-        return m_unmarshalMap;
+        return map;
+    }
+
+    /**
+     * Get the table used to find the global mapping for an element name. This
+     * is built on first use and then shared by all unmarshalling contexts for
+     * the binding.
+     *
+     * @return dispatch table
+     */
+    public ElementDispatchTable getDispatchTable() {
+        
+        // build without locking, since any thread doing so gets the same result
+        ElementDispatchTable table = m_dispatchTable;
+        if (table == null) {
+            table = new ElementDispatchTable(getElementNamespaces(),
+                getElementNames());
+            m_dispatchTable = table;
+        }
+        return table;
     }
 
     /**
@@ -566,6 +877,7 @@ public abstract class BindingFactoryBase implements IBindingFactory
         Class clas = m_marshallerClasses[index];
         if (clas == null) {
             clas = loadClass(m_marshallers[index]);
+            m_marshallerClasses[index] = clas;
         }
         return clas;
     }
@@ -581,6 +893,7 @@ public abstract class BindingFactoryBase implements IBindingFactory
         Class clas = m_unmarshallerClasses[index];
         if (clas == null) {
             clas = loadClass(m_unmarshallers[index]);
+            m_unmarshallerClasses[index] = clas;
         }
         return clas;
     }
@@ -0,0 +1,291 @@
+/*
+Copyright (c) 2026, agent.
+All rights reserved.
+
+Redistribution and use in source and binary forms, with or without modification,
+are permitted provided that the following conditions are met:
+
+ * Redistributions of source code must retain the above copyright notice, this
+   list of conditions and the following disclaimer.
+ * Redistributions in binary form must reproduce the above copyright notice,
+   this list of conditions and the following disclaimer in the documentation
+   and/or other materials provided with the distribution.
+ * Neither the name of JiBX nor the names of its contributors may be used
+   to endorse or promote products derived from this software without specific
+   prior written permission.
+
+THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+(INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON
+ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+(INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+*/
+package org.jibx.runtime.impl;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Pool of byte arrays used by the input and output byte buffers. Arrays are
+ * pooled in power-of-two size classes starting from {@link #MINIMUM_SIZE}, so
+ * a borrowed array may be larger than the requested size. Each thread keeps at
+ * most one array of each of the smaller size classes for its own use, and
+ * arrays which don't fit in the thread cache go into a shared pool for each
+ * size class (using {@link ContextPool}, so neither borrowing nor releasing
+ * ever blocks). The total size of the arrays held in the shared pools is
+ * limited by a configurable maximum, with arrays released beyond that limit
+ * just discarded. Arrays larger than the largest size class are never pooled.
+ *
+ * @author agent
+ */
+public class BufferPool
+{
+    /** Size of arrays in the smallest size class. */
+    public static final int MINIMUM_SIZE = 4096;
+    
+    /** Size of arrays in the largest size class. */
+    public static final int MAXIMUM_SIZE = MINIMUM_SIZE << 10;
+    
+    /** System property used to set the maximum number of bytes retained in
+     the shared pools of the default instance. */
+    public static final String MAXIMUM_RETAINED_PROPERTY =
+        "org.jibx.runtime.impl.bufferpoolbytes";
+    
+    /** Default maximum number of bytes retained in the shared pools. */
+    public static final long DEFAULT_MAXIMUM_RETAINED = 16L * 1024 * 1024;
+    
+    /** Number of bits in minimum size. */
+    private static final int MINIMUM_SHIFT = 12;
+    
+    /** Number of size classes. */
+    private static final int CLASS_COUNT = 11;
+    
+    /** Number of size classes cached by each thread. */
+    private static final int LOCAL_CLASS_COUNT = 5;
+    
+    /** Number of slots in the shared pool for each size class. */
+    private static final int SHARED_SLOT_COUNT = 32;
+    
+    /** Default pool instance. */
+    private static final BufferPool s_default;
+    static {
+        long max = DEFAULT_MAXIMUM_RETAINED;
+        try {
+            String prop = System.getProperty(MAXIMUM_RETAINED_PROPERTY);
+            if (prop != null) {
+                max = Long.parseLong(prop.trim());
+            }
+        } catch (SecurityException e) {
+            /* exception just means the default value will be used */
+        } catch (NumberFormatException e) {
+            /* deliberately empty, use default value */
+        }
+        s_default = new BufferPool(max);
+    }
+    
+    /** Per-thread arrays, indexed by size class. */
+    private final ThreadLocal m_localArrays;
+    
+    /** Shared pools, indexed by size class. */
+    private final ContextPool[] m_sharedPools;
+    
+    /** Total size of arrays currently in the shared pools. */
+    private final AtomicLong m_retainedBytes;
+    
+    /** Number of requests satisfied from the pool. */
+    private final AtomicLong m_hitCount;
+    
+    /** Number of requests requiring a new array. */
+    private final AtomicLong m_missCount;
+    
+    /** Maximum total size of arrays retained in the shared pools (zero or
+     negative disables pooling). */
+    private volatile long m_maximumRetained;
+    
+    /**
+     * Constructor.
+     *
+     * @param max maximum number of bytes retained in the shared pools (zero or
+     * negative disables pooling)
+     */
+    public BufferPool(long max) {
+        m_localArrays = new ThreadLocal() {
+            protected Object initialValue() {
+                return new byte[LOCAL_CLASS_COUNT][];
+            }
+        };
+        m_sharedPools = new ContextPool[CLASS_COUNT];
+        for (int i = 0; i < CLASS_COUNT; i++) {
+            m_sharedPools[i] = new ContextPool(SHARED_SLOT_COUNT);
+        }
+        m_retainedBytes = new AtomicLong();
+        m_hitCount = new AtomicLong();
+        m_missCount = new AtomicLong();
+        m_maximumRetained = max;
+    }
+    
+    /**
+     * Get the default pool instance. The maximum number of bytes retained by
+     * the default instance can be set with the {@link
+     * #MAXIMUM_RETAINED_PROPERTY} system property.
+     *
+     * @return pool
+     */
+    public static BufferPool getDefault() {
+        return s_default;
+    }
+    
+    /**
+     * Get the size class for an array size.
+     *
+     * @param size array size
+     * @return size class, or <code>-1</code> if larger than the largest class
+     */
+    private static int sizeClass(int size) {
+        if (size <= MINIMUM_SIZE) {
+            return 0;
+        } else if (size > MAXIMUM_SIZE) {
+            return -1;
+        } else {
+            return 32 - Integer.numberOfLeadingZeros(size - 1) - MINIMUM_SHIFT;
+        }
+    }
+    
+    /**
+     * Get an array of at least the requested size.
+     *
+     * @param size minimum array size
+     * @return array (contents undefined)
+     */
+    public byte[] borrow(int size) {
+        int index = sizeClass(size);
+        if (index >= 0 && m_maximumRetained > 0) {
+            
+            // check the thread cache first, then the shared pool
+            byte[] array = null;
+            if (index < LOCAL_CLASS_COUNT) {
+                byte[][] local = (byte[][])m_localArrays.get();
+                array = local[index];
+                local[index] = null;
+            }
+            if (array == null) {
+                array = (byte[])m_sharedPools[index].borrow();
+                if (array != null) {
+                    m_retainedBytes.addAndGet(-array.length);
+                }
+            }
+            if (array != null) {
+                m_hitCount.incrementAndGet();
+                return array;
+            }
+            size = MINIMUM_SIZE << index;
+        }
+        m_missCount.incrementAndGet();
+        return new byte[size];
+    }
+    
+    /**
+     * Return an array to the pool. Arrays which are not exactly the size of a
+     * size class are ignored, as are arrays which would take the shared pool
+     * past the maximum number of retained bytes. The array must not be used by
+     * the caller after this call.
+     *
+     * @param array array to be returned
+     */
+    public void release(byte[] array) {
+        int length = array.length;
+        int index = sizeClass(length);
+        if (index >= 0 && length == MINIMUM_SIZE << index &&
+            m_maximumRetained > 0) {
+            
+            // keep in the thread cache if possible
+            if (index < LOCAL_CLASS_COUNT) {
+                byte[][] local = (byte[][])m_localArrays.get();
+                if (local[index] == null) {
+                    local[index] = array;
+                    return;
+                }
+            }
+            
+            // reserve space in the shared pool before adding
+            if (m_retainedBytes.addAndGet(length) <= m_maximumRetained &&
+                m_sharedPools[index].release(array)) {
+                return;
+            }
+            m_retainedBytes.addAndGet(-length);
+        }
+    }
+    
+    /**
+     * Discard all arrays in the shared pools. Arrays cached by threads are not
+     * affected.
+     */
+    public void clear() {
+        for (int i = 0; i < CLASS_COUNT; i++) {
+            ContextPool pool = m_sharedPools[i];
+            Object obj;
+            while ((obj = pool.borrow()) != null) {
+                m_retainedBytes.addAndGet(-((byte[])obj).length);
+            }
+        }
+    }
+    
+    /**
+     * Get the maximum number of bytes retained in the shared pools.
+     *
+     * @return maximum
+     */
+    public long getMaximumRetained() {
+        return m_maximumRetained;
+    }
+    
+    /**
+     * Set the maximum number of bytes retained in the shared pools. Reducing
+     * the maximum does not discard arrays already in the pools, but a value of
+     * zero or less disables all further use of the pool.
+     *
+     * @param max maximum
+     */
+    public void setMaximumRetained(long max) {
+        m_maximumRetained = max;
+    }
+    
+    /**
+     * Get the total size of the arrays currently in the shared pools.
+     *
+     * @return byte count
+     */
+    public long getRetainedBytes() {
+        return m_retainedBytes.get();
+    }
+    
+    /**
+     * Get the number of requests satisfied with a pooled array.
+     *
+     * @return hit count
+     */
+    public long getHitCount() {
+        return m_hitCount.get();
+    }
+    
+    /**
+     * Get the number of requests which required a new array.
+     *
+     * @return miss count
+     */
+    public long getMissCount() {
+        return m_missCount.get();
+    }
+    
+    /**
+     * Reset the hit and miss counts to zero.
+     */
+    public void resetStatistics() {
+        m_hitCount.set(0);
+        m_missCount.set(0);
+    }
+}
@@ -0,0 +1,328 @@
+/*
+Copyright (c) 2026, agent.
+All rights reserved.
+
+Redistribution and use in source and binary forms, with or without modification,
+are permitted provided that the following conditions are met:
+
+ * Redistributions of source code must retain the above copyright notice, this
+   list of conditions and the following disclaimer.
+ * Redistributions in binary form must reproduce the above copyright notice,
+   this list of conditions and the following disclaimer in the documentation
+   and/or other materials provided with the distribution.
+ * Neither the name of JiBX nor the names of its contributors may be used
+   to endorse or promote products derived from this software without specific
+   prior written permission.
+
+THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+(INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON
+ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+(INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+*/
+package org.jibx.runtime.impl;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.GatheringByteChannel;
+import java.nio.channels.WritableByteChannel;
+
+import org.jibx.runtime.IRuntimeMonitor;
+
+/**
+ * Byte buffer wrapping a writable channel. Rather than writing each time the
+ * byte array is filled, this accumulates a number of filled arrays as segments
+ * and writes them all together, using a single gathering write when the
+ * channel supports it. The arrays are wrapped directly for the channel write,
+ * so no copying is done by this class. The channel should be in blocking
+ * mode, since a write is repeated until all data has been accepted. Clients
+ * need to obey the interface access rules.
+ *
+ * @author agent
+ */
+public class ChannelOutByteBuffer implements IOutByteBuffer
+{
+    /** Default number of filled segments held before writing. */
+    public static final int DEFAULT_SEGMENT_COUNT = 8;
+    
+    /** Channel for byte output. */
+    private WritableByteChannel m_channel;
+    
+    /** Buffer for output bytes. */
+    private byte[] m_buffer;
+    
+    /** Current offset for adding bytes to buffer. */
+    private int m_offset;
+    
+    /** Filled segments waiting to be written (wrapping arrays no longer in
+     use as the current buffer). */
+    private final ByteBuffer[] m_segments;
+    
+    /** Number of filled segments waiting to be written. */
+    private int m_segmentCount;
+    
+    /** Arrays from written segments, available for reuse. */
+    private final byte[][] m_spares;
+    
+    /** Number of arrays available for reuse. */
+    private int m_spareCount;
+    
+    /** Monitor for runtime events. */
+    private IRuntimeMonitor m_monitor = RuntimeSupport.getDefaultMonitor();
+    
+    /**
+     * Constructor with sizes specified.
+     * 
+     * @param size initial buffer size in bytes
+     * @param count maximum number of filled segments held before writing
+     * (must be at least 1)
+     */
+    public ChannelOutByteBuffer(int size, int count) {
+        m_buffer = new byte[size];
+        m_segments = new ByteBuffer[count+1];
+        m_spares = new byte[count][];
+    }
+    
+    /**
+     * Constructor using default sizes.
+     */
+    public ChannelOutByteBuffer() {
+        this(OutByteBuffer.DEFAULT_BUFFER_SIZE, DEFAULT_SEGMENT_COUNT);
+    }
+    
+    /**
+     * Reset to initial state for reuse. Any data not yet written is discarded.
+     */
+    public void reset() {
+        while (m_segmentCount > 0) {
+            recycle(m_segments[--m_segmentCount]);
+        }
+        m_offset = 0;
+        m_channel = null;
+    }
+    
+    /**
+     * Set output channel. If an output channel is currently open when this is
+     * called the existing channel is flushed and closed, with any errors
+     * ignored.
+     *
+     * @param chan channel
+     */
+    public void setOutput(WritableByteChannel chan) {
+        try {
+            finish();
+        } catch (IOException e) { /* deliberately empty */ }
+        reset();
+        m_channel = chan;
+    }
+    
+    /**
+     * Set the monitor for runtime events. By default, buffers use the monitor
+     * returned by {@link RuntimeSupport#getDefaultMonitor()} at the time the
+     * buffer was created.
+     *
+     * @param monitor monitor (<code>null</code> to ignore all events)
+     */
+    public void setMonitor(IRuntimeMonitor monitor) {
+        m_monitor = monitor == null ? NullRuntimeMonitor.INSTANCE : monitor;
+    }
+    
+    /**
+     * Add an array to the spares for reuse, if there's room.
+     *
+     * @param seg written segment wrapping array
+     */
+    private void recycle(ByteBuffer seg) {
+        byte[] array = seg.array();
+        if (m_spareCount < m_spares.length && array.length == m_buffer.length) {
+            m_spares[m_spareCount++] = array;
+        }
+    }
+    
+    /**
+     * Get an empty array of the same size as the current buffer, reusing a
+     * spare if possible. Spares are discarded when the buffer grows, so any
+     * spare is always the current size.
+     *
+     * @return array
+     */
+    private byte[] nextArray() {
+        if (m_spareCount > 0) {
+            byte[] array = m_spares[--m_spareCount];
+            m_spares[m_spareCount] = null;
+            return array;
+        } else {
+            return new byte[m_buffer.length];
+        }
+    }
+    
+    /**
+     * Write all pending segments to the channel, optionally including data in
+     * the current buffer. The written segment arrays are kept for reuse.
+     *
+     * @param current include data in the current buffer flag
+     * @throws IOException on write error
+     */
+    private void writeSegments(boolean current) throws IOException {
+        int count = m_segmentCount;
+        if (current && m_offset > 0) {
+            m_segments[count++] = ByteBuffer.wrap(m_buffer, 0, m_offset);
+        }
+        if (count > 0) {
+            long total = 0;
+            if (count > 1 && m_channel instanceof GatheringByteChannel) {
+                GatheringByteChannel gather = (GatheringByteChannel)m_channel;
+                int index = 0;
+                while (index < count) {
+                    total += gather.write(m_segments, index, count - index);
+                    while (index < count && !m_segments[index].hasRemaining()) {
+                        index++;
+                    }
+                }
+            } else {
+                for (int i = 0; i < count; i++) {
+                    ByteBuffer seg = m_segments[i];
+                    while (seg.hasRemaining()) {
+                        total += m_channel.write(seg);
+                    }
+                }
+            }
+            m_monitor.bytesWritten((int)total);
+            for (int i = 0; i < m_segmentCount; i++) {
+                recycle(m_segments[i]);
+            }
+            for (int i = 0; i < count; i++) {
+                m_segments[i] = null;
+            }
+            m_segmentCount = 0;
+        }
+    }
+    
+    //
+    // IOutByteBuffer implementation
+    
+    /**
+     * Get the byte array buffer.
+     *
+     * @return array
+     */
+    public byte[] getBuffer() {
+        return m_buffer;
+    }
+    
+    /**
+     * Get the index of the next byte to be written. After writing data, the
+     * {@link #setOffset(int)} method must be used to update the current offset
+     * before any other operations are performed on the buffer.
+     *
+     * @return offset
+     */
+    public int getOffset() {
+        return m_offset;
+    }
+    
+    /**
+     * Set the current offset. This must be used to update the stored buffer
+     * state after writing any data.
+     * 
+     * @param offset Current offset
+     */
+    public void setOffset(int offset) {
+        m_offset = offset;
+    }
+    
+    /**
+     * Free at least some number of bytes of space in the byte array. The
+     * filled portion of the array up to the reserve is added to the pending
+     * segments, and a new array is used as the buffer (so {@link #getBuffer()}
+     * will always return a different array after this call, unless the space
+     * was already available). Any data past the reserve is moved to the start
+     * of the new array. The pending segments are written to the channel once
+     * the maximum number have been accumulated.
+     * 
+     * @param reserve offset of data to be preserved in buffer (nothing
+     * preserved if greater than or equal to current offset)
+     * @param size desired number of bytes
+     * @throws IOException If error
+     */
+    public void free(int reserve, int size) throws IOException {
+        if (m_buffer.length - m_offset < size) {
+            
+            // queue the filled part of the array, if any
+            int keep = 0;
+            if (reserve < m_offset) {
+                keep = m_offset - reserve;
+            } else {
+                reserve = m_offset;
+            }
+            byte[] newbuf = null;
+            if (reserve > 0) {
+                m_segments[m_segmentCount++] =
+                    ByteBuffer.wrap(m_buffer, 0, reserve);
+            } else {
+                newbuf = m_buffer;
+            }
+            
+            // get a new array, larger if needed
+            int need = keep + size;
+            if (need > m_buffer.length) {
+                byte[] array = new byte[Math.max(need, m_buffer.length*2)];
+                m_monitor.bufferGrown(array.length);
+                
+                // spares are all the old size, so no longer usable
+                while (m_spareCount > 0) {
+                    m_spares[--m_spareCount] = null;
+                }
+                if (keep > 0) {
+                    System.arraycopy(m_buffer, reserve, array, 0, keep);
+                }
+                newbuf = array;
+            } else if (newbuf == null) {
+                newbuf = nextArray();
+                if (keep > 0) {
+                    System.arraycopy(m_buffer, reserve, newbuf, 0, keep);
+                }
+            }
+            m_buffer = newbuf;
+            m_offset = keep;
+            
+            // write segments if the limit has been reached
+            if (m_segmentCount >= m_spares.length) {
+                writeSegments(false);
+            }
+        }
+    }
+    
+    /**
+     * Empty the buffer. Writes all pending segments and all data from the
+     * buffer to the output channel, resetting the offset to the start of the
+     * buffer.
+     * 
+     * @throws IOException If error
+     */
+    public void flush() throws IOException {
+        writeSegments(true);
+        m_offset = 0;
+    }
+    
+    /**
+     * Complete usage of the current channel. This method should be called
+     * whenever the application is done writing to the buffered channel. Once
+     * this method is called, a call to {@link #setOutput(WritableByteChannel)}
+     * is required before the buffer can again be used.
+     * 
+     * @throws IOException If error
+     */
+    public void finish() throws IOException {
+        if (m_channel != null) {
+            flush();
+            m_channel.close();
+            m_channel = null;
+        }
+    }
+}
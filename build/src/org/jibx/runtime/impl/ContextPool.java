@@ -0,0 +1,152 @@
+/*
+Copyright (c) 2026, agent.
+All rights reserved.
+
+Redistribution and use in source and binary forms, with or without modification,
+are permitted provided that the following conditions are met:
+
+ * Redistributions of source code must retain the above copyright notice, this
+   list of conditions and the following disclaimer.
+ * Redistributions in binary form must reproduce the above copyright notice,
+   this list of conditions and the following disclaimer in the documentation
+   and/or other materials provided with the distribution.
+ * Neither the name of JiBX nor the names of its contributors may be used
+   to endorse or promote products derived from this software without specific
+   prior written permission.
+
+THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+(INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON
+ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+(INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+*/
+
+package org.jibx.runtime.impl;
+
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * Lock-free pool of reusable objects. This is used by the binding factory to
+ * recycle marshalling and unmarshalling contexts. The pool is a fixed-size
+ * array of slots, and each thread starts searching at a slot selected by the
+ * thread identifier so that threads running concurrently normally work on
+ * different parts of the array. Slots are emptied and filled using atomic
+ * compare-and-set operations, so neither taking an object from the pool nor
+ * returning an object to the pool ever blocks. When the pool is empty {@link
+ * #borrow()} just returns <code>null</code>, and when the pool is full an
+ * object passed to {@link #release(Object)} is discarded.
+ *
+ * @author agent
+ */
+public class ContextPool
+{
+    /** Pooled objects (<code>null</code> for empty slots). */
+    private final AtomicReferenceArray m_slots;
+    
+    /** Number of slots in pool. */
+    private final int m_capacity;
+    
+    /**
+     * Constructor.
+     *
+     * @param capacity maximum number of objects retained in pool (zero or
+     * negative disables pooling)
+     */
+    public ContextPool(int capacity) {
+        m_capacity = Math.max(capacity, 0);
+        m_slots = new AtomicReferenceArray(m_capacity);
+    }
+    
+    /**
+     * Get the starting slot for a search by the current thread.
+     *
+     * @return slot index
+     */
+    private int startSlot() {
+        long id = Thread.currentThread().getId();
+        return (int)((id ^ (id >>> 32)) & 0x7FFFFFFF) % m_capacity;
+    }
+    
+    /**
+     * Get the maximum number of objects retained by the pool.
+     *
+     * @return capacity
+     */
+    public int getCapacity() {
+        return m_capacity;
+    }
+    
+    /**
+     * Take an object from the pool.
+     *
+     * @return pooled object, or <code>null</code> if pool is empty
+     */
+    public Object borrow() {
+        if (m_capacity > 0) {
+            int slot = startSlot();
+            for (int i = 0; i < m_capacity; i++) {
+                Object obj = m_slots.get(slot);
+                if (obj != null && m_slots.compareAndSet(slot, obj, null)) {
+                    return obj;
+                }
+                if (++slot == m_capacity) {
+                    slot = 0;
+                }
+            }
+        }
+        return null;
+    }
+    
+    /**
+     * Check if an object is currently in the pool.
+     *
+     * @param obj object to be found
+     * @return <code>true</code> if object in pool, <code>false</code> if not
+     */
+    public boolean contains(Object obj) {
+        for (int i = 0; i < m_capacity; i++) {
+            if (m_slots.get(i) == obj) {
+                return true;
+            }
+        }
+        return false;
+    }
+    
+    /**
+     * Return an object to the pool. The object must not be used by the caller
+     * after this call.
+     *
+     * @param obj object to be returned (non-<code>null</code>)
+     * @return <code>true</code> if object added to pool, <code>false</code> if
+     * pool full
+     */
+    public boolean release(Object obj) {
+        if (m_capacity > 0) {
+            int slot = startSlot();
+            for (int i = 0; i < m_capacity; i++) {
+                if (m_slots.get(slot) == null &&
+                    m_slots.compareAndSet(slot, null, obj)) {
+                    return true;
+                }
+                if (++slot == m_capacity) {
+                    slot = 0;
+                }
+            }
+        }
+        return false;
+    }
+    
+    /**
+     * Discard all objects currently in the pool.
+     */
+    public void clear() {
+        for (int i = 0; i < m_capacity; i++) {
+            m_slots.set(i, null);
+        }
+    }
+}
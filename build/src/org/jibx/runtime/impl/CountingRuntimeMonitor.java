@@ -0,0 +1,452 @@
+/*
+Copyright (c) 2026, agent.
+All rights reserved.
+
+Redistribution and use in source and binary forms, with or without modification,
+are permitted provided that the following conditions are met:
+
+ * Redistributions of source code must retain the above copyright notice, this
+   list of conditions and the following disclaimer.
+ * Redistributions in binary form must reproduce the above copyright notice,
+   this list of conditions and the following disclaimer in the documentation
+   and/or other materials provided with the distribution.
+ * Neither the name of JiBX nor the names of its contributors may be used
+   to endorse or promote products derived from this software without specific
+   prior written permission.
+
+THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+(INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON
+ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+(INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+*/
+
+package org.jibx.runtime.impl;
+
+import java.lang.management.ManagementFactory;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+
+import org.jibx.runtime.IRuntimeMonitor;
+import org.jibx.runtime.JiBXException;
+
+/**
+ * Runtime monitor which accumulates counts and times. All values are kept using
+ * atomic counters, so a single instance can be shared by any number of threads
+ * without locking. Times are measured using {@link System#nanoTime()}, with
+ * totals tracked both overall and for each root class, and with the
+ * distribution of times tracked by a histogram of power-of-two buckets. The
+ * values are accessible directly or through JMX, after registering the
+ * instance using {@link #register()}. To use this as the default for all
+ * contexts, either set the system property {@link
+ * RuntimeSupport#MONITOR_PROPERTY} to the name of this class or call {@link
+ * RuntimeSupport#setDefaultMonitor(IRuntimeMonitor)} with an instance.
+ *
+ * @author agent
+ */
+public class CountingRuntimeMonitor
+    implements IRuntimeMonitor, CountingRuntimeMonitorMBean
+{
+    /** Object name used for JMX registration by default. */
+    public static final String DEFAULT_OBJECT_NAME =
+        "org.jibx.runtime:type=RuntimeMonitor";
+    
+    /** Number of histogram buckets (one for each possible bit length). */
+    private static final int BUCKET_COUNT = 64;
+    
+    /** Input documents opened. */
+    private final AtomicLong m_documentsOpened = new AtomicLong();
+    
+    /** Output documents ended. */
+    private final AtomicLong m_documentsEnded = new AtomicLong();
+    
+    /** Unmarshal failures. */
+    private final AtomicLong m_unmarshalFailures = new AtomicLong();
+    
+    /** Marshal failures. */
+    private final AtomicLong m_marshalFailures = new AtomicLong();
+    
+    /** Bytes read. */
+    private final AtomicLong m_bytesRead = new AtomicLong();
+    
+    /** Bytes written. */
+    private final AtomicLong m_bytesWritten = new AtomicLong();
+    
+    /** Buffer growths. */
+    private final AtomicLong m_bufferGrowths = new AtomicLong();
+    
+    /** IDs defined. */
+    private final AtomicLong m_idCount = new AtomicLong();
+    
+    /** Maximum IDs defined in a single root element. */
+    private final AtomicLong m_maximumIdCount = new AtomicLong();
+    
+    /** Forward references back-filled. */
+    private final AtomicLong m_backFillCount = new AtomicLong();
+    
+    /** Unmarshal time statistics for all root classes. */
+    private final TimeStatistics m_unmarshalTimes = new TimeStatistics();
+    
+    /** Marshal time statistics for all root classes. */
+    private final TimeStatistics m_marshalTimes = new TimeStatistics();
+    
+    /** Map from root class name to statistics for that class. */
+    private final ConcurrentMap m_rootMap = new ConcurrentHashMap();
+    
+    /** Name used for JMX registration (<code>null</code> if not
+     registered). */
+    private volatile ObjectName m_objectName;
+    
+    /**
+     * Get statistics for a root class, creating them if needed.
+     *
+     * @param clas root class (<code>null</code> if unknown)
+     * @return statistics
+     */
+    private RootStatistics getRoot(Class clas) {
+        String name = clas == null ? "" : clas.getName();
+        RootStatistics stats = (RootStatistics)m_rootMap.get(name);
+        if (stats == null) {
+            stats = new RootStatistics();
+            RootStatistics prior =
+                (RootStatistics)m_rootMap.putIfAbsent(name, stats);
+            if (prior != null) {
+                stats = prior;
+            }
+        }
+        return stats;
+    }
+    
+    /**
+     * Register this monitor with the platform MBean server using the default
+     * name.
+     *
+     * @return name used for registration
+     * @throws JiBXException on registration error
+     */
+    public ObjectName register() throws JiBXException {
+        return register(DEFAULT_OBJECT_NAME);
+    }
+    
+    /**
+     * Register this monitor with the platform MBean server.
+     *
+     * @param name object name to be used for registration
+     * @return name used for registration
+     * @throws JiBXException on registration error
+     */
+    public ObjectName register(String name) throws JiBXException {
+        try {
+            MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+            ObjectName oname = new ObjectName(name);
+            server.registerMBean(this, oname);
+            m_objectName = oname;
+            return oname;
+        } catch (JMException e) {
+            throw new JiBXException("Unable to register runtime monitor as " +
+                name, e);
+        }
+    }
+    
+    /**
+     * Remove the registration of this monitor with the platform MBean server.
+     * This does nothing if the monitor is not registered.
+     *
+     * @throws JiBXException on error removing registration
+     */
+    public void unregister() throws JiBXException {
+        ObjectName oname = m_objectName;
+        if (oname != null) {
+            try {
+                ManagementFactory.getPlatformMBeanServer().
+                    unregisterMBean(oname);
+                m_objectName = null;
+            } catch (JMException e) {
+                throw new JiBXException("Unable to remove registration of " +
+                    "runtime monitor as " + oname, e);
+            }
+        }
+    }
+    
+    //
+    // IRuntimeMonitor implementation
+    
+    public void documentOpened() {
+        m_documentsOpened.incrementAndGet();
+    }
+    
+    public long unmarshalStarted() {
+        return System.nanoTime();
+    }
+    
+    public void unmarshalCompleted(Class clas, long start, int ids, int fills) {
+        long time = System.nanoTime() - start;
+        m_unmarshalTimes.add(time);
+        getRoot(clas).m_unmarshalTimes.add(time);
+        if (ids > 0) {
+            m_idCount.addAndGet(ids);
+            long max;
+            while ((max = m_maximumIdCount.get()) < ids &&
+                !m_maximumIdCount.compareAndSet(max, ids));
+        }
+        if (fills > 0) {
+            m_backFillCount.addAndGet(fills);
+        }
+    }
+    
+    public void unmarshalFailed(long start) {
+        m_unmarshalFailures.incrementAndGet();
+    }
+    
+    public long marshalStarted() {
+        return System.nanoTime();
+    }
+    
+    public void marshalCompleted(Class clas, long start) {
+        long time = System.nanoTime() - start;
+        m_marshalTimes.add(time);
+        getRoot(clas).m_marshalTimes.add(time);
+    }
+    
+    public void marshalFailed(long start) {
+        m_marshalFailures.incrementAndGet();
+    }
+    
+    public void documentEnded() {
+        m_documentsEnded.incrementAndGet();
+    }
+    
+    public void bytesRead(int count) {
+        m_bytesRead.addAndGet(count);
+    }
+    
+    public void bytesWritten(int count) {
+        m_bytesWritten.addAndGet(count);
+    }
+    
+    public void bufferGrown(int size) {
+        m_bufferGrowths.incrementAndGet();
+    }
+    
+    //
+    // CountingRuntimeMonitorMBean implementation
+    
+    public long getDocumentsOpened() {
+        return m_documentsOpened.get();
+    }
+    
+    public long getDocumentsEnded() {
+        return m_documentsEnded.get();
+    }
+    
+    public long getUnmarshalCount() {
+        return m_unmarshalTimes.getCount();
+    }
+    
+    public long getUnmarshalFailures() {
+        return m_unmarshalFailures.get();
+    }
+    
+    public long getUnmarshalTime() {
+        return m_unmarshalTimes.getTotal();
+    }
+    
+    public long getUnmarshalTimePercentile(double pct) {
+        return m_unmarshalTimes.getPercentile(pct);
+    }
+    
+    public long getMarshalCount() {
+        return m_marshalTimes.getCount();
+    }
+    
+    public long getMarshalFailures() {
+        return m_marshalFailures.get();
+    }
+    
+    public long getMarshalTime() {
+        return m_marshalTimes.getTotal();
+    }
+    
+    public long getMarshalTimePercentile(double pct) {
+        return m_marshalTimes.getPercentile(pct);
+    }
+    
+    public long getBytesRead() {
+        return m_bytesRead.get();
+    }
+    
+    public long getBytesWritten() {
+        return m_bytesWritten.get();
+    }
+    
+    public long getBufferGrowths() {
+        return m_bufferGrowths.get();
+    }
+    
+    public long getIdCount() {
+        return m_idCount.get();
+    }
+    
+    public long getMaximumIdCount() {
+        return m_maximumIdCount.get();
+    }
+    
+    public long getBackFillCount() {
+        return m_backFillCount.get();
+    }
+    
+    public String[] getRootClasses() {
+        return (String[])m_rootMap.keySet().toArray(new String[0]);
+    }
+    
+    public long getRootUnmarshalCount(String cname) {
+        RootStatistics stats = (RootStatistics)m_rootMap.get(cname);
+        return stats == null ? 0 : stats.m_unmarshalTimes.getCount();
+    }
+    
+    public long getRootUnmarshalTime(String cname) {
+        RootStatistics stats = (RootStatistics)m_rootMap.get(cname);
+        return stats == null ? 0 : stats.m_unmarshalTimes.getTotal();
+    }
+    
+    public long getRootMarshalCount(String cname) {
+        RootStatistics stats = (RootStatistics)m_rootMap.get(cname);
+        return stats == null ? 0 : stats.m_marshalTimes.getCount();
+    }
+    
+    public long getRootMarshalTime(String cname) {
+        RootStatistics stats = (RootStatistics)m_rootMap.get(cname);
+        return stats == null ? 0 : stats.m_marshalTimes.getTotal();
+    }
+    
+    public void reset() {
+        m_documentsOpened.set(0);
+        m_documentsEnded.set(0);
+        m_unmarshalFailures.set(0);
+        m_marshalFailures.set(0);
+        m_bytesRead.set(0);
+        m_bytesWritten.set(0);
+        m_bufferGrowths.set(0);
+        m_idCount.set(0);
+        m_maximumIdCount.set(0);
+        m_backFillCount.set(0);
+        m_unmarshalTimes.reset();
+        m_marshalTimes.reset();
+        m_rootMap.clear();
+    }
+    
+    /**
+     * Time statistics, consisting of a count and total time along with a
+     * histogram of times. Histogram bucket <i>n</i> counts times with a bit
+     * length of <i>n</i> (so with values from 2<sup>n-1</sup> up to
+     * 2<sup>n</sup>-1).
+     */
+    private static class TimeStatistics
+    {
+        /** Number of times added. */
+        private final AtomicLong m_count = new AtomicLong();
+        
+        /** Total of all times. */
+        private final AtomicLong m_total = new AtomicLong();
+        
+        /** Histogram counts. */
+        private final AtomicLongArray m_buckets =
+            new AtomicLongArray(BUCKET_COUNT);
+        
+        /**
+         * Add a time.
+         *
+         * @param time elapsed time
+         */
+        public void add(long time) {
+            if (time < 0) {
+                time = 0;
+            }
+            m_count.incrementAndGet();
+            m_total.addAndGet(time);
+            int bucket = BUCKET_COUNT - Long.numberOfLeadingZeros(time);
+            m_buckets.incrementAndGet(Math.min(bucket, BUCKET_COUNT-1));
+        }
+        
+        /**
+         * Get number of times added.
+         *
+         * @return count
+         */
+        public long getCount() {
+            return m_count.get();
+        }
+        
+        /**
+         * Get total of all times.
+         *
+         * @return total
+         */
+        public long getTotal() {
+            return m_total.get();
+        }
+        
+        /**
+         * Get approximate percentile time. This finds the histogram bucket
+         * containing the percentile and returns the largest value which would
+         * fall into that bucket.
+         *
+         * @param pct percentile (0.0 to 100.0)
+         * @return time (0 if no times added)
+         */
+        public long getPercentile(double pct) {
+            long[] counts = new long[BUCKET_COUNT];
+            long total = 0;
+            for (int i = 0; i < BUCKET_COUNT; i++) {
+                counts[i] = m_buckets.get(i);
+                total += counts[i];
+            }
+            if (total == 0) {
+                return 0;
+            }
+            long target = (long)Math.ceil(total * Math.min(pct, 100.0) / 100.0);
+            long seen = 0;
+            for (int i = 0; i < BUCKET_COUNT; i++) {
+                seen += counts[i];
+                if (seen >= target && seen > 0) {
+                    return i == BUCKET_COUNT-1 ? Long.MAX_VALUE : (1L << i) - 1;
+                }
+            }
+            return Long.MAX_VALUE;
+        }
+        
+        /**
+         * Reset all values to zero.
+         */
+        public void reset() {
+            m_count.set(0);
+            m_total.set(0);
+            for (int i = 0; i < BUCKET_COUNT; i++) {
+                m_buckets.set(i, 0);
+            }
+        }
+    }
+    
+    /**
+     * Statistics for a root class.
+     */
+    private static class RootStatistics
+    {
+        /** Unmarshal times for class. */
+        private final TimeStatistics m_unmarshalTimes = new TimeStatistics();
+        
+        /** Marshal times for class. */
+        private final TimeStatistics m_marshalTimes = new TimeStatistics();
+    }
+}
@@ -0,0 +1,203 @@
+/*
+Copyright (c) 2026, agent.
+All rights reserved.
+
+Redistribution and use in source and binary forms, with or without modification,
+are permitted provided that the following conditions are met:
+
+ * Redistributions of source code must retain the above copyright notice, this
+   list of conditions and the following disclaimer.
+ * Redistributions in binary form must reproduce the above copyright notice,
+   this list of conditions and the following disclaimer in the documentation
+   and/or other materials provided with the distribution.
+ * Neither the name of JiBX nor the names of its contributors may be used
+   to endorse or promote products derived from this software without specific
+   prior written permission.
+
+THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+(INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON
+ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+(INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+*/
+
+package org.jibx.runtime.impl;
+
+/**
+ * JMX management interface for {@link CountingRuntimeMonitor}. All times are
+ * in nanoseconds.
+ *
+ * @author agent
+ */
+public interface CountingRuntimeMonitorMBean
+{
+    /**
+     * Get number of input documents opened for unmarshalling.
+     *
+     * @return count
+     */
+    long getDocumentsOpened();
+    
+    /**
+     * Get number of output documents completed by marshalling.
+     *
+     * @return count
+     */
+    long getDocumentsEnded();
+    
+    /**
+     * Get number of root elements unmarshalled.
+     *
+     * @return count
+     */
+    long getUnmarshalCount();
+    
+    /**
+     * Get number of failed root element unmarshals.
+     *
+     * @return count
+     */
+    long getUnmarshalFailures();
+    
+    /**
+     * Get total time spent unmarshalling root elements.
+     *
+     * @return time
+     */
+    long getUnmarshalTime();
+    
+    /**
+     * Get approximate percentile of root element unmarshal times. The value
+     * returned is the upper bound of the power-of-two histogram bucket
+     * containing the percentile.
+     *
+     * @param pct percentile (0.0 to 100.0)
+     * @return time
+     */
+    long getUnmarshalTimePercentile(double pct);
+    
+    /**
+     * Get number of root objects marshalled.
+     *
+     * @return count
+     */
+    long getMarshalCount();
+    
+    /**
+     * Get number of failed root object marshals.
+     *
+     * @return count
+     */
+    long getMarshalFailures();
+    
+    /**
+     * Get total time spent marshalling root objects.
+     *
+     * @return time
+     */
+    long getMarshalTime();
+    
+    /**
+     * Get approximate percentile of root object marshal times. The value
+     * returned is the upper bound of the power-of-two histogram bucket
+     * containing the percentile.
+     *
+     * @param pct percentile (0.0 to 100.0)
+     * @return time
+     */
+    long getMarshalTimePercentile(double pct);
+    
+    /**
+     * Get total number of bytes read by runtime input buffers.
+     *
+     * @return count
+     */
+    long getBytesRead();
+    
+    /**
+     * Get total number of bytes written by runtime output buffers.
+     *
+     * @return count
+     */
+    long getBytesWritten();
+    
+    /**
+     * Get number of times runtime buffers were enlarged.
+     *
+     * @return count
+     */
+    long getBufferGrowths();
+    
+    /**
+     * Get total number of IDs defined in unmarshalled documents.
+     *
+     * @return count
+     */
+    long getIdCount();
+    
+    /**
+     * Get maximum number of IDs defined in a single unmarshalled root element
+     * (the entire document, unless the document is unmarshalled one record at
+     * a time).
+     *
+     * @return count
+     */
+    long getMaximumIdCount();
+    
+    /**
+     * Get total number of forward references to IDs back-filled in
+     * unmarshalled documents.
+     *
+     * @return count
+     */
+    long getBackFillCount();
+    
+    /**
+     * Get names of root classes marshalled or unmarshalled.
+     *
+     * @return class names
+     */
+    String[] getRootClasses();
+    
+    /**
+     * Get number of root elements unmarshalled to a particular class.
+     *
+     * @param cname root class name
+     * @return count
+     */
+    long getRootUnmarshalCount(String cname);
+    
+    /**
+     * Get total time spent unmarshalling root elements to a particular class.
+     *
+     * @param cname root class name
+     * @return time
+     */
+    long getRootUnmarshalTime(String cname);
+    
+    /**
+     * Get number of root objects of a particular class marshalled.
+     *
+     * @param cname root class name
+     * @return count
+     */
+    long getRootMarshalCount(String cname);
+    
+    /**
+     * Get total time spent marshalling root objects of a particular class.
+     *
+     * @param cname root class name
+     * @return time
+     */
+    long getRootMarshalTime(String cname);
+    
+    /**
+     * Reset all counts to zero.
+     */
+    void reset();
+}
@@ -0,0 +1,565 @@
+/*
+Copyright (c) 2026, agent.
+All rights reserved.
+
+Redistribution and use in source and binary forms, with or without modification,
+are permitted provided that the following conditions are met:
+
+ * Redistributions of source code must retain the above copyright notice, this
+   list of conditions and the following disclaimer.
+ * Redistributions in binary form must reproduce the above copyright notice,
+   this list of conditions and the following disclaimer in the documentation
+   and/or other materials provided with the distribution.
+ * Neither the name of JiBX nor the names of its contributors may be used
+   to endorse or promote products derived from this software without specific
+   prior written permission.
+
+THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+(INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON
+ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+(INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+*/
+
+package org.jibx.runtime.impl;
+
+import java.math.BigInteger;
+
+/**
+ * Shortest decimal text formatting for <code>double</code> and
+ * <code>float</code> values. This uses the Schubfach algorithm (Raffaello
+ * Giulietti, "The Schubfach way to render doubles") to find the shortest
+ * decimal which rounds back to the original value, choosing the one closest to
+ * the original value if there's more than one, and writes the text directly to
+ * a byte array. The text uses the same layout as <code>Double.toString()</code>
+ * (plain decimal for magnitudes from 10<sup>-3</sup> up to 10<sup>7</sup>,
+ * computerized scientific notation otherwise), except that infinite values use
+ * the W3C XML Schema representations "INF" and "-INF".
+ *
+ * @author agent
+ */
+public abstract class DoubleFormatter
+{
+    /** Maximum number of characters generated for a value. */
+    public static final int MAX_LENGTH = 24;
+    
+    // double format parameters
+    private static final int DOUBLE_PRECISION = 53;
+    private static final long DOUBLE_FRACTION_MASK = (1L << 52) - 1;
+    private static final int DOUBLE_EXPONENT_MASK = 0x7FF;
+    private static final int DOUBLE_Q_MIN = -1074;
+    private static final long DOUBLE_C_MIN = 1L << 52;
+    private static final long DOUBLE_C_TINY = 3;
+    
+    // float format parameters
+    private static final int FLOAT_PRECISION = 24;
+    private static final int FLOAT_FRACTION_MASK = (1 << 23) - 1;
+    private static final int FLOAT_EXPONENT_MASK = 0xFF;
+    private static final int FLOAT_Q_MIN = -149;
+    private static final int FLOAT_C_MIN = 1 << 23;
+    private static final int FLOAT_C_TINY = 8;
+    
+    /** Minimum power of ten in table. */
+    private static final int K_MIN = -324;
+    
+    /** Maximum power of ten in table. */
+    private static final int K_MAX = 292;
+    
+    private static final long MASK_63 = 0x7FFFFFFFFFFFFFFFL;
+    private static final long MASK_32 = 0xFFFFFFFFL;
+    
+    /** Powers of ten which fit in a long. */
+    private static final long[] s_powersOfTen = new long[19];
+    
+    /** Approximations to the powers of ten from 10<sup>-K_MIN</sup> down to
+     10<sup>-K_MAX</sup>, as pairs of high and low 63-bit halves of the
+     126-bit value <i>g</i> = floor(10<sup>-k</sup> / 2<sup>r</sup>) + 1, with
+     <i>r</i> chosen so that 2<sup>125</sup> &lt;= <i>g</i> &lt;
+     2<sup>126</sup>. */
+    private static final long[] s_scaleFactors =
+        new long[(K_MAX - K_MIN + 1) * 2];
+    
+    static {
+        long power = 1;
+        for (int i = 0; i < s_powersOfTen.length; i++) {
+            s_powersOfTen[i] = power;
+            power *= 10;
+        }
+        BigInteger ten = BigInteger.valueOf(10);
+        BigInteger mask = BigInteger.valueOf(MASK_63);
+        for (int k = K_MIN; k <= K_MAX; k++) {
+            BigInteger g;
+            if (k <= 0) {
+                BigInteger value = ten.pow(-k);
+                int shift = value.bitLength() - 126;
+                if (shift >= 0) {
+                    g = value.shiftRight(shift);
+                } else {
+                    g = value.shiftLeft(-shift);
+                }
+            } else {
+                BigInteger divisor = ten.pow(k);
+                g = BigInteger.ONE.shiftLeft(125 + divisor.bitLength()).
+                    divide(divisor);
+            }
+            g = g.add(BigInteger.ONE);
+            int index = (k - K_MIN) << 1;
+            s_scaleFactors[index] = g.shiftRight(63).longValue();
+            s_scaleFactors[index + 1] = g.and(mask).longValue();
+        }
+    }
+    
+    /**
+     * Compute floor(log10(2<sup>e</sup>)).
+     *
+     * @param e power of two (absolute value no more than 5456721)
+     * @return power of ten
+     */
+    private static int floorLog10Pow2(int e) {
+        return (int)(e * 661971961083L >> 41);
+    }
+    
+    /**
+     * Compute floor(log10(3/4 * 2<sup>e</sup>)).
+     *
+     * @param e power of two (absolute value no more than 2647149)
+     * @return power of ten
+     */
+    private static int floorLog10ThreeQuartersPow2(int e) {
+        return (int)(e * 661971961083L - 274743187321L >> 41);
+    }
+    
+    /**
+     * Compute floor(log2(10<sup>e</sup>)).
+     *
+     * @param e power of ten (absolute value no more than 1838394)
+     * @return power of two
+     */
+    private static int floorLog2Pow10(int e) {
+        return (int)(e * 913124641741L >> 38);
+    }
+    
+    /**
+     * Compute the high 64 bits of the signed 128-bit product of two values.
+     *
+     * @param x first value
+     * @param y second value
+     * @return high part of product
+     */
+    /*package*/ static long multiplyHigh(long x, long y) {
+        long x1 = x >> 32;
+        long x2 = x & MASK_32;
+        long y1 = y >> 32;
+        long y2 = y & MASK_32;
+        long z2 = x2 * y2;
+        long t = x1 * y2 + (z2 >>> 32);
+        long z1 = (t & MASK_32) + x2 * y1;
+        long z0 = t >> 32;
+        return x1 * y1 + z0 + (z1 >> 32);
+    }
+    
+    /**
+     * Compute the scaled product used for double values, rounded to odd.
+     *
+     * @param g1 high half of scale factor
+     * @param g0 low half of scale factor
+     * @param cp scaled value
+     * @return product
+     */
+    private static long roundOdd(long g1, long g0, long cp) {
+        long x1 = multiplyHigh(g0, cp);
+        long y0 = g1 * cp;
+        long y1 = multiplyHigh(g1, cp);
+        long z = (y0 >>> 1) + x1;
+        long vbp = y1 + (z >>> 63);
+        return vbp | (z & MASK_63) + MASK_63 >>> 63;
+    }
+    
+    /**
+     * Compute the scaled product used for float values, rounded to odd.
+     *
+     * @param g scale factor
+     * @param cp scaled value
+     * @return product
+     */
+    private static int roundOdd(long g, long cp) {
+        long x1 = multiplyHigh(g, cp);
+        long vbp = x1 >>> 31;
+        return (int)(vbp | (x1 & MASK_32) + MASK_32 >>> 32);
+    }
+    
+    /**
+     * Write characters of text to buffer.
+     *
+     * @param text text (must be ASCII)
+     * @param buff output buffer
+     * @param offset starting offset in output buffer
+     * @return offset past end of text
+     */
+    private static int writeText(String text, byte[] buff, int offset) {
+        for (int i = 0; i < text.length(); i++) {
+            buff[offset++] = (byte)text.charAt(i);
+        }
+        return offset;
+    }
+    
+    /**
+     * Write a fixed number of decimal digits to buffer, with leading zeros if
+     * necessary.
+     *
+     * @param value value to be written (must be non-negative, and less than
+     * 10<sup>count</sup>)
+     * @param count number of digits
+     * @param buff output buffer
+     * @param offset starting offset in output buffer
+     * @return offset past end of digits
+     */
+    private static int writeDigits(long value, int count, byte[] buff,
+        int offset) {
+        int fill = offset + count;
+        while (value >= 100000000L) {
+            long next = value / 10;
+            buff[--fill] = (byte)('0' + (int)(value - next * 10));
+            value = next;
+        }
+        int ival = (int)value;
+        while (fill > offset) {
+            int next = ival / 10;
+            buff[--fill] = (byte)('0' + ival - next * 10);
+            ival = next;
+        }
+        return offset + count;
+    }
+    
+    /**
+     * Write decimal value to buffer.
+     *
+     * @param f digits of value (non-zero)
+     * @param e power of ten multiplier for digits
+     * @param buff output buffer
+     * @param offset starting offset in output buffer
+     * @return offset past end of text
+     */
+    private static int writeDecimal(long f, int e, byte[] buff, int offset) {
+        
+        // strip trailing zeros, and find number of digits
+        while (f % 10 == 0) {
+            f /= 10;
+            e++;
+        }
+        int length = 1;
+        while (length < s_powersOfTen.length && f >= s_powersOfTen[length]) {
+            length++;
+        }
+        int exp = e + length - 1;
+        if (exp >= 0 && exp < 7) {
+            
+            // plain value at least one
+            int lead = exp + 1;
+            if (length <= lead) {
+                offset = writeDigits(f, length, buff, offset);
+                for (int i = length; i < lead; i++) {
+                    buff[offset++] = '0';
+                }
+                buff[offset++] = '.';
+                buff[offset++] = '0';
+            } else {
+                long split = s_powersOfTen[length - lead];
+                long high = f / split;
+                offset = writeDigits(high, lead, buff, offset);
+                buff[offset++] = '.';
+                offset = writeDigits(f - high * split, length - lead, buff,
+                    offset);
+            }
+            
+        } else if (exp < 0 && exp >= -3) {
+            
+            // plain value less than one
+            buff[offset++] = '0';
+            buff[offset++] = '.';
+            for (int i = -1; i > exp; i--) {
+                buff[offset++] = '0';
+            }
+            offset = writeDigits(f, length, buff, offset);
+            
+        } else {
+            
+            // scientific notation, with at least one digit after point
+            long split = s_powersOfTen[length - 1];
+            long high = f / split;
+            buff[offset++] = (byte)('0' + (int)high);
+            buff[offset++] = '.';
+            if (length == 1) {
+                buff[offset++] = '0';
+            } else {
+                offset = writeDigits(f - high * split, length - 1, buff,
+                    offset);
+            }
+            buff[offset++] = 'E';
+            if (exp < 0) {
+                buff[offset++] = '-';
+                exp = -exp;
+            }
+            int count = exp >= 100 ? 3 : (exp >= 10 ? 2 : 1);
+            offset = writeDigits(exp, count, buff, offset);
+            
+        }
+        return offset;
+    }
+    
+    /**
+     * Find shortest decimal for double value and write it to buffer.
+     *
+     * @param q power of two multiplier
+     * @param c significand
+     * @param dk adjustment to power of ten for the significand
+     * @param buff output buffer
+     * @param offset starting offset in output buffer
+     * @return offset past end of text
+     */
+    private static int writeDecimal(int q, long c, int dk, byte[] buff,
+        int offset) {
+        
+        // find bounds of rounding interval, and scale to power of ten
+        int out = (int)c & 1;
+        long cb = c << 2;
+        long cbr = cb + 2;
+        long cbl;
+        int k;
+        if (c != DOUBLE_C_MIN || q == DOUBLE_Q_MIN) {
+            cbl = cb - 2;
+            k = floorLog10Pow2(q);
+        } else {
+            cbl = cb - 1;
+            k = floorLog10ThreeQuartersPow2(q);
+        }
+        int h = q + floorLog2Pow10(-k) + 2;
+        int index = (k - K_MIN) << 1;
+        long g1 = s_scaleFactors[index];
+        long g0 = s_scaleFactors[index + 1];
+        long vb = roundOdd(g1, g0, cb << h);
+        long vbl = roundOdd(g1, g0, cbl << h);
+        long vbr = roundOdd(g1, g0, cbr << h);
+        
+        // check for shorter decimal, with one less digit
+        long s = vb >> 2;
+        if (s >= 100) {
+            long sp10 = s / 10 * 10;
+            long tp10 = sp10 + 10;
+            boolean upin = vbl + out <= sp10 << 2;
+            boolean wpin = (tp10 << 2) + out <= vbr;
+            if (upin != wpin) {
+                return writeDecimal(upin ? sp10 : tp10, k, buff, offset);
+            }
+        }
+        
+        // select the closest decimal inside the rounding interval
+        long t = s + 1;
+        boolean uin = vbl + out <= s << 2;
+        boolean win = (t << 2) + out <= vbr;
+        if (uin != win) {
+            return writeDecimal(uin ? s : t, k + dk, buff, offset);
+        }
+        long cmp = vb - (s + t << 1);
+        return writeDecimal(cmp < 0 || cmp == 0 && (s & 1) == 0 ? s : t,
+            k + dk, buff, offset);
+    }
+    
+    /**
+     * Find shortest decimal for float value and write it to buffer.
+     *
+     * @param q power of two multiplier
+     * @param c significand
+     * @param dk adjustment to power of ten for the significand
+     * @param buff output buffer
+     * @param offset starting offset in output buffer
+     * @return offset past end of text
+     */
+    private static int writeDecimal(int q, int c, int dk, byte[] buff,
+        int offset) {
+        
+        // find bounds of rounding interval, and scale to power of ten
+        int out = c & 1;
+        long cb = (long)c << 2;
+        long cbr = cb + 2;
+        long cbl;
+        int k;
+        if (c != FLOAT_C_MIN || q == FLOAT_Q_MIN) {
+            cbl = cb - 2;
+            k = floorLog10Pow2(q);
+        } else {
+            cbl = cb - 1;
+            k = floorLog10ThreeQuartersPow2(q);
+        }
+        int h = q + floorLog2Pow10(-k) + 33;
+        long g = s_scaleFactors[(k - K_MIN) << 1] + 1;
+        int vb = roundOdd(g, cb << h);
+        int vbl = roundOdd(g, cbl << h);
+        int vbr = roundOdd(g, cbr << h);
+        
+        // check for shorter decimal, with one less digit
+        int s = vb >> 2;
+        if (s >= 100) {
+            int sp10 = s / 10 * 10;
+            int tp10 = sp10 + 10;
+            boolean upin = vbl + out <= sp10 << 2;
+            boolean wpin = (tp10 << 2) + out <= vbr;
+            if (upin != wpin) {
+                return writeDecimal(upin ? sp10 : tp10, k, buff, offset);
+            }
+        }
+        
+        // select the closest decimal inside the rounding interval
+        int t = s + 1;
+        boolean uin = vbl + out <= s << 2;
+        boolean win = (t << 2) + out <= vbr;
+        if (uin != win) {
+            return writeDecimal(uin ? s : t, k + dk, buff, offset);
+        }
+        int cmp = vb - (s + t << 1);
+        return writeDecimal(cmp < 0 || cmp == 0 && (s & 1) == 0 ? s : t,
+            k + dk, buff, offset);
+    }
+    
+    /**
+     * Write <code>double</code> value as text.
+     *
+     * @param value value to be written
+     * @param buff output buffer (must have space for at least {@link
+     * #MAX_LENGTH} bytes starting at the offset)
+     * @param offset starting offset in output buffer
+     * @return offset past end of text
+     */
+    public static int format(double value, byte[] buff, int offset) {
+        long bits = Double.doubleToRawLongBits(value);
+        long t = bits & DOUBLE_FRACTION_MASK;
+        int bq = (int)(bits >>> (DOUBLE_PRECISION - 1)) & DOUBLE_EXPONENT_MASK;
+        if (bq == DOUBLE_EXPONENT_MASK) {
+            if (t != 0) {
+                return writeText("NaN", buff, offset);
+            } else {
+                return writeText(bits < 0 ? "-INF" : "INF", buff, offset);
+            }
+        }
+        if (bits < 0) {
+            buff[offset++] = '-';
+        }
+        if (bq != 0) {
+            
+            // normal value, check for integer
+            int mq = -DOUBLE_Q_MIN + 1 - bq;
+            long c = DOUBLE_C_MIN | t;
+            if (mq > 0 && mq < DOUBLE_PRECISION) {
+                long f = c >> mq;
+                if (f << mq == c) {
+                    return writeDecimal(f, 0, buff, offset);
+                }
+            }
+            return writeDecimal(-mq, c, 0, buff, offset);
+            
+        } else if (t != 0) {
+            
+            // subnormal value
+            if (t < DOUBLE_C_TINY) {
+                return writeDecimal(DOUBLE_Q_MIN, 10 * t, -1, buff, offset);
+            } else {
+                return writeDecimal(DOUBLE_Q_MIN, t, 0, buff, offset);
+            }
+            
+        } else {
+            return writeText("0.0", buff, offset);
+        }
+    }
+    
+    /**
+     * Write <code>float</code> value as text.
+     *
+     * @param value value to be written
+     * @param buff output buffer (must have space for at least {@link
+     * #MAX_LENGTH} bytes starting at the offset)
+     * @param offset starting offset in output buffer
+     * @return offset past end of text
+     */
+    public static int format(float value, byte[] buff, int offset) {
+        int bits = Float.floatToRawIntBits(value);
+        int t = bits & FLOAT_FRACTION_MASK;
+        int bq = (bits >>> (FLOAT_PRECISION - 1)) & FLOAT_EXPONENT_MASK;
+        if (bq == FLOAT_EXPONENT_MASK) {
+            if (t != 0) {
+                return writeText("NaN", buff, offset);
+            } else {
+                return writeText(bits < 0 ? "-INF" : "INF", buff, offset);
+            }
+        }
+        if (bits < 0) {
+            buff[offset++] = '-';
+        }
+        if (bq != 0) {
+            
+            // normal value, check for integer
+            int mq = -FLOAT_Q_MIN + 1 - bq;
+            int c = FLOAT_C_MIN | t;
+            if (mq > 0 && mq < FLOAT_PRECISION) {
+                int f = c >> mq;
+                if (f << mq == c) {
+                    return writeDecimal(f, 0, buff, offset);
+                }
+            }
+            return writeDecimal(-mq, c, 0, buff, offset);
+            
+        } else if (t != 0) {
+            
+            // subnormal value
+            if (t < FLOAT_C_TINY) {
+                return writeDecimal(FLOAT_Q_MIN, 10 * t, -1, buff, offset);
+            } else {
+                return writeDecimal(FLOAT_Q_MIN, t, 0, buff, offset);
+            }
+            
+        } else {
+            return writeText("0.0", buff, offset);
+        }
+    }
+    
+    /**
+     * Convert text in buffer to string.
+     *
+     * @param buff buffer
+     * @param length number of characters in buffer
+     * @return text
+     */
+    private static String toString(byte[] buff, int length) {
+        char[] chars = new char[length];
+        for (int i = 0; i < length; i++) {
+            chars[i] = (char)buff[i];
+        }
+        return new String(chars);
+    }
+    
+    /**
+     * Convert <code>double</code> value to text.
+     *
+     * @param value value to be converted
+     * @return text
+     */
+    public static String toString(double value) {
+        byte[] buff = new byte[MAX_LENGTH];
+        return toString(buff, format(value, buff, 0));
+    }
+    
+    /**
+     * Convert <code>float</code> value to text.
+     *
+     * @param value value to be converted
+     * @return text
+     */
+    public static String toString(float value) {
+        byte[] buff = new byte[MAX_LENGTH];
+        return toString(buff, format(value, buff, 0));
+    }
+}
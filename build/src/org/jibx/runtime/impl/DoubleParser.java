@@ -0,0 +1,368 @@
+/*
+Copyright (c) 2026, agent.
+All rights reserved.
+
+Redistribution and use in source and binary forms, with or without modification,
+are permitted provided that the following conditions are met:
+
+ * Redistributions of source code must retain the above copyright notice, this
+   list of conditions and the following disclaimer.
+ * Redistributions in binary form must reproduce the above copyright notice,
+   this list of conditions and the following disclaimer in the documentation
+   and/or other materials provided with the distribution.
+ * Neither the name of JiBX nor the names of its contributors may be used
+   to endorse or promote products derived from this software without specific
+   prior written permission.
+
+THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+(INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON
+ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+(INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+*/
+
+package org.jibx.runtime.impl;
+
+import java.math.BigInteger;
+
+/**
+ * Fast text parsing for <code>double</code> and <code>float</code> values.
+ * Plain decimal text (optional sign, digits with optional decimal point, and
+ * optional exponent) with no more than 19 significant digits is converted
+ * directly, using exact floating point arithmetic when the digits and power of
+ * ten are small enough and the Eisel-Lemire algorithm (Daniel Lemire, "Number
+ * Parsing at a Gigabyte per Second") otherwise. Anything else, including the
+ * rare cases where Eisel-Lemire cannot determine the correct rounding, is
+ * passed to the standard Java parse methods, so the results and accepted text
+ * forms are always the same as for <code>Double.parseDouble()</code> and
+ * <code>Float.parseFloat()</code>.
+ *
+ * @author agent
+ */
+public abstract class DoubleParser
+{
+    /** Maximum number of significant digits handled directly. */
+    private static final int MAX_DIGITS = 19;
+    
+    /** Exponent value beyond which parsing is handed off. */
+    private static final int EXPONENT_LIMIT = 100000;
+    
+    /** Minimum power of ten in table. */
+    private static final int MIN_POWER = -342;
+    
+    /** Maximum power of ten in table. */
+    private static final int MAX_POWER = 308;
+    
+    /** Largest power of ten exactly representable as a double. */
+    private static final int DOUBLE_EXACT_POWER = 22;
+    
+    /** Largest power of ten exactly representable as a float. */
+    private static final int FLOAT_EXACT_POWER = 10;
+    
+    private static final long MASK_32 = 0xFFFFFFFFL;
+    
+    /** Exact double powers of ten. */
+    private static final double[] s_doublePowers =
+        new double[DOUBLE_EXACT_POWER + 1];
+    
+    /** Exact float powers of ten. */
+    private static final float[] s_floatPowers =
+        new float[FLOAT_EXACT_POWER + 1];
+    
+    /** Normalized 128-bit significands of powers of ten from MIN_POWER to
+     MAX_POWER, as pairs of high and low 64-bit halves. Values for positive
+     powers, and negative powers beyond the range where five to the power fits
+     in 64 bits, are truncated; other values are rounded up. */
+    private static final long[] s_powerSignificands =
+        new long[(MAX_POWER - MIN_POWER + 1) * 2];
+    
+    static {
+        double dpower = 1.0;
+        for (int i = 0; i <= DOUBLE_EXACT_POWER; i++) {
+            s_doublePowers[i] = dpower;
+            dpower *= 10.0;
+        }
+        float fpower = 1.0f;
+        for (int i = 0; i <= FLOAT_EXACT_POWER; i++) {
+            s_floatPowers[i] = fpower;
+            fpower *= 10.0f;
+        }
+        BigInteger five = BigInteger.valueOf(5);
+        BigInteger mask = BigInteger.ONE.shiftLeft(64).
+            subtract(BigInteger.ONE);
+        for (int q = MIN_POWER; q <= MAX_POWER; q++) {
+            BigInteger value;
+            if (q < 0) {
+                BigInteger power = five.pow(-q);
+                int bits = power.bitLength();
+                int shift = q >= -27 ? bits + 127 : 2 * bits + 128;
+                value = BigInteger.ONE.shiftLeft(shift).divide(power).
+                    add(BigInteger.ONE);
+            } else {
+                value = five.pow(q);
+            }
+            int shift = value.bitLength() - 128;
+            if (shift > 0) {
+                value = value.shiftRight(shift);
+            } else {
+                value = value.shiftLeft(-shift);
+            }
+            int index = (q - MIN_POWER) << 1;
+            s_powerSignificands[index] = value.shiftRight(64).longValue();
+            s_powerSignificands[index + 1] = value.and(mask).longValue();
+        }
+    }
+    
+    /**
+     * Compute the high 64 bits of the unsigned 128-bit product of two values.
+     *
+     * @param x first value
+     * @param y second value
+     * @return high part of product
+     */
+    private static long multiplyHigh(long x, long y) {
+        return DoubleFormatter.multiplyHigh(x, y) + ((x >> 63) & y) +
+            ((y >> 63) & x);
+    }
+    
+    /**
+     * Unsigned comparison of two values.
+     *
+     * @param x first value
+     * @param y second value
+     * @return <code>true</code> if first value less than second,
+     * <code>false</code> if not
+     */
+    private static boolean lessUnsigned(long x, long y) {
+        return (x ^ Long.MIN_VALUE) < (y ^ Long.MIN_VALUE);
+    }
+    
+    /**
+     * Compute the bits of a floating point value from the significand and
+     * power of ten using the Eisel-Lemire algorithm.
+     *
+     * @param w decimal significand (unsigned, non-zero)
+     * @param q power of ten
+     * @param bits number of bits of precision in result (including implied
+     * leading one bit)
+     * @param bias exponent bias for result format
+     * @return bits of value (exponent and fraction only), or -1 if the
+     * algorithm cannot determine the correct rounding
+     */
+    private static long computeBits(long w, int q, int bits, int bias) {
+        if (q < MIN_POWER || q > MAX_POWER) {
+            return -1;
+        }
+        
+        // normalize the significand and multiply by the power of ten
+        int lz = Long.numberOfLeadingZeros(w);
+        w <<= lz;
+        long exp2 = (217706L * q >> 16) + 64 + bias - lz;
+        int index = (q - MIN_POWER) << 1;
+        long high = s_powerSignificands[index];
+        long xhi = multiplyHigh(w, high);
+        long xlo = w * high;
+        
+        // use the wider approximation when the product is inexact
+        int shift = 64 - bits - 2;
+        long mask = (1L << shift) - 1;
+        if ((xhi & mask) == mask && lessUnsigned(xlo + w, w)) {
+            long low = s_powerSignificands[index + 1];
+            long yhi = multiplyHigh(w, low);
+            long ylo = w * low;
+            long mlo = xlo + yhi;
+            long mhi = xhi;
+            if (lessUnsigned(mlo, xlo)) {
+                mhi++;
+            }
+            if ((mhi & mask) == mask && mlo + 1 == 0 &&
+                lessUnsigned(ylo + w, w)) {
+                return -1;
+            }
+            xhi = mhi;
+            xlo = mlo;
+        }
+        
+        // shift down to one more bit than the result, and round
+        long msb = xhi >>> 63;
+        long mantissa = xhi >>> (msb + shift);
+        exp2 -= 1 ^ msb;
+        if (xlo == 0 && (xhi & mask) == 0 && (mantissa & 3) == 1) {
+            return -1;
+        }
+        mantissa += mantissa & 1;
+        mantissa >>>= 1;
+        if (mantissa >>> bits != 0) {
+            mantissa >>>= 1;
+            exp2++;
+        }
+        
+        // only normal values are handled
+        if (exp2 <= 0 || exp2 > bias * 2) {
+            return -1;
+        }
+        return exp2 << (bits - 1) | mantissa & ((1L << (bits - 1)) - 1);
+    }
+    
+    /**
+     * Convert plain decimal text directly.
+     *
+     * @param text text to be parsed
+     * @param single <code>float</code> value flag (<code>double</code> value if
+     * <code>false</code>)
+     * @return bits of value, or -1 if the text must be parsed by the standard
+     * Java method
+     */
+    private static long convert(String text, boolean single) {
+        
+        // check for leading sign
+        int length = text.length();
+        int index = 0;
+        boolean negative = false;
+        if (length > 0) {
+            char chr = text.charAt(0);
+            if (chr == '-' || chr == '+') {
+                negative = chr == '-';
+                index++;
+            }
+        }
+        
+        // accumulate significant digits, both before and after decimal point
+        long w = 0;
+        int count = 0;
+        int scale = 0;
+        boolean digits = false;
+        boolean fraction = false;
+        for (; index < length; index++) {
+            char chr = text.charAt(index);
+            if (chr >= '0' && chr <= '9') {
+                digits = true;
+                if (fraction) {
+                    scale--;
+                }
+                if (w != 0 || chr != '0') {
+                    if (++count > MAX_DIGITS) {
+                        return -1;
+                    }
+                    w = w * 10 + (chr - '0');
+                }
+            } else if (chr == '.' && !fraction) {
+                fraction = true;
+            } else {
+                break;
+            }
+        }
+        if (!digits) {
+            return -1;
+        }
+        
+        // handle exponent, and make sure that's the end of the text
+        if (index < length) {
+            char chr = text.charAt(index);
+            if (chr != 'e' && chr != 'E') {
+                return -1;
+            }
+            boolean negexp = false;
+            if (++index < length) {
+                chr = text.charAt(index);
+                if (chr == '-' || chr == '+') {
+                    negexp = chr == '-';
+                    index++;
+                }
+            }
+            if (index == length) {
+                return -1;
+            }
+            int exp = 0;
+            for (; index < length; index++) {
+                chr = text.charAt(index);
+                if (chr >= '0' && chr <= '9') {
+                    if (exp < EXPONENT_LIMIT) {
+                        exp = exp * 10 + chr - '0';
+                    }
+                } else {
+                    return -1;
+                }
+            }
+            scale += negexp ? -exp : exp;
+        }
+        
+        // convert to binary value
+        long bits;
+        if (single) {
+            if (w == 0) {
+                bits = 0;
+            } else if (w > 0 && w <= 1L << 24 &&
+                scale >= -FLOAT_EXACT_POWER && scale <= FLOAT_EXACT_POWER) {
+                float value = w;
+                if (scale < 0) {
+                    value /= s_floatPowers[-scale];
+                } else {
+                    value *= s_floatPowers[scale];
+                }
+                bits = Float.floatToRawIntBits(value);
+            } else {
+                bits = computeBits(w, scale, 24, 127);
+            }
+            if (negative && bits >= 0) {
+                bits |= 0x80000000L;
+            }
+        } else {
+            if (w == 0) {
+                bits = 0;
+            } else if (w > 0 && w <= 1L << 53 &&
+                scale >= -DOUBLE_EXACT_POWER && scale <= DOUBLE_EXACT_POWER) {
+                double value = w;
+                if (scale < 0) {
+                    value /= s_doublePowers[-scale];
+                } else {
+                    value *= s_doublePowers[scale];
+                }
+                bits = Double.doubleToRawLongBits(value);
+            } else {
+                bits = computeBits(w, scale, 53, 1023);
+            }
+            if (negative && bits >= 0) {
+                bits |= Long.MIN_VALUE;
+            }
+        }
+        return bits;
+    }
+    
+    /**
+     * Parse <code>double</code> value from text.
+     *
+     * @param text text to be parsed
+     * @return converted value
+     * @throws NumberFormatException if text is not a valid number
+     */
+    public static double parseDouble(String text) {
+        long bits = convert(text, false);
+        if (bits == -1) {
+            return Double.parseDouble(text);
+        } else {
+            return Double.longBitsToDouble(bits);
+        }
+    }
+    
+    /**
+     * Parse <code>float</code> value from text.
+     *
+     * @param text text to be parsed
+     * @return converted value
+     * @throws NumberFormatException if text is not a valid number
+     */
+    public static float parseFloat(String text) {
+        long bits = convert(text, true);
+        if (bits == -1) {
+            return Float.parseFloat(text);
+        } else {
+            return Float.intBitsToFloat((int)bits);
+        }
+    }
+}
@@ -0,0 +1,154 @@
+/*
+Copyright (c) 2026, agent.
+All rights reserved.
+
+Redistribution and use in source and binary forms, with or without modification,
+are permitted provided that the following conditions are met:
+
+ * Redistributions of source code must retain the above copyright notice, this
+   list of conditions and the following disclaimer.
+ * Redistributions in binary form must reproduce the above copyright notice,
+   this list of conditions and the following disclaimer in the documentation
+   and/or other materials provided with the distribution.
+ * Neither the name of JiBX nor the names of its contributors may be used
+   to endorse or promote products derived from this software without specific
+   prior written permission.
+
+THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+(INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON
+ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+(INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+*/
+
+package org.jibx.runtime.impl;
+
+/**
+ * Immutable table used to find the global mapping for an element name. This is
+ * built once for a binding factory and shared by all contexts created from the
+ * factory. Lookups use open addressing on the element local name, comparing
+ * names first by identity (since parsers generally supply interned names) and
+ * only then by value, followed by a scan of the namespaces for the mappings
+ * using that local name (normally only one). Lookups never allocate objects.
+ *
+ * @author agent
+ */
+public class ElementDispatchTable
+{
+    /** Empty array of class indexes. */
+    private static final int[] EMPTY_INDEXES = new int[0];
+    
+    /** Mask for slot numbers (table size minus one). */
+    private final int m_slotMask;
+    
+    /** Local names for slots (<code>null</code> if slot unused). */
+    private final String[] m_slotNames;
+    
+    /** Hash codes for slot local names. */
+    private final int[] m_slotHashes;
+    
+    /** Class indexes for each slot. */
+    private final int[][] m_slotIndexes;
+    
+    /** Element namespaces, indexed by class index. */
+    private final String[] m_namespaces;
+    
+    /**
+     * Constructor.
+     *
+     * @param nss element namespace URIs for global mappings, indexed by class
+     * index (<code>null</code> or empty string for no namespace)
+     * @param names element local names for global mappings, indexed by class
+     * index (<code>null</code> entries for classes without an element name)
+     */
+    public ElementDispatchTable(String[] nss, String[] names) {
+        
+        // size the table for a maximum fill of one-half
+        int count = 0;
+        for (int i = 0; i < names.length; i++) {
+            if (names[i] != null) {
+                count++;
+            }
+        }
+        int size = 4;
+        while (size < count*2) {
+            size <<= 1;
+        }
+        m_slotMask = size - 1;
+        m_slotNames = new String[size];
+        m_slotHashes = new int[size];
+        m_slotIndexes = new int[size][];
+        m_namespaces = nss;
+        
+        // add all names to table, in class index order
+        for (int i = 0; i < names.length; i++) {
+            String name = names[i];
+            if (name != null) {
+                int hash = name.hashCode();
+                int slot = findSlot(name, hash);
+                if (slot < 0) {
+                    slot = -slot - 1;
+                    m_slotNames[slot] = name;
+                    m_slotHashes[slot] = hash;
+                    m_slotIndexes[slot] = EMPTY_INDEXES;
+                }
+                int[] olds = m_slotIndexes[slot];
+                int[] ints = new int[olds.length+1];
+                System.arraycopy(olds, 0, ints, 0, olds.length);
+                ints[olds.length] = i;
+                m_slotIndexes[slot] = ints;
+            }
+        }
+    }
+    
+    /**
+     * Find the slot for a local name.
+     *
+     * @param name local name
+     * @param hash hash code for local name
+     * @return slot number if found, or <code>-slot-1</code> for the empty slot
+     * where the name should be added if not found
+     */
+    private int findSlot(String name, int hash) {
+        int slot = (hash ^ (hash >>> 16)) & m_slotMask;
+        String match;
+        while ((match = m_slotNames[slot]) != null) {
+            if (match == name ||
+                (m_slotHashes[slot] == hash && match.equals(name))) {
+                return slot;
+            }
+            slot = (slot + 1) & m_slotMask;
+        }
+        return -slot - 1;
+    }
+    
+    /**
+     * Find the class index for an element name.
+     *
+     * @param ns namespace for element (may be <code>null</code> or the empty
+     * string for the empty namespace)
+     * @param name local name for element
+     * @return class index, or <code>-1</code> if no global mapping for element
+     */
+    public int find(String ns, String name) {
+        int slot = findSlot(name, name.hashCode());
+        if (slot >= 0) {
+            int[] indexes = m_slotIndexes[slot];
+            for (int i = 0; i < indexes.length; i++) {
+                int index = indexes[i];
+                String mns = m_namespaces[index];
+                if (ns == mns || (ns == null && mns.length() == 0) ||
+                    (mns == null && ns.length() == 0) ||
+                    (ns != null && ns.equals(mns))) {
+                    return index;
+                }
+            }
+        }
+        return -1;
+    }
+}
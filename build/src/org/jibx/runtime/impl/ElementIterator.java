@@ -0,0 +1,132 @@
+/*
+Copyright (c) 2026, agent.
+All rights reserved.
+
+Redistribution and use in source and binary forms, with or without modification,
+are permitted provided that the following conditions are met:
+
+ * Redistributions of source code must retain the above copyright notice, this
+   list of conditions and the following disclaimer.
+ * Redistributions in binary form must reproduce the above copyright notice,
+   this list of conditions and the following disclaimer in the documentation
+   and/or other materials provided with the distribution.
+ * Neither the name of JiBX nor the names of its contributors may be used
+   to endorse or promote products derived from this software without specific
+   prior written permission.
+
+THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+(INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON
+ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+(INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+*/
+
+package org.jibx.runtime.impl;
+
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+import org.jibx.runtime.JiBXException;
+
+/**
+ * Iterator over the child elements of a wrapper element. Each call to {@link
+ * #next()} unmarshals a single child element using the unmarshaller defined
+ * for that element name, so only one record needs to be held in memory at a
+ * time no matter how many children the wrapper element contains. When the
+ * end tag of the wrapper element is reached the parse is advanced past that
+ * end tag and the iteration is complete.
+ * 
+ * Since the {@link Iterator} methods cannot throw checked exceptions, any
+ * {@link JiBXException} thrown during parsing or unmarshalling is wrapped in
+ * an {@link IllegalStateException}, with the original exception as the cause.
+ * After an error the iteration should be abandoned.
+ *
+ * @author agent
+ */
+public class ElementIterator implements Iterator
+{
+    /** Unmarshalling context supplying parse and unmarshallers. */
+    private final UnmarshallingContext m_context;
+    
+    /** Namespace of wrapper element. */
+    private final String m_namespace;
+    
+    /** Name of wrapper element. */
+    private final String m_name;
+    
+    /** Flag for iteration complete (wrapper end tag consumed). */
+    private boolean m_done;
+    
+    /**
+     * Constructor. This advances the parse to the start tag of the wrapper
+     * element, if not already positioned at that start tag, and then parses
+     * past the start tag.
+     *
+     * @param ctx unmarshalling context
+     * @throws JiBXException on any error (possibly wrapping other exception)
+     */
+    public ElementIterator(UnmarshallingContext ctx) throws JiBXException {
+        m_context = ctx;
+        m_name = ctx.toStart();
+        m_namespace = ctx.getNamespace();
+        ctx.parsePastStartTag(m_namespace, m_name);
+    }
+    
+    /**
+     * Check for another child element available. This advances the parse to
+     * the next start or end tag, if not already positioned at a tag. If an end
+     * tag is found it must be the end tag of the wrapper element, and the parse
+     * is advanced past that end tag.
+     *
+     * @return <code>true</code> if positioned at a child element start tag,
+     * <code>false</code> if at end of wrapper element
+     */
+    public boolean hasNext() {
+        if (m_done) {
+            return false;
+        }
+        try {
+            if (m_context.isStart()) {
+                return true;
+            } else {
+                m_done = true;
+                m_context.parsePastCurrentEndTag(m_namespace, m_name);
+                return false;
+            }
+        } catch (JiBXException e) {
+            m_done = true;
+            throw new IllegalStateException(e.getMessage(), e);
+        }
+    }
+    
+    /**
+     * Unmarshal the next child element.
+     *
+     * @return unmarshalled object
+     */
+    public Object next() {
+        if (hasNext()) {
+            try {
+                return m_context.unmarshalElement();
+            } catch (JiBXException e) {
+                m_done = true;
+                throw new IllegalStateException(e.getMessage(), e);
+            }
+        } else {
+            throw new NoSuchElementException();
+        }
+    }
+    
+    /**
+     * Remove element from iteration. This optional operation is not supported
+     * and always throws <code>UnsupportedOperationException</code>.
+     */
+    public void remove() {
+        throw new UnsupportedOperationException();
+    }
+}
@@ -0,0 +1,143 @@
+/*
+Copyright (c) 2026, agent.
+All rights reserved.
+
+Redistribution and use in source and binary forms, with or without modification,
+are permitted provided that the following conditions are met:
+
+ * Redistributions of source code must retain the above copyright notice, this
+   list of conditions and the following disclaimer.
+ * Redistributions in binary form must reproduce the above copyright notice,
+   this list of conditions and the following disclaimer in the documentation
+   and/or other materials provided with the distribution.
+ * Neither the name of JiBX nor the names of its contributors may be used
+   to endorse or promote products derived from this software without specific
+   prior written permission.
+
+THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+(INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON
+ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+(INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+*/
+
+package org.jibx.runtime.impl;
+
+/**
+ * Cache of encoded element and attribute names for a stream writer. Names are
+ * looked up first by identity, which is the normal case for the constant names
+ * passed by generated marshaller code, and then by equality. The cache only
+ * holds a fixed maximum number of names, so that documents using arbitrary
+ * names (such as those written from a DOM) cannot grow it without limit; once
+ * the cache is full, further names are simply not added.
+ * 
+ * This class is not threadsafe. It's intended to be used by a single writer (or
+ * a writer and child writers created from it, all of which share the same
+ * encoding).
+ *
+ * @author agent
+ */
+public class EncodedNameCache
+{
+    /** Initial number of slots in table (must be power of two). */
+    private static final int INITIAL_SLOTS = 64;
+    
+    /** Maximum number of names in cache. */
+    private static final int MAXIMUM_COUNT = 4096;
+    
+    /** Names in cache (<code>null</code> for empty slots). */
+    private String[] m_names;
+    
+    /** Encoded byte sequences corresponding to names. */
+    private byte[][] m_bytes;
+    
+    /** Mask for slot index (number of slots minus one). */
+    private int m_mask;
+    
+    /** Number of names in cache. */
+    private int m_count;
+    
+    /**
+     * Constructor.
+     */
+    public EncodedNameCache() {
+        m_names = new String[INITIAL_SLOTS];
+        m_bytes = new byte[INITIAL_SLOTS][];
+        m_mask = INITIAL_SLOTS - 1;
+    }
+    
+    /**
+     * Get encoded bytes for name.
+     *
+     * @param name element or attribute name
+     * @return encoded bytes, or <code>null</code> if name not in cache
+     */
+    public byte[] get(String name) {
+        int slot = name.hashCode() & m_mask;
+        String[] names = m_names;
+        String match;
+        while ((match = names[slot]) != null) {
+            if (match == name || match.equals(name)) {
+                return m_bytes[slot];
+            }
+            slot = (slot + 1) & m_mask;
+        }
+        return null;
+    }
+    
+    /**
+     * Add encoded bytes for name. This call is ignored if the cache is full.
+     *
+     * @param name element or attribute name (must not already be present)
+     * @param bytes encoded bytes for name
+     */
+    public void add(String name, byte[] bytes) {
+        if (m_count < MAXIMUM_COUNT) {
+            if (++m_count * 2 > m_names.length) {
+                
+                // grow table to keep at most half full
+                String[] names = m_names;
+                byte[][] values = m_bytes;
+                m_names = new String[names.length * 2];
+                m_bytes = new byte[names.length * 2][];
+                m_mask = m_names.length - 1;
+                for (int i = 0; i < names.length; i++) {
+                    if (names[i] != null) {
+                        store(names[i], values[i]);
+                    }
+                }
+                
+            }
+            store(name, bytes);
+        }
+    }
+    
+    /**
+     * Store name and encoded bytes to the first free slot in the table.
+     *
+     * @param name element or attribute name
+     * @param bytes encoded bytes for name
+     */
+    private void store(String name, byte[] bytes) {
+        int slot = name.hashCode() & m_mask;
+        while (m_names[slot] != null) {
+            slot = (slot + 1) & m_mask;
+        }
+        m_names[slot] = name;
+        m_bytes[slot] = bytes;
+    }
+    
+    /**
+     * Get the number of names in the cache.
+     *
+     * @return count
+     */
+    public int size() {
+        return m_count;
+    }
+}
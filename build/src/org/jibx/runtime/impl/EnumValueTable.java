@@ -0,0 +1,137 @@
+/*
+Copyright (c) 2026, agent.
+All rights reserved.
+
+Redistribution and use in source and binary forms, with or without modification,
+are permitted provided that the following conditions are met:
+
+ * Redistributions of source code must retain the above copyright notice, this
+   list of conditions and the following disclaimer.
+ * Redistributions in binary form must reproduce the above copyright notice,
+   this list of conditions and the following disclaimer in the documentation
+   and/or other materials provided with the distribution.
+ * Neither the name of JiBX nor the names of its contributors may be used
+   to endorse or promote products derived from this software without specific
+   prior written permission.
+
+THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+(INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON
+ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+(INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+*/
+
+package org.jibx.runtime.impl;
+
+import org.jibx.runtime.JiBXException;
+
+/**
+ * Immutable table used to convert text values to Java 5 enum instances. The
+ * binding compiler generates a single static instance of this class for each
+ * enum using a custom value method, so that deserializing a value is a hash
+ * lookup rather than a scan of all the enum instances. Lookups compare the
+ * text first by identity (since parsers generally supply interned names and
+ * value methods generally return constants) and only then by value.
+ *
+ * @author agent
+ */
+public class EnumValueTable
+{
+    /** Mask for slot numbers (table size minus one). */
+    private final int m_slotMask;
+    
+    /** Text values for slots (<code>null</code> if slot unused). */
+    private final String[] m_slotTexts;
+    
+    /** Hash codes for slot text values. */
+    private final int[] m_slotHashes;
+    
+    /** Enum instances for slots. */
+    private final Object[] m_slotValues;
+    
+    /** Fully qualified name of enum class (used in error messages). */
+    private final String m_type;
+    
+    /**
+     * Constructor.
+     *
+     * @param values enum instances
+     * @param texts text values for enum instances, in the same order as the
+     * instances (no <code>null</code> entries allowed)
+     * @param type fully qualified name of enum class
+     */
+    public EnumValueTable(Object[] values, String[] texts, String type) {
+        
+        // size the table for a maximum fill of one-half
+        int size = 4;
+        while (size < texts.length*2) {
+            size <<= 1;
+        }
+        m_slotMask = size - 1;
+        m_slotTexts = new String[size];
+        m_slotHashes = new int[size];
+        m_slotValues = new Object[size];
+        m_type = type;
+        
+        // add each value to the table, ignoring any duplicate texts
+        for (int i = 0; i < texts.length; i++) {
+            String text = texts[i];
+            int hash = text.hashCode();
+            int slot = hash & m_slotMask;
+            while (true) {
+                String match = m_slotTexts[slot];
+                if (match == null) {
+                    m_slotTexts[slot] = text;
+                    m_slotHashes[slot] = hash;
+                    m_slotValues[slot] = values[i];
+                    break;
+                } else if (match.equals(text)) {
+                    break;
+                }
+                slot = (slot + 1) & m_slotMask;
+            }
+        }
+    }
+    
+    /**
+     * Find the enum instance for a text value.
+     *
+     * @param text value
+     * @return enum instance, or <code>null</code> if not found
+     */
+    public Object find(String text) {
+        int hash = text.hashCode();
+        int slot = hash & m_slotMask;
+        String match;
+        while ((match = m_slotTexts[slot]) != null) {
+            if (match == text ||
+                (m_slotHashes[slot] == hash && match.equals(text))) {
+                return m_slotValues[slot];
+            }
+            slot = (slot + 1) & m_slotMask;
+        }
+        return null;
+    }
+    
+    /**
+     * Get the enum instance for a text value. This is the method called by the
+     * generated deserializer code.
+     *
+     * @param text value (non-<code>null</code>)
+     * @return enum instance
+     * @throws JiBXException if the text does not match any instance
+     */
+    public Object get(String text) throws JiBXException {
+        Object value = find(text);
+        if (value == null) {
+            throw new JiBXException("No match found for value '" + text +
+                "' in enum class " + m_type);
+        }
+        return value;
+    }
+}
@@ -0,0 +1,691 @@
+/*
+Copyright (c) 2026, agent.
+All rights reserved.
+
+Redistribution and use in source and binary forms, with or without modification,
+are permitted provided that the following conditions are met:
+
+ * Redistributions of source code must retain the above copyright notice, this
+   list of conditions and the following disclaimer.
+ * Redistributions in binary form must reproduce the above copyright notice,
+   this list of conditions and the following disclaimer in the documentation
+   and/or other materials provided with the distribution.
+ * Neither the name of JiBX nor the names of its contributors may be used
+   to endorse or promote products derived from this software without specific
+   prior written permission.
+
+THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+(INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON
+ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+(INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+*/
+package org.jibx.runtime.impl;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+
+/**
+ * Input buffer supplied with data by the application, for use with
+ * non-blocking I/O. Rather than reading from a stream, this accepts chunks of a
+ * document as they become available through the {@link #feed(ByteBuffer)}
+ * methods, with {@link #endOfInput()} called when no more data is coming. The
+ * buffer never blocks waiting for data; if the parser requests data which has
+ * not yet been supplied, an {@link IOException} is thrown.
+ *
+ * To make it possible to avoid such requests, the data is scanned as it is
+ * fed to track the document structure. Once {@link #isDocumentComplete()}
+ * returns <code>true</code>, the entire document can be unmarshalled. For
+ * documents made up of a sequence of records (child elements of the root
+ * element), {@link #getRecordCount()} gives the number of records which can
+ * be unmarshalled with the data so far supplied, allowing records to be
+ * processed as they arrive. The scanning only handles UTF-8 and single-byte
+ * encodings, matching the {@link UTF8StreamReader} used to parse the data.
+ *
+ * Any data fed after the end of the root element is held back from the parser,
+ * and becomes the start of the next document when {@link #nextDocument()} is
+ * called. Clients need to obey the interface access rules.
+ *
+ * @author agent
+ */
+public class FeedInByteBuffer implements IInByteBuffer
+{
+    //
+    // Scanner states
+    
+    /** Character data (or whitespace outside the root element). */
+    private static final int TEXT = 0;
+    
+    /** Just after '&lt;'. */
+    private static final int MARKUP = 1;
+    
+    /** Within start tag. */
+    private static final int START_TAG = 2;
+    
+    /** Within quoted attribute value in start tag. */
+    private static final int QUOTED = 3;
+    
+    /** Within end tag. */
+    private static final int END_TAG = 4;
+    
+    /** Within processing instruction (including XML declaration). */
+    private static final int PI = 5;
+    
+    /** Just after "&lt;!". */
+    private static final int BANG = 6;
+    
+    /** Just after "&lt;!-". */
+    private static final int COMMENT_START = 7;
+    
+    /** Within comment. */
+    private static final int COMMENT = 8;
+    
+    /** Within CDATA section. */
+    private static final int CDATA = 9;
+    
+    /** Within document type declaration. */
+    private static final int DOCTYPE = 10;
+    
+    /** Within quoted text in document type declaration. */
+    private static final int DOCTYPE_QUOTED = 11;
+    
+    /** Within internal subset of document type declaration. */
+    private static final int SUBSET = 12;
+    
+    /** Within quoted text in internal subset. */
+    private static final int SUBSET_QUOTED = 13;
+    
+    /** Just after '&lt;' in internal subset. */
+    private static final int SUBSET_MARKUP = 14;
+    
+    /** Just after "&lt;!" in internal subset. */
+    private static final int SUBSET_BANG = 15;
+    
+    /** Just after "&lt;!-" in internal subset. */
+    private static final int SUBSET_COMMENT_START = 16;
+    
+    /** Within comment in internal subset. */
+    private static final int SUBSET_COMMENT = 17;
+    
+    /** Within processing instruction in internal subset. */
+    private static final int SUBSET_PI = 18;
+    
+    /** Buffer for input bytes. */
+    private byte[] m_buffer;
+    
+    /** Initial buffer for input bytes. Larger buffers are taken from the
+     {@link BufferPool}, and returned when no longer needed. */
+    private final byte[] m_initialBuffer;
+    
+    /** Current offset for removing bytes from buffer. */
+    private int m_offset;
+    
+    /** Offset past end of bytes in buffer. */
+    private int m_limit;
+    
+    /** Document bytes supplied but not yet moved into the buffer (moved only
+     when requested, since the parser may hold offsets in the buffer). */
+    private byte[] m_pending;
+    
+    /** Number of bytes in pending array. */
+    private int m_pendingCount;
+    
+    /** Bytes supplied after the end of the current document. */
+    private byte[] m_excess;
+    
+    /** Number of bytes in excess array. */
+    private int m_excessCount;
+    
+    /** Flag for end of input reported. */
+    private boolean m_isEnd;
+    
+    /** Flag for end of root element seen. */
+    private boolean m_isComplete;
+    
+    /** Current scanner state. */
+    private int m_state;
+    
+    /** Quote character for quoted text. */
+    private byte m_quote;
+    
+    /** Last byte seen in current markup (ignoring quoted text). */
+    private byte m_last;
+    
+    /** Number of consecutive '-' or ']' characters. */
+    private int m_count;
+    
+    /** Flag for root element start tag seen. */
+    private boolean m_isRootSeen;
+    
+    /** Element nesting depth. */
+    private int m_depth;
+    
+    /** Number of records (child elements of root) completed. */
+    private int m_completeCount;
+    
+    /** Number of records which can be parsed with the data present. */
+    private int m_readyCount;
+    
+    /**
+     * Constructor with size specified.
+     * 
+     * @param size initial buffer size in bytes
+     */
+    public FeedInByteBuffer(int size) {
+        m_buffer = new byte[size];
+        m_initialBuffer = m_buffer;
+    }
+    
+    /**
+     * Constructor using default buffer size.
+     */
+    public FeedInByteBuffer() {
+        this(InByteBuffer.DEFAULT_BUFFER_SIZE);
+    }
+    
+    /**
+     * Append bytes to an array, replacing the array with a larger one if
+     * necessary.
+     *
+     * @param array array (<code>null</code> if none yet allocated)
+     * @param count number of bytes present in array
+     * @param bytes source bytes
+     * @param offset offset of first source byte
+     * @param length number of source bytes
+     * @return array containing appended bytes
+     */
+    private static byte[] append(byte[] array, int count, byte[] bytes,
+        int offset, int length) {
+        int need = count + length;
+        if (array == null || array.length < need) {
+            byte[] copy = BufferPool.getDefault().borrow(need);
+            if (array != null) {
+                System.arraycopy(array, 0, copy, 0, count);
+                BufferPool.getDefault().release(array);
+            }
+            array = copy;
+        }
+        System.arraycopy(bytes, offset, array, count, length);
+        return array;
+    }
+    
+    /**
+     * Record completion of an element tag.
+     *
+     * @param record end of record flag
+     */
+    private void tagComplete(boolean record) {
+        if (record) {
+            m_completeCount++;
+            m_readyCount = m_completeCount - 1;
+        } else {
+            m_readyCount = m_completeCount;
+        }
+    }
+    
+    /**
+     * Record the end of the root element.
+     */
+    private void documentComplete() {
+        m_isComplete = true;
+        m_readyCount = m_completeCount;
+    }
+    
+    /**
+     * Scan bytes to track the document structure, stopping at the end of the
+     * root element.
+     *
+     * @param bytes data
+     * @param offset offset of first byte to be scanned
+     * @param limit offset past last byte to be scanned
+     * @return offset past last byte scanned
+     */
+    private int scan(byte[] bytes, int offset, int limit) {
+        int state = m_state;
+        int i = offset;
+        while (i < limit && !m_isComplete) {
+            byte b = bytes[i++];
+            switch (state) {
+                
+                case TEXT:
+                    if (b == '<') {
+                        state = MARKUP;
+                    }
+                    break;
+                    
+                case MARKUP:
+                    if (b == '/') {
+                        state = END_TAG;
+                    } else if (b == '?') {
+                        state = PI;
+                        m_last = 0;
+                    } else if (b == '!') {
+                        state = BANG;
+                    } else {
+                        state = START_TAG;
+                        m_last = b;
+                    }
+                    break;
+                    
+                case START_TAG:
+                    if (b == '"' || b == '\'') {
+                        m_quote = b;
+                        state = QUOTED;
+                    } else if (b == '>') {
+                        state = TEXT;
+                        if (m_last == '/') {
+                            
+                            // empty element is root or complete record
+                            if (!m_isRootSeen) {
+                                m_isRootSeen = true;
+                                documentComplete();
+                            } else {
+                                tagComplete(m_depth == 1);
+                            }
+                            
+                        } else {
+                            m_isRootSeen = true;
+                            m_depth++;
+                            tagComplete(false);
+                        }
+                    } else {
+                        m_last = b;
+                    }
+                    break;
+                    
+                case QUOTED:
+                    if (b == m_quote) {
+                        state = START_TAG;
+                        m_last = b;
+                    }
+                    break;
+                    
+                case END_TAG:
+                    if (b == '>') {
+                        state = TEXT;
+                        if (--m_depth == 0) {
+                            documentComplete();
+                        } else {
+                            tagComplete(m_depth == 1);
+                        }
+                    }
+                    break;
+                    
+                case PI:
+                    if (b == '>' && m_last == '?') {
+                        state = TEXT;
+                    }
+                    m_last = b;
+                    break;
+                    
+                case BANG:
+                    if (b == '-') {
+                        state = COMMENT_START;
+                    } else if (b == '[') {
+                        state = CDATA;
+                        m_count = 0;
+                    } else {
+                        state = DOCTYPE;
+                    }
+                    break;
+                    
+                case COMMENT_START:
+                    state = COMMENT;
+                    m_count = 0;
+                    break;
+                    
+                case COMMENT:
+                    if (b == '-') {
+                        m_count++;
+                    } else {
+                        if (b == '>' && m_count >= 2) {
+                            state = TEXT;
+                        }
+                        m_count = 0;
+                    }
+                    break;
+                    
+                case CDATA:
+                    if (b == ']') {
+                        m_count++;
+                    } else {
+                        if (b == '>' && m_count >= 2) {
+                            state = TEXT;
+                        }
+                        m_count = 0;
+                    }
+                    break;
+                    
+                case DOCTYPE:
+                    if (b == '"' || b == '\'') {
+                        m_quote = b;
+                        state = DOCTYPE_QUOTED;
+                    } else if (b == '[') {
+                        state = SUBSET;
+                    } else if (b == '>') {
+                        state = TEXT;
+                    }
+                    break;
+                    
+                case DOCTYPE_QUOTED:
+                    if (b == m_quote) {
+                        state = DOCTYPE;
+                    }
+                    break;
+                    
+                case SUBSET:
+                    if (b == '"' || b == '\'') {
+                        m_quote = b;
+                        state = SUBSET_QUOTED;
+                    } else if (b == '<') {
+                        state = SUBSET_MARKUP;
+                    } else if (b == ']') {
+                        state = DOCTYPE;
+                    }
+                    break;
+                    
+                case SUBSET_QUOTED:
+                    if (b == m_quote) {
+                        state = SUBSET;
+                    }
+                    break;
+                    
+                case SUBSET_MARKUP:
+                    if (b == '!') {
+                        state = SUBSET_BANG;
+                    } else if (b == '?') {
+                        state = SUBSET_PI;
+                        m_last = 0;
+                    } else {
+                        state = SUBSET;
+                    }
+                    break;
+                    
+                case SUBSET_BANG:
+                    
+                    // only comments need special handling, since quoted text
+                    // in declarations is tracked by the subset state
+                    if (b == '-') {
+                        state = SUBSET_COMMENT_START;
+                    } else {
+                        state = SUBSET;
+                    }
+                    break;
+                    
+                case SUBSET_COMMENT_START:
+                    state = SUBSET_COMMENT;
+                    m_count = 0;
+                    break;
+                    
+                case SUBSET_COMMENT:
+                    if (b == '-') {
+                        m_count++;
+                    } else {
+                        if (b == '>' && m_count >= 2) {
+                            state = SUBSET;
+                        }
+                        m_count = 0;
+                    }
+                    break;
+                    
+                case SUBSET_PI:
+                    if (b == '>' && m_last == '?') {
+                        state = SUBSET;
+                    }
+                    m_last = b;
+                    break;
+                    
+            }
+        }
+        m_state = state;
+        return i;
+    }
+    
+    /**
+     * Supply document data. The data is copied, so the caller is free to reuse
+     * the array on return.
+     *
+     * @param bytes data
+     * @param offset offset of first byte
+     * @param length number of bytes
+     * @throws IOException if end of input has already been reported
+     */
+    public void feed(byte[] bytes, int offset, int length) throws IOException {
+        if (m_isEnd) {
+            throw new IOException("Data supplied after end of input");
+        }
+        int limit = offset + length;
+        int end = scan(bytes, offset, limit);
+        int count = end - offset;
+        if (count > 0) {
+            if (m_pendingCount == 0 && m_buffer.length - m_limit >= count) {
+                
+                // append directly to buffer (beyond any data seen by parser)
+                System.arraycopy(bytes, offset, m_buffer, m_limit, count);
+                m_limit += count;
+                
+            } else {
+                m_pending = append(m_pending, m_pendingCount, bytes, offset,
+                    count);
+                m_pendingCount += count;
+            }
+        }
+        if (end < limit) {
+            m_excess = append(m_excess, m_excessCount, bytes, end,
+                limit - end);
+            m_excessCount += limit - end;
+        }
+    }
+    
+    /**
+     * Supply document data. All remaining data in the buffer is used, and the
+     * buffer position is moved to the limit.
+     *
+     * @param buff data
+     * @throws IOException if end of input has already been reported
+     */
+    public void feed(ByteBuffer buff) throws IOException {
+        int length = buff.remaining();
+        if (buff.hasArray()) {
+            feed(buff.array(), buff.arrayOffset() + buff.position(), length);
+            buff.position(buff.limit());
+        } else {
+            byte[] bytes = BufferPool.getDefault().borrow(length);
+            buff.get(bytes, 0, length);
+            feed(bytes, 0, length);
+            BufferPool.getDefault().release(bytes);
+        }
+    }
+    
+    /**
+     * Report the end of input. After this call all data supplied is available
+     * to the parser, whether or not the document is complete.
+     */
+    public void endOfInput() {
+        m_isEnd = true;
+        m_readyCount = m_completeCount;
+    }
+    
+    /**
+     * Check if the end of the root element has been reached. Once this returns
+     * <code>true</code> the entire document can be parsed without blocking.
+     *
+     * @return <code>true</code> if complete, <code>false</code> if not
+     */
+    public boolean isDocumentComplete() {
+        return m_isComplete;
+    }
+    
+    /**
+     * Check if the end of input has been reported.
+     *
+     * @return <code>true</code> if end of input, <code>false</code> if not
+     */
+    public boolean isEndOfInput() {
+        return m_isEnd;
+    }
+    
+    /**
+     * Get the number of records (child elements of the root element) which
+     * can be parsed without needing more data. This is the number of complete
+     * records for which the next element start or end tag (which the parser
+     * reads ahead to) has also been supplied.
+     *
+     * @return record count
+     */
+    public int getRecordCount() {
+        return m_readyCount;
+    }
+    
+    /**
+     * Start the next document, using any data supplied after the end of the
+     * current document.
+     *
+     * @throws IOException if the current document is not complete
+     */
+    public void nextDocument() throws IOException {
+        if (!m_isComplete) {
+            throw new IOException("Current document not complete");
+        }
+        byte[] excess = m_excess;
+        int count = m_excessCount;
+        m_excess = null;
+        reset();
+        if (excess != null) {
+            feed(excess, 0, count);
+            BufferPool.getDefault().release(excess);
+        }
+    }
+    
+    /**
+     * Reset to initial state for reuse. This discards any data supplied.
+     */
+    public void reset() {
+        if (m_buffer != m_initialBuffer) {
+            BufferPool.getDefault().release(m_buffer);
+            m_buffer = m_initialBuffer;
+        }
+        if (m_pending != null) {
+            BufferPool.getDefault().release(m_pending);
+            m_pending = null;
+        }
+        if (m_excess != null) {
+            BufferPool.getDefault().release(m_excess);
+            m_excess = null;
+        }
+        m_offset = 0;
+        m_limit = 0;
+        m_pendingCount = 0;
+        m_excessCount = 0;
+        m_isEnd = false;
+        m_isComplete = false;
+        m_state = TEXT;
+        m_isRootSeen = false;
+        m_depth = 0;
+        m_completeCount = 0;
+        m_readyCount = 0;
+    }
+    
+    //
+    // IInByteBuffer implementation
+    
+    /**
+     * Get the byte array buffer.
+     *
+     * @return array
+     */
+    public byte[] getBuffer() {
+        return m_buffer;
+    }
+    
+    /**
+     * Get the index of the next byte to be read. After reading data, the {@link
+     * #setOffset(int)} method must be used to update the current offset before
+     * any other operations are performed on the buffer.
+     *
+     * @return offset
+     */
+    public int getOffset() {
+        return m_offset;
+    }
+    
+    /**
+     * Set the current offset. This must be used to update the stored buffer
+     * state after reading any data.
+     * 
+     * @param offset Set offset
+     */
+    public void setOffset(int offset) {
+        m_offset = offset;
+    }
+    
+    /**
+     * Get offset past the end of data in buffer.
+     *
+     * @return offset past end of data
+     */
+    public int getLimit() {
+        return m_limit;
+    }
+    
+    /**
+     * Require some number of bytes of data. When this call is made the buffer
+     * discards all data up to the current offset, and moves any data supplied
+     * since the last call into the buffer. This call may cause the byte array
+     * buffer to be replaced, so {@link #getBuffer()}, {@link #getLimit()}, and
+     * {@link #getOffset()} must all be called again before any further use of
+     * the buffer.
+     * 
+     * @param size desired number of bytes
+     * @return <code>true</code> if request satisfied, <code>false</code> if
+     * end of document reached first
+     * @throws IOException if the data has not yet been supplied
+     */
+    public boolean require(int size) throws IOException {
+        int have = m_limit - m_offset;
+        if (have < size && m_pendingCount > 0) {
+            
+            // move retained data down (to a larger array, if needed)
+            int total = have + m_pendingCount;
+            int need = Math.max(total, size);
+            if (need > m_buffer.length) {
+                byte[] newbuf = BufferPool.getDefault().
+                    borrow(Math.max(need, m_buffer.length*2));
+                System.arraycopy(m_buffer, m_offset, newbuf, 0, have);
+                if (m_buffer != m_initialBuffer) {
+                    BufferPool.getDefault().release(m_buffer);
+                }
+                m_buffer = newbuf;
+            } else if (m_offset > 0) {
+                System.arraycopy(m_buffer, m_offset, m_buffer, 0, have);
+            }
+            
+            // add the pending data
+            System.arraycopy(m_pending, 0, m_buffer, have, m_pendingCount);
+            m_offset = 0;
+            m_limit = total;
+            m_pendingCount = 0;
+            have = total;
+        }
+        if (have >= size) {
+            return true;
+        } else if (m_isEnd || m_isComplete) {
+            return false;
+        } else {
+            throw new IOException("Document data not yet available");
+        }
+    }
+    
+    /**
+     * Complete usage of the buffer. This discards all data, including any
+     * supplied after the end of the document.
+     */
+    public void finish() {
+        reset();
+    }
+}
@@ -0,0 +1,326 @@
+/*
+Copyright (c) 2026, agent.
+All rights reserved.
+
+Redistribution and use in source and binary forms, with or without modification,
+are permitted provided that the following conditions are met:
+
+ * Redistributions of source code must retain the above copyright notice, this
+   list of conditions and the following disclaimer.
+ * Redistributions in binary form must reproduce the above copyright notice,
+   this list of conditions and the following disclaimer in the documentation
+   and/or other materials provided with the distribution.
+ * Neither the name of JiBX nor the names of its contributors may be used
+   to endorse or promote products derived from this software without specific
+   prior written permission.
+
+THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+(INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON
+ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+(INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+*/
+
+package org.jibx.runtime.impl;
+
+/**
+ * Table of objects keyed by ID values, with tracking of forward references to
+ * IDs not yet defined. This is a specialized open-addressed hash table designed
+ * to minimize memory use for documents with large numbers of IDs. Keys and
+ * values are stored in parallel arrays, with no per-entry objects. Forward
+ * references are kept in a second set of parallel arrays as linked lists, with
+ * the head of the list for each ID stored in a third array parallel to the
+ * keys (only created when the first forward reference is registered).
+ *
+ * This implementation is unsynchronized, since it is only intended for use by
+ * a single unmarshalling context.
+ *
+ * @author agent
+ */
+public class IDTable
+{
+    /** Result code for ID definition when ID was already defined. */
+    public static final int DUPLICATE_ID = -1;
+    
+    /** Result code for ID definition when object type does not match type
+     expected by forward references. */
+    public static final int WRONG_TYPE = -2;
+    
+    /** Minimum size used for hash table (must be a power of two). */
+    private static final int MINIMUM_SIZE = 32;
+    
+    /** Minimum size used for forward reference arrays. */
+    private static final int MINIMUM_FILL_SIZE = 16;
+    
+    /** Marker for end of forward reference list. */
+    private static final int END_LIST = -1;
+    
+    /** Expected class name of objects with forward references
+     (<code>null</code> if not checked). */
+    private final String m_expectedClass;
+    
+    /** Mask for slot numbers (table size minus one). */
+    private int m_slotMask;
+    
+    /** Number of entries present in table. */
+    private int m_entryCount;
+    
+    /** Entries allowed before growing table. */
+    private int m_entryLimit;
+    
+    /** Array of key table slots. */
+    private String[] m_keyTable;
+    
+    /** Array of value table slots (<code>null</code> entry for ID with only
+     forward references). */
+    private Object[] m_valueTable;
+    
+    /** Array of forward reference list heads, parallel to key table (lazy
+     create, <code>null</code> if no forward references yet). */
+    private int[] m_fillHeads;
+    
+    /** Forward references. */
+    private BackFillReference[] m_fillReferences;
+    
+    /** Index of next forward reference in same list. */
+    private int[] m_fillLinks;
+    
+    /** Number of forward reference array entries used. */
+    private int m_fillCount;
+    
+    /** Head of list of free forward reference entries. */
+    private int m_fillFree;
+    
+    /**
+     * Constructor.
+     *
+     * @param xclass expected class name of objects with forward references
+     * (<code>null</code> if not checked)
+     */
+    public IDTable(String xclass) {
+        m_expectedClass = xclass;
+        m_slotMask = MINIMUM_SIZE - 1;
+        m_entryLimit = MINIMUM_SIZE / 2;
+        m_keyTable = new String[MINIMUM_SIZE];
+        m_valueTable = new Object[MINIMUM_SIZE];
+        m_fillFree = END_LIST;
+    }
+    
+    /**
+     * Get base slot for a key.
+     *
+     * @param key ID value
+     * @return base slot
+     */
+    private int baseSlot(String key) {
+        int hash = key.hashCode();
+        return (hash ^ (hash >>> 16)) & m_slotMask;
+    }
+    
+    /**
+     * Find slot for key. If the key is not present in the table, this returns
+     * the free slot where the key would be added, as a negative value (the
+     * slot number plus one, negated).
+     *
+     * @param key ID value
+     * @return slot number if found, <code>-(slot+1)</code> if not found
+     */
+    private int findSlot(String key) {
+        String[] keys = m_keyTable;
+        int slot = baseSlot(key);
+        String comp;
+        while ((comp = keys[slot]) != null) {
+            if (comp == key || comp.equals(key)) {
+                return slot;
+            }
+            slot = (slot + 1) & m_slotMask;
+        }
+        return -slot - 1;
+    }
+    
+    /**
+     * Double the size of the table, reinserting all entries.
+     */
+    private void growTable() {
+        String[] keys = m_keyTable;
+        Object[] values = m_valueTable;
+        int[] heads = m_fillHeads;
+        int size = keys.length * 2;
+        m_slotMask = size - 1;
+        m_entryLimit = size / 2;
+        m_keyTable = new String[size];
+        m_valueTable = new Object[size];
+        if (heads != null) {
+            m_fillHeads = new int[size];
+        }
+        for (int i = 0; i < keys.length; i++) {
+            String key = keys[i];
+            if (key != null) {
+                int slot = baseSlot(key);
+                while (m_keyTable[slot] != null) {
+                    slot = (slot + 1) & m_slotMask;
+                }
+                m_keyTable[slot] = key;
+                m_valueTable[slot] = values[i];
+                if (heads != null) {
+                    m_fillHeads[slot] = heads[i];
+                }
+            }
+        }
+    }
+    
+    /**
+     * Add a key to the table. Grows the table first if necessary.
+     *
+     * @param key ID value
+     * @param slot free slot for key, as returned by {@link #findSlot(String)}
+     * @return actual slot used
+     */
+    private int addKey(String key, int slot) {
+        if (m_entryCount >= m_entryLimit) {
+            growTable();
+            slot = findSlot(key);
+        }
+        slot = -slot - 1;
+        m_keyTable[slot] = key;
+        m_entryCount++;
+        return slot;
+    }
+    
+    /**
+     * Get object for ID.
+     *
+     * @param key ID value
+     * @return object, or <code>null</code> if the ID has not been defined
+     */
+    public Object get(String key) {
+        int slot = findSlot(key);
+        return slot >= 0 ? m_valueTable[slot] : null;
+    }
+    
+    /**
+     * Register a forward reference to an ID which has not yet been defined.
+     *
+     * @param key ID value
+     * @param ref forward reference
+     * @return <code>true</code> if reference registered, <code>false</code> if
+     * the ID is already defined
+     */
+    public boolean addBackFill(String key, BackFillReference ref) {
+        int slot = findSlot(key);
+        if (slot >= 0) {
+            if (m_valueTable[slot] != null) {
+                return false;
+            }
+        } else {
+            slot = addKey(key, slot);
+            if (m_fillHeads != null) {
+                m_fillHeads[slot] = END_LIST;
+            }
+        }
+        if (m_fillHeads == null) {
+            int[] heads = new int[m_keyTable.length];
+            for (int i = 0; i < heads.length; i++) {
+                heads[i] = END_LIST;
+            }
+            m_fillHeads = heads;
+        }
+        
+        // take entry from free list, or from end of arrays
+        int index = m_fillFree;
+        if (index == END_LIST) {
+            if (m_fillReferences == null) {
+                m_fillReferences = new BackFillReference[MINIMUM_FILL_SIZE];
+                m_fillLinks = new int[MINIMUM_FILL_SIZE];
+            } else if (m_fillCount == m_fillReferences.length) {
+                int size = m_fillCount * 2;
+                BackFillReference[] refs = new BackFillReference[size];
+                System.arraycopy(m_fillReferences, 0, refs, 0, m_fillCount);
+                m_fillReferences = refs;
+                int[] links = new int[size];
+                System.arraycopy(m_fillLinks, 0, links, 0, m_fillCount);
+                m_fillLinks = links;
+            }
+            index = m_fillCount++;
+        } else {
+            m_fillFree = m_fillLinks[index];
+        }
+        
+        // link entry at head of list for ID
+        m_fillReferences[index] = ref;
+        m_fillLinks[index] = m_fillHeads[slot];
+        m_fillHeads[slot] = index;
+        return true;
+    }
+    
+    /**
+     * Define object for ID. If there are forward references to the ID, this
+     * checks the object type against the expected type and then fills in each
+     * reference.
+     *
+     * @param key ID value
+     * @param obj object
+     * @return number of forward references filled in, or {@link
+     * #DUPLICATE_ID} or {@link #WRONG_TYPE} if error
+     */
+    public int define(String key, Object obj) {
+        int slot = findSlot(key);
+        if (slot < 0) {
+            slot = addKey(key, slot);
+            m_valueTable[slot] = obj;
+            if (m_fillHeads != null) {
+                m_fillHeads[slot] = END_LIST;
+            }
+            return 0;
+        } else if (m_valueTable[slot] != null) {
+            return DUPLICATE_ID;
+        } else {
+            m_valueTable[slot] = obj;
+            if (m_expectedClass != null &&
+                !m_expectedClass.equals(obj.getClass().getName())) {
+                return WRONG_TYPE;
+            }
+            
+            // reverse list to get references in order added
+            int index = m_fillHeads[slot];
+            m_fillHeads[slot] = END_LIST;
+            int prior = END_LIST;
+            while (index != END_LIST) {
+                int next = m_fillLinks[index];
+                m_fillLinks[index] = prior;
+                prior = index;
+                index = next;
+            }
+            
+            // fill in all references, then move entries to free list
+            int count = 0;
+            index = prior;
+            while (index != END_LIST) {
+                BackFillReference ref = m_fillReferences[index];
+                m_fillReferences[index] = null;
+                int next = m_fillLinks[index];
+                m_fillLinks[index] = m_fillFree;
+                m_fillFree = index;
+                ref.backfill(obj);
+                count++;
+                index = next;
+            }
+            return count;
+        }
+    }
+    
+    /**
+     * Get number of IDs in table, including those with only forward
+     * references.
+     *
+     * @return count
+     */
+    public int size() {
+        return m_entryCount;
+    }
+}
@@ -101,6 +101,26 @@ public class ISO88591StreamWriter extends StreamWriterBase
         m_fillOffset = fill;
     }
     
+    /**
+     * Encode an element or attribute name.
+     *
+     * @param name unqualified element or attribute name
+     * @return encoded bytes, or <code>null</code> if the name includes
+     * characters which cannot be represented in the encoding
+     */
+    protected byte[] encodeName(String name) {
+        int length = name.length();
+        byte[] bytes = new byte[length];
+        for (int i = 0; i < length; i++) {
+            char chr = name.charAt(i);
+            if (chr > 0xFF) {
+                return null;
+            }
+            bytes[i] = (byte)chr;
+        }
+        return bytes;
+    }
+    
     /**
      * Write markup character to output. Markup text can be written directly to
      * the output without the need for any escaping, but still needs to be
@@ -161,6 +181,37 @@ public class ISO88591StreamWriter extends StreamWriterBase
         }
     }
     
+    /**
+     * Write a hexadecimal character reference to the output buffer. The
+     * reference uses at least four hex digits, and more as needed for the full
+     * code point. The caller must first make sure that there's space for ten
+     * bytes in the buffer.
+     *
+     * @param chr code point
+     * @param fill offset in buffer
+     * @return offset for next data byte in buffer
+     */
+    private int writeCharRef(int chr, int fill) {
+        byte[] buff = m_buffer;
+        buff[fill++] = (byte)'&';
+        buff[fill++] = (byte)'#';
+        buff[fill++] = (byte)'x';
+        int shift = 12;
+        while ((chr >> shift) > 0xF) {
+            shift += 4;
+        }
+        for (; shift >= 0; shift -= 4) {
+            int nib = (chr >> shift) & 0xF;
+            if (nib < 10) {
+                buff[fill++] = (byte)('0' + nib);
+            } else {
+                buff[fill++] = (byte)('A' + nib - 10);
+            }
+        }
+        buff[fill++] = (byte)';';
+        return fill;
+    }
+    
     /**
      * Write attribute text to output. This needs to write the text with any
      * appropriate escaping.
@@ -174,6 +225,21 @@ public class ISO88591StreamWriter extends StreamWriterBase
         int fill = m_fillOffset;
         int chr;
         for (int i = 0; i < length; i += Character.charCount(chr)) {
+            
+            // copy run of characters not needing escaping or encoding
+            int end = i;
+            char safe;
+            while (end < length && (safe = text.charAt(end)) < 0x100 &&
+                ATTRIBUTE_SAFE_CHARS[safe]) {
+                end++;
+            }
+            if (end > i) {
+                fill = copyChars(text, i, end, fill);
+                i = end;
+                if (i == length) {
+                    break;
+                }
+            }
             chr = text.codePointAt(i);
             if (chr == '"') {
                 fill = writeEntity(m_quotEntityBytes, fill);
@@ -181,10 +247,8 @@ public class ISO88591StreamWriter extends StreamWriterBase
                 fill = writeEntity(m_ampEntityBytes, fill);
             } else if (chr == '<') {
                 fill = writeEntity(m_ltEntityBytes, fill);
-            } else if (chr == '>' && i > 2 && text.charAt(i-1) == ']' &&
+            } else if (chr == '>' && i > 1 && text.charAt(i-1) == ']' &&
                 text.charAt(i-2) == ']') {
-                m_buffer[fill++] = (byte)']';
-                m_buffer[fill++] = (byte)']';
                 fill = writeEntity(m_gtEntityBytes, fill);
             } else if (chr < 0x20) {
                 if (chr != 0x9 && chr != 0xA && chr != 0xD) {
@@ -202,20 +266,9 @@ public class ISO88591StreamWriter extends StreamWriterBase
                             " in attribute value text");
                     } else {
                         m_fillOffset = fill;
-                        makeSpace(length - i + 8);
+                        makeSpace(length - i + 10);
                         fill = m_fillOffset;
-                        m_buffer[fill++] = (byte)'&';
-                        m_buffer[fill++] = (byte)'#';
-                        m_buffer[fill++] = (byte)'x';
-                        for (int j = 12; j >= 0; j -= 4) {
-                            int nib = (chr >> j) & 0xF;
-                            if (nib < 10) {
-                                m_buffer[fill++] = (byte)('0' + nib);
-                            } else {
-                                m_buffer[fill++] = (byte)('A' + nib);
-                            }
-                        }
-                        m_buffer[fill++] = (byte)';';
+                        fill = writeCharRef(chr, fill);
                     }
                 } else {
                     m_buffer[fill++] = (byte)chr;
@@ -238,12 +291,27 @@ public class ISO88591StreamWriter extends StreamWriterBase
         int fill = m_fillOffset;
         int chr;
         for (int i = 0; i < length; i += Character.charCount(chr)) {
+            
+            // copy run of characters not needing escaping or encoding
+            int end = i;
+            char safe;
+            while (end < length && (safe = text.charAt(end)) < 0x100 &&
+                TEXT_SAFE_CHARS[safe]) {
+                end++;
+            }
+            if (end > i) {
+                fill = copyChars(text, i, end, fill);
+                i = end;
+                if (i == length) {
+                    break;
+                }
+            }
             chr = text.codePointAt(i);
             if (chr == '&') {
                 fill = writeEntity(m_ampEntityBytes, fill);
             } else if (chr == '<') {
                 fill = writeEntity(m_ltEntityBytes, fill);
-            } else if (chr == '>' && i > 2 && text.charAt(i-1) == ']' &&
+            } else if (chr == '>' && i > 1 && text.charAt(i-1) == ']' &&
                 text.charAt(i-2) == ']') {
                 fill = writeEntity(m_gtEntityBytes, fill);
             } else if (chr < 0x20) {
@@ -262,20 +330,9 @@ public class ISO88591StreamWriter extends StreamWriterBase
                             " in character data text");
                     } else {
                         m_fillOffset = fill;
-                        makeSpace(length - i + 8);
+                        makeSpace(length - i + 10);
                         fill = m_fillOffset;
-                        m_buffer[fill++] = (byte)'&';
-                        m_buffer[fill++] = (byte)'#';
-                        m_buffer[fill++] = (byte)'x';
-                        for (int j = 12; j >= 0; j -= 4) {
-                            int nib = (chr >> j) & 0xF;
-                            if (nib < 10) {
-                                m_buffer[fill++] = (byte)('0' + nib);
-                            } else {
-                                m_buffer[fill++] = (byte)('A' + nib);
-                            }
-                        }
-                        m_buffer[fill++] = (byte)';';
+                        fill = writeCharRef(chr, fill);
                     }
                 } else {
                     m_buffer[fill++] = (byte)chr;
@@ -300,7 +357,7 @@ public class ISO88591StreamWriter extends StreamWriterBase
         int chr;
         for (int i = 0; i < length; i += Character.charCount(chr)) {
             chr = text.codePointAt(i);
-            if (chr == '>' && i > 2 && text.charAt(i-1) == ']' &&
+            if (chr == '>' && i > 1 && text.charAt(i-1) == ']' &&
                 text.charAt(i-2) == ']') {
                 throw new IOException("Sequence \"]]>\" is not allowed " +
                     "within CDATA section text");
@@ -31,6 +31,8 @@ package org.jibx.runtime.impl;
 import java.io.IOException;
 import java.io.InputStream;
 
+import org.jibx.runtime.IRuntimeMonitor;
+
 /**
  * Byte buffer wrapping an input stream. Clients need to obey the interface
  * access rules.
@@ -51,12 +53,19 @@ public class InByteBuffer implements IInByteBuffer
     /** Buffer for input bytes. */
     private byte[] m_buffer;
     
+    /** Initial buffer for input bytes. Larger buffers are taken from the
+     {@link BufferPool}, and returned when no longer needed. */
+    private final byte[] m_initialBuffer;
+    
     /** Offset past end of bytes in buffer. */
     private int m_limit;
     
     /** Current offset for removing bytes from buffer. */
     private int m_offset;
     
+    /** Monitor for runtime events. */
+    private IRuntimeMonitor m_monitor = RuntimeSupport.getDefaultMonitor();
+    
     /**
      * Constructor with size specified.
      * 
@@ -64,6 +73,7 @@ public class InByteBuffer implements IInByteBuffer
      */
     public InByteBuffer(int size) {
         m_buffer = new byte[size];
+        m_initialBuffer = m_buffer;
     }
     
     /**
@@ -94,8 +104,9 @@ public class InByteBuffer implements IInByteBuffer
             // first check for new buffer needed
             byte[] oldbuf = m_buffer;
             if (m_buffer.length < size) {
-                byte[] newbuf = new byte[Math.max(size, m_buffer.length*2)];
-                m_buffer = newbuf;
+                m_buffer = BufferPool.getDefault().
+                    borrow(Math.max(size, m_buffer.length*2));
+                m_monitor.bufferGrown(m_buffer.length);
             }
             
             // copy any remaining data to start of buffer
@@ -104,6 +115,9 @@ public class InByteBuffer implements IInByteBuffer
                 System.arraycopy(oldbuf, m_offset, m_buffer, 0, rem);
             }
             m_offset = 0;
+            if (oldbuf != m_buffer && oldbuf != m_initialBuffer) {
+                BufferPool.getDefault().release(oldbuf);
+            }
             
             // read to at least the required number of bytes
             m_limit = rem;
@@ -112,6 +126,7 @@ public class InByteBuffer implements IInByteBuffer
                 int actual = m_stream.read(m_buffer, m_limit, max);
                 if (actual >= 0) {
                     m_limit += actual;
+                    m_monitor.bytesRead(actual);
                 } else {
                     m_isEnd = true;
                     return false;
@@ -122,9 +137,21 @@ public class InByteBuffer implements IInByteBuffer
     }
     
     /**
-     * Reset to initial state for reuse.
+     * Return any buffer taken from the pool, reverting to the initial buffer.
+     */
+    private void releaseBuffer() {
+        if (m_buffer != m_initialBuffer) {
+            BufferPool.getDefault().release(m_buffer);
+            m_buffer = m_initialBuffer;
+        }
+    }
+    
+    /**
+     * Reset to initial state for reuse. This discards any buffered data, and
+     * returns any enlarged buffer to the pool.
      */
     public void reset() {
+        releaseBuffer();
         m_isEnd = false;
         m_limit = 0;
         m_offset = 0;
@@ -146,6 +173,17 @@ public class InByteBuffer implements IInByteBuffer
         m_stream = is;
     }
     
+    /**
+     * Set the monitor for runtime events. By default, buffers use the monitor
+     * returned by {@link RuntimeSupport#getDefaultMonitor()} at the time the
+     * buffer was created.
+     *
+     * @param monitor monitor (<code>null</code> to ignore all events)
+     */
+    public void setMonitor(IRuntimeMonitor monitor) {
+        m_monitor = monitor == null ? NullRuntimeMonitor.INSTANCE : monitor;
+    }
+    
     //
     // IInByteBuffer implementation
     
@@ -213,11 +251,15 @@ public class InByteBuffer implements IInByteBuffer
      * Complete usage of the current stream. This method should be called
      * whenever the application is done reading from the buffered stream. Once
      * this method is called, a call to {@link #setInput(InputStream)} is
-     * required before the buffer can again be used.
+     * required before the buffer can again be used. Any enlarged buffer is
+     * returned to the pool.
      * 
      * @throws IOException If error
      */
     public void finish() throws IOException {
+        releaseBuffer();
+        m_limit = 0;
+        m_offset = 0;
         if (m_stream != null) {
             m_stream.close();
             m_stream = null;
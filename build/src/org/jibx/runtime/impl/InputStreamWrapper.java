@@ -163,7 +163,7 @@ public class InputStreamWrapper
      */
     private String scanToken() throws IOException {
         boolean skipping = true;
-        StringBuffer buff = new StringBuffer();
+        StringBuilder buff = new StringBuilder();
         while (require(m_scanOffset+1)) {
             char chr = (char)m_buffer[m_scanOffset++];
             if (skipping) {
@@ -198,7 +198,7 @@ public class InputStreamWrapper
     private String scanQuoted() throws IOException {
         boolean skipping = true;
         int quot = 0;
-        StringBuffer buff = new StringBuffer();
+        StringBuilder buff = new StringBuilder();
         while (require(m_scanOffset+1)) {
             char chr = (char)m_buffer[m_scanOffset++];
             if (skipping) {
@@ -30,9 +30,13 @@ package org.jibx.runtime.impl;
 
 import java.io.BufferedWriter;
 import java.io.IOException;
+import java.io.InputStream;
 import java.io.OutputStream;
 import java.io.OutputStreamWriter;
 import java.io.Writer;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.WritableByteChannel;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.HashMap;
@@ -46,6 +50,7 @@ import org.jibx.runtime.IExtensibleWriter;
 import org.jibx.runtime.IMarshallable;
 import org.jibx.runtime.IMarshaller;
 import org.jibx.runtime.IMarshallingContext;
+import org.jibx.runtime.IRuntimeMonitor;
 import org.jibx.runtime.IXMLWriter;
 import org.jibx.runtime.JiBXException;
 
@@ -64,6 +69,13 @@ public class MarshallingContext implements IMarshallingContext
     /** Starting size for object stack. */
     private static final int INITIAL_STACK_SIZE = 20;
     
+    /** Number of items marshalled from an iterator between output flushes. */
+    private static final int ITERATOR_FLUSH_COUNT = 1000;
+    
+    /** Size of buffer used for binary data read from a stream (a multiple of
+     three, so that no base64 padding is used within the text). */
+    private static final int BINARY_BUFFER_SIZE = 3 * 1024;
+    
     /** Binding factory used to create this unmarshaller. */
     private IBindingFactory m_factory;
     
@@ -113,9 +125,20 @@ public class MarshallingContext implements IMarshallingContext
      unused). */
     private OutByteBuffer m_byteBuffer;
     
+    /** Buffer used when writing to channel (lazy create, <code>null</code> if
+     unused). */
+    private ChannelOutByteBuffer m_channelBuffer;
+    
+    /** Buffer used for binary data read from a stream (lazy create,
+     <code>null</code> if unused). */
+    private byte[] m_binaryBuffer;
+    
     /** User context object (not used by JiBX, only for user convenience). */
     protected Object m_userContext;
     
+    /** Monitor for runtime events. */
+    private IRuntimeMonitor m_monitor;
+    
     /**
      * Constructor.
      *
@@ -142,6 +165,7 @@ public class MarshallingContext implements IMarshallingContext
         m_indentChar = ' ';
         m_newLine = "\n";
         m_factory = ifact;
+        m_monitor = RuntimeSupport.getDefaultMonitor();
         if (ifact != null) {
             m_classIndexMap = ifact.getClassIndexMap();
         } else {
@@ -223,43 +247,98 @@ public class MarshallingContext implements IMarshallingContext
         if (enc == null) {
             enc = "UTF-8";
         }
-        if ("UTF-8".equalsIgnoreCase(enc)) {
+        if (isDirectEncoding(enc)) {
                 
-            // handle UTF-8 output to stream directly
-            if (!(m_writer instanceof UTF8StreamWriter)) {
-                if (m_byteBuffer == null) {
-                    m_byteBuffer = new OutByteBuffer();
-                }
-                UTF8StreamWriter wrtr = new UTF8StreamWriter(m_uris);
-                m_writer = wrtr;
-                wrtr.setBuffer(m_byteBuffer);
-                wrtr.setIndentSpaces(m_indentCount, m_newLine,
-                     m_indentChar);
+            // handle output to stream directly
+            if (m_byteBuffer == null) {
+                m_byteBuffer = new OutByteBuffer();
             }
-            reset();
+            m_byteBuffer.setMonitor(m_monitor);
             m_byteBuffer.setOutput(outs);
+            setStreamWriter(m_byteBuffer, enc);
                 
-        } else if ("ISO-8859-1".equalsIgnoreCase(enc)) {
+        } else {
+            setOutput(outs, enc, createEscaper(enc));
+        }
+    }
+    
+    /**
+     * Set output channel and encoding. The UTF-8 and ISO-8859-1 encodings are
+     * written directly to the channel, with filled buffer segments combined in
+     * gathering writes. Other encodings are handled by wrapping the channel in
+     * a stream and using the Java character encoding support. The channel
+     * should be in blocking mode.
+     *
+     * @param chan channel for document data output
+     * @param enc document output encoding, or <code>null</code> for default
+     * @throws JiBXException if error setting output
+     */
+    public void setOutput(WritableByteChannel chan, String enc)
+        throws JiBXException {
+        
+        // set UTF-8 encoding if not specified
+        if (enc == null) {
+            enc = "UTF-8";
+        }
+        if (isDirectEncoding(enc)) {
                 
-            // handle ISO-8859-1 output to stream directly
-            if (!(m_writer instanceof ISO88591StreamWriter)) {
-                if (m_byteBuffer == null) {
-                    m_byteBuffer = new OutByteBuffer();
-                }
-                ISO88591StreamWriter wrtr = new ISO88591StreamWriter(m_uris);
-                m_writer = wrtr;
-                wrtr.setBuffer(m_byteBuffer);
-                wrtr.setIndentSpaces(m_indentCount, m_newLine,
-                     m_indentChar);
+            // handle output to channel directly
+            if (m_channelBuffer == null) {
+                m_channelBuffer = new ChannelOutByteBuffer();
             }
-            reset();
-            m_byteBuffer.setOutput(outs);
+            m_channelBuffer.setMonitor(m_monitor);
+            m_channelBuffer.setOutput(chan);
+            setStreamWriter(m_channelBuffer, enc);
                 
         } else {
-            setOutput(outs, enc, createEscaper(enc));
+            setOutput(Channels.newOutputStream(chan), enc,
+                createEscaper(enc));
         }
     }
     
+    /**
+     * Check if an encoding is handled by a direct stream writer.
+     *
+     * @param enc document output encoding
+     * @return <code>true</code> if UTF-8 or ISO-8859-1, <code>false</code> if
+     * not
+     */
+    private static boolean isDirectEncoding(String enc) {
+        return "UTF-8".equalsIgnoreCase(enc) ||
+            "ISO-8859-1".equalsIgnoreCase(enc);
+    }
+    
+    /**
+     * Set up the direct stream writer for an encoding, using a byte buffer
+     * which has already been configured for output. The existing writer is
+     * reused if it's of the correct type.
+     *
+     * @param buff byte buffer for output
+     * @param enc document output encoding (must be UTF-8 or ISO-8859-1)
+     */
+    private void setStreamWriter(IOutByteBuffer buff, String enc) {
+        StreamWriterBase wrtr;
+        if ("UTF-8".equalsIgnoreCase(enc)) {
+            if (m_writer instanceof UTF8StreamWriter) {
+                wrtr = (StreamWriterBase)m_writer;
+            } else {
+                wrtr = new UTF8StreamWriter(m_uris);
+            }
+        } else {
+            if (m_writer instanceof ISO88591StreamWriter) {
+                wrtr = (StreamWriterBase)m_writer;
+            } else {
+                wrtr = new ISO88591StreamWriter(m_uris);
+            }
+        }
+        if (wrtr != m_writer) {
+            wrtr.setIndentSpaces(m_indentCount, m_newLine, m_indentChar);
+            m_writer = wrtr;
+        }
+        wrtr.setBuffer(buff);
+        reset();
+    }
+    
     /**
      * Set output writer and escaper.
      *
@@ -489,6 +568,7 @@ public class MarshallingContext implements IMarshallingContext
         } catch (IOException ex) {
             throw new JiBXException("Error writing marshalled document", ex);
         }
+        m_monitor.documentEnded();
     }
 
     /**
@@ -588,7 +668,72 @@ public class MarshallingContext implements IMarshallingContext
      */
     public MarshallingContext attribute(int index, String name, int value) 
         throws JiBXException {
-        return attribute(index, name, Integer.toString(value));
+        try {
+            m_writer.addAttribute(index, name, value);
+            return this;
+        } catch (IOException ex) {
+            throw new JiBXException("Error writing marshalled document", ex);
+        }
+    }
+    
+    /**
+     * Generate long integer attribute. This can only be used following an open
+     * start tag.
+     *
+     * @param index namespace URI index number
+     * @param name attribute name
+     * @param value long integer value for attribute
+     * @return this context (to allow chained calls)
+     * @throws JiBXException on any error (possibly wrapping other exception)
+     */
+    public MarshallingContext attribute(int index, String name, long value) 
+        throws JiBXException {
+        try {
+            m_writer.addAttribute(index, name, value);
+            return this;
+        } catch (IOException ex) {
+            throw new JiBXException("Error writing marshalled document", ex);
+        }
+    }
+    
+    /**
+     * Generate float attribute. This can only be used following an open start
+     * tag.
+     *
+     * @param index namespace URI index number
+     * @param name attribute name
+     * @param value float value for attribute
+     * @return this context (to allow chained calls)
+     * @throws JiBXException on any error (possibly wrapping other exception)
+     */
+    public MarshallingContext attribute(int index, String name, float value) 
+        throws JiBXException {
+        try {
+            m_writer.addAttribute(index, name, value);
+            return this;
+        } catch (IOException ex) {
+            throw new JiBXException("Error writing marshalled document", ex);
+        }
+    }
+    
+    /**
+     * Generate double attribute. This can only be used following an open start
+     * tag.
+     *
+     * @param index namespace URI index number
+     * @param name attribute name
+     * @param value double value for attribute
+     * @return this context (to allow chained calls)
+     * @throws JiBXException on any error (possibly wrapping other exception)
+     */
+    public MarshallingContext attribute(int index, String name, double value) 
+        throws JiBXException {
+        try {
+            m_writer.addAttribute(index, name, value);
+            return this;
+        } catch (IOException ex) {
+            throw new JiBXException("Error writing marshalled document", ex);
+        }
     }
     
     /**
@@ -667,8 +812,154 @@ public class MarshallingContext implements IMarshallingContext
      * @throws JiBXException on any error (possibly wrapping other exception)
      */
     public MarshallingContext content(int value) throws JiBXException {
-        content(Integer.toString(value));
-        return this;
+        try {
+            m_writer.writeTextContent(value);
+            return this;
+        } catch (IOException ex) {
+            throw new JiBXException("Error writing marshalled document", ex);
+        }
+    }
+    
+    /**
+     * Add long integer content to current element.
+     *
+     * @param value long integer element content
+     * @return this context (to allow chained calls)
+     * @throws JiBXException on any error (possibly wrapping other exception)
+     */
+    public MarshallingContext content(long value) throws JiBXException {
+        try {
+            m_writer.writeTextContent(value);
+            return this;
+        } catch (IOException ex) {
+            throw new JiBXException("Error writing marshalled document", ex);
+        }
+    }
+    
+    /**
+     * Add float content to current element.
+     *
+     * @param value float element content
+     * @return this context (to allow chained calls)
+     * @throws JiBXException on any error (possibly wrapping other exception)
+     */
+    public MarshallingContext content(float value) throws JiBXException {
+        try {
+            m_writer.writeTextContent(value);
+            return this;
+        } catch (IOException ex) {
+            throw new JiBXException("Error writing marshalled document", ex);
+        }
+    }
+    
+    /**
+     * Add double content to current element.
+     *
+     * @param value double element content
+     * @return this context (to allow chained calls)
+     * @throws JiBXException on any error (possibly wrapping other exception)
+     */
+    public MarshallingContext content(double value) throws JiBXException {
+        try {
+            m_writer.writeTextContent(value);
+            return this;
+        } catch (IOException ex) {
+            throw new JiBXException("Error writing marshalled document", ex);
+        }
+    }
+    
+    /**
+     * Add binary content to current element as base64 text. The text is
+     * encoded directly to the output, without line breaks.
+     *
+     * @param data binary element content
+     * @return this context (to allow chained calls)
+     * @throws JiBXException on any error (possibly wrapping other exception)
+     */
+    public MarshallingContext contentBase64(byte[] data) throws JiBXException {
+        try {
+            m_writer.writeBase64(data, 0, data.length);
+            return this;
+        } catch (IOException ex) {
+            throw new JiBXException("Error writing marshalled document", ex);
+        }
+    }
+    
+    /**
+     * Add binary content to current element as base64 text. The remaining data
+     * in the buffer is encoded directly to the output, without line breaks.
+     * The position of the buffer is not changed.
+     *
+     * @param data binary element content
+     * @return this context (to allow chained calls)
+     * @throws JiBXException on any error (possibly wrapping other exception)
+     */
+    public MarshallingContext contentBase64(ByteBuffer data)
+        throws JiBXException {
+        try {
+            if (data.hasArray()) {
+                m_writer.writeBase64(data.array(),
+                    data.arrayOffset() + data.position(), data.remaining());
+            } else {
+                ByteBuffer copy = data.duplicate();
+                byte[] buff = getBinaryBuffer();
+                while (copy.hasRemaining()) {
+                    int count = Math.min(copy.remaining(), buff.length);
+                    copy.get(buff, 0, count);
+                    m_writer.writeBase64(buff, 0, count);
+                }
+            }
+            return this;
+        } catch (IOException ex) {
+            throw new JiBXException("Error writing marshalled document", ex);
+        }
+    }
+    
+    /**
+     * Add binary content to current element as base64 text. All the data from
+     * the stream is read and encoded to the output a piece at a time, without
+     * line breaks. The stream is not closed by this method.
+     *
+     * @param data binary element content
+     * @return this context (to allow chained calls)
+     * @throws JiBXException on any error (possibly wrapping other exception)
+     */
+    public MarshallingContext contentBase64(InputStream data)
+        throws JiBXException {
+        try {
+            byte[] buff = getBinaryBuffer();
+            while (true) {
+                
+                // fill the buffer completely (unless at end of stream), since
+                // only the final piece can use padding
+                int fill = 0;
+                int count;
+                while (fill < buff.length &&
+                    (count = data.read(buff, fill, buff.length - fill)) >= 0) {
+                    fill += count;
+                }
+                if (fill > 0) {
+                    m_writer.writeBase64(buff, 0, fill);
+                }
+                if (fill < buff.length) {
+                    return this;
+                }
+            }
+        } catch (IOException ex) {
+            throw new JiBXException("Error writing marshalled document", ex);
+        }
+    }
+    
+    /**
+     * Get the buffer used for binary data read from a stream.
+     *
+     * @return buffer
+     */
+    private byte[] getBinaryBuffer() {
+        if (m_binaryBuffer == null) {
+            m_binaryBuffer = new byte[BINARY_BUFFER_SIZE];
+        }
+        return m_binaryBuffer;
     }
     
     /**
@@ -756,7 +1047,77 @@ public class MarshallingContext implements IMarshallingContext
      */
     public MarshallingContext element(int index, String name, int value) 
         throws JiBXException {
-        return element(index, name, Integer.toString(value));
+        try {
+            m_writer.startTagClosed(index, name);
+            m_writer.writeTextContent(value);
+            m_writer.endTag(index, name);
+            return this;
+        } catch (IOException ex) {
+            throw new JiBXException("Error writing marshalled document", ex);
+        }
+    }
+    
+    /**
+     * Generate complete element with long integer content.
+     *
+     * @param index namespace URI index number
+     * @param name element name
+     * @param value long integer element content
+     * @return this context (to allow chained calls)
+     * @throws JiBXException on any error (possibly wrapping other exception)
+     */
+    public MarshallingContext element(int index, String name, long value) 
+        throws JiBXException {
+        try {
+            m_writer.startTagClosed(index, name);
+            m_writer.writeTextContent(value);
+            m_writer.endTag(index, name);
+            return this;
+        } catch (IOException ex) {
+            throw new JiBXException("Error writing marshalled document", ex);
+        }
+    }
+    
+    /**
+     * Generate complete element with float content.
+     *
+     * @param index namespace URI index number
+     * @param name element name
+     * @param value float element content
+     * @return this context (to allow chained calls)
+     * @throws JiBXException on any error (possibly wrapping other exception)
+     */
+    public MarshallingContext element(int index, String name, float value) 
+        throws JiBXException {
+        try {
+            m_writer.startTagClosed(index, name);
+            m_writer.writeTextContent(value);
+            m_writer.endTag(index, name);
+            return this;
+        } catch (IOException ex) {
+            throw new JiBXException("Error writing marshalled document", ex);
+        }
+    }
+    
+    /**
+     * Generate complete element with double content.
+     *
+     * @param index namespace URI index number
+     * @param name element name
+     * @param value double element content
+     * @return this context (to allow chained calls)
+     * @throws JiBXException on any error (possibly wrapping other exception)
+     */
+    public MarshallingContext element(int index, String name, double value) 
+        throws JiBXException {
+        try {
+            m_writer.startTagClosed(index, name);
+            m_writer.writeTextContent(value);
+            m_writer.endTag(index, name);
+            return this;
+        } catch (IOException ex) {
+            throw new JiBXException("Error writing marshalled document", ex);
+        }
     }
     
     /**
@@ -894,6 +1255,101 @@ public class MarshallingContext implements IMarshallingContext
         return this;
     }
     
+    /**
+     * Marshal all items supplied by an iterator. The document output is
+     * flushed periodically while the items are being marshalled, so that
+     * items can be generated as needed (rather than all being held in memory
+     * at once) without the marshalled output accumulating.
+     *
+     * @param iter iterator supplying items to be marshalled
+     * @return this context (to allow chained calls)
+     * @throws JiBXException on any error (possibly wrapping other exception)
+     */
+    public MarshallingContext marshalCollection(Iterator iter)
+        throws JiBXException {
+        try {
+            int count = 0;
+            while (iter.hasNext()) {
+                Object obj = iter.next();
+                if (obj instanceof IMarshallable) {
+                    ((IMarshallable)obj).marshal(this);
+                } else {
+                    throw new JiBXException
+                        ("Unmarshallable object of class " +
+                         obj.getClass().getName() + " found in marshalling");
+                }
+                if (++count == ITERATOR_FLUSH_COUNT) {
+                    m_writer.flush();
+                    count = 0;
+                }
+            }
+            return this;
+        } catch (IOException ex) {
+            throw new JiBXException("Error writing marshalled document", ex);
+        }
+    }
+    
+    /**
+     * Marshal wrapper element with content supplied by an iterator. This
+     * writes the wrapper element start tag, declaring the namespace if it is
+     * not already active, then marshals each item returned by the iterator,
+     * and finally writes the wrapper end tag. Output is flushed periodically
+     * while the items are being marshalled.
+     *
+     * @param ns namespace URI for wrapper element (may be <code>null</code>
+     * or the empty string for the empty namespace; otherwise must be a
+     * namespace defined in the binding)
+     * @param name wrapper element name
+     * @param iter iterator supplying items to be marshalled
+     * @throws JiBXException on any error (possibly wrapping other exception)
+     */
+    public void marshalElements(String ns, String name, Iterator iter)
+        throws JiBXException {
+        
+        // find namespace index for wrapper element
+        int index = 0;
+        if (ns != null && ns.length() > 0) {
+            index = -1;
+            for (int i = 0; i < m_uris.length; i++) {
+                if (ns.equals(m_uris[i])) {
+                    index = i;
+                    break;
+                }
+            }
+            if (index < 0) {
+                throw new JiBXException("Namespace " + ns +
+                    " is not defined in binding");
+            }
+        }
+        
+        // write the start tag, with namespace declaration if needed
+        try {
+            if (index > 0 && m_writer.getNamespacePrefix(index) == null) {
+                String prefix = null;
+                if (m_factory != null) {
+                    String[] prefixes = m_factory.getPrefixes();
+                    if (prefixes != null && index < prefixes.length) {
+                        prefix = prefixes[index];
+                    }
+                }
+                if (prefix == null) {
+                    prefix = "";
+                }
+                m_writer.startTagNamespaces(index, name, new int[] { index },
+                    new String[] { prefix });
+                m_writer.closeStartTag();
+            } else {
+                m_writer.startTagClosed(index, name);
+            }
+        } catch (IOException ex) {
+            throw new JiBXException("Error writing marshalled document", ex);
+        }
+        
+        // marshal all the content items and close the wrapper
+        marshalCollection(iter);
+        endTag(index, name);
+    }
+    
     /**
      * Define marshalling for class. Adds the marshalling definition for a
      * particular mapping name.
@@ -974,6 +1430,16 @@ public class MarshallingContext implements IMarshallingContext
             String mname = m_factory.getMarshallerClasses()[index];
             if (mname != null) {
                 
+                // use shared instance from factory when available
+                if (m_factory instanceof BindingFactoryBase) {
+                    IMarshaller m = ((BindingFactoryBase)m_factory).
+                        getSharedMarshaller(index);
+                    if (m != null) {
+                        m_marshallers[index] = m;
+                        return m;
+                    }
+                }
+                
                 // get global marshaller class through factory
                 clas = m_factory.getMarshallerClass(index);
                 
@@ -1018,7 +1484,17 @@ public class MarshallingContext implements IMarshallingContext
      */
     protected void marshalRoot(Object root) throws JiBXException {
         if (root instanceof IMarshallable) {
-            ((IMarshallable)root).marshal(this);
+            long start = m_monitor.marshalStarted();
+            try {
+                ((IMarshallable)root).marshal(this);
+            } catch (JiBXException e) {
+                m_monitor.marshalFailed(start);
+                throw e;
+            } catch (RuntimeException e) {
+                m_monitor.marshalFailed(start);
+                throw e;
+            }
+            m_monitor.marshalCompleted(root.getClass(), start);
         } else {
             throw new JiBXException("Supplied root object of class " +
                 root.getClass().getName() +
@@ -1168,6 +1644,26 @@ public class MarshallingContext implements IMarshallingContext
     public Object getUserContext() {
         return m_userContext;
     }
+    
+    /**
+     * Get the monitor for runtime events.
+     *
+     * @return monitor
+     */
+    public IRuntimeMonitor getMonitor() {
+        return m_monitor;
+    }
+    
+    /**
+     * Set the monitor for runtime events. By default, contexts use the monitor
+     * returned by {@link RuntimeSupport#getDefaultMonitor()} at the time the
+     * context was created.
+     *
+     * @param monitor monitor (<code>null</code> to ignore all events)
+     */
+    public void setMonitor(IRuntimeMonitor monitor) {
+        m_monitor = monitor == null ? NullRuntimeMonitor.INSTANCE : monitor;
+    }
 
     /**
      * Push created object to marshalling stack. This must be called before
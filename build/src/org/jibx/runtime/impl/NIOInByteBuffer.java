@@ -0,0 +1,307 @@
+/*
+Copyright (c) 2026, agent.
+All rights reserved.
+
+Redistribution and use in source and binary forms, with or without modification,
+are permitted provided that the following conditions are met:
+
+ * Redistributions of source code must retain the above copyright notice, this
+   list of conditions and the following disclaimer.
+ * Redistributions in binary form must reproduce the above copyright notice,
+   this list of conditions and the following disclaimer in the documentation
+   and/or other materials provided with the distribution.
+ * Neither the name of JiBX nor the names of its contributors may be used
+   to endorse or promote products derived from this software without specific
+   prior written permission.
+
+THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+(INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON
+ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+(INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+*/
+
+package org.jibx.runtime.impl;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+
+import org.jibx.runtime.IRuntimeMonitor;
+
+/**
+ * Input buffer wrapping an NIO <code>ByteBuffer</code> or a file channel.
+ * When the wrapped buffer is backed by an accessible array (a heap buffer),
+ * that array is used directly with no copying. Direct buffers (including
+ * memory-mapped files) have no accessible array, and the {@link IInByteBuffer}
+ * interface only gives access to data through a byte array, so their content
+ * is instead transferred in bulk into a reusable window array as needed. Every
+ * byte of a direct buffer or file is therefore copied once, in chunks of at
+ * most the window size ({@link #DEFAULT_WINDOW_SIZE} unless set by the
+ * constructor, with the window only growing when a single token needs more
+ * space). Mapping a file avoids the read calls and intermediate buffering of
+ * stream input, but not this copy. Files are memory-mapped in regions of up to
+ * 1 GB, so there is no limit on document size. Clients need to obey the
+ * interface access rules.
+ *
+ * @author agent
+ */
+public class NIOInByteBuffer implements IInByteBuffer
+{
+    /** Default window size for transfers from direct buffers. */
+    public static final int DEFAULT_WINDOW_SIZE = 65536;
+    
+    /** Maximum size of a file region mapped at one time. */
+    private static final long MAXIMUM_MAP_SIZE = 0x40000000L;
+    
+    /** Window array used for direct buffers. */
+    private byte[] m_window;
+    
+    /** Buffer being transferred into window (<code>null</code> if using
+     heap buffer array directly). */
+    private ByteBuffer m_source;
+    
+    /** Channel for file being mapped (<code>null</code> if none). */
+    private FileChannel m_channel;
+    
+    /** File position past end of mapped region. */
+    private long m_mapPosition;
+    
+    /** File size. */
+    private long m_fileSize;
+    
+    /** Current data array. */
+    private byte[] m_buffer;
+    
+    /** Offset past end of data in array. */
+    private int m_limit;
+    
+    /** Current offset for removing bytes from array. */
+    private int m_offset;
+    
+    /** Monitor for runtime events. */
+    private IRuntimeMonitor m_monitor = RuntimeSupport.getDefaultMonitor();
+    
+    /**
+     * Constructor with window size specified.
+     * 
+     * @param size initial window size in bytes for direct buffers
+     */
+    public NIOInByteBuffer(int size) {
+        m_window = new byte[size];
+        m_buffer = m_window;
+    }
+    
+    /**
+     * Constructor using default window size.
+     */
+    public NIOInByteBuffer() {
+        this(DEFAULT_WINDOW_SIZE);
+    }
+    
+    /**
+     * Set the buffer supplying input. The remaining content of the buffer (from
+     * the current position to the limit) is used as input. The position of the
+     * supplied buffer is not changed. If a file channel is currently open when
+     * this is called it is closed, with any errors ignored.
+     *
+     * @param buff buffer
+     */
+    public void setInput(ByteBuffer buff) {
+        try {
+            finish();
+        } catch (IOException e) { /* deliberately empty */ }
+        ByteBuffer dup = buff.duplicate();
+        if (dup.hasArray()) {
+            m_source = null;
+            m_buffer = dup.array();
+            m_offset = dup.arrayOffset() + dup.position();
+            m_limit = dup.arrayOffset() + dup.limit();
+            m_monitor.bytesRead(m_limit - m_offset);
+        } else {
+            m_source = dup;
+            m_buffer = m_window;
+            m_offset = 0;
+            m_limit = 0;
+        }
+    }
+    
+    /**
+     * Set the file channel supplying input. The file content from the current
+     * channel position to the end of the file is used as input, and is
+     * memory-mapped as needed. The channel is closed by {@link #finish()}. If a
+     * file channel is currently open when this is called it is closed, with any
+     * errors ignored.
+     *
+     * @param chan channel
+     * @throws IOException on error accessing channel
+     */
+    public void setInput(FileChannel chan) throws IOException {
+        try {
+            finish();
+        } catch (IOException e) { /* deliberately empty */ }
+        m_channel = chan;
+        m_mapPosition = chan.position();
+        m_fileSize = chan.size();
+        m_source = null;
+        m_buffer = m_window;
+        m_offset = 0;
+        m_limit = 0;
+    }
+    
+    /**
+     * Set the monitor for runtime events. By default, buffers use the monitor
+     * returned by {@link RuntimeSupport#getDefaultMonitor()} at the time the
+     * buffer was created.
+     *
+     * @param monitor monitor (<code>null</code> to ignore all events)
+     */
+    public void setMonitor(IRuntimeMonitor monitor) {
+        m_monitor = monitor == null ? NullRuntimeMonitor.INSTANCE : monitor;
+    }
+    
+    /**
+     * Reset to initial state, discarding the current input without closing
+     * any file channel.
+     */
+    public void reset() {
+        m_source = null;
+        m_channel = null;
+        m_buffer = m_window;
+        m_offset = 0;
+        m_limit = 0;
+    }
+    
+    /**
+     * Map the next region of the file channel, if any.
+     *
+     * @return <code>true</code> if region mapped, <code>false</code> if at end
+     * of file (or not using a file)
+     * @throws IOException on error mapping file
+     */
+    private boolean mapRegion() throws IOException {
+        if (m_channel != null && m_mapPosition < m_fileSize) {
+            long size = Math.min(MAXIMUM_MAP_SIZE, m_fileSize - m_mapPosition);
+            m_source = m_channel.map(FileChannel.MapMode.READ_ONLY,
+                m_mapPosition, size);
+            m_mapPosition += size;
+            return true;
+        } else {
+            return false;
+        }
+    }
+    
+    //
+    // IInByteBuffer implementation
+    
+    /**
+     * Get the byte array buffer.
+     *
+     * @return array
+     */
+    public byte[] getBuffer() {
+        return m_buffer;
+    }
+    
+    /**
+     * Get the index of the next byte to be read. After reading data, the {@link
+     * #setOffset(int)} method must be used to update the current offset before
+     * any other operations are performed on the buffer.
+     *
+     * @return offset
+     */
+    public int getOffset() {
+        return m_offset;
+    }
+    
+    /**
+     * Set the current offset. This must be used to update the stored buffer
+     * state after reading any data.
+     * 
+     * @param offset offset
+     */
+    public void setOffset(int offset) {
+        m_offset = offset;
+    }
+    
+    /**
+     * Get offset past the end of data in buffer.
+     *
+     * @return offset past end of data
+     */
+    public int getLimit() {
+        return m_limit;
+    }
+    
+    /**
+     * Require some number of bytes of data. When using a heap buffer directly
+     * all the data is always present, so this just checks the amount
+     * available. Otherwise, retained data is moved down to the start of the
+     * window array, and the rest of the window is filled from the direct
+     * buffer or mapped file. This call may cause the byte array buffer to be
+     * replaced, so {@link #getBuffer()}, {@link #getLimit()}, and {@link
+     * #getOffset()} must all be called again before any further use of the
+     * buffer.
+     * 
+     * @param size desired number of bytes
+     * @return <code>true</code> if request satisfied, <code>false</code> if not
+     * @throws IOException on error mapping file
+     */
+    public boolean require(int size) throws IOException {
+        if (m_limit - m_offset >= size) {
+            return true;
+        } else if (m_source == null && m_channel == null) {
+            return false;
+        } else {
+            
+            // move retained data to start of window, growing if necessary
+            byte[] window = m_window;
+            if (window.length < size) {
+                window = new byte[Math.max(size, window.length*2)];
+                m_window = window;
+                m_monitor.bufferGrown(window.length);
+            }
+            int rem = m_limit - m_offset;
+            if (rem > 0) {
+                System.arraycopy(m_buffer, m_offset, window, 0, rem);
+            }
+            m_buffer = window;
+            m_offset = 0;
+            m_limit = rem;
+            
+            // transfer data to fill the window
+            while (m_limit < window.length) {
+                if (m_source == null || !m_source.hasRemaining()) {
+                    if (!mapRegion()) {
+                        break;
+                    }
+                }
+                int count = Math.min(m_source.remaining(),
+                    window.length - m_limit);
+                m_source.get(window, m_limit, count);
+                m_limit += count;
+                m_monitor.bytesRead(count);
+            }
+            return m_limit >= size;
+        }
+    }
+    
+    /**
+     * Complete usage of the current input. This closes the file channel, if
+     * one is being used, and discards the reference to the input buffer.
+     * 
+     * @throws IOException on error closing channel
+     */
+    public void finish() throws IOException {
+        FileChannel chan = m_channel;
+        reset();
+        if (chan != null) {
+            chan.close();
+        }
+    }
+}
@@ -0,0 +1,77 @@
+/*
+Copyright (c) 2026, agent.
+All rights reserved.
+
+Redistribution and use in source and binary forms, with or without modification,
+are permitted provided that the following conditions are met:
+
+ * Redistributions of source code must retain the above copyright notice, this
+   list of conditions and the following disclaimer.
+ * Redistributions in binary form must reproduce the above copyright notice,
+   this list of conditions and the following disclaimer in the documentation
+   and/or other materials provided with the distribution.
+ * Neither the name of JiBX nor the names of its contributors may be used
+   to endorse or promote products derived from this software without specific
+   prior written permission.
+
+THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+(INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON
+ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+(INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+*/
+
+package org.jibx.runtime.impl;
+
+import org.jibx.runtime.IRuntimeMonitor;
+
+/**
+ * Runtime monitor which ignores all events. This is used as the default
+ * monitor unless some other implementation is configured.
+ *
+ * @author agent
+ */
+public final class NullRuntimeMonitor implements IRuntimeMonitor
+{
+    /** Singleton instance. */
+    public static final NullRuntimeMonitor INSTANCE = new NullRuntimeMonitor();
+    
+    /**
+     * Constructor. Private to force use of singleton instance.
+     */
+    private NullRuntimeMonitor() {}
+    
+    //
+    // IRuntimeMonitor implementation, with all events ignored
+    
+    public void documentOpened() {}
+    
+    public long unmarshalStarted() {
+        return 0;
+    }
+    
+    public void unmarshalCompleted(Class clas, long start, int ids, int fills) {}
+    
+    public void unmarshalFailed(long start) {}
+    
+    public long marshalStarted() {
+        return 0;
+    }
+    
+    public void marshalCompleted(Class clas, long start) {}
+    
+    public void marshalFailed(long start) {}
+    
+    public void documentEnded() {}
+    
+    public void bytesRead(int count) {}
+    
+    public void bytesWritten(int count) {}
+    
+    public void bufferGrown(int size) {}
+}
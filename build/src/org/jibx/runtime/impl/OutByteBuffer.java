@@ -31,6 +31,8 @@ package org.jibx.runtime.impl;
 import java.io.IOException;
 import java.io.OutputStream;
 
+import org.jibx.runtime.IRuntimeMonitor;
+
 /**
  * Byte buffer wrapping an output stream. Clients need to obey the interface
  * access rules.
@@ -48,9 +50,16 @@ public class OutByteBuffer implements IOutByteBuffer
     /** Buffer for output bytes. */
     private byte[] m_buffer;
     
+    /** Initial buffer for output bytes. Larger buffers are taken from the
+     {@link BufferPool}, and returned when no longer needed. */
+    private final byte[] m_initialBuffer;
+    
     /** Current offset for adding bytes to buffer. */
     private int m_offset;
     
+    /** Monitor for runtime events. */
+    private IRuntimeMonitor m_monitor = RuntimeSupport.getDefaultMonitor();
+    
     /**
      * Constructor with size specified.
      * 
@@ -58,6 +67,7 @@ public class OutByteBuffer implements IOutByteBuffer
      */
     public OutByteBuffer(int size) {
         m_buffer = new byte[size];
+        m_initialBuffer = m_buffer;
     }
     
     /**
@@ -68,9 +78,23 @@ public class OutByteBuffer implements IOutByteBuffer
     }
     
     /**
-     * Reset to initial state for reuse.
+     * Return a buffer to the pool, unless it's the initial buffer.
+     *
+     * @param buff buffer no longer in use
+     */
+    private void release(byte[] buff) {
+        if (buff != m_initialBuffer) {
+            BufferPool.getDefault().release(buff);
+        }
+    }
+    
+    /**
+     * Reset to initial state for reuse. This discards any buffered data, and
+     * returns any enlarged buffer to the pool.
      */
     public void reset() {
+        release(m_buffer);
+        m_buffer = m_initialBuffer;
         m_offset = 0;
         m_stream = null;
     }
@@ -90,6 +114,17 @@ public class OutByteBuffer implements IOutByteBuffer
         m_stream = os;
     }
     
+    /**
+     * Set the monitor for runtime events. By default, buffers use the monitor
+     * returned by {@link RuntimeSupport#getDefaultMonitor()} at the time the
+     * buffer was created.
+     *
+     * @param monitor monitor (<code>null</code> to ignore all events)
+     */
+    public void setMonitor(IRuntimeMonitor monitor) {
+        m_monitor = monitor == null ? NullRuntimeMonitor.INSTANCE : monitor;
+    }
+    
     //
     // IOutByteBuffer implementation
     
@@ -146,14 +181,18 @@ public class OutByteBuffer implements IOutByteBuffer
                 
                 // write what we can, then check for array resize needed
                 m_stream.write(m_buffer, 0, reserve);
+                m_monitor.bytesWritten(reserve);
                 m_offset = m_offset - reserve;
                 int need = reserve + size;
                 if (need > m_buffer.length) {
                     
                     // resize array, copying data between reserve and offset
-                    byte[] newbuf = new byte[Math.max(need, m_buffer.length+2)];
+                    byte[] newbuf = BufferPool.getDefault().
+                        borrow(Math.max(need, m_buffer.length+2));
                     System.arraycopy(m_buffer, reserve, newbuf, 0, m_offset);
+                    release(m_buffer);
                     m_buffer = newbuf;
+                    m_monitor.bufferGrown(newbuf.length);
                     
                 } else {
                     
@@ -166,8 +205,12 @@ public class OutByteBuffer implements IOutByteBuffer
                 
                 // just write all present and replace array if needed
                 m_stream.write(m_buffer, 0, m_offset);
+                m_monitor.bytesWritten(m_offset);
                 if (size > m_buffer.length) {
-                    m_buffer = new byte[Math.max(size, m_buffer.length*2)];
+                    release(m_buffer);
+                    m_buffer = BufferPool.getDefault().
+                        borrow(Math.max(size, m_buffer.length*2));
+                    m_monitor.bufferGrown(m_buffer.length);
                 }
                 m_offset = 0;
                 
@@ -184,6 +227,7 @@ public class OutByteBuffer implements IOutByteBuffer
     public void flush() throws IOException {
         if (m_offset > 0) {
             m_stream.write(m_buffer, 0, m_offset);
+            m_monitor.bytesWritten(m_offset);
             m_offset = 0;
         }
     }
@@ -192,7 +236,8 @@ public class OutByteBuffer implements IOutByteBuffer
      * Complete usage of the current stream. This method should be called
      * whenever the application is done writing to the buffered stream. Once
      * this method is called, a call to {@link #setOutput(OutputStream)} is
-     * required before the buffer can again be used.
+     * required before the buffer can again be used. Any enlarged buffer is
+     * returned to the pool.
      * 
      * @throws IOException If error
      */
@@ -202,5 +247,8 @@ public class OutByteBuffer implements IOutByteBuffer
             m_stream.close();
             m_stream = null;
         }
+        release(m_buffer);
+        m_buffer = m_initialBuffer;
+        m_offset = 0;
     }
 }
\ No newline at end of file
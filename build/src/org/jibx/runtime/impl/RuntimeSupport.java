@@ -31,6 +31,7 @@ package org.jibx.runtime.impl;
 import java.lang.reflect.InvocationTargetException;
 import java.lang.reflect.Method;
 
+import org.jibx.runtime.IRuntimeMonitor;
 import org.jibx.runtime.IUnmarshallingContext;
 import org.jibx.runtime.Utility;
 
@@ -42,6 +43,15 @@ import org.jibx.runtime.Utility;
  */
 public abstract class RuntimeSupport
 {
+    /** Name of system property giving the class name of the default runtime
+     monitor implementation (which must have a public no-argument
+     constructor). */
+    public static final String MONITOR_PROPERTY =
+        "org.jibx.runtime.impl.monitor";
+    
+    /** Default runtime monitor for new contexts and buffers. */
+    private static volatile IRuntimeMonitor s_defaultMonitor = loadMonitor();
+    
     /**
      * Split concatenated class or method names string into an array of
      * fully-qualified individual class and/or method names. This is used by the
@@ -64,7 +74,7 @@ public abstract class RuntimeSupport
             String last = "";
             int split = -1;
             int index = 0;
-            StringBuffer buff = new StringBuffer();
+            StringBuilder buff = new StringBuilder();
             while (split < blob.length()) {
                 int base = split + 1;
                 split = blob.indexOf('|', base);
@@ -255,28 +265,88 @@ public abstract class RuntimeSupport
             /* exception just means the value will be null */
         }
         if (prop == null) {
+            return loadDefaultFactory();
+        } else {
             
-            // try XMLPull parser factory first
-            IXMLReaderFactory fact = null;
+            // try loading factory class specified by property
+            return RuntimeSupport.createReaderFactory(prop);
+        }
+    }
+    
+    /**
+     * Load one of the standard default reader factories, ignoring any system
+     * property setting. This tries the XMLPull factory first, then the StAX
+     * factory.
+     *
+     * @return factory instance
+     */
+    public static IXMLReaderFactory loadDefaultFactory() {
+        
+        // try XMLPull parser factory first
+        IXMLReaderFactory fact = null;
+        try {
+            fact = RuntimeSupport.createReaderFactory
+                ("org.jibx.runtime.impl.XMLPullReaderFactory");
+        } catch (Throwable e) {
             try {
                 fact = RuntimeSupport.createReaderFactory
-                    ("org.jibx.runtime.impl.XMLPullReaderFactory");
-            } catch (Throwable e) {
-                try {
-                    fact = RuntimeSupport.createReaderFactory
-                        ("org.jibx.runtime.impl.StAXReaderFactory");
-                } catch (Throwable e1) {
-                    throw new RuntimeException("Unable to load either XMLPull or StAX parser - check classpath for interface and implementation jars\nXMLPull error " +
-                        e.getClass().getName() + ": " + e.getMessage() + "\nStAX error " + e1.getClass().getName() +
-                        ": " + e1.getMessage());
-                }
+                    ("org.jibx.runtime.impl.StAXReaderFactory");
+            } catch (Throwable e1) {
+                throw new RuntimeException("Unable to load either XMLPull or StAX parser - check classpath for interface and implementation jars\nXMLPull error " +
+                    e.getClass().getName() + ": " + e.getMessage() + "\nStAX error " + e1.getClass().getName() +
+                    ": " + e1.getMessage());
             }
-            return fact;
-            
+        }
+        return fact;
+    }
+    
+    /**
+     * Load the runtime monitor specified by the system property, if any.
+     *
+     * @return monitor instance ({@link NullRuntimeMonitor#INSTANCE} if none
+     * specified)
+     */
+    private static IRuntimeMonitor loadMonitor() {
+        String prop = null;
+        try {
+            prop = System.getProperty(MONITOR_PROPERTY);
+        } catch (SecurityException e) {
+            /* exception just means the value will be null */
+        }
+        if (prop == null) {
+            return NullRuntimeMonitor.INSTANCE;
         } else {
-            
-            // try loading factory class specified by property
-            return RuntimeSupport.createReaderFactory(prop);
+            ClassLoader loader = Thread.currentThread().getContextClassLoader();
+            if (loader == null) {
+                loader = IUnmarshallingContext.class.getClassLoader();
+            }
+            try {
+                return (IRuntimeMonitor)loader.loadClass(prop).newInstance();
+            } catch (Exception e) {
+                throw new RuntimeException("Unable to create runtime monitor " +
+                    prop + ": " + e.getMessage());
+            }
         }
     }
+    
+    /**
+     * Get the default runtime monitor. This is the monitor used by contexts
+     * and buffers unless a different monitor is set directly.
+     *
+     * @return monitor
+     */
+    public static IRuntimeMonitor getDefaultMonitor() {
+        return s_defaultMonitor;
+    }
+    
+    /**
+     * Set the default runtime monitor. This only affects contexts created
+     * after the call, and buffers when next set up for input or output.
+     *
+     * @param monitor monitor (<code>null</code> to ignore all events)
+     */
+    public static void setDefaultMonitor(IRuntimeMonitor monitor) {
+        s_defaultMonitor = monitor == null ?
+            NullRuntimeMonitor.INSTANCE : monitor;
+    }
 }
\ No newline at end of file
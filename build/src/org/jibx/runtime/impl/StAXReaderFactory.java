@@ -47,64 +47,97 @@ import org.jibx.runtime.JiBXException;
  */
 public class StAXReaderFactory implements IXMLReaderFactory
 {
+    /** Maximum number of idle input factories retained for each namespace
+     processing state. */
+    private static final int FACTORY_POOL_SIZE =
+        Runtime.getRuntime().availableProcessors() * 2;
+    
     /** Singleton instance of class. */
     private static final StAXReaderFactory s_instance = new StAXReaderFactory();
     
-    /** Factory used for constructing parser instances. */
-    private final XMLInputFactory m_factory;
+    /** Input factories configured without namespace processing. A factory
+     is only used by one thread at a time, since StAX does not guarantee that
+     factories are thread safe. */
+    private final ContextPool m_plainFactories;
     
-    /** Namespace processing state configured on factory. */
-    private boolean m_isNamespaceEnabled;
+    /** Input factories configured with namespace processing. */
+    private final ContextPool m_namespaceFactories;
     
     /**
      * Internal constructor.
      */
     private StAXReaderFactory() {
-        XMLInputFactory factory;
+        m_plainFactories = new ContextPool(FACTORY_POOL_SIZE);
+        m_namespaceFactories = new ContextPool(FACTORY_POOL_SIZE);
+        m_namespaceFactories.release(newFactory());
+    }
+    
+    /**
+     * Get instance of factory.
+     * 
+     * @return factory instance
+     */
+    public static StAXReaderFactory getInstance() {
+        return s_instance;
+    }
+    
+    /**
+     * Create a new input factory instance, using the default namespace
+     * processing state.
+     *
+     * @return factory
+     */
+    private static XMLInputFactory newFactory() {
         try {
-            factory = XMLInputFactory.newInstance();
+            return XMLInputFactory.newInstance();
         } catch (FactoryConfigurationError e) {
             Thread thread = Thread.currentThread();
             ClassLoader cl = thread.getContextClassLoader();
             thread.setContextClassLoader
                 (StAXReaderFactory.class.getClassLoader());
             try {
-                factory = XMLInputFactory.newInstance();
+                return XMLInputFactory.newInstance();
             } finally {
                 thread.setContextClassLoader(cl);
             }
         }
-        m_factory = factory;
-        m_isNamespaceEnabled = true;
     }
     
     /**
-     * Get instance of factory.
-     * 
-     * @return factory instance
-     */
-    public static StAXReaderFactory getInstance() {
-        return s_instance;
-    }
-    
-    /**
-     * Create new parser instance. In order to avoid thread safety issues the
-     * caller must have a lock on the factory object.
+     * Get an input factory for exclusive use by the caller, configured for the
+     * required namespace processing. The factory must be returned by a call to
+     * {@link #releaseFactory(XMLInputFactory, boolean)} when the caller is done
+     * with it. Factories are pooled rather than shared under a lock, so that
+     * threads creating parsers never wait on each other.
      * 
      * @param nsf enable namespace processing on parser flag
-     * @throws JiBXException on error creating parser
+     * @return factory
+     * @throws JiBXException on error configuring factory
      */
-    private void setNamespacesState(boolean nsf) throws JiBXException {
-        if (nsf != m_isNamespaceEnabled) {
+    private XMLInputFactory borrowFactory(boolean nsf) throws JiBXException {
+        ContextPool pool = nsf ? m_namespaceFactories : m_plainFactories;
+        XMLInputFactory factory = (XMLInputFactory)pool.borrow();
+        if (factory == null) {
+            factory = newFactory();
             try {
-                m_factory.setProperty(XMLInputFactory.IS_NAMESPACE_AWARE,
+                factory.setProperty(XMLInputFactory.IS_NAMESPACE_AWARE,
                     nsf ? Boolean.TRUE : Boolean.FALSE);
-                m_isNamespaceEnabled = nsf;
             } catch (IllegalArgumentException e) {
                 throw new JiBXException
                     ("Unable to create parser with required namespace handling");
             }
         }
+        return factory;
+    }
+    
+    /**
+     * Return an input factory obtained from {@link #borrowFactory(boolean)}.
+     *
+     * @param factory input factory
+     * @param nsf namespace processing flag used to get the factory
+     */
+    private void releaseFactory(XMLInputFactory factory, boolean nsf) {
+        (nsf ? m_namespaceFactories : m_plainFactories).release(factory);
     }
 
     /* (non-Javadoc)
@@ -112,20 +145,19 @@ public class StAXReaderFactory implements IXMLReaderFactory
      */
     public IXMLReader createReader(InputStream is, String name, String enc,
         boolean nsf) throws JiBXException {
+        XMLInputFactory factory = borrowFactory(nsf);
         try {
-            synchronized (m_factory) {
-                setNamespacesState(nsf);
-                if (enc == null) {
-                    XMLStreamReader rdr = m_factory.createXMLStreamReader(is);
-                    return new StAXReaderWrapper(rdr, name, nsf);
-                } else {
-                    XMLStreamReader rdr =
-                        m_factory.createXMLStreamReader(is, enc);
-                    return new StAXReaderWrapper(rdr, name, nsf);
-                }
+            XMLStreamReader rdr;
+            if (enc == null) {
+                rdr = factory.createXMLStreamReader(is);
+            } else {
+                rdr = factory.createXMLStreamReader(is, enc);
             }
+            return new StAXReaderWrapper(rdr, name, nsf);
         } catch (XMLStreamException e) {
             throw new JiBXException("Error creating parser", e);
+        } finally {
+            releaseFactory(factory, nsf);
         }
     }
 
@@ -134,14 +166,14 @@ public class StAXReaderFactory implements IXMLReaderFactory
      */
     public IXMLReader createReader(Reader rdr, String name, boolean nsf)
         throws JiBXException {
+        XMLInputFactory factory = borrowFactory(nsf);
         try {
-            synchronized (m_factory) {
-                setNamespacesState(nsf);
-                return new StAXReaderWrapper(m_factory.createXMLStreamReader(rdr),
-                    name, nsf);
-            }
+            return new StAXReaderWrapper(factory.createXMLStreamReader(rdr),
+                name, nsf);
         } catch (XMLStreamException e) {
             throw new JiBXException("Error creating parser", e);
+        } finally {
+            releaseFactory(factory, nsf);
         }
     }
 
@@ -98,6 +98,10 @@ public class StAXReaderWrapper implements IXMLReader
     /** Document encoding (apparently cannot be read after parse done). */
     private String m_encoding;
     
+    /** Buffer for characters of values only available as strings, also used
+     to accumulate text (lazy create, <code>null</code> if not used). */
+    private char[] m_chars;
+    
     /**
      * Constructor used by factory. This checks the parser state, and if
      * positioned at a start tag it initializes the namespace information for
@@ -226,7 +230,8 @@ public class StAXReaderWrapper implements IXMLReader
      */
     public int next() throws JiBXException {
         String text = null;
-        StringBuffer buff = null;
+        boolean multiple = false;
+        int length = 0;
         try {
             if (m_nestingDepth == 0 &&
                 m_parser.getEventType() == XMLStreamConstants.START_DOCUMENT) {
@@ -259,10 +264,20 @@ public class StAXReaderWrapper implements IXMLReader
                         if (text == null) {
                             text = m_parser.getText();
                         } else {
-                            if (buff == null) {
-                                buff = new StringBuffer(text);
+                            if (!multiple) {
+                                length = appendText(text, 0);
+                                multiple = true;
+                            }
+                            if (type == ENTITY_REF) {
+                                length = appendText(m_parser.getText(), length);
+                            } else {
+                                int count = m_parser.getTextLength();
+                                ensureChars(length, length + count);
+                                System.arraycopy(m_parser.getTextCharacters(),
+                                    m_parser.getTextStart(), m_chars, length,
+                                    count);
+                                length += count;
                             }
-                            buff.append(m_parser.getTextCharacters());
                         }
                         break;
 
@@ -292,10 +307,10 @@ public class StAXReaderWrapper implements IXMLReader
                 }
                 m_parser.next();
             }
-            if (buff == null) {
-                m_accumulatedText = text;
+            if (multiple) {
+                m_accumulatedText = new String(m_chars, 0, length);
             } else {
-                m_accumulatedText = buff.toString();
+                m_accumulatedText = text;
             }
             return TEXT;
         } catch (XMLStreamException e) {
@@ -420,6 +435,109 @@ public class StAXReaderWrapper implements IXMLReader
         return m_parser.getAttributeValue(ns, name);
     }
 
+    /* (non-Javadoc)
+     * @see org.jibx.runtime.IXMLReader#getAttributeIndex(java.lang.String, java.lang.String)
+     */
+    public int getAttributeIndex(String ns, String name) {
+        if (!m_parser.isStartElement()) {
+            throw new IllegalStateException
+                ("Internal state error: not at start tag");
+        }
+        if (ns == null) {
+            ns = "";
+        }
+        int count = m_parser.getAttributeCount();
+        for (int i = 0; i < count; i++) {
+            if (name.equals(m_parser.getAttributeLocalName(i))) {
+                String comp = m_parser.getAttributeNamespace(i);
+                if (ns.equals(comp == null ? "" : comp)) {
+                    return i;
+                }
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Copy string value to character buffer.
+     *
+     * @param text value
+     * @param holder array to be set with start offset and length
+     * @return character buffer
+     */
+    private char[] copyChars(String text, int[] holder) {
+        holder[0] = 0;
+        holder[1] = appendText(text, 0);
+        return m_chars;
+    }
+
+    /**
+     * Make sure there's room in the character buffer for some number of
+     * characters, creating or growing the buffer if necessary.
+     *
+     * @param length number of characters already in buffer (retained if the
+     * buffer is grown)
+     * @param size total number of characters needed
+     */
+    private void ensureChars(int length, int size) {
+        if (m_chars == null) {
+            m_chars = new char[Math.max(size, 64)];
+        } else if (size > m_chars.length) {
+            char[] grow = new char[Math.max(size, m_chars.length*2)];
+            System.arraycopy(m_chars, 0, grow, 0, length);
+            m_chars = grow;
+        }
+    }
+
+    /**
+     * Append text to the character buffer.
+     *
+     * @param text text to be appended
+     * @param length number of characters already in buffer
+     * @return number of characters in buffer after append
+     */
+    private int appendText(String text, int length) {
+        int count = text.length();
+        ensureChars(length, length + count);
+        text.getChars(0, count, m_chars, length);
+        return length + count;
+    }
+
+    /* (non-Javadoc)
+     * @see org.jibx.runtime.IXMLReader#getAttributeCharacters(int, int[])
+     */
+    public char[] getAttributeCharacters(int index, int[] holder) {
+        return copyChars(getAttributeValue(index), holder);
+    }
+
+    /* (non-Javadoc)
+     * @see org.jibx.runtime.IXMLReader#getTextCharacters(int[])
+     */
+    public char[] getTextCharacters(int[] holder) {
+        if (m_accumulatedText == null) {
+            switch (m_parser.getEventType()) {
+                
+                case XMLStreamConstants.CHARACTERS:
+                case XMLStreamConstants.CDATA:
+                case XMLStreamConstants.COMMENT:
+                case XMLStreamConstants.SPACE:
+                    holder[0] = m_parser.getTextStart();
+                    holder[1] = m_parser.getTextLength();
+                    return m_parser.getTextCharacters();
+                    
+                case XMLStreamConstants.DTD:
+                case XMLStreamConstants.ENTITY_REFERENCE:
+                    String text = m_parser.getText();
+                    return text == null ? null : copyChars(text, holder);
+                    
+                default:
+                    return null;
+            }
+        } else {
+            return copyChars(m_accumulatedText, holder);
+        }
+    }
+
     /* (non-Javadoc)
      * @see org.jibx.runtime.IXMLReader#getText()
      */
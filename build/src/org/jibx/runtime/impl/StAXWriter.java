@@ -35,6 +35,7 @@ import javax.xml.stream.XMLStreamWriter;
 
 import org.jibx.runtime.IExtensibleWriter;
 import org.jibx.runtime.IXMLWriter;
+import org.jibx.runtime.Utility;
 
 /**
  * Writer generating StAX parse event stream output.
@@ -253,6 +254,20 @@ public class StAXWriter extends XMLWriterNamespaceBase implements IExtensibleWri
         }
     }
 
+    /* (non-Javadoc)
+     * @see org.jibx.runtime.IXMLWriter#writeBase64(byte[], int, int)
+     */
+    public void writeBase64(byte[] data, int offset, int length)
+        throws IOException {
+        char[] chrs = new char[(length + 2) / 3 * 4];
+        int count = Utility.encodeBase64(data, offset, length, chrs, 0);
+        try {
+            m_writer.writeCharacters(chrs, 0, count);
+        } catch (XMLStreamException e) {
+            throw new IOException("Error writing to stream: " + e.getMessage());
+        }
+    }
+
     /* (non-Javadoc)
      * @see org.jibx.runtime.IXMLWriter#writeCData(java.lang.String)
      */
@@ -292,7 +307,7 @@ public class StAXWriter extends XMLWriterNamespaceBase implements IExtensibleWri
     public void writeDocType(String name, String sys, String pub, String subset)
         throws IOException {
         try {
-            StringBuffer buff = new StringBuffer();
+            StringBuilder buff = new StringBuilder();
             buff.append("<!DOCTYPE ");
             buff.append(name);
             buff.append(' ');
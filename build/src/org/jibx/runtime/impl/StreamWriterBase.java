@@ -30,6 +30,8 @@ package org.jibx.runtime.impl;
 import java.io.IOException;
 import java.io.UnsupportedEncodingException;
 
+import org.jibx.runtime.Utility;
+
 /**
  * Base handler for marshalling text document to an output stream. This needs to
  * be subclassed with implementation methods specific to the encoding used.
@@ -38,6 +40,34 @@ import java.io.UnsupportedEncodingException;
  */
 public abstract class StreamWriterBase extends XMLWriterBase
 {
+    /** Flags for characters in the range 0x00-0xFF which can be written as
+     character data without escaping (indexed by character code). Subclasses
+     must also check that a character is written as a single byte in the
+     output encoding before using this. */
+    protected static final boolean[] TEXT_SAFE_CHARS = new boolean[0x100];
+    
+    /** Flags for characters in the range 0x00-0xFF which can be written as
+     attribute value text without escaping (indexed by character code).
+     Subclasses must also check that a character is written as a single byte
+     in the output encoding before using this. */
+    protected static final boolean[] ATTRIBUTE_SAFE_CHARS = new boolean[0x100];
+    
+    /** Maximum number of bytes of binary data encoded as base64 in one piece
+     (a multiple of three, so that no padding is used within the text). */
+    private static final int BASE64_PIECE_SIZE = 3 * 256;
+    
+    static {
+        for (int i = 0x20; i < 0x100; i++) {
+            TEXT_SAFE_CHARS[i] = true;
+        }
+        TEXT_SAFE_CHARS[0x9] = TEXT_SAFE_CHARS[0xA] = TEXT_SAFE_CHARS[0xD] =
+            true;
+        TEXT_SAFE_CHARS['&'] = TEXT_SAFE_CHARS['<'] = TEXT_SAFE_CHARS['>'] =
+            false;
+        System.arraycopy(TEXT_SAFE_CHARS, 0, ATTRIBUTE_SAFE_CHARS, 0, 0x100);
+        ATTRIBUTE_SAFE_CHARS['"'] = false;
+    }
+    
     //
     // Defined entities and special sequences as bytes
     
@@ -64,6 +94,10 @@ public abstract class StreamWriterBase extends XMLWriterBase
     /** Current fill offset in buffer byte array. */
     protected int m_fillOffset;
     
+    /** Cache of encoded element and attribute names (shared with child
+     writers). */
+    private final EncodedNameCache m_nameCache;
+    
     /** Byte sequences for prefixes of namespaces in scope. */
     protected byte[][] m_prefixBytes;
     
@@ -95,6 +129,7 @@ public abstract class StreamWriterBase extends XMLWriterBase
         super(uris);
         m_encodingName = enc;
         m_baseWriter = null;
+        m_nameCache = new EncodedNameCache();
         m_prefixBytes = new byte[uris.length][];
         try {
             m_quotEntityBytes = "&quot;".getBytes(m_encodingName);
@@ -122,6 +157,7 @@ public abstract class StreamWriterBase extends XMLWriterBase
         super(base, uris);
         m_encodingName = base.m_encodingName;
         m_baseWriter = base;
+        m_nameCache = base.m_nameCache;
         m_prefixBytes = new byte[uris.length][];
         m_byteBuffer = base.m_byteBuffer;
         m_buffer = base.m_buffer;
@@ -312,6 +348,312 @@ public abstract class StreamWriterBase extends XMLWriterBase
         }
     }
     
+    /**
+     * Encode an element or attribute name. This implementation uses the
+     * standard JVM conversion for the encoding, but subclasses need to
+     * override it if that conversion substitutes characters which cannot be
+     * represented in the encoding.
+     *
+     * @param name unqualified element or attribute name
+     * @return encoded bytes, or <code>null</code> if the name cannot be
+     * represented in the encoding
+     */
+    protected byte[] encodeName(String name) {
+        try {
+            return name.getBytes(m_encodingName);
+        } catch (UnsupportedEncodingException e) {
+            return null;
+        }
+    }
+    
+    /**
+     * Write element or attribute name to output. The encoded form of each name
+     * is cached on first use, so that repeated names are written with a single
+     * array copy rather than being encoded each time.
+     *
+     * @param name unqualified element or attribute name
+     * @throws IOException if error writing to document
+     */
+    protected void writeName(String name) throws IOException {
+        byte[] bytes = m_nameCache.get(name);
+        if (bytes == null) {
+            bytes = encodeName(name);
+            if (bytes == null) {
+                writeMarkup(name);
+                return;
+            }
+            m_nameCache.add(name, bytes);
+        }
+        int length = bytes.length;
+        makeSpace(length);
+        System.arraycopy(bytes, 0, m_buffer, m_fillOffset, length);
+        m_fillOffset += length;
+    }
+    
+    /**
+     * Write <code>int</code> value digits to output. Digits are the same single
+     * bytes in all supported encodings, so they're generated directly in the
+     * output buffer.
+     *
+     * @param value value to be written
+     * @throws IOException if error writing to document
+     */
+    protected void writeDigits(int value) throws IOException {
+        makeSpace(11);
+        int fill = m_fillOffset;
+        
+        // work with negative value, so that minimum value is handled
+        if (value < 0) {
+            m_buffer[fill++] = (byte)'-';
+        } else {
+            value = -value;
+        }
+        int digits = 1;
+        for (int rem = value / 10; rem != 0; rem /= 10) {
+            digits++;
+        }
+        fill += digits;
+        m_fillOffset = fill;
+        do {
+            int next = value / 10;
+            m_buffer[--fill] = (byte)('0' + next * 10 - value);
+            value = next;
+        } while (value != 0);
+    }
+    
+    /**
+     * Write <code>long</code> value digits to output. Digits are the same
+     * single bytes in all supported encodings, so they're generated directly in
+     * the output buffer.
+     *
+     * @param value value to be written
+     * @throws IOException if error writing to document
+     */
+    protected void writeDigits(long value) throws IOException {
+        if (value >= Integer.MIN_VALUE && value <= Integer.MAX_VALUE) {
+            writeDigits((int)value);
+        } else {
+            makeSpace(20);
+            int fill = m_fillOffset;
+            if (value < 0) {
+                m_buffer[fill++] = (byte)'-';
+            } else {
+                value = -value;
+            }
+            int digits = 1;
+            for (long rem = value / 10; rem != 0; rem /= 10) {
+                digits++;
+            }
+            fill += digits;
+            m_fillOffset = fill;
+            do {
+                long next = value / 10;
+                m_buffer[--fill] = (byte)('0' + (int)(next * 10 - value));
+                value = next;
+            } while (value != 0);
+        }
+    }
+    
+    /**
+     * Write <code>float</code> value text to output. The text is the same
+     * single bytes in all supported encodings, so it's generated directly in
+     * the output buffer.
+     *
+     * @param value value to be written
+     * @throws IOException if error writing to document
+     */
+    protected void writeDigits(float value) throws IOException {
+        makeSpace(DoubleFormatter.MAX_LENGTH);
+        m_fillOffset = DoubleFormatter.format(value, m_buffer, m_fillOffset);
+    }
+    
+    /**
+     * Write <code>double</code> value text to output. The text is the same
+     * single bytes in all supported encodings, so it's generated directly in
+     * the output buffer.
+     *
+     * @param value value to be written
+     * @throws IOException if error writing to document
+     */
+    protected void writeDigits(double value) throws IOException {
+        makeSpace(DoubleFormatter.MAX_LENGTH);
+        m_fillOffset = DoubleFormatter.format(value, m_buffer, m_fillOffset);
+    }
+    
+    /**
+     * Add attribute with <code>int</code> value to current open start tag.
+     * This is only valid after a call to {@link #startTagOpen} or {@link
+     * #startTagNamespaces} and before the corresponding call to {@link
+     * #closeStartTag}.
+     *
+     * @param index namespace URI index number
+     * @param name unqualified attribute name
+     * @param value attribute value
+     * @throws IOException on error writing to document
+     */
+    public void addAttribute(int index, String name, int value)
+        throws IOException {
+        writeMarkup(' ');
+        writePrefix(index);
+        writeName(name);
+        writeMarkup("=\"");
+        writeDigits(value);
+        writeMarkup('"');
+    }
+    
+    /**
+     * Add attribute with <code>long</code> value to current open start tag.
+     * This is only valid after a call to {@link #startTagOpen} or {@link
+     * #startTagNamespaces} and before the corresponding call to {@link
+     * #closeStartTag}.
+     *
+     * @param index namespace URI index number
+     * @param name unqualified attribute name
+     * @param value attribute value
+     * @throws IOException on error writing to document
+     */
+    public void addAttribute(int index, String name, long value)
+        throws IOException {
+        writeMarkup(' ');
+        writePrefix(index);
+        writeName(name);
+        writeMarkup("=\"");
+        writeDigits(value);
+        writeMarkup('"');
+    }
+    
+    /**
+     * Add attribute with <code>float</code> value to current open start tag.
+     * This is only valid after a call to {@link #startTagOpen} or {@link
+     * #startTagNamespaces} and before the corresponding call to {@link
+     * #closeStartTag}.
+     *
+     * @param index namespace URI index number
+     * @param name unqualified attribute name
+     * @param value attribute value
+     * @throws IOException on error writing to document
+     */
+    public void addAttribute(int index, String name, float value)
+        throws IOException {
+        writeMarkup(' ');
+        writePrefix(index);
+        writeName(name);
+        writeMarkup("=\"");
+        writeDigits(value);
+        writeMarkup('"');
+    }
+    
+    /**
+     * Add attribute with <code>double</code> value to current open start tag.
+     * This is only valid after a call to {@link #startTagOpen} or {@link
+     * #startTagNamespaces} and before the corresponding call to {@link
+     * #closeStartTag}.
+     *
+     * @param index namespace URI index number
+     * @param name unqualified attribute name
+     * @param value attribute value
+     * @throws IOException on error writing to document
+     */
+    public void addAttribute(int index, String name, double value)
+        throws IOException {
+        writeMarkup(' ');
+        writePrefix(index);
+        writeName(name);
+        writeMarkup("=\"");
+        writeDigits(value);
+        writeMarkup('"');
+    }
+    
+    /**
+     * Write <code>int</code> value as character data text content to document.
+     *
+     * @param value content value
+     * @throws IOException on error writing to document
+     */
+    public void writeTextContent(int value) throws IOException {
+        flagTextContent();
+        writeDigits(value);
+    }
+    
+    /**
+     * Write <code>long</code> value as character data text content to
+     * document.
+     *
+     * @param value content value
+     * @throws IOException on error writing to document
+     */
+    public void writeTextContent(long value) throws IOException {
+        flagTextContent();
+        writeDigits(value);
+    }
+    
+    /**
+     * Write <code>float</code> value as character data text content to
+     * document.
+     *
+     * @param value content value
+     * @throws IOException on error writing to document
+     */
+    public void writeTextContent(float value) throws IOException {
+        flagTextContent();
+        writeDigits(value);
+    }
+    
+    /**
+     * Write <code>double</code> value as character data text content to
+     * document.
+     *
+     * @param value content value
+     * @throws IOException on error writing to document
+     */
+    public void writeTextContent(double value) throws IOException {
+        flagTextContent();
+        writeDigits(value);
+    }
+    
+    /**
+     * Write binary data as base64 text content to document. The data is
+     * encoded directly into the output buffer, in pieces small enough that
+     * the buffer never needs to grow.
+     *
+     * @param data binary data
+     * @param offset starting offset of data to be written
+     * @param length number of bytes of data to be written
+     * @throws IOException on error writing to document
+     */
+    public void writeBase64(byte[] data, int offset, int length)
+        throws IOException {
+        flagTextContent();
+        int limit = offset + length;
+        while (offset < limit) {
+            int count = Math.min(limit - offset, BASE64_PIECE_SIZE);
+            makeSpace((count + 2) / 3 * 4);
+            m_fillOffset = Utility.encodeBase64(data, offset, count, m_buffer,
+                m_fillOffset);
+            offset += count;
+        }
+    }
+    
+    /**
+     * Copy characters to output buffer as single bytes. This is only usable
+     * for characters which do not need escaping and which are represented as a
+     * single byte in the output encoding. The caller must first make sure that
+     * there's sufficient space in the buffer.
+     *
+     * @param text source text
+     * @param start offset of first character to be copied
+     * @param end offset past last character to be copied
+     * @param offset starting offset in buffer
+     * @return offset for next data byte in buffer
+     */
+    protected int copyChars(String text, int start, int end, int offset) {
+        byte[] buff = m_buffer;
+        for (int i = start; i < end; i++) {
+            buff[offset++] = (byte)text.charAt(i);
+        }
+        return offset;
+    }
+    
     /**
      * Write entity bytes to output. 
      *
@@ -413,6 +755,7 @@ public abstract class StreamWriterBase extends XMLWriterBase
         m_byteBuffer.flush();
         m_fillOffset = m_byteBuffer.getOffset();
         if (m_baseWriter != null) {
+            m_baseWriter.m_buffer = m_buffer;
             m_baseWriter.m_fillOffset = m_fillOffset;
         }
     }
@@ -426,5 +769,7 @@ public abstract class StreamWriterBase extends XMLWriterBase
     public void close() throws IOException {
         flush();
         m_byteBuffer.finish();
+        m_buffer = m_byteBuffer.getBuffer();
+        m_fillOffset = m_byteBuffer.getOffset();
     }
 }
\ No newline at end of file
@@ -0,0 +1,401 @@
+/*
+Copyright (c) 2026, agent.
+All rights reserved.
+
+Redistribution and use in source and binary forms, with or without modification,
+are permitted provided that the following conditions are met:
+
+ * Redistributions of source code must retain the above copyright notice, this
+   list of conditions and the following disclaimer.
+ * Redistributions in binary form must reproduce the above copyright notice,
+   this list of conditions and the following disclaimer in the documentation
+   and/or other materials provided with the distribution.
+ * Neither the name of JiBX nor the names of its contributors may be used
+   to endorse or promote products derived from this software without specific
+   prior written permission.
+
+THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+(INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON
+ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+(INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+*/
+
+package org.jibx.runtime.impl;
+
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.io.Reader;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+
+import org.jibx.runtime.IRuntimeMonitor;
+import org.jibx.runtime.IXMLReader;
+import org.jibx.runtime.JiBXException;
+
+/**
+ * Factory for creating readers which parse directly from bytes, for documents
+ * in UTF-8, US-ASCII, or ISO-8859-1 encoding. Documents supplied as character
+ * streams, or using other encodings, are passed on to the standard XMLPull or
+ * StAX reader factory. To use this as the default reader factory, set the
+ * <code>org.jibx.runtime.impl.parser</code> system property to the name of
+ * this class.
+ *
+ * Besides the standard factory methods, this adds methods for creating readers
+ * which parse from an NIO buffer or from a memory-mapped file channel.
+ *
+ * @author agent
+ */
+public class UTF8ReaderFactory implements IMonitoredReaderFactory
+{
+    /** Singleton instance of class. */
+    private static final UTF8ReaderFactory s_instance = new UTF8ReaderFactory();
+    
+    /** Factory used for documents not handled directly (lazy create,
+     <code>null</code> if not yet used). */
+    private volatile IXMLReaderFactory m_fallbackFactory;
+    
+    /**
+     * Internal constructor.
+     */
+    private UTF8ReaderFactory() {}
+    
+    /**
+     * Get instance of factory.
+     * 
+     * @return factory instance
+     */
+    public static UTF8ReaderFactory getInstance() {
+        return s_instance;
+    }
+    
+    /**
+     * Get factory used for documents not handled directly.
+     *
+     * @return factory
+     * @throws JiBXException if no factory available
+     */
+    private IXMLReaderFactory getFallbackFactory() throws JiBXException {
+        IXMLReaderFactory fact = m_fallbackFactory;
+        if (fact == null) {
+            try {
+                fact = RuntimeSupport.loadDefaultFactory();
+            } catch (RuntimeException e) {
+                throw new JiBXException("Unable to handle document", e);
+            }
+            m_fallbackFactory = fact;
+        }
+        return fact;
+    }
+    
+    /**
+     * Create reader for stream document using the fallback factory, passing
+     * the monitor on if the fallback factory supports it.
+     * 
+     * @param is document input stream
+     * @param name document name (<code>null</code> if unknown)
+     * @param enc document character encoding (<code>null</code> if unknown)
+     * @param nsf namespace aware flag
+     * @param monitor monitor for runtime events
+     * @return reader for document
+     * @throws JiBXException on parser configuration error
+     */
+    private IXMLReader createFallbackReader(InputStream is, String name,
+        String enc, boolean nsf, IRuntimeMonitor monitor) throws JiBXException {
+        IXMLReaderFactory fact = getFallbackFactory();
+        if (fact instanceof IMonitoredReaderFactory) {
+            return ((IMonitoredReaderFactory)fact).createReader(is, name, enc,
+                nsf, monitor);
+        } else {
+            return fact.createReader(is, name, enc, nsf);
+        }
+    }
+    
+    /**
+     * Set document for reader, passing the document on to the fallback factory
+     * if the encoding is not supported.
+     * 
+     * @param rdr byte reader
+     * @param is document input stream
+     * @param name document name (<code>null</code> if unknown)
+     * @param enc document character encoding (<code>null</code> if unknown)
+     * @param monitor monitor for runtime events
+     * @return reader for document
+     * @throws JiBXException on parser configuration error
+     */
+    private IXMLReader setDocument(UTF8StreamReader rdr, InputStream is,
+        String name, String enc, IRuntimeMonitor monitor) throws JiBXException {
+        rdr.setMonitor(monitor);
+        if (rdr.setDocument(is, name, enc)) {
+            return rdr;
+        } else {
+            return createFallbackReader(rdr.detachStream(), name, null,
+                rdr.isNamespaceAware(), monitor);
+        }
+    }
+
+    /**
+     * Set buffer document for reader, passing the document on to the fallback
+     * factory if the encoding is not supported.
+     * 
+     * @param rdr byte reader
+     * @param buff buffer containing document
+     * @param name document name (<code>null</code> if unknown)
+     * @param enc document character encoding (<code>null</code> if unknown)
+     * @return reader for document
+     * @throws JiBXException on parser configuration error
+     */
+    private IXMLReader setDocument(UTF8StreamReader rdr, ByteBuffer buff,
+        String name, String enc) throws JiBXException {
+        if (rdr.setDocument(buff, name, enc)) {
+            return rdr;
+        } else {
+            InputStream is;
+            if (buff.hasArray()) {
+                is = new ByteArrayInputStream(buff.array(),
+                    buff.arrayOffset() + buff.position(), buff.remaining());
+            } else {
+                byte[] bytes = new byte[buff.remaining()];
+                buff.duplicate().get(bytes);
+                is = new ByteArrayInputStream(bytes);
+            }
+            return getFallbackFactory().createReader(is, name, enc,
+                rdr.isNamespaceAware());
+        }
+    }
+    
+    /**
+     * Set file channel document for reader, passing the document on to the
+     * fallback factory if the encoding is not supported.
+     * 
+     * @param rdr byte reader
+     * @param chan file channel
+     * @param name document name (<code>null</code> if unknown)
+     * @param enc document character encoding (<code>null</code> if unknown)
+     * @return reader for document
+     * @throws JiBXException on parser configuration error
+     */
+    private IXMLReader setDocument(UTF8StreamReader rdr, FileChannel chan,
+        String name, String enc) throws JiBXException {
+        if (rdr.setDocument(chan, name, enc)) {
+            return rdr;
+        } else {
+            return getFallbackFactory().createReader
+                (Channels.newInputStream(chan), name, enc,
+                rdr.isNamespaceAware());
+        }
+    }
+    
+    /**
+     * Set input buffer document for reader.
+     * 
+     * @param rdr byte reader
+     * @param buff buffer supplying document
+     * @param name document name (<code>null</code> if unknown)
+     * @param enc document character encoding (<code>null</code> if unknown)
+     * @return reader for document
+     * @throws JiBXException on parser configuration error, or if encoding not
+     * supported
+     */
+    private IXMLReader setDocument(UTF8StreamReader rdr, IInByteBuffer buff,
+        String name, String enc) throws JiBXException {
+        if (rdr.setDocument(buff, name, enc)) {
+            return rdr;
+        } else {
+            throw new JiBXException("Document encoding not supported for " +
+                "buffered input");
+        }
+    }
+    
+    /**
+     * Get byte reader to be reused, if possible.
+     *
+     * @param old reader to be recycled
+     * @return byte reader
+     */
+    private static UTF8StreamReader reuseReader(IXMLReader old) {
+        if (old instanceof UTF8StreamReader) {
+            return (UTF8StreamReader)old;
+        } else {
+            return new UTF8StreamReader(old.isNamespaceAware());
+        }
+    }
+
+    /* (non-Javadoc)
+     * @see org.jibx.runtime.impl.IXMLReaderFactory#createReader(java.io.InputStream, java.lang.String, java.lang.String, boolean)
+     */
+    public IXMLReader createReader(InputStream is, String name, String enc,
+        boolean nsf) throws JiBXException {
+        return createReader(is, name, enc, nsf,
+            RuntimeSupport.getDefaultMonitor());
+    }
+
+    /* (non-Javadoc)
+     * @see org.jibx.runtime.impl.IMonitoredReaderFactory#createReader(java.io.InputStream, java.lang.String, java.lang.String, boolean, org.jibx.runtime.IRuntimeMonitor)
+     */
+    public IXMLReader createReader(InputStream is, String name, String enc,
+        boolean nsf, IRuntimeMonitor monitor) throws JiBXException {
+        if (enc == null || UTF8StreamReader.isSupportedEncoding(enc)) {
+            return setDocument(new UTF8StreamReader(nsf), is, name, enc,
+                monitor);
+        } else {
+            return createFallbackReader(is, name, enc, nsf, monitor);
+        }
+    }
+
+    /* (non-Javadoc)
+     * @see org.jibx.runtime.impl.IXMLReaderFactory#createReader(java.io.Reader, java.lang.String, boolean)
+     */
+    public IXMLReader createReader(Reader rdr, String name, boolean nsf)
+        throws JiBXException {
+        return getFallbackFactory().createReader(rdr, name, nsf);
+    }
+
+    /* (non-Javadoc)
+     * @see org.jibx.runtime.impl.IXMLReaderFactory#recycleReader(org.jibx.runtime.IXMLReader, java.io.InputStream, java.lang.String, java.lang.String)
+     */
+    public IXMLReader recycleReader(IXMLReader old, InputStream is, String name,
+        String enc) throws JiBXException {
+        return recycleReader(old, is, name, enc,
+            RuntimeSupport.getDefaultMonitor());
+    }
+
+    /* (non-Javadoc)
+     * @see org.jibx.runtime.impl.IMonitoredReaderFactory#recycleReader(org.jibx.runtime.IXMLReader, java.io.InputStream, java.lang.String, java.lang.String, org.jibx.runtime.IRuntimeMonitor)
+     */
+    public IXMLReader recycleReader(IXMLReader old, InputStream is, String name,
+        String enc, IRuntimeMonitor monitor) throws JiBXException {
+        if (enc == null || UTF8StreamReader.isSupportedEncoding(enc)) {
+            return setDocument(reuseReader(old), is, name, enc, monitor);
+        } else if (old instanceof UTF8StreamReader) {
+            return createFallbackReader(is, name, enc, old.isNamespaceAware(),
+                monitor);
+        } else {
+            IXMLReaderFactory fact = getFallbackFactory();
+            if (fact instanceof IMonitoredReaderFactory) {
+                return ((IMonitoredReaderFactory)fact).recycleReader(old, is,
+                    name, enc, monitor);
+            } else {
+                return fact.recycleReader(old, is, name, enc);
+            }
+        }
+    }
+
+    /* (non-Javadoc)
+     * @see org.jibx.runtime.impl.IXMLReaderFactory#recycleReader(org.jibx.runtime.IXMLReader, java.io.Reader, java.lang.String)
+     */
+    public IXMLReader recycleReader(IXMLReader old, Reader rdr, String name)
+        throws JiBXException {
+        if (old instanceof UTF8StreamReader) {
+            return getFallbackFactory().createReader(rdr, name,
+                old.isNamespaceAware());
+        } else {
+            return getFallbackFactory().recycleReader(old, rdr, name);
+        }
+    }
+
+    /**
+     * Create reader for document in buffer. The remaining content of the
+     * buffer is used as the document. If the buffer is backed by an array the
+     * document is parsed directly from the array, without copying.
+     * 
+     * @param buff buffer containing document
+     * @param name document name (<code>null</code> if unknown)
+     * @param enc document character encoding (<code>null</code> if unknown)
+     * @param nsf namespace aware flag
+     * @return reader for document
+     * @throws JiBXException on parser configuration error
+     */
+    public IXMLReader createReader(ByteBuffer buff, String name, String enc,
+        boolean nsf) throws JiBXException {
+        return setDocument(new UTF8StreamReader(nsf), buff, name, enc);
+    }
+    
+    /**
+     * Recycle reader for document in buffer.
+     * 
+     * @param old reader to be recycled
+     * @param buff buffer containing document
+     * @param name document name (<code>null</code> if unknown)
+     * @param enc document character encoding (<code>null</code> if unknown)
+     * @return reader for document
+     * @throws JiBXException on parser configuration error
+     */
+    public IXMLReader recycleReader(IXMLReader old, ByteBuffer buff,
+        String name, String enc) throws JiBXException {
+        return setDocument(reuseReader(old), buff, name, enc);
+    }
+    
+    /**
+     * Create reader for document supplied by an input buffer. This is intended
+     * for buffers which are not backed by a stream, such as {@link
+     * FeedInByteBuffer}, so the document cannot be passed on to another
+     * factory if the encoding is not supported.
+     * 
+     * @param buff buffer supplying document
+     * @param name document name (<code>null</code> if unknown)
+     * @param enc document character encoding (<code>null</code> if unknown)
+     * @param nsf namespace aware flag
+     * @return reader for document
+     * @throws JiBXException on parser configuration error, or if encoding not
+     * supported
+     */
+    public IXMLReader createReader(IInByteBuffer buff, String name, String enc,
+        boolean nsf) throws JiBXException {
+        return setDocument(new UTF8StreamReader(nsf), buff, name, enc);
+    }
+    
+    /**
+     * Recycle reader for document supplied by an input buffer.
+     * 
+     * @param old reader to be recycled
+     * @param buff buffer supplying document
+     * @param name document name (<code>null</code> if unknown)
+     * @param enc document character encoding (<code>null</code> if unknown)
+     * @return reader for document
+     * @throws JiBXException on parser configuration error, or if encoding not
+     * supported
+     */
+    public IXMLReader recycleReader(IXMLReader old, IInByteBuffer buff,
+        String name, String enc) throws JiBXException {
+        return setDocument(reuseReader(old), buff, name, enc);
+    }
+    
+    /**
+     * Create reader for document in file. The file is memory-mapped starting
+     * from the current channel position, and the channel is closed when the end
+     * of the document is reached.
+     * 
+     * @param chan file channel
+     * @param name document name (<code>null</code> if unknown)
+     * @param enc document character encoding (<code>null</code> if unknown)
+     * @param nsf namespace aware flag
+     * @return reader for document
+     * @throws JiBXException on parser configuration error
+     */
+    public IXMLReader createReader(FileChannel chan, String name, String enc,
+        boolean nsf) throws JiBXException {
+        return setDocument(new UTF8StreamReader(nsf), chan, name, enc);
+    }
+    
+    /**
+     * Recycle reader for document in file.
+     * 
+     * @param old reader to be recycled
+     * @param chan file channel
+     * @param name document name (<code>null</code> if unknown)
+     * @param enc document character encoding (<code>null</code> if unknown)
+     * @return reader for document
+     * @throws JiBXException on parser configuration error
+     */
+    public IXMLReader recycleReader(IXMLReader old, FileChannel chan,
+        String name, String enc) throws JiBXException {
+        return setDocument(reuseReader(old), chan, name, enc);
+    }
+}
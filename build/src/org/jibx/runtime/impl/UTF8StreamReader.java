@@ -0,0 +1,2512 @@
+/*
+Copyright (c) 2026, agent.
+All rights reserved.
+
+Redistribution and use in source and binary forms, with or without modification,
+are permitted provided that the following conditions are met:
+
+ * Redistributions of source code must retain the above copyright notice, this
+   list of conditions and the following disclaimer.
+ * Redistributions in binary form must reproduce the above copyright notice,
+   this list of conditions and the following disclaimer in the documentation
+   and/or other materials provided with the distribution.
+ * Neither the name of JiBX nor the names of its contributors may be used
+   to endorse or promote products derived from this software without specific
+   prior written permission.
+
+THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+(INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON
+ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+(INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+*/
+
+package org.jibx.runtime.impl;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.SequenceInputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+
+import org.jibx.runtime.IRuntimeMonitor;
+import org.jibx.runtime.IXMLReader;
+import org.jibx.runtime.JiBXException;
+
+/**
+ * XML reader which parses directly from the bytes of a document in UTF-8,
+ * US-ASCII, or ISO-8859-1 encoding. Unlike the XMLPull and StAX wrappers, this
+ * does not first convert the document to characters. Markup is recognized
+ * directly in the byte buffer, and only the names and text actually requested
+ * by the caller are decoded. Element and attribute names are converted through
+ * a symbol table for the reader, which returns the interned form of each name.
+ * Since the names used by generated code are also interned, name comparisons
+ * normally succeed on the initial identity check.
+ *
+ * Documents can be supplied as an input stream, an NIO buffer, or a file
+ * channel. With a heap buffer the document is parsed directly from the buffer
+ * array, and with a file channel the file is memory-mapped (see {@link
+ * NIOInByteBuffer}).
+ *
+ * This is a non-validating reader. It does not support external entities or
+ * entity definitions in an internal DTD subset (the DTD is just skipped). The
+ * well-formedness checks of the XML specification are applied, except that only
+ * ASCII characters are checked against the name character rules (non-ASCII
+ * characters are always accepted in names). Malformed UTF-8 sequences and
+ * characters not allowed in XML are detected as each token is scanned, and
+ * reported by a <code>JiBXException</code> giving the document position.
+ *
+ * @author agent
+ */
+public class UTF8StreamReader implements IReusableReader
+{
+    /** Character class flag for '&lt;'. */
+    private static final int CLASS_LT = 0x01;
+
+    /** Character class flag for '&amp;'. */
+    private static final int CLASS_AMP = 0x02;
+
+    /** Character class flag for line feed. */
+    private static final int CLASS_LF = 0x04;
+
+    /** Character class flag for carriage return. */
+    private static final int CLASS_CR = 0x08;
+
+    /** Character class flag for tab. */
+    private static final int CLASS_TAB = 0x10;
+
+    /** Character class flag for byte with high bit set. */
+    private static final int CLASS_HIGH = 0x20;
+
+    /** Character class flag for control character not allowed in XML. */
+    private static final int CLASS_CTRL = 0x40;
+
+    /** Character class flag for ']'. */
+    private static final int CLASS_RBRACKET = 0x80;
+
+    /** Character classes, indexed by byte value. */
+    private static final short[] s_charClasses = new short[256];
+
+    /** Name characters, indexed by byte value. */
+    private static final boolean[] s_nameChars = new boolean[256];
+
+    static {
+        for (int i = 0; i < 0x20; i++) {
+            s_charClasses[i] = CLASS_CTRL;
+        }
+        s_charClasses['<'] = CLASS_LT;
+        s_charClasses['&'] = CLASS_AMP;
+        s_charClasses['\n'] = CLASS_LF;
+        s_charClasses['\r'] = CLASS_CR;
+        s_charClasses['\t'] = CLASS_TAB;
+        s_charClasses[']'] = CLASS_RBRACKET;
+        for (int i = 0x80; i < 0x100; i++) {
+            s_charClasses[i] = CLASS_HIGH;
+            s_nameChars[i] = true;
+        }
+        for (int i = 'a'; i <= 'z'; i++) {
+            s_nameChars[i] = true;
+            s_nameChars[i-'a'+'A'] = true;
+        }
+        for (int i = '0'; i <= '9'; i++) {
+            s_nameChars[i] = true;
+        }
+        s_nameChars['_'] = true;
+        s_nameChars[':'] = true;
+        s_nameChars['-'] = true;
+        s_nameChars['.'] = true;
+    }
+
+    /** Fixed namespace URI for 'xml' prefix. */
+    private static final String XML_NAMESPACE =
+        "http://www.w3.org/XML/1998/namespace";
+
+    /** Comment start markup, following "&lt;!". */
+    private static final byte[] COMMENT_START = { '-', '-' };
+
+    /** Comment end markup. */
+    private static final byte[] COMMENT_END = { '-', '-', '>' };
+
+    /** CDATA start markup, following "&lt;!". */
+    private static final byte[] CDATA_START =
+        { '[', 'C', 'D', 'A', 'T', 'A', '[' };
+
+    /** CDATA end markup. */
+    private static final byte[] CDATA_END = { ']', ']', '>' };
+
+    /** DOCTYPE start markup, following "&lt;!". */
+    private static final byte[] DOCTYPE_START =
+        { 'D', 'O', 'C', 'T', 'Y', 'P', 'E' };
+
+    /** Processing instruction end markup. */
+    private static final byte[] PI_END = { '?', '>' };
+
+    /** XML declaration start markup. */
+    private static final byte[] XMLDECL_START = { '<', '?', 'x', 'm', 'l' };
+
+    /** Namespace processing flag. */
+    private final boolean m_isNamespaceAware;
+
+    /** Buffer for document bytes from stream. */
+    private final InByteBuffer m_streamBuffer;
+
+    /** Buffer for document bytes from NIO buffer or file channel (lazy
+     create, <code>null</code> if not used). */
+    private NIOInByteBuffer m_nioBuffer;
+
+    /** Buffer for document bytes in use. */
+    private IInByteBuffer m_byteBuffer;
+
+    /** Monitor for runtime events, passed on to the byte buffers. */
+    private IRuntimeMonitor m_monitor = RuntimeSupport.getDefaultMonitor();
+
+    /** Symbol table for names. */
+    private final SymbolTable m_symbolTable;
+
+    /** Document name (<code>null</code> if unknown). */
+    private String m_docName;
+
+    /** Document encoding. */
+    private String m_encoding;
+
+    /** UTF-8 encoding flag (single-byte encoding if <code>false</code>). */
+    private boolean m_isUtf8;
+
+    /** Stream for document input (<code>null</code> if not set). */
+    private InputStream m_stream;
+
+    /** Cached reference to buffer array. */
+    private byte[] m_buffer;
+
+    /** Current scan offset in buffer. */
+    private int m_offset;
+
+    /** Offset past end of data in buffer. */
+    private int m_limit;
+
+    /** Start offset of retained data in buffer. All token positions are
+     relative to this offset. */
+    private int m_mark;
+
+    /** Flag for held text, meaning the mark is not moved to the start of the
+     next token. */
+    private boolean m_isTextHeld;
+
+    /** Current line number. */
+    private int m_lineNumber;
+
+    /** Offset of start of current line in buffer. */
+    private int m_lineStart;
+
+    /** Current event type. */
+    private int m_eventType;
+
+    /** Pending tag event type after text reported by {@link #next()} (-1 if
+     none). */
+    private int m_pendingType;
+
+    /** Root element seen flag. */
+    private boolean m_isRootSeen;
+
+    /** Current element nesting depth. */
+    private int m_nestingDepth;
+
+    /** Empty element tag flag (end tag event to be generated). */
+    private boolean m_isEmptyElement;
+
+    /** End tag processing pending flag. */
+    private boolean m_isEndPending;
+
+    /** Qualified name of start tag scanned. */
+    private String m_tagQName;
+
+    /** Prefix of start tag scanned (<code>null</code> if none, or if
+     namespaces disabled). */
+    private String m_tagPrefix;
+
+    /** Local name of start tag scanned (qualified name if namespaces
+     disabled). */
+    private String m_tagName;
+
+    /** Prefix and local name parts returned by name scan (<code>null</code>
+     if namespaces disabled). */
+    private final String[] m_nameParts;
+
+    /** Element local name (or qualified name if namespaces disabled). */
+    private String m_name;
+
+    /** Element namespace prefix (<code>null</code> if none). */
+    private String m_prefix;
+
+    /** Element namespace URI (empty string if none). */
+    private String m_namespace;
+
+    /** Qualified element names by nesting depth. */
+    private String[] m_elementQNames;
+
+    /** Element names by nesting depth. */
+    private String[] m_elementNames;
+
+    /** Element prefixes by nesting depth. */
+    private String[] m_elementPrefixes;
+
+    /** Element namespaces by nesting depth. */
+    private String[] m_elementNamespaces;
+
+    /** Number of namespace declarations in scope, by nesting depth. */
+    private int[] m_namespaceCounts;
+
+    /** Prefixes of namespaces in scope (<code>null</code> for default). */
+    private final GrowableStringArray m_namespacePrefixes;
+
+    /** URIs of namespaces in scope. */
+    private final GrowableStringArray m_namespaceUris;
+
+    /** Number of attributes of current start tag. */
+    private int m_attributeCount;
+
+    /** Attribute qualified names. */
+    private String[] m_attributeQNames;
+
+    /** Attribute names (local names if namespaces enabled). */
+    private String[] m_attributeNames;
+
+    /** Attribute prefixes. */
+    private String[] m_attributePrefixes;
+
+    /** Attribute namespaces. */
+    private String[] m_attributeNamespaces;
+
+    /** Attribute values (entries <code>null</code> if not yet decoded). */
+    private String[] m_attributeValues;
+
+    /** Attribute value start positions. */
+    private int[] m_attributeStarts;
+
+    /** Attribute value end positions. */
+    private int[] m_attributeEnds;
+
+    /** Attribute value character class flags. */
+    private int[] m_attributeFlags;
+
+    /** Start position of last token content. */
+    private int m_tokenStart;
+
+    /** End position of last token content. */
+    private int m_tokenEnd;
+
+    /** Character class flags for last token content. */
+    private int m_tokenFlags;
+
+    /** Start position of text for current event. */
+    private int m_textStart;
+
+    /** End position of text for current event. */
+    private int m_textEnd;
+
+    /** Character class flags for text of current event. */
+    private int m_textFlags;
+
+    /** Text accumulated in character buffer flag. */
+    private boolean m_isAccumulated;
+
+    /** Decoded text for current event (<code>null</code> if not decoded). */
+    private String m_text;
+
+    /** Entity reference name. */
+    private String m_entityName;
+
+    /** Entity reference replacement text (<code>null</code> if not known). */
+    private String m_entityText;
+
+    /** Character buffer for decoding text. */
+    private char[] m_chars;
+
+    /** Number of characters in buffer. */
+    private int m_charCount;
+
+    /**
+     * Constructor.
+     *
+     * @param nsa namespace aware flag
+     */
+    public UTF8StreamReader(boolean nsa) {
+        m_isNamespaceAware = nsa;
+        m_streamBuffer = new InByteBuffer();
+        m_byteBuffer = m_streamBuffer;
+        m_symbolTable = new SymbolTable();
+        m_nameParts = nsa ? new String[2] : null;
+        m_elementQNames = new String[16];
+        m_elementNames = new String[16];
+        m_elementPrefixes = new String[16];
+        m_elementNamespaces = new String[16];
+        m_namespaceCounts = new int[16];
+        m_namespacePrefixes = new GrowableStringArray();
+        m_namespaceUris = new GrowableStringArray();
+        m_attributeQNames = new String[8];
+        m_attributeNames = new String[8];
+        m_attributePrefixes = new String[8];
+        m_attributeNamespaces = new String[8];
+        m_attributeValues = new String[8];
+        m_attributeStarts = new int[8];
+        m_attributeEnds = new int[8];
+        m_attributeFlags = new int[8];
+        m_chars = new char[256];
+    }
+
+    /**
+     * Check if an encoding is supported by this reader.
+     *
+     * @param enc encoding name
+     * @return <code>true</code> if supported, <code>false</code> if not
+     */
+    public static boolean isSupportedEncoding(String enc) {
+        return "UTF-8".equalsIgnoreCase(enc) || "UTF8".equalsIgnoreCase(enc) ||
+            isSingleByteEncoding(enc);
+    }
+
+    /**
+     * Check if an encoding is a supported single-byte encoding.
+     *
+     * @param enc encoding name
+     * @return <code>true</code> if supported single-byte, <code>false</code>
+     * if not
+     */
+    private static boolean isSingleByteEncoding(String enc) {
+        return "ISO-8859-1".equalsIgnoreCase(enc) ||
+            "ISO8859_1".equalsIgnoreCase(enc) ||
+            "US-ASCII".equalsIgnoreCase(enc) || "ASCII".equalsIgnoreCase(enc);
+    }
+
+    /**
+     * Complete use of the current input, closing any file channel.
+     */
+    private void finishInput() {
+        if (m_byteBuffer == m_nioBuffer) {
+            try {
+                m_nioBuffer.finish();
+            } catch (IOException e) { /* deliberately empty */ }
+        }
+    }
+
+    /**
+     * Get the buffer used for NIO input, creating it if necessary.
+     *
+     * @return buffer
+     */
+    private NIOInByteBuffer getNIOBuffer() {
+        finishInput();
+        if (m_nioBuffer == null) {
+            m_nioBuffer = new NIOInByteBuffer();
+            m_nioBuffer.setMonitor(m_monitor);
+        }
+        return m_nioBuffer;
+    }
+
+    /**
+     * Set the monitor for runtime events. The monitor is passed on to the byte
+     * buffers used for input, so this needs to be called before the document
+     * is set in order for all input to be reported. By default, the monitor
+     * returned by {@link RuntimeSupport#getDefaultMonitor()} at the time the
+     * reader was created is used.
+     *
+     * @param monitor monitor (<code>null</code> to ignore all events)
+     */
+    public void setMonitor(IRuntimeMonitor monitor) {
+        m_monitor = monitor;
+        m_streamBuffer.setMonitor(monitor);
+        if (m_nioBuffer != null) {
+            m_nioBuffer.setMonitor(monitor);
+        }
+    }
+
+    /**
+     * Set document to be parsed from stream. This checks for a byte order mark
+     * and XML declaration at the start of the document to determine the
+     * encoding, if the encoding is not specified. If the encoding is not
+     * supported by this reader the document is not accepted, and the entire
+     * document content (including any data already read) can then be retrieved
+     * using {@link #detachStream()}.
+     *
+     * @param is document input stream
+     * @param name document name (<code>null</code> if unknown)
+     * @param enc document character encoding (<code>null</code> if unknown)
+     * @return <code>true</code> if document accepted, <code>false</code> if
+     * encoding not supported
+     * @throws JiBXException on error reading document
+     */
+    public boolean setDocument(InputStream is, String name, String enc)
+        throws JiBXException {
+        finishInput();
+        m_streamBuffer.setInput(is);
+        m_stream = is;
+        m_byteBuffer = m_streamBuffer;
+        return initDocument(name, enc);
+    }
+
+    /**
+     * Set document to be parsed from buffer. The remaining content of the
+     * buffer is used as the document, and the buffer position is not changed.
+     * If the encoding is not supported by this reader the document is not
+     * accepted, and the caller needs to use some other means of processing the
+     * buffer content.
+     *
+     * @param buff buffer containing document
+     * @param name document name (<code>null</code> if unknown)
+     * @param enc document character encoding (<code>null</code> if unknown)
+     * @return <code>true</code> if document accepted, <code>false</code> if
+     * encoding not supported
+     * @throws JiBXException on error reading document
+     */
+    public boolean setDocument(ByteBuffer buff, String name, String enc)
+        throws JiBXException {
+        getNIOBuffer().setInput(buff);
+        m_stream = null;
+        m_byteBuffer = m_nioBuffer;
+        return initDocument(name, enc);
+    }
+
+    /**
+     * Set document to be parsed from a supplied input buffer. This is intended
+     * for buffers which are not backed by a stream, such as {@link
+     * FeedInByteBuffer}. If the encoding is not supported by this reader the
+     * document is not accepted, and the caller needs to use some other means of
+     * processing the buffer content.
+     *
+     * @param buff buffer supplying document
+     * @param name document name (<code>null</code> if unknown)
+     * @param enc document character encoding (<code>null</code> if unknown)
+     * @return <code>true</code> if document accepted, <code>false</code> if
+     * encoding not supported
+     * @throws JiBXException on error reading document
+     */
+    public boolean setDocument(IInByteBuffer buff, String name, String enc)
+        throws JiBXException {
+        finishInput();
+        m_stream = null;
+        m_byteBuffer = buff;
+        return initDocument(name, enc);
+    }
+
+    /**
+     * Set document to be parsed from file channel. The file is read by
+     * memory-mapping, starting from the current channel position. If the
+     * document is accepted the channel is closed when the end of the document
+     * is reached, when an error occurs in parsing, or when a new document is
+     * set or the document is cleared. If the encoding is not
+     * supported by this reader the document is not accepted, the channel is
+     * left open and unchanged, and the caller needs to use some other means of
+     * processing the file.
+     *
+     * @param chan file channel
+     * @param name document name (<code>null</code> if unknown)
+     * @param enc document character encoding (<code>null</code> if unknown)
+     * @return <code>true</code> if document accepted, <code>false</code> if
+     * encoding not supported
+     * @throws JiBXException on error reading document
+     */
+    public boolean setDocument(FileChannel chan, String name, String enc)
+        throws JiBXException {
+        try {
+            getNIOBuffer().setInput(chan);
+        } catch (IOException e) {
+            throw new JiBXException("Error accessing document", e);
+        }
+        m_stream = null;
+        m_byteBuffer = m_nioBuffer;
+        boolean accepted;
+        try {
+            accepted = initDocument(name, enc);
+        } catch (JiBXException e) {
+            finishInput();
+            throw e;
+        }
+        if (accepted) {
+            return true;
+        } else {
+            m_nioBuffer.reset();
+            return false;
+        }
+    }
+
+    /**
+     * Initialize for a new document, checking the encoding.
+     *
+     * @param name document name (<code>null</code> if unknown)
+     * @param enc document character encoding (<code>null</code> if unknown)
+     * @return <code>true</code> if document accepted, <code>false</code> if
+     * encoding not supported
+     * @throws JiBXException on error reading document
+     */
+    private boolean initDocument(String name, String enc)
+        throws JiBXException {
+
+        // reset all state for new document
+        m_docName = name;
+        m_buffer = m_byteBuffer.getBuffer();
+        m_offset = m_byteBuffer.getOffset();
+        m_limit = m_byteBuffer.getLimit();
+        m_mark = m_offset;
+        m_isTextHeld = false;
+        m_lineNumber = 1;
+        m_lineStart = m_offset;
+        m_eventType = START_DOCUMENT;
+        m_pendingType = -1;
+        m_isRootSeen = false;
+        m_nestingDepth = 0;
+        m_isEmptyElement = false;
+        m_isEndPending = false;
+        m_namespacePrefixes.clear();
+        m_namespaceUris.clear();
+        m_attributeCount = 0;
+        m_text = null;
+        m_isAccumulated = false;
+
+        // check byte order mark and XML declaration for encoding
+        String encoding = enc;
+        if (require(4)) {
+            byte[] buff = m_buffer;
+            int base = m_offset;
+            if (buff[base] == (byte)0xEF && buff[base+1] == (byte)0xBB &&
+                buff[base+2] == (byte)0xBF) {
+                m_offset += 3;
+                if (encoding == null) {
+                    encoding = "UTF-8";
+                }
+            } else if (buff[base] == 0 || buff[base+1] == 0 ||
+                buff[base] == (byte)0xFE || buff[base] == (byte)0xFF) {
+
+                // UTF-16 or UCS-4, not supported by this reader
+                if (encoding == null) {
+                    m_encoding = null;
+                    return false;
+                }
+            }
+        }
+        String declared = readDeclaration();
+        if (encoding == null) {
+            encoding = declared == null ? "UTF-8" : declared;
+        }
+        if (isSupportedEncoding(encoding)) {
+            boolean utf8 = !isSingleByteEncoding(encoding);
+            if (utf8 != m_isUtf8) {
+                m_symbolTable.clear();
+                m_isUtf8 = utf8;
+            }
+            m_encoding = encoding;
+            return true;
+        } else {
+            m_encoding = null;
+            return false;
+        }
+    }
+
+    /**
+     * Detach the input stream for a document which was not accepted. The
+     * returned stream supplies the full document content, starting with any
+     * data already read into the buffer.
+     *
+     * @return document input stream
+     */
+    public InputStream detachStream() {
+        InputStream is = m_stream;
+        int length = m_limit - m_mark;
+        if (length > 0) {
+            byte[] copy = new byte[length];
+            System.arraycopy(m_buffer, m_mark, copy, 0, length);
+            is = new SequenceInputStream(new ByteArrayInputStream(copy), is);
+        }
+        m_streamBuffer.reset();
+        m_stream = null;
+        return is;
+    }
+
+    /**
+     * Discard the current document. This releases all references to the
+     * document input, so that the stream or buffer is not retained while the
+     * reader is unused, and closes any file channel. The reader can be reused
+     * by setting a new document.
+     *
+     * @see org.jibx.runtime.impl.IReusableReader#clearDocument()
+     */
+    public void clearDocument() {
+        finishInput();
+        m_streamBuffer.reset();
+        m_stream = null;
+        m_byteBuffer = m_streamBuffer;
+        m_buffer = m_streamBuffer.getBuffer();
+        m_offset = 0;
+        m_limit = 0;
+        m_mark = 0;
+        m_lineStart = 0;
+        m_docName = null;
+        m_eventType = END_DOCUMENT;
+        m_pendingType = -1;
+        m_isTextHeld = false;
+        m_text = null;
+        for (int i = 0; i < m_attributeCount; i++) {
+            m_attributeValues[i] = null;
+        }
+        m_attributeCount = 0;
+    }
+
+    /**
+     * Read the XML declaration, if present.
+     *
+     * @return encoding from declaration (<code>null</code> if none)
+     * @throws JiBXException on error reading document
+     */
+    private String readDeclaration() throws JiBXException {
+        if (require(XMLDECL_START.length + 1) &&
+            isMatch(m_offset, XMLDECL_START) &&
+            isWhitespace(m_buffer[m_offset + XMLDECL_START.length])) {
+
+            // scan the full declaration, then look for encoding
+            m_offset += XMLDECL_START.length;
+            int base = m_offset - m_mark;
+            int end = scanDelimited(PI_END);
+            byte[] buff = m_buffer;
+            int offset = m_mark + base;
+            int limit = m_mark + end;
+            while (offset < limit) {
+                while (offset < limit && isWhitespace(buff[offset])) {
+                    offset++;
+                }
+                int start = offset;
+                while (offset < limit && s_nameChars[buff[offset] & 0xFF]) {
+                    offset++;
+                }
+                String pname = asciiString(start, offset);
+                while (offset < limit && buff[offset] != '"' &&
+                    buff[offset] != '\'') {
+                    offset++;
+                }
+                if (offset >= limit) {
+                    break;
+                }
+                byte quote = buff[offset++];
+                start = offset;
+                while (offset < limit && buff[offset] != quote) {
+                    offset++;
+                }
+                if ("encoding".equals(pname)) {
+                    return asciiString(start, offset);
+                }
+                offset++;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Build string from ASCII bytes in buffer.
+     *
+     * @param start start offset in buffer
+     * @param end end offset in buffer
+     * @return text
+     */
+    private String asciiString(int start, int end) {
+        char[] chars = new char[end-start];
+        for (int i = 0; i < chars.length; i++) {
+            chars[i] = (char)(m_buffer[start+i] & 0x7F);
+        }
+        return new String(chars);
+    }
+
+    /**
+     * Build error exception with position information.
+     *
+     * @param msg error message
+     * @return exception
+     */
+    private JiBXException buildError(String msg) {
+        return new JiBXException(msg + " " + buildPositionString());
+    }
+
+    /**
+     * Check if byte is an XML whitespace character.
+     *
+     * @param b byte to be checked
+     * @return <code>true</code> if whitespace, <code>false</code> if not
+     */
+    private static boolean isWhitespace(byte b) {
+        return b == ' ' || b == '\n' || b == '\t' || b == '\r';
+    }
+
+    /**
+     * Check if bytes in buffer match a sequence. The caller must assure the
+     * bytes are present in the buffer.
+     *
+     * @param offset start offset in buffer
+     * @param match bytes to be matched
+     * @return <code>true</code> if match, <code>false</code> if not
+     */
+    private boolean isMatch(int offset, byte[] match) {
+        byte[] buff = m_buffer;
+        for (int i = 0; i < match.length; i++) {
+            if (buff[offset+i] != match[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Read more data into the buffer. Data from the mark position onward is
+     * retained, so all token positions remain valid (since these are relative
+     * to the mark).
+     *
+     * @return <code>true</code> if more data read, <code>false</code> if at end
+     * of document
+     * @throws JiBXException on error reading document
+     */
+    private boolean fill() throws JiBXException {
+        int have = m_limit - m_mark;
+        try {
+            m_byteBuffer.setOffset(m_mark);
+            m_byteBuffer.require(have + 1);
+        } catch (IOException e) {
+            throw new JiBXException("Error accessing document", e);
+        }
+        int base = m_byteBuffer.getOffset();
+        int shift = m_mark - base;
+        m_buffer = m_byteBuffer.getBuffer();
+        m_limit = m_byteBuffer.getLimit();
+        m_mark = base;
+        m_offset -= shift;
+        m_lineStart -= shift;
+        return m_limit - base > have;
+    }
+
+    /**
+     * Require some number of bytes to be available in the buffer from the
+     * current offset.
+     *
+     * @param count number of bytes needed
+     * @return <code>true</code> if available, <code>false</code> if end of
+     * document reached first
+     * @throws JiBXException on error reading document
+     */
+    private boolean require(int count) throws JiBXException {
+        while (m_limit - m_offset < count) {
+            if (!fill()) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Require some number of bytes to be available in the buffer from the
+     * current offset, throwing an exception if the end of the document is
+     * reached.
+     *
+     * @param count number of bytes needed
+     * @throws JiBXException on error reading document, or end of document
+     */
+    private void requireMore(int count) throws JiBXException {
+        if (!require(count)) {
+            throw buildError("Unexpected end of document");
+        }
+    }
+
+    /**
+     * Skip past whitespace in markup.
+     *
+     * @return <code>true</code> if any whitespace skipped, <code>false</code>
+     * if not
+     * @throws JiBXException on error reading document, or end of document
+     */
+    private boolean skipWhitespace() throws JiBXException {
+        int start = m_offset - m_mark;
+        while (true) {
+            requireMore(1);
+            byte b = m_buffer[m_offset];
+            if (b == '\n') {
+                m_lineNumber++;
+                m_lineStart = m_offset + 1;
+            } else if (b != ' ' && b != '\t' && b != '\r') {
+                return m_offset - m_mark > start;
+            }
+            m_offset++;
+        }
+    }
+
+    /**
+     * Scan content up to a terminating byte sequence. On return the current
+     * offset is past the terminator, and the content flags are set.
+     *
+     * @param term terminator byte sequence
+     * @return end position of content (relative to mark)
+     * @throws JiBXException on error reading document, or end of document
+     */
+    private int scanDelimited(byte[] term) throws JiBXException {
+        int flags = 0;
+        byte first = term[0];
+        int length = term.length;
+        while (true) {
+            requireMore(length);
+            byte[] buff = m_buffer;
+            int offset = m_offset;
+            int limit = m_limit - length + 1;
+            while (offset < limit) {
+                byte b = buff[offset];
+                if (b == first && isMatch(offset, term)) {
+                    m_tokenFlags = flags;
+                    m_offset = offset + length;
+                    return offset - m_mark;
+                }
+                int cls = s_charClasses[b & 0xFF];
+                if (cls != 0) {
+                    flags |= cls;
+                    if (cls == CLASS_LF) {
+                        m_lineNumber++;
+                        m_lineStart = offset + 1;
+                    }
+                }
+                offset++;
+            }
+            m_offset = offset;
+        }
+    }
+
+    /**
+     * Scan a name, returning the symbol table instance. With namespace
+     * processing enabled, the prefix and local name parts are also looked up,
+     * and returned in the supplied array.
+     *
+     * @param parts array for prefix and local name (<code>null</code> if not
+     * used)
+     * @return qualified name
+     * @throws JiBXException on error reading document, or invalid name
+     */
+    private String scanName(String[] parts) throws JiBXException {
+        int start = m_offset - m_mark;
+        int colon = -1;
+        while (true) {
+            requireMore(1);
+            byte b = m_buffer[m_offset];
+            if (!s_nameChars[b & 0xFF]) {
+                break;
+            } else if (b == ':' && colon < 0) {
+                colon = m_offset - m_mark;
+            }
+            m_offset++;
+        }
+        int end = m_offset - m_mark;
+        if (end == start) {
+            throw buildError("Expected name");
+        }
+        byte first = m_buffer[m_mark+start];
+        if (first == '-' || first == '.' || (first >= '0' && first <= '9')) {
+            throw buildError("Invalid name start character '" + (char)first +
+                "'");
+        }
+        String qname = lookupName(start, end);
+        if (parts != null) {
+            if (colon > start && colon < end-1) {
+                parts[0] = lookupName(start, colon);
+                parts[1] = lookupName(colon+1, end);
+            } else {
+                parts[0] = null;
+                parts[1] = qname;
+            }
+        }
+        return qname;
+    }
+
+    /**
+     * Look up a name in the symbol table.
+     *
+     * @param start start position (relative to mark)
+     * @param end end position (relative to mark)
+     * @return name
+     * @throws JiBXException on invalid encoding
+     */
+    private String lookupName(int start, int end) throws JiBXException {
+        String name = m_symbolTable.find(m_buffer, m_mark+start, end-start);
+        if (name == null) {
+
+            // decode past any accumulated text, then restore count
+            int base = m_charCount;
+            appendDecoded(start, end, CLASS_HIGH, false);
+            name = new String(m_chars, base, m_charCount-base).intern();
+            m_charCount = base;
+            m_symbolTable.add(m_buffer, m_mark+start, end-start, name);
+        }
+        return name;
+    }
+
+    /**
+     * Make sure the character buffer has space for a number of characters.
+     *
+     * @param size required buffer size
+     */
+    private void ensureChars(int size) {
+        if (m_chars.length < size) {
+            char[] copy = new char[Math.max(size, m_chars.length*2)];
+            System.arraycopy(m_chars, 0, copy, 0, m_charCount);
+            m_chars = copy;
+        }
+    }
+
+    /**
+     * Append text to the character buffer.
+     *
+     * @param text text to be added
+     */
+    private void appendText(String text) {
+        int length = text.length();
+        ensureChars(m_charCount + length);
+        text.getChars(0, length, m_chars, m_charCount);
+        m_charCount += length;
+    }
+
+    /**
+     * Decode bytes from the buffer and append the characters to the character
+     * buffer. Line ends are normalized as required by the XML specification.
+     * Entity references are not processed.
+     *
+     * @param start start position (relative to mark)
+     * @param end end position (relative to mark)
+     * @param flags character class flags for content
+     * @param attr attribute value normalization flag (all whitespace converted
+     * to spaces)
+     * @throws JiBXException on invalid encoding
+     */
+    private void appendDecoded(int start, int end, int flags, boolean attr)
+        throws JiBXException {
+        ensureChars(m_charCount + end - start);
+        char[] chars = m_chars;
+        int fill = m_charCount;
+        byte[] buff = m_buffer;
+        int offset = m_mark + start;
+        int limit = m_mark + end;
+        if ((flags & (CLASS_CR|CLASS_HIGH|CLASS_LF|CLASS_TAB)) == 0 ||
+            (!attr && (flags & (CLASS_CR|CLASS_HIGH)) == 0)) {
+
+            // fast path for simple ASCII text
+            while (offset < limit) {
+                chars[fill++] = (char)buff[offset++];
+            }
+
+        } else {
+            while (offset < limit) {
+                int b = buff[offset++];
+                if (b >= 0) {
+                    if (b == '\r') {
+                        if (offset < limit && buff[offset] == '\n') {
+                            offset++;
+                        }
+                        chars[fill++] = attr ? ' ' : '\n';
+                    } else if (attr && (b == '\n' || b == '\t')) {
+                        chars[fill++] = ' ';
+                    } else {
+                        chars[fill++] = (char)b;
+                    }
+                } else if (!m_isUtf8) {
+                    chars[fill++] = (char)(b & 0xFF);
+                } else {
+                    int code = decodeSequence(b, offset, limit);
+                    offset += sequenceExtra(code);
+                    if (code >= 0x10000) {
+                        code -= 0x10000;
+                        chars[fill++] = (char)(0xD800 + (code >> 10));
+                        chars[fill++] = (char)(0xDC00 + (code & 0x3FF));
+                    } else {
+                        chars[fill++] = (char)code;
+                    }
+                }
+            }
+        }
+        m_charCount = fill;
+    }
+
+    /**
+     * Decode a multibyte UTF-8 sequence. Overlong forms, surrogate code points,
+     * and values outside the range of characters allowed in XML are rejected.
+     *
+     * @param b lead byte of sequence
+     * @param offset offset in buffer of first continuation byte
+     * @param limit offset in buffer past end of content
+     * @return code point
+     * @throws JiBXException on invalid encoding
+     */
+    private int decodeSequence(int b, int offset, int limit)
+        throws JiBXException {
+        int code;
+        int extra;
+        int min;
+        if ((b & 0xE0) == 0xC0) {
+            code = b & 0x1F;
+            extra = 1;
+            min = 0x80;
+        } else if ((b & 0xF0) == 0xE0) {
+            code = b & 0x0F;
+            extra = 2;
+            min = 0x800;
+        } else if ((b & 0xF8) == 0xF0) {
+            code = b & 0x07;
+            extra = 3;
+            min = 0x10000;
+        } else {
+            throw buildError("Invalid UTF-8 byte 0x" +
+                Integer.toHexString(b & 0xFF));
+        }
+        if (offset + extra > limit) {
+            throw buildError("Incomplete UTF-8 sequence");
+        }
+        byte[] buff = m_buffer;
+        while (--extra >= 0) {
+            int c = buff[offset++];
+            if ((c & 0xC0) != 0x80) {
+                throw buildError("Invalid UTF-8 sequence");
+            }
+            code = (code << 6) | (c & 0x3F);
+        }
+        if (code < min) {
+            throw buildError("Overlong UTF-8 sequence for character 0x" +
+                Integer.toHexString(code));
+        } else if (!isXmlChar(code)) {
+            throw buildError("Character 0x" + Integer.toHexString(code) +
+                " not allowed in XML");
+        }
+        return code;
+    }
+
+    /**
+     * Get the number of continuation bytes in the UTF-8 encoding of a
+     * character. Since overlong forms are rejected by {@link
+     * #decodeSequence(int, int, int)}, this is determined by the code point.
+     *
+     * @param code code point (must be 0x80 or greater)
+     * @return number of continuation bytes
+     */
+    private static int sequenceExtra(int code) {
+        if (code < 0x800) {
+            return 1;
+        } else if (code < 0x10000) {
+            return 2;
+        } else {
+            return 3;
+        }
+    }
+
+    /**
+     * Check if a code point is a character allowed in XML.
+     *
+     * @param code code point
+     * @return <code>true</code> if allowed, <code>false</code> if not
+     */
+    private static boolean isXmlChar(int code) {
+        if (code < 0x20) {
+            return code == '\t' || code == '\n' || code == '\r';
+        } else if (code < 0xD800) {
+            return true;
+        } else if (code < 0xE000) {
+            return false;
+        } else if (code < 0x10000) {
+            return code != 0xFFFE && code != 0xFFFF;
+        } else {
+            return code <= 0x10FFFF;
+        }
+    }
+
+    /**
+     * Check content bytes for characters not allowed in XML and, for UTF-8
+     * documents, for malformed sequences. This is called as each token is
+     * scanned, so that the errors are reported by the parse call rather than
+     * when the text is decoded.
+     *
+     * @param start start position (relative to mark)
+     * @param end end position (relative to mark)
+     * @param flags character class flags for content
+     * @throws JiBXException on invalid character or encoding
+     */
+    private void checkContent(int start, int end, int flags)
+        throws JiBXException {
+        if ((flags & (CLASS_CTRL|CLASS_HIGH)) != 0) {
+            boolean utf8 = m_isUtf8 && (flags & CLASS_HIGH) != 0;
+            byte[] buff = m_buffer;
+            int offset = m_mark + start;
+            int limit = m_mark + end;
+            while (offset < limit) {
+                int b = buff[offset++];
+                if (b < 0) {
+                    if (utf8) {
+                        offset += sequenceExtra(decodeSequence(b, offset,
+                            limit));
+                    }
+                } else if (s_charClasses[b] == CLASS_CTRL) {
+                    throw buildError("Character 0x" + Integer.toHexString(b) +
+                        " not allowed in XML");
+                }
+            }
+        }
+    }
+
+    /**
+     * Check if the content of the last token contains a byte sequence.
+     *
+     * @param match bytes to be matched
+     * @return <code>true</code> if found, <code>false</code> if not
+     */
+    private boolean isTokenContaining(byte[] match) {
+        int limit = m_mark + m_tokenEnd - match.length;
+        for (int i = m_mark + m_tokenStart; i <= limit; i++) {
+            if (isMatch(i, match)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Get replacement text for an entity reference.
+     *
+     * @param name entity name, or character reference text including leading
+     * '#'
+     * @return replacement text, <code>null</code> if unknown entity
+     * @throws JiBXException on invalid character reference
+     */
+    private String resolveEntity(String name) throws JiBXException {
+        if (name.charAt(0) == '#') {
+            int code = 0;
+            try {
+                if (name.length() > 2 && name.charAt(1) == 'x') {
+                    code = Integer.parseInt(name.substring(2), 16);
+                } else {
+                    code = Integer.parseInt(name.substring(1));
+                }
+            } catch (NumberFormatException e) {
+                code = -1;
+            }
+            if (code < 0 || !isXmlChar(code)) {
+                throw buildError("Invalid character reference &" + name + ';');
+            }
+            return new String(Character.toChars(code));
+        } else if ("amp".equals(name)) {
+            return "&";
+        } else if ("lt".equals(name)) {
+            return "<";
+        } else if ("gt".equals(name)) {
+            return ">";
+        } else if ("quot".equals(name)) {
+            return "\"";
+        } else if ("apos".equals(name)) {
+            return "'";
+        } else {
+            return null;
+        }
+    }
+
+    /**
+     * Scan an entity reference, starting from the '&amp;' character. The
+     * reference name and replacement text are set.
+     *
+     * @throws JiBXException on error reading document, or invalid reference
+     */
+    private void scanEntity() throws JiBXException {
+        m_offset++;
+        int start = m_offset - m_mark;
+        while (true) {
+            requireMore(1);
+            byte b = m_buffer[m_offset];
+            if (b == ';') {
+                break;
+            } else if (!s_nameChars[b & 0xFF] && b != '#') {
+                throw buildError("Invalid entity reference");
+            }
+            m_offset++;
+        }
+        int end = m_offset - m_mark;
+        m_offset++;
+        if (end == start) {
+            throw buildError("Invalid entity reference");
+        }
+        m_entityName = lookupName(start, end);
+        m_entityText = resolveEntity(m_entityName);
+    }
+
+    /**
+     * Decode an attribute value containing entity references. The value is
+     * decoded following any text in the character buffer, so that text merged
+     * ahead of a start tag is not overwritten.
+     *
+     * @param start start position of value (relative to mark)
+     * @param end end position of value (relative to mark)
+     * @param flags character class flags for value
+     * @return value
+     * @throws JiBXException on invalid encoding or undefined entity
+     */
+    private String decodeEntityValue(int start, int end, int flags)
+        throws JiBXException {
+
+        // decode past any accumulated text, then restore count
+        int textCount = m_charCount;
+        byte[] buff = m_buffer;
+        int base = start;
+        int offset = start;
+        while (offset < end) {
+            if (buff[m_mark+offset] == '&') {
+                appendDecoded(base, offset, flags, true);
+                int nstart = ++offset;
+                while (offset < end && buff[m_mark+offset] != ';') {
+                    offset++;
+                }
+                if (offset >= end || offset == nstart) {
+                    throw buildError("Invalid entity reference in attribute");
+                }
+                String name = lookupName(nstart, offset);
+                String text = resolveEntity(name);
+                if (text == null) {
+                    throw buildError("Undefined entity &" + name +
+                        "; in attribute");
+                }
+                appendText(text);
+                base = ++offset;
+            } else {
+                offset++;
+            }
+        }
+        appendDecoded(base, end, flags, true);
+        String value = new String(m_chars, textCount, m_charCount-textCount);
+        m_charCount = textCount;
+        return value;
+    }
+
+    /**
+     * Make sure the attribute arrays have space for a number of attributes.
+     *
+     * @param size required number of attributes
+     */
+    private void ensureAttributes(int size) {
+        if (m_attributeQNames.length < size) {
+            int length = Math.max(size, m_attributeQNames.length*2);
+            m_attributeQNames = growArray(m_attributeQNames, length);
+            m_attributeNames = growArray(m_attributeNames, length);
+            m_attributePrefixes = growArray(m_attributePrefixes, length);
+            m_attributeNamespaces = growArray(m_attributeNamespaces, length);
+            m_attributeValues = growArray(m_attributeValues, length);
+            m_attributeStarts = growArray(m_attributeStarts, length);
+            m_attributeEnds = growArray(m_attributeEnds, length);
+            m_attributeFlags = growArray(m_attributeFlags, length);
+        }
+    }
+
+    /**
+     * Make sure the element arrays have space for a nesting depth.
+     *
+     * @param depth required nesting depth
+     */
+    private void ensureDepth(int depth) {
+        if (m_elementQNames.length <= depth) {
+            int length = Math.max(depth+1, m_elementQNames.length*2);
+            m_elementQNames = growArray(m_elementQNames, length);
+            m_elementNames = growArray(m_elementNames, length);
+            m_elementPrefixes = growArray(m_elementPrefixes, length);
+            m_elementNamespaces = growArray(m_elementNamespaces, length);
+            m_namespaceCounts = growArray(m_namespaceCounts, length);
+        }
+    }
+
+    /**
+     * Grow a string array.
+     *
+     * @param base array
+     * @param length new length
+     * @return grown array
+     */
+    private static String[] growArray(String[] base, int length) {
+        String[] copy = new String[length];
+        System.arraycopy(base, 0, copy, 0, base.length);
+        return copy;
+    }
+
+    /**
+     * Grow an int array.
+     *
+     * @param base array
+     * @param length new length
+     * @return grown array
+     */
+    private static int[] growArray(int[] base, int length) {
+        int[] copy = new int[length];
+        System.arraycopy(base, 0, copy, 0, base.length);
+        return copy;
+    }
+
+    /**
+     * Scan a start tag, starting from the '&lt;' character.
+     *
+     * @throws JiBXException on error reading document, or invalid start tag
+     */
+    private void scanStartTag() throws JiBXException {
+        m_offset++;
+        String[] parts = m_nameParts;
+        m_tagQName = scanName(parts);
+        if (parts == null) {
+            m_tagPrefix = null;
+            m_tagName = m_tagQName;
+        } else {
+            m_tagPrefix = parts[0];
+            m_tagName = parts[1];
+        }
+        int count = 0;
+        while (true) {
+            boolean space = skipWhitespace();
+            byte b = m_buffer[m_offset];
+            if (b == '>') {
+                m_offset++;
+                m_isEmptyElement = false;
+                break;
+            } else if (b == '/') {
+                requireMore(2);
+                if (m_buffer[m_offset+1] != '>') {
+                    throw buildError("Expected '>' after '/' in start tag");
+                }
+                m_offset += 2;
+                m_isEmptyElement = true;
+                break;
+            } else if (!space) {
+                throw buildError("Expected whitespace before attribute");
+            }
+
+            // scan attribute name and check for duplicates
+            ensureAttributes(count+1);
+            String qname = scanName(parts);
+            for (int i = 0; i < count; i++) {
+                if (m_attributeQNames[i] == qname ||
+                    m_attributeQNames[i].equals(qname)) {
+                    throw buildError("Duplicate attribute " + qname);
+                }
+            }
+            m_attributeQNames[count] = qname;
+            if (parts == null) {
+                m_attributePrefixes[count] = null;
+                m_attributeNames[count] = qname;
+            } else {
+                m_attributePrefixes[count] = parts[0];
+                m_attributeNames[count] = parts[1];
+            }
+            skipWhitespace();
+            if (m_buffer[m_offset] != '=') {
+                throw buildError("Expected '=' after attribute name " +
+                    qname);
+            }
+            m_offset++;
+            skipWhitespace();
+            byte quote = m_buffer[m_offset];
+            if (quote != '"' && quote != '\'') {
+                throw buildError("Expected quoted value for attribute " +
+                    qname);
+            }
+            m_offset++;
+
+            // scan value, just recording position and content flags
+            int start = m_offset - m_mark;
+            int flags = 0;
+            while (true) {
+                requireMore(1);
+                byte[] buff = m_buffer;
+                int offset = m_offset;
+                int limit = m_limit;
+                while (offset < limit && (b = buff[offset]) != quote) {
+                    int cls = s_charClasses[b & 0xFF];
+                    if (cls != 0) {
+                        if (cls == CLASS_LT) {
+                            m_offset = offset;
+                            throw buildError("'<' not allowed in value of " +
+                                "attribute " + qname);
+                        } else if (cls == CLASS_LF) {
+                            m_lineNumber++;
+                            m_lineStart = offset + 1;
+                        }
+                        flags |= cls;
+                    }
+                    offset++;
+                }
+                m_offset = offset;
+                if (offset < limit) {
+                    break;
+                }
+            }
+            int end = m_offset - m_mark;
+            m_offset++;
+            checkContent(start, end, flags);
+            m_attributeStarts[count] = start;
+            m_attributeEnds[count] = end;
+            m_attributeFlags[count] = flags;
+            if ((flags & CLASS_AMP) == 0) {
+                m_attributeValues[count] = null;
+            } else {
+                m_attributeValues[count] = decodeEntityValue(start, end, flags);
+            }
+            count++;
+        }
+        m_attributeCount = count;
+    }
+
+    /**
+     * Scan an end tag, starting from the '&lt;' character.
+     *
+     * @throws JiBXException on error reading document, or end tag not matching
+     * start tag
+     */
+    private void scanEndTag() throws JiBXException {
+        m_offset += 2;
+        String qname = scanName(null);
+        skipWhitespace();
+        if (m_buffer[m_offset] != '>') {
+            throw buildError("Expected '>' to close end tag " + qname);
+        }
+        m_offset++;
+        if (m_nestingDepth == 0) {
+            throw buildError("End tag " + qname + " without start tag");
+        }
+        String match = m_elementQNames[m_nestingDepth];
+        if (qname != match && !qname.equals(match)) {
+            throw buildError("End tag " + qname + " does not match start tag " +
+                match);
+        }
+    }
+
+    /**
+     * Scan character data content, starting from the current position. This
+     * is the performance-critical scan for most documents, so it works
+     * directly with a local copy of the buffer and offset.
+     *
+     * @throws JiBXException on error reading document
+     */
+    private void scanText() throws JiBXException {
+        int start = m_offset - m_mark;
+        int flags = 0;
+        outer: while (true) {
+            byte[] buff = m_buffer;
+            int offset = m_offset;
+            int limit = m_limit;
+            while (offset < limit) {
+                int cls = s_charClasses[buff[offset] & 0xFF];
+                if (cls != 0) {
+                    if ((cls & (CLASS_LT|CLASS_AMP)) != 0) {
+                        m_offset = offset;
+                        break outer;
+                    } else if (cls == CLASS_LF) {
+                        m_lineNumber++;
+                        m_lineStart = offset + 1;
+                    }
+                    flags |= cls;
+                }
+                offset++;
+            }
+            m_offset = offset;
+            if (!fill()) {
+                break;
+            }
+        }
+        m_tokenStart = start;
+        m_tokenEnd = m_offset - m_mark;
+        m_tokenFlags = flags;
+    }
+
+    /**
+     * Check if the content of the last token is all whitespace.
+     *
+     * @return <code>true</code> if whitespace, <code>false</code> if not
+     */
+    private boolean isTokenWhitespace() {
+        byte[] buff = m_buffer;
+        int limit = m_mark + m_tokenEnd;
+        for (int i = m_mark + m_tokenStart; i < limit; i++) {
+            if (!isWhitespace(buff[i])) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Scan the next token from the document. This only handles the actual
+     * parsing, without updating the element nesting state.
+     *
+     * @return token type
+     * @throws JiBXException on error reading or parsing document
+     */
+    private int scanToken() throws JiBXException {
+        if (m_isEmptyElement) {
+            m_isEmptyElement = false;
+            return END_TAG;
+        }
+        if (!m_isTextHeld) {
+            m_mark = m_offset;
+        }
+        if (!require(1)) {
+            if (m_nestingDepth > 0) {
+                throw buildError("Unexpected end of document in element " +
+                    m_elementQNames[m_nestingDepth]);
+            } else if (!m_isRootSeen) {
+                throw buildError("No root element in document");
+            }
+            finishInput();
+            return END_DOCUMENT;
+        }
+        byte b = m_buffer[m_offset];
+        if (b == '<') {
+            requireMore(2);
+            b = m_buffer[m_offset+1];
+            if (b == '/') {
+                scanEndTag();
+                return END_TAG;
+            } else if (b == '?') {
+                m_offset += 2;
+                if (isXmlTarget()) {
+                    throw buildError("XML declaration only allowed at start " +
+                        "of document");
+                }
+                m_tokenStart = m_offset - m_mark;
+                m_tokenEnd = scanDelimited(PI_END);
+                checkContent(m_tokenStart, m_tokenEnd, m_tokenFlags);
+                return PROCESSING_INSTRUCTION;
+            } else if (b == '!') {
+                m_offset += 2;
+                requireMore(2);
+                if (isMatch(m_offset, COMMENT_START)) {
+                    m_offset += COMMENT_START.length;
+                    m_tokenStart = m_offset - m_mark;
+                    m_tokenEnd = scanDelimited(COMMENT_END);
+                    if (isTokenContaining(COMMENT_START) ||
+                        (m_tokenEnd > m_tokenStart &&
+                        m_buffer[m_mark+m_tokenEnd-1] == '-')) {
+                        throw buildError("'--' not allowed in comment");
+                    }
+                    checkContent(m_tokenStart, m_tokenEnd, m_tokenFlags);
+                    return COMMENT;
+                }
+                requireMore(CDATA_START.length);
+                if (isMatch(m_offset, CDATA_START)) {
+                    if (m_nestingDepth == 0) {
+                        throw buildError("CDATA not allowed outside root " +
+                            "element");
+                    }
+                    m_offset += CDATA_START.length;
+                    m_tokenStart = m_offset - m_mark;
+                    m_tokenEnd = scanDelimited(CDATA_END);
+                    checkContent(m_tokenStart, m_tokenEnd, m_tokenFlags);
+                    return CDSECT;
+                } else if (isMatch(m_offset, DOCTYPE_START)) {
+                    m_offset += DOCTYPE_START.length;
+                    scanDocType();
+                    checkContent(m_tokenStart, m_tokenEnd, m_tokenFlags);
+                    return DOCDECL;
+                } else {
+                    throw buildError("Unrecognized markup");
+                }
+            } else {
+                if (m_nestingDepth == 0 && m_isRootSeen) {
+                    throw buildError("Only one root element allowed");
+                }
+                scanStartTag();
+                return START_TAG;
+            }
+        } else if (b == '&') {
+            if (m_nestingDepth == 0) {
+                throw buildError("Entity reference not allowed outside " +
+                    "root element");
+            }
+            scanEntity();
+            return ENTITY_REF;
+        } else {
+            scanText();
+            if (m_nestingDepth == 0) {
+                if (isTokenWhitespace()) {
+                    return IGNORABLE_WHITESPACE;
+                } else {
+                    throw buildError("Text not allowed outside root element");
+                }
+            }
+            if ((m_tokenFlags & CLASS_RBRACKET) != 0 &&
+                isTokenContaining(CDATA_END)) {
+                throw buildError("']]>' not allowed in text");
+            }
+            checkContent(m_tokenStart, m_tokenEnd, m_tokenFlags);
+            return TEXT;
+        }
+    }
+
+    /**
+     * Check if a processing instruction uses the reserved target name 'xml'
+     * (in any case), starting from the first character of the target.
+     *
+     * @return <code>true</code> if reserved target, <code>false</code> if not
+     * @throws JiBXException on error reading document
+     */
+    private boolean isXmlTarget() throws JiBXException {
+        if (require(4)) {
+            byte[] buff = m_buffer;
+            int offset = m_offset;
+            return (buff[offset] | 0x20) == 'x' &&
+                (buff[offset+1] | 0x20) == 'm' &&
+                (buff[offset+2] | 0x20) == 'l' &&
+                (buff[offset+3] == '?' || isWhitespace(buff[offset+3]));
+        } else {
+            return false;
+        }
+    }
+
+    /**
+     * Scan a document type declaration, starting after the "DOCTYPE" text.
+     * This skips any internal subset, ignoring quoted text and comments.
+     *
+     * @throws JiBXException on error reading or parsing document
+     */
+    private void scanDocType() throws JiBXException {
+        m_tokenStart = m_offset - m_mark;
+        int flags = 0;
+        int depth = 0;
+        byte quote = 0;
+        while (true) {
+            requireMore(1);
+            byte b = m_buffer[m_offset];
+            int cls = s_charClasses[b & 0xFF];
+            if (cls == CLASS_LF) {
+                m_lineNumber++;
+                m_lineStart = m_offset + 1;
+            }
+            flags |= cls;
+            if (quote != 0) {
+                if (b == quote) {
+                    quote = 0;
+                }
+            } else if (b == '"' || b == '\'') {
+                quote = b;
+            } else if (b == '[') {
+                depth++;
+            } else if (b == ']') {
+                depth--;
+            } else if (b == '>' && depth == 0) {
+                m_tokenEnd = m_offset - m_mark;
+                m_tokenFlags = flags;
+                m_offset++;
+                return;
+            } else if (b == '<' && depth > 0) {
+                requireMore(4);
+                if (m_buffer[m_offset+1] == '!' &&
+                    m_buffer[m_offset+2] == '-' && m_buffer[m_offset+3] == '-') {
+                    m_offset += 4;
+                    scanDelimited(COMMENT_END);
+                    continue;
+                }
+            }
+            m_offset++;
+        }
+    }
+
+    /**
+     * Complete processing of an end tag. This needs to be called before moving
+     * past an end tag, to close off the element.
+     */
+    private void completeEnd() {
+        if (m_isEndPending) {
+            int count = m_namespaceCounts[m_nestingDepth] -
+                m_namespaceCounts[m_nestingDepth-1];
+            if (count > 0) {
+                m_namespacePrefixes.remove(count);
+                m_namespaceUris.remove(count);
+            }
+            m_elementQNames[m_nestingDepth] = null;
+            m_nestingDepth--;
+            m_isEndPending = false;
+        }
+    }
+
+    /**
+     * Report a token as the current event. This updates the element nesting
+     * state for start and end tags, and sets the text information for
+     * character data events.
+     *
+     * @param type token type
+     * @return token type
+     * @throws JiBXException on namespace error
+     */
+    private int report(int type) throws JiBXException {
+        m_text = null;
+        switch (type) {
+
+            case START_TAG:
+                startElement();
+                break;
+
+            case END_TAG:
+                m_name = m_elementNames[m_nestingDepth];
+                m_prefix = m_elementPrefixes[m_nestingDepth];
+                m_namespace = m_elementNamespaces[m_nestingDepth];
+                m_isEndPending = true;
+                break;
+
+            case ENTITY_REF:
+            case START_DOCUMENT:
+            case END_DOCUMENT:
+                break;
+
+            default:
+                m_textStart = m_tokenStart;
+                m_textEnd = m_tokenEnd;
+                m_textFlags = m_tokenFlags;
+                m_isAccumulated = false;
+                break;
+        }
+        m_eventType = type;
+        return type;
+    }
+
+    /**
+     * Start an element. This pushes the element information, and with
+     * namespaces enabled also processes the namespace declarations.
+     *
+     * @throws JiBXException on namespace error
+     */
+    private void startElement() throws JiBXException {
+        int depth = ++m_nestingDepth;
+        ensureDepth(depth);
+        m_isRootSeen = true;
+        String qname = m_tagQName;
+        m_elementQNames[depth] = qname;
+        if (m_isNamespaceAware) {
+
+            // process namespace declarations, removing them from attributes
+            int count = 0;
+            for (int i = 0; i < m_attributeCount; i++) {
+                String aqname = m_attributeQNames[i];
+                String prefix = m_attributePrefixes[i];
+                if (prefix == null && "xmlns".equals(aqname)) {
+                    m_namespacePrefixes.add(null);
+                    m_namespaceUris.add(getRawAttributeValue(i));
+                } else if ("xmlns".equals(prefix)) {
+                    String uri = getRawAttributeValue(i);
+                    if (uri.length() == 0) {
+                        throw buildError("Empty namespace URI for prefix " +
+                            m_attributeNames[i]);
+                    }
+                    m_namespacePrefixes.add(m_attributeNames[i]);
+                    m_namespaceUris.add(uri);
+                } else {
+                    if (count < i) {
+                        m_attributeQNames[count] = aqname;
+                        m_attributeNames[count] = m_attributeNames[i];
+                        m_attributePrefixes[count] = prefix;
+                        m_attributeValues[count] = m_attributeValues[i];
+                        m_attributeStarts[count] = m_attributeStarts[i];
+                        m_attributeEnds[count] = m_attributeEnds[i];
+                        m_attributeFlags[count] = m_attributeFlags[i];
+                    }
+                    count++;
+                }
+            }
+            m_attributeCount = count;
+            m_namespaceCounts[depth] = m_namespaceUris.size();
+
+            // resolve element and attribute namespaces
+            String prefix = m_tagPrefix;
+            String uri = getNamespace(prefix);
+            if (uri == null) {
+                if (prefix == null) {
+                    uri = "";
+                } else {
+                    throw buildError("Undefined namespace prefix " + prefix);
+                }
+            }
+            m_name = m_tagName;
+            m_prefix = prefix;
+            m_namespace = uri;
+            for (int i = 0; i < count; i++) {
+                prefix = m_attributePrefixes[i];
+                if (prefix == null) {
+                    m_attributeNamespaces[i] = "";
+                } else {
+                    uri = getNamespace(prefix);
+                    if (uri == null) {
+                        throw buildError("Undefined namespace prefix " +
+                            prefix);
+                    }
+                    m_attributeNamespaces[i] = uri;
+                }
+            }
+
+        } else {
+            m_namespaceCounts[depth] = 0;
+            m_name = qname;
+            m_prefix = null;
+            m_namespace = "";
+            for (int i = 0; i < m_attributeCount; i++) {
+                m_attributeNamespaces[i] = "";
+            }
+        }
+        m_elementNames[depth] = m_name;
+        m_elementPrefixes[depth] = m_prefix;
+        m_elementNamespaces[depth] = m_namespace;
+    }
+
+    /**
+     * Get attribute value, decoding if necessary.
+     *
+     * @param index attribute index
+     * @return value
+     * @throws JiBXException on invalid encoding
+     */
+    private String getRawAttributeValue(int index) throws JiBXException {
+        String value = m_attributeValues[index];
+        if (value == null) {
+            m_charCount = 0;
+            appendDecoded(m_attributeStarts[index], m_attributeEnds[index],
+                m_attributeFlags[index], true);
+            value = new String(m_chars, 0, m_charCount);
+            m_attributeValues[index] = value;
+        }
+        return value;
+    }
+
+    /**
+     * Initialize reader.
+     */
+    public void init() {}
+
+    /* (non-Javadoc)
+     * @see org.jibx.runtime.IXMLReader#buildPositionString()
+     */
+    public String buildPositionString() {
+        String base = "(line " + getLineNumber() + ", col " +
+            getColumnNumber();
+        if (m_docName != null) {
+            base += ", in " + m_docName;
+        }
+        return base + ')';
+    }
+
+    /* (non-Javadoc)
+     * @see org.jibx.runtime.IXMLReader#nextToken()
+     */
+    public int nextToken() throws JiBXException {
+        try {
+            return scanNextToken();
+        } catch (JiBXException e) {
+            finishInput();
+            throw e;
+        }
+    }
+
+    /**
+     * Parse the next token. This is the implementation of {@link
+     * #nextToken()}, which closes any file channel on error.
+     *
+     * @return token type
+     * @throws JiBXException on error reading or parsing document
+     */
+    private int scanNextToken() throws JiBXException {
+        if (m_pendingType >= 0) {
+            int type = m_pendingType;
+            m_pendingType = -1;
+            return report(type);
+        } else if (m_eventType == END_DOCUMENT) {
+            return END_DOCUMENT;
+        } else {
+            completeEnd();
+            return report(scanToken());
+        }
+    }
+
+    /* (non-Javadoc)
+     * @see org.jibx.runtime.IXMLReader#next()
+     */
+    public int next() throws JiBXException {
+        try {
+            return scanNext();
+        } catch (JiBXException e) {
+            finishInput();
+            throw e;
+        }
+    }
+
+    /**
+     * Parse the next event. This is the implementation of {@link #next()},
+     * which closes any file channel on error.
+     *
+     * @return event type
+     * @throws JiBXException on error reading or parsing document
+     */
+    private int scanNext() throws JiBXException {
+        if (m_pendingType >= 0) {
+            int type = m_pendingType;
+            m_pendingType = -1;
+            return report(type);
+        } else if (m_eventType == END_DOCUMENT) {
+            return END_DOCUMENT;
+        }
+        completeEnd();
+        boolean text = false;
+        while (true) {
+            int type = scanToken();
+            switch (type) {
+
+                case ENTITY_REF:
+                    if (m_entityText == null) {
+                        m_isTextHeld = false;
+                        throw buildError("Unexpanded entity reference &" +
+                            m_entityName + ";");
+                    }
+                    if (!text) {
+                        m_charCount = 0;
+                        m_isAccumulated = true;
+                    } else if (!m_isAccumulated) {
+                        accumulateHeld();
+                    }
+                    appendText(m_entityText);
+                    text = true;
+                    break;
+
+                case TEXT:
+                case CDSECT:
+                    if (m_tokenStart == m_tokenEnd) {
+
+                        // ignore empty CDATA section
+                        break;
+
+                    } else if (!text) {
+
+                        // hold first text without decoding
+                        m_textStart = m_tokenStart;
+                        m_textEnd = m_tokenEnd;
+                        m_textFlags = m_tokenFlags;
+                        m_isAccumulated = false;
+                        m_isTextHeld = true;
+
+                    } else {
+                        if (!m_isAccumulated) {
+                            accumulateHeld();
+                        }
+                        appendDecoded(m_tokenStart, m_tokenEnd, m_tokenFlags,
+                            false);
+                    }
+                    text = true;
+                    break;
+
+                case START_TAG:
+                case END_TAG:
+                case END_DOCUMENT:
+                    m_isTextHeld = false;
+                    if (text) {
+                        m_pendingType = type;
+                        m_text = null;
+                        m_eventType = TEXT;
+                        return TEXT;
+                    } else {
+                        return report(type);
+                    }
+
+                default:
+                    break;
+            }
+        }
+    }
+
+    /**
+     * Convert held text to accumulated form, decoding into the character
+     * buffer.
+     *
+     * @throws JiBXException on invalid encoding
+     */
+    private void accumulateHeld() throws JiBXException {
+        m_charCount = 0;
+        appendDecoded(m_textStart, m_textEnd, m_textFlags, false);
+        m_isAccumulated = true;
+        m_isTextHeld = false;
+    }
+
+    /* (non-Javadoc)
+     * @see org.jibx.runtime.IXMLReader#getEventType()
+     */
+    public int getEventType() {
+        return m_eventType;
+    }
+
+    /* (non-Javadoc)
+     * @see org.jibx.runtime.IXMLReader#getName()
+     */
+    public String getName() {
+        if (m_eventType == START_TAG || m_eventType == END_TAG) {
+            return m_name;
+        } else if (m_eventType == ENTITY_REF) {
+            return m_entityName;
+        } else {
+            throw new IllegalStateException
+                ("Internal state error: not at start or end tag");
+        }
+    }
+
+    /* (non-Javadoc)
+     * @see org.jibx.runtime.IXMLReader#getNamespace()
+     */
+    public String getNamespace() {
+        if (m_eventType == START_TAG || m_eventType == END_TAG) {
+            return m_namespace;
+        } else {
+            throw new IllegalStateException
+                ("Internal state error: not at start or end tag");
+        }
+    }
+
+    /* (non-Javadoc)
+     * @see org.jibx.runtime.IXMLReader#getPrefix()
+     */
+    public String getPrefix() {
+        if (m_eventType == START_TAG || m_eventType == END_TAG) {
+            return m_prefix;
+        } else {
+            return null;
+        }
+    }
+
+    /**
+     * Check for valid attribute access.
+     *
+     * @param index attribute index
+     */
+    private void checkAttribute(int index) {
+        if (m_eventType != START_TAG) {
+            throw new IllegalStateException
+                ("Internal state error: not at start tag");
+        } else if (index < 0 || index >= m_attributeCount) {
+            throw new IllegalStateException("Attribute index " + index +
+                " out of range " + buildPositionString());
+        }
+    }
+
+    /* (non-Javadoc)
+     * @see org.jibx.runtime.IXMLReader#getAttributeCount()
+     */
+    public int getAttributeCount() {
+        if (m_eventType == START_TAG) {
+            return m_attributeCount;
+        } else {
+            throw new IllegalStateException
+                ("Internal state error: not at start tag");
+        }
+    }
+
+    /* (non-Javadoc)
+     * @see org.jibx.runtime.IXMLReader#getAttributeName(int)
+     */
+    public String getAttributeName(int index) {
+        checkAttribute(index);
+        return m_attributeNames[index];
+    }
+
+    /* (non-Javadoc)
+     * @see org.jibx.runtime.IXMLReader#getAttributeNamespace(int)
+     */
+    public String getAttributeNamespace(int index) {
+        checkAttribute(index);
+        return m_attributeNamespaces[index];
+    }
+
+    /* (non-Javadoc)
+     * @see org.jibx.runtime.IXMLReader#getAttributePrefix(int)
+     */
+    public String getAttributePrefix(int index) {
+        checkAttribute(index);
+        return m_attributePrefixes[index];
+    }
+
+    /* (non-Javadoc)
+     * @see org.jibx.runtime.IXMLReader#getAttributeValue(int)
+     */
+    public String getAttributeValue(int index) {
+        checkAttribute(index);
+        try {
+            return getRawAttributeValue(index);
+        } catch (JiBXException e) {
+            throw new IllegalStateException(e.getMessage(), e);
+        }
+    }
+
+    /* (non-Javadoc)
+     * @see org.jibx.runtime.IXMLReader#getAttributeValue(java.lang.String, java.lang.String)
+     */
+    public String getAttributeValue(String ns, String name) {
+        if (m_eventType != START_TAG) {
+            throw new IllegalStateException
+                ("Internal state error: not at start tag");
+        }
+        if (ns == null) {
+            ns = "";
+        }
+        for (int i = 0; i < m_attributeCount; i++) {
+            String comp = m_attributeNames[i];
+            if ((comp == name || comp.equals(name)) &&
+                ns.equals(m_attributeNamespaces[i])) {
+                return getAttributeValue(i);
+            }
+        }
+        return null;
+    }
+
+    /* (non-Javadoc)
+     * @see org.jibx.runtime.IXMLReader#getAttributeIndex(java.lang.String, java.lang.String)
+     */
+    public int getAttributeIndex(String ns, String name) {
+        if (m_eventType != START_TAG) {
+            throw new IllegalStateException
+                ("Internal state error: not at start tag");
+        }
+        if (ns == null) {
+            ns = "";
+        }
+        for (int i = 0; i < m_attributeCount; i++) {
+            String comp = m_attributeNames[i];
+            if ((comp == name || comp.equals(name)) &&
+                ns.equals(m_attributeNamespaces[i])) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    /* (non-Javadoc)
+     * @see org.jibx.runtime.IXMLReader#getAttributeCharacters(int, int[])
+     */
+    public char[] getAttributeCharacters(int index, int[] holder) {
+        checkAttribute(index);
+        String value = m_attributeValues[index];
+        m_charCount = 0;
+        if (value == null) {
+            try {
+                appendDecoded(m_attributeStarts[index], m_attributeEnds[index],
+                    m_attributeFlags[index], true);
+            } catch (JiBXException e) {
+                throw new IllegalStateException(e.getMessage(), e);
+            }
+        } else {
+            appendText(value);
+        }
+        holder[0] = 0;
+        holder[1] = m_charCount;
+        return m_chars;
+    }
+
+    /* (non-Javadoc)
+     * @see org.jibx.runtime.IXMLReader#getTextCharacters(int[])
+     */
+    public char[] getTextCharacters(int[] holder) {
+        switch (m_eventType) {
+
+            case TEXT:
+            case CDSECT:
+            case COMMENT:
+            case PROCESSING_INSTRUCTION:
+            case DOCDECL:
+            case IGNORABLE_WHITESPACE:
+                if (!m_isAccumulated) {
+                    m_charCount = 0;
+                    try {
+                        appendDecoded(m_textStart, m_textEnd, m_textFlags,
+                            false);
+                    } catch (JiBXException e) {
+                        throw new IllegalStateException(e.getMessage(), e);
+                    }
+                    m_isAccumulated = true;
+                }
+                break;
+
+            case ENTITY_REF:
+                if (m_entityText == null) {
+                    return null;
+                }
+                m_charCount = 0;
+                appendText(m_entityText);
+                break;
+
+            default:
+                return null;
+        }
+        holder[0] = 0;
+        holder[1] = m_charCount;
+        return m_chars;
+    }
+
+    /* (non-Javadoc)
+     * @see org.jibx.runtime.IXMLReader#getText()
+     */
+    public String getText() {
+        switch (m_eventType) {
+
+            case TEXT:
+            case CDSECT:
+            case COMMENT:
+            case PROCESSING_INSTRUCTION:
+            case DOCDECL:
+            case IGNORABLE_WHITESPACE:
+                if (m_text == null) {
+                    if (!m_isAccumulated) {
+                        m_charCount = 0;
+                        try {
+                            appendDecoded(m_textStart, m_textEnd, m_textFlags,
+                                false);
+                        } catch (JiBXException e) {
+                            throw new IllegalStateException(e.getMessage(), e);
+                        }
+                    }
+                    m_text = new String(m_chars, 0, m_charCount);
+                }
+                return m_text;
+
+            case ENTITY_REF:
+                return m_entityText;
+
+            default:
+                return null;
+        }
+    }
+
+    /* (non-Javadoc)
+     * @see org.jibx.runtime.IXMLReader#getNestingDepth()
+     */
+    public int getNestingDepth() {
+        return m_nestingDepth;
+    }
+
+    /* (non-Javadoc)
+     * @see org.jibx.runtime.IXMLReader#getNamespaceCount(int)
+     */
+    public int getNamespaceCount(int depth) {
+        if (depth < 0 || depth > m_nestingDepth) {
+            throw new IllegalArgumentException("Invalid depth " + depth);
+        } else if (depth == 0) {
+            return 0;
+        } else {
+            return m_namespaceCounts[depth];
+        }
+    }
+
+    /* (non-Javadoc)
+     * @see org.jibx.runtime.IXMLReader#getNamespaceUri(int)
+     */
+    public String getNamespaceUri(int index) {
+        if (index < 0 || index >= m_namespaceUris.size()) {
+            throw new IllegalArgumentException("Invalid index " + index);
+        }
+        return m_namespaceUris.get(index);
+    }
+
+    /* (non-Javadoc)
+     * @see org.jibx.runtime.IXMLReader#getNamespacePrefix(int)
+     */
+    public String getNamespacePrefix(int index) {
+        if (index < 0 || index >= m_namespacePrefixes.size()) {
+            throw new IllegalArgumentException("Invalid index " + index);
+        }
+        return m_namespacePrefixes.get(index);
+    }
+
+    /* (non-Javadoc)
+     * @see org.jibx.runtime.IXMLReader#getDocumentName()
+     */
+    public String getDocumentName() {
+        return m_docName;
+    }
+
+    /* (non-Javadoc)
+     * @see org.jibx.runtime.IXMLReader#getLineNumber()
+     */
+    public int getLineNumber() {
+        return m_lineNumber;
+    }
+
+    /* (non-Javadoc)
+     * @see org.jibx.runtime.IXMLReader#getColumnNumber()
+     */
+    public int getColumnNumber() {
+        return m_offset - m_lineStart + 1;
+    }
+
+    /* (non-Javadoc)
+     * @see org.jibx.runtime.IXMLReader#getNamespace(java.lang.String)
+     */
+    public String getNamespace(String prefix) {
+        int index = m_namespacePrefixes.size();
+        while (--index >= 0) {
+            String comp = m_namespacePrefixes.get(index);
+            if (prefix == null ? comp == null : prefix.equals(comp)) {
+                return m_namespaceUris.get(index);
+            }
+        }
+        if ("xml".equals(prefix)) {
+            return XML_NAMESPACE;
+        } else {
+            return null;
+        }
+    }
+
+    /* (non-Javadoc)
+     * @see org.jibx.runtime.IXMLReader#getInputEncoding()
+     */
+    public String getInputEncoding() {
+        return m_encoding;
+    }
+
+    /* (non-Javadoc)
+     * @see org.jibx.runtime.IXMLReader#isNamespaceAware()
+     */
+    public boolean isNamespaceAware() {
+        return m_isNamespaceAware;
+    }
+
+    /**
+     * Symbol table for names. This maps byte sequences directly to the
+     * corresponding interned strings, using open addressing. The number of
+     * entries is limited, so that documents using unbounded numbers of names
+     * cannot cause excessive memory use; once the limit is reached names are
+     * just decoded (and interned) each time they are used.
+     */
+    private static class SymbolTable
+    {
+        /** Maximum number of entries in table. */
+        private static final int MAXIMUM_ENTRIES = 4096;
+
+        /** Name bytes for entries. */
+        private byte[][] m_keys;
+
+        /** Hash codes for entries. */
+        private int[] m_hashes;
+
+        /** Names for entries. */
+        private String[] m_names;
+
+        /** Number of entries present. */
+        private int m_entryCount;
+
+        /**
+         * Constructor.
+         */
+        private SymbolTable() {
+            allocate(64);
+        }
+
+        /**
+         * Allocate table arrays.
+         *
+         * @param size table size (must be a power of two)
+         */
+        private void allocate(int size) {
+            m_keys = new byte[size][];
+            m_hashes = new int[size];
+            m_names = new String[size];
+            m_entryCount = 0;
+        }
+
+        /**
+         * Remove all entries.
+         */
+        private void clear() {
+            allocate(64);
+        }
+
+        /**
+         * Compute hash code for bytes.
+         *
+         * @param buff buffer
+         * @param start start offset
+         * @param length number of bytes
+         * @return hash code
+         */
+        private static int hash(byte[] buff, int start, int length) {
+            int hash = length;
+            int limit = start + length;
+            for (int i = start; i < limit; i++) {
+                hash = hash * 31 + buff[i];
+            }
+            return hash ^ (hash >>> 16);
+        }
+
+        /**
+         * Find name matching bytes.
+         *
+         * @param buff buffer
+         * @param start start offset
+         * @param length number of bytes
+         * @return name, or <code>null</code> if not found
+         */
+        private String find(byte[] buff, int start, int length) {
+            int hash = hash(buff, start, length);
+            int mask = m_keys.length - 1;
+            int slot = hash & mask;
+            byte[] key;
+            while ((key = m_keys[slot]) != null) {
+                if (m_hashes[slot] == hash && key.length == length) {
+                    int i = 0;
+                    while (i < length && key[i] == buff[start+i]) {
+                        i++;
+                    }
+                    if (i == length) {
+                        return m_names[slot];
+                    }
+                }
+                slot = (slot + 1) & mask;
+            }
+            return null;
+        }
+
+        /**
+         * Add name for bytes. The name is ignored if the table is already at
+         * the maximum size.
+         *
+         * @param buff buffer
+         * @param start start offset
+         * @param length number of bytes
+         * @param name name
+         */
+        private void add(byte[] buff, int start, int length, String name) {
+            if (m_entryCount >= MAXIMUM_ENTRIES) {
+                return;
+            }
+            if (m_entryCount * 2 >= m_keys.length) {
+
+                // expand table and reinsert all entries
+                byte[][] keys = m_keys;
+                int[] hashes = m_hashes;
+                String[] names = m_names;
+                int count = m_entryCount;
+                allocate(keys.length * 2);
+                int mask = m_keys.length - 1;
+                for (int i = 0; i < keys.length; i++) {
+                    if (keys[i] != null) {
+                        int slot = hashes[i] & mask;
+                        while (m_keys[slot] != null) {
+                            slot = (slot + 1) & mask;
+                        }
+                        m_keys[slot] = keys[i];
+                        m_hashes[slot] = hashes[i];
+                        m_names[slot] = names[i];
+                    }
+                }
+                m_entryCount = count;
+            }
+            byte[] key = new byte[length];
+            System.arraycopy(buff, start, key, 0, length);
+            int hash = hash(key, 0, length);
+            int mask = m_keys.length - 1;
+            int slot = hash & mask;
+            while (m_keys[slot] != null) {
+                slot = (slot + 1) & mask;
+            }
+            m_keys[slot] = key;
+            m_hashes[slot] = hash;
+            m_names[slot] = name;
+            m_entryCount++;
+        }
+    }
+}
@@ -190,55 +190,61 @@ public class UTF8StreamWriter extends StreamWriterBase
         final int length = text.length();
         makeSpace(length * 6);
         int fill = m_fillOffset;
-        int chr;
-        for (int i = 0; i < length; i += Character.charCount(chr)) {
-            chr = text.codePointAt(i);
-            if (chr == '"') {
-                fill = writeEntity(m_quotEntityBytes, fill);
-            } else if (chr == '&') {
-                fill = writeEntity(m_ampEntityBytes, fill);
-            } else if (chr == '<') {
-                fill = writeEntity(m_ltEntityBytes, fill);
-            } else if (chr == '>' && i > 2 && text.charAt(i-1) == ']' &&
-                text.charAt(i-2) == ']') {
-                m_buffer[fill++] = (byte)']';
-                m_buffer[fill++] = (byte)']';
-                fill = writeEntity(m_gtEntityBytes, fill);
-            } else if (chr < 0x20) {
-                if (chr != 0x9 && chr != 0xA && chr != 0xD) {
-                    throw new IOException("Illegal character code 0x" +
-                        Integer.toHexString(chr) + " in attribute value text");
+        int i = 0;
+        while (i < length) {
+            char chr = text.charAt(i);
+            if (chr < 0x80 && ATTRIBUTE_SAFE_CHARS[chr]) {
+                
+                // copy run of characters not needing escaping or encoding
+                int end = i + 1;
+                while (end < length && (chr = text.charAt(end)) < 0x80 &&
+                    ATTRIBUTE_SAFE_CHARS[chr]) {
+                    end++;
+                }
+                fill = copyChars(text, i, end, fill);
+                i = end;
+                
+            } else if (chr >= 0x80 && chr < 0xD800) {
+                
+                // encode character which is always valid as multibyte
+                if (chr > 0x7FF) {
+                    m_buffer[fill++] = (byte)(0xE0 + (chr >> 12));
+                    m_buffer[fill++] = (byte)(0x80 + ((chr >> 6) & 0x3F));
+                    m_buffer[fill++] = (byte)(0x80 + (chr & 0x3F));
                 } else {
-                    m_buffer[fill++] = (byte)chr;
+                    m_buffer[fill++] = (byte)(0xC0 + (chr >> 6));
+                    m_buffer[fill++] = (byte)(0x80 + (chr & 0x3F));
                 }
+                i++;
+                
             } else {
-                if (chr > 0x7F) {
-                    if (chr > 0x7FF) {
-                        if (chr > 0xD7FF && (chr < 0xE000 || chr == 0xFFFE ||
-                            chr == 0xFFFF || chr > 0x10FFFF)) {
-                            throw new IOException("Illegal character code 0x" +
-                                Integer.toHexString(chr) +
-                                " in attribute value text");
-                        } else if (Character.isSupplementaryCodePoint(chr)) {
-                            m_buffer[fill++] = (byte)(0xF0 + ((chr >> 18)));
-                            m_buffer[fill++] = 
-                                (byte)(0x80 + ((chr >> 12) & 0x3F));
-                            m_buffer[fill++] = 
-                                (byte)(0x80 + ((chr >>  6) & 0x3F));
-                            m_buffer[fill++] = (byte)(0x80 + (chr & 0x3F));
-                        } else {
-                            m_buffer[fill++] = (byte)(0xE0 + (chr >> 12));
-                            m_buffer[fill++] =
-                                (byte)(0x80 + ((chr >> 6) & 0x3F));
-                            m_buffer[fill++] = (byte)(0x80 + (chr & 0x3F));
-                        }
+                
+                // handle character needing special treatment
+                int code = text.codePointAt(i);
+                if (code == '"') {
+                    fill = writeEntity(m_quotEntityBytes, fill);
+                } else if (code == '&') {
+                    fill = writeEntity(m_ampEntityBytes, fill);
+                } else if (code == '<') {
+                    fill = writeEntity(m_ltEntityBytes, fill);
+                } else if (code == '>') {
+                    if (i > 1 && text.charAt(i-1) == ']' &&
+                        text.charAt(i-2) == ']') {
+                        fill = writeEntity(m_gtEntityBytes, fill);
                     } else {
-                        m_buffer[fill++] = (byte)(0xC0 + (chr >> 6));
-                        m_buffer[fill++] = (byte)(0x80 + (chr & 0x3F));
+                        m_buffer[fill++] = (byte)'>';
                     }
+                } else if (code < 0x20) {
+                    throw new IOException("Illegal character code 0x" +
+                        Integer.toHexString(code) + " in attribute value text");
+                } else if (code < 0xE000 || code == 0xFFFE || code == 0xFFFF ||
+                    code > 0x10FFFF) {
+                    throw new IOException("Illegal character code 0x" +
+                        Integer.toHexString(code) + " in attribute value text");
                 } else {
-                    m_buffer[fill++] = (byte)chr;
+                    fill = encodeCode(code, fill);
                 }
+                i += Character.charCount(code);
             }
         }
         m_fillOffset = fill;
@@ -255,55 +261,86 @@ public class UTF8StreamWriter extends StreamWriterBase
         final int length = text.length();
         makeSpace(length * 5);
         int fill = m_fillOffset;
-        int chr;
-        for (int i = 0; i < length; i += Character.charCount(chr)) {
-            chr = text.codePointAt(i);
-            if (chr == '&') {
-                fill = writeEntity(m_ampEntityBytes, fill);
-            } else if (chr == '<') {
-                fill = writeEntity(m_ltEntityBytes, fill);
-            } else if (chr == '>' && i > 2 && text.charAt(i-1) == ']' &&
-                text.charAt(i-2) == ']') {
-                fill = writeEntity(m_gtEntityBytes, fill);
-            } else if (chr < 0x20) {
-                if (chr != 0x9 && chr != 0xA && chr != 0xD) {
-                    throw new IOException("Illegal character code 0x" +
-                        Integer.toHexString(chr) + " in content text");
+        int i = 0;
+        while (i < length) {
+            char chr = text.charAt(i);
+            if (chr < 0x80 && TEXT_SAFE_CHARS[chr]) {
+                
+                // copy run of characters not needing escaping or encoding
+                int end = i + 1;
+                while (end < length && (chr = text.charAt(end)) < 0x80 &&
+                    TEXT_SAFE_CHARS[chr]) {
+                    end++;
+                }
+                fill = copyChars(text, i, end, fill);
+                i = end;
+                
+            } else if (chr >= 0x80 && chr < 0xD800) {
+                
+                // encode character which is always valid as multibyte
+                if (chr > 0x7FF) {
+                    m_buffer[fill++] = (byte)(0xE0 + (chr >> 12));
+                    m_buffer[fill++] = (byte)(0x80 + ((chr >> 6) & 0x3F));
+                    m_buffer[fill++] = (byte)(0x80 + (chr & 0x3F));
                 } else {
-                    m_buffer[fill++] = (byte)chr;
+                    m_buffer[fill++] = (byte)(0xC0 + (chr >> 6));
+                    m_buffer[fill++] = (byte)(0x80 + (chr & 0x3F));
                 }
+                i++;
+                
             } else {
-                if (chr > 0x7F) {
-                    if (chr > 0x7FF) {
-                        if (chr > 0xD7FF && (chr < 0xE000 || chr == 0xFFFE ||
-                            chr == 0xFFFF || chr > 0x10FFFF)) {
-                            throw new IOException("Illegal character code 0x" +
-                                Integer.toHexString(chr) + " in content text");
-                        } else if (Character.isSupplementaryCodePoint(chr)) {
-                            m_buffer[fill++] = (byte)(0xF0 + ((chr >> 18)));
-                            m_buffer[fill++] = 
-                                (byte)(0x80 + ((chr >> 12) & 0x3F));
-                            m_buffer[fill++] = 
-                                (byte)(0x80 + ((chr >>  6) & 0x3F));
-                            m_buffer[fill++] = (byte)(0x80 + (chr & 0x3F));
-                        } else {
-                            m_buffer[fill++] = (byte)(0xE0 + (chr >> 12));
-                            m_buffer[fill++] =
-                                (byte)(0x80 + ((chr >> 6) & 0x3F));
-                            m_buffer[fill++] = (byte)(0x80 + (chr & 0x3F));
-                        }
+                
+                // handle character needing special treatment
+                int code = text.codePointAt(i);
+                if (code == '&') {
+                    fill = writeEntity(m_ampEntityBytes, fill);
+                } else if (code == '<') {
+                    fill = writeEntity(m_ltEntityBytes, fill);
+                } else if (code == '>') {
+                    if (i > 1 && text.charAt(i-1) == ']' &&
+                        text.charAt(i-2) == ']') {
+                        fill = writeEntity(m_gtEntityBytes, fill);
                     } else {
-                        m_buffer[fill++] = (byte)(0xC0 + (chr >> 6));
-                        m_buffer[fill++] = (byte)(0x80 + (chr & 0x3F));
+                        m_buffer[fill++] = (byte)'>';
                     }
+                } else if (code < 0x20) {
+                    throw new IOException("Illegal character code 0x" +
+                        Integer.toHexString(code) + " in content text");
+                } else if (code < 0xE000 || code == 0xFFFE || code == 0xFFFF ||
+                    code > 0x10FFFF) {
+                    throw new IOException("Illegal character code 0x" +
+                        Integer.toHexString(code) + " in content text");
                 } else {
-                    m_buffer[fill++] = (byte)chr;
+                    fill = encodeCode(code, fill);
                 }
+                i += Character.charCount(code);
             }
         }
         m_fillOffset = fill;
     }
     
+    /**
+     * Encode a single valid Unicode code point at or above 0xE000. The caller
+     * must first make sure that there's sufficient space in the buffer.
+     *
+     * @param code code point
+     * @param offset starting offset in buffer
+     * @return offset for next data byte in buffer
+     */
+    private int encodeCode(int code, int offset) {
+        if (Character.isSupplementaryCodePoint(code)) {
+            m_buffer[offset++] = (byte)(0xF0 + ((code >> 18)));
+            m_buffer[offset++] = (byte)(0x80 + ((code >> 12) & 0x3F));
+            m_buffer[offset++] = (byte)(0x80 + ((code >>  6) & 0x3F));
+            m_buffer[offset++] = (byte)(0x80 + (code & 0x3F));
+        } else {
+            m_buffer[offset++] = (byte)(0xE0 + (code >> 12));
+            m_buffer[offset++] = (byte)(0x80 + ((code >> 6) & 0x3F));
+            m_buffer[offset++] = (byte)(0x80 + (code & 0x3F));
+        }
+        return offset;
+    }
+    
     /**
      * Write CDATA text to document.
      *
@@ -319,7 +356,7 @@ public class UTF8StreamWriter extends StreamWriterBase
         int chr;
         for (int i = 0; i < length; i += Character.charCount(chr)) {
             chr = text.codePointAt(i);
-            if (chr == '>' && i > 2 && text.charAt(i-1) == ']' &&
+            if (chr == '>' && i > 1 && text.charAt(i-1) == ']' &&
                 text.charAt(i-2) == ']') {
                 throw new IOException("Sequence \"]]>\" is not allowed " +
                     "within CDATA section text");
@@ -28,15 +28,22 @@ SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
 
 package org.jibx.runtime.impl;
 
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
 import java.io.InputStream;
+import java.io.OutputStream;
 import java.io.Reader;
+import java.nio.ByteBuffer;
 import java.util.ArrayList;
 import java.util.Date;
 import java.util.HashMap;
+import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
 
 import org.jibx.runtime.IBindingFactory;
+import org.jibx.runtime.IRuntimeMonitor;
 import org.jibx.runtime.IUnmarshaller;
 import org.jibx.runtime.IUnmarshallingContext;
 import org.jibx.runtime.IXMLReader;
@@ -44,6 +51,7 @@ import org.jibx.runtime.JiBXConstrainedParseException;
 import org.jibx.runtime.JiBXException;
 import org.jibx.runtime.JiBXParseException;
 import org.jibx.runtime.Utility;
+import org.jibx.runtime.WhitespaceConversions;
 
 /**
  * Pull parser wrapper supplying convenience methods for access. Most of
@@ -57,6 +65,9 @@ public class UnmarshallingContext implements IUnmarshallingContext
     /** Starting size for object stack. */
     private static final int INITIAL_STACK_SIZE = 20;
     
+    /** Starting size for content text buffer. */
+    private static final int INITIAL_TEXT_SIZE = 64;
+    
     /** Factory for creating XML readers. */
     private static final IXMLReaderFactory s_readerFactory =
         RuntimeSupport.loadFactory();
@@ -70,6 +81,16 @@ public class UnmarshallingContext implements IUnmarshallingContext
     /** Parser in use. */
     private IXMLReader m_reader;
     
+    /** Stream for file document opened by this context (<code>null</code> if
+     none). */
+    private FileInputStream m_inputFile;
+    
+    /** Holder for start offset and length of character range. */
+    private final int[] m_rangeHolder;
+    
+    /** Buffer for accumulating content text characters. */
+    private char[] m_textChars;
+    
     /** Index past end of last fixed marshaller class. */
     private int m_transientBase;
     
@@ -99,8 +120,10 @@ public class UnmarshallingContext implements IUnmarshallingContext
     /** Names for elements associated with class mappings. */
     protected String[] m_names;
 
-    /** ID maps for finding references. */
-    protected Map[] m_idMaps;
+    /** ID tables for finding references (lazy create, <code>null</code>
+     entries for unused indexes). This replaces the former
+     <code>m_idMaps</code> array of maps. */
+    protected IDTable[] m_idTables;
 
     /** Class names of referenced types (<code>null</code> unless class-specific
      IDs used). */
@@ -121,12 +144,25 @@ public class UnmarshallingContext implements IUnmarshallingContext
      are <code>Integer</code> values if single match, <code>ArrayList</code> if
      multiple matches, giving the mapping index. */
     protected Map m_transientUnmarshalMap;
+    
+    /** Table for finding global mappings by element name (<code>null</code>
+     if not yet initialized, or if the binding factory does not supply one). */
+    private ElementDispatchTable m_dispatchTable;
 
     /** Last IDREF value parsed. */
     protected String m_idref;
     
     /** User context object (not used by JiBX, only for user convenience). */
     protected Object m_userContext;
+    
+    /** Monitor for runtime events. */
+    private IRuntimeMonitor m_monitor;
+    
+    /** Number of IDs defined since last report to monitor. */
+    private int m_idCount;
+    
+    /** Number of ID back-fills since last report to monitor. */
+    private int m_backFillCount;
 
     /**
      * Constructor. Builds the actual parser and initializes internal data
@@ -155,9 +191,12 @@ public class UnmarshallingContext implements IUnmarshallingContext
         System.arraycopy(names, 0, m_names, 0, names.length);
         m_idClasses = idcs;
         int size = idcs == null ? 1 : idcs.length;
-        m_idMaps = new HashMap[size];
+        m_idTables = new IDTable[size];
         m_objectStack = new Object[INITIAL_STACK_SIZE];
+        m_rangeHolder = new int[2];
+        m_textChars = new char[INITIAL_TEXT_SIZE];
         m_factory = ifact;
+        m_monitor = RuntimeSupport.getDefaultMonitor();
         if (ifact != null) {
             m_classIndexMap = ifact.getClassIndexMap();
         } else {
@@ -305,12 +344,23 @@ public class UnmarshallingContext implements IUnmarshallingContext
      */
     public void setDocument(InputStream ins, String name, String enc,
         boolean nsa) throws JiBXException {
-        if (m_reader == null) {
+        closeInputFile();
+        if (s_readerFactory instanceof IMonitoredReaderFactory) {
+            IMonitoredReaderFactory fact =
+                (IMonitoredReaderFactory)s_readerFactory;
+            if (m_reader == null) {
+                m_reader = fact.createReader(ins, name, enc, nsa, m_monitor);
+            } else {
+                m_reader = fact.recycleReader(m_reader, ins, name, enc,
+                    m_monitor);
+            }
+        } else if (m_reader == null) {
             m_reader = s_readerFactory.createReader(ins, name, enc, nsa);
         } else {
             m_reader = s_readerFactory.recycleReader(m_reader, ins, name, enc);
         }
         reset();
+        m_monitor.documentOpened();
     }
 
     /**
@@ -338,12 +388,14 @@ public class UnmarshallingContext implements IUnmarshallingContext
      */
     public void setDocument(Reader rdr, String name, boolean nsa)
         throws JiBXException {
+        closeInputFile();
         if (m_reader == null) {
             m_reader = s_readerFactory.createReader(rdr, name, nsa);
         } else {
             m_reader = s_readerFactory.recycleReader(m_reader, rdr, name);
         }
         reset();
+        m_monitor.documentOpened();
     }
 
     /**
@@ -381,13 +433,210 @@ public class UnmarshallingContext implements IUnmarshallingContext
         setDocument(rdr, name, true);
     }
 
+    /**
+     * Set document to be parsed from buffer. This call is not part of the
+     * interface definition, but is supplied to allow direct control of the
+     * namespace processing by the compiler. The option of disabling namespaces
+     * should be considered experimental and may not be supported in the future.
+     * Buffer documents are always parsed using the {@link UTF8ReaderFactory},
+     * independent of the configured reader factory.
+     *
+     * @param buff buffer containing document data
+     * @param name document name (<code>null</code> if unknown)
+     * @param enc document input encoding, or <code>null</code> if to be
+     * determined by parser
+     * @param nsa enable namespace processing for parser flag
+     * @throws JiBXException if error creating parser
+     */
+    public void setDocument(ByteBuffer buff, String name, String enc,
+        boolean nsa) throws JiBXException {
+        closeInputFile();
+        m_reader = UTF8ReaderFactory.getInstance().
+            recycleReader(getByteReader(nsa), buff, name, enc);
+        reset();
+        m_monitor.documentOpened();
+    }
+
+    /**
+     * Set named document to be parsed from buffer.
+     *
+     * @param buff buffer containing document data
+     * @param name document name (<code>null</code> if unknown)
+     * @param enc document input encoding, or <code>null</code> if to be
+     * determined by parser
+     * @throws JiBXException if error creating parser
+     */
+    public void setDocument(ByteBuffer buff, String name, String enc)
+        throws JiBXException {
+        setDocument(buff, name, enc, true);
+    }
+
+    /**
+     * Set document to be parsed from an input buffer. This is intended for use
+     * with a {@link FeedInByteBuffer}, which allows documents received using
+     * non-blocking I/O to be unmarshalled without a thread ever waiting for
+     * input. Buffer documents are always parsed using the {@link
+     * UTF8ReaderFactory}, independent of the configured reader factory, and
+     * must use an encoding supported by that factory.
+     *
+     * @param buff buffer supplying document data
+     * @param name document name (<code>null</code> if unknown)
+     * @param enc document input encoding, or <code>null</code> if to be
+     * determined by parser
+     * @param nsa enable namespace processing for parser flag
+     * @throws JiBXException if error creating parser
+     */
+    public void setDocument(IInByteBuffer buff, String name, String enc,
+        boolean nsa) throws JiBXException {
+        closeInputFile();
+        m_reader = UTF8ReaderFactory.getInstance().
+            recycleReader(getByteReader(nsa), buff, name, enc);
+        reset();
+        m_monitor.documentOpened();
+    }
+
+    /**
+     * Set named document to be parsed from an input buffer.
+     *
+     * @param buff buffer supplying document data
+     * @param name document name (<code>null</code> if unknown)
+     * @param enc document input encoding, or <code>null</code> if to be
+     * determined by parser
+     * @throws JiBXException if error creating parser
+     */
+    public void setDocument(IInByteBuffer buff, String name, String enc)
+        throws JiBXException {
+        setDocument(buff, name, enc, true);
+    }
+
+    /**
+     * Set document to be parsed from file. This call is not part of the
+     * interface definition, but is supplied to allow direct control of the
+     * namespace processing by the compiler. The option of disabling namespaces
+     * should be considered experimental and may not be supported in the future.
+     * File documents are always parsed using the {@link UTF8ReaderFactory},
+     * independent of the configured reader factory. The file is closed when the
+     * end of the document is reached or a parse error occurs, or otherwise when
+     * the next document is set or the document is cleared.
+     *
+     * @param file document file
+     * @param enc document input encoding, or <code>null</code> if to be
+     * determined by parser
+     * @param nsa enable namespace processing for parser flag
+     * @throws JiBXException if error accessing file or creating parser
+     */
+    public void setDocument(File file, String enc, boolean nsa)
+        throws JiBXException {
+        closeInputFile();
+        FileInputStream fis;
+        try {
+            fis = new FileInputStream(file);
+        } catch (IOException e) {
+            throw new JiBXException("Error opening file " + file.getPath(), e);
+        }
+        boolean opened = false;
+        try {
+            m_reader = UTF8ReaderFactory.getInstance().
+                recycleReader(getByteReader(nsa), fis.getChannel(),
+                file.getPath(), enc);
+            opened = true;
+        } finally {
+            if (opened) {
+                m_inputFile = fis;
+            } else {
+                try {
+                    fis.close();
+                } catch (IOException e) { /* deliberately empty */ }
+            }
+        }
+        reset();
+        m_monitor.documentOpened();
+    }
+
+    /**
+     * Set document to be parsed from file.
+     *
+     * @param file document file
+     * @param enc document input encoding, or <code>null</code> if to be
+     * determined by parser
+     * @throws JiBXException if error accessing file or creating parser
+     */
+    public void setDocument(File file, String enc) throws JiBXException {
+        setDocument(file, enc, true);
+    }
+
+    /**
+     * Get the byte reader to be used for a buffer or file document, with input
+     * reported to the monitor for this context. The current reader is reused if
+     * it's a byte reader; otherwise a new byte reader is created, matching the
+     * namespace handling of the current reader if there is one.
+     *
+     * @param nsa enable namespace processing for parser flag, used only if no
+     * reader has yet been created
+     * @return byte reader
+     */
+    private UTF8StreamReader getByteReader(boolean nsa) {
+        UTF8StreamReader rdr;
+        if (m_reader instanceof UTF8StreamReader) {
+            rdr = (UTF8StreamReader)m_reader;
+        } else {
+            rdr = new UTF8StreamReader(m_reader == null ?
+                nsa : m_reader.isNamespaceAware());
+        }
+        rdr.setMonitor(m_monitor);
+        return rdr;
+    }
+
+    /**
+     * Close the file opened for the current document, if any. This is needed
+     * when a document in an unsupported encoding has been passed on to another
+     * parser, which will not close the file itself.
+     */
+    private void closeInputFile() {
+        if (m_inputFile != null) {
+            try {
+                m_inputFile.close();
+            } catch (IOException e) { /* deliberately empty */ }
+            m_inputFile = null;
+        }
+    }
+
     /**
      * Set input document parse source directly.
      *
      * @param rdr document parse event reader
      */
     public void setDocument(IXMLReader rdr) {
+        closeInputFile();
         m_reader = rdr;
+        m_monitor.documentOpened();
+    }
+
+    /**
+     * Discard the current document. References to the document input are
+     * dropped, so that the stream or buffer supplying the document is not
+     * retained while the context is unused. A reader implementing {@link
+     * IReusableReader} is kept for reuse with the next document, while other
+     * types of readers are discarded. Any file opened for the document is
+     * closed. This must not be called on a context sharing the parser of
+     * another context.
+     */
+    public void clearDocument() {
+        closeInputFile();
+        if (m_reader instanceof IReusableReader) {
+            ((IReusableReader)m_reader).clearDocument();
+        } else {
+            m_reader = null;
+        }
+    }
+
+    /**
+     * Get the parser in use.
+     *
+     * @return reader (<code>null</code> if none)
+     */
+    IXMLReader getReader() {
+        return m_reader;
     }
 
     /**
@@ -408,8 +657,8 @@ public class UnmarshallingContext implements IUnmarshallingContext
      * It is automatically called when input is set.
      */
     public void reset() {
-        for (int i = 0; i < m_idMaps.length; i++) {
-            m_idMaps[i] = null;
+        for (int i = 0; i < m_idTables.length; i++) {
+            m_idTables[i] = null;
         }
         for (int i = 0; i < m_transientUnmarshallerClasses.length; i++) {
             if (m_transientUnmarshallerClasses[i] != null) {
@@ -428,6 +677,8 @@ public class UnmarshallingContext implements IUnmarshallingContext
         }
         m_stackDepth = 0;
         m_userContext = null;
+        m_idCount = 0;
+        m_backFillCount = 0;
     }
 
     /**
@@ -804,7 +1055,8 @@ public class UnmarshallingContext implements IUnmarshallingContext
      */
     public String accumulateText() throws JiBXException {
         String text = null;
-        StringBuffer buff = null;
+        boolean multiple = false;
+        int length = 0;
         loop: while (true) {
             switch (m_reader.getEventType()) {
 
@@ -821,10 +1073,11 @@ public class UnmarshallingContext implements IUnmarshallingContext
                     if (text == null) {
                         text = m_reader.getText();
                     } else {
-                        if (buff == null) {
-                            buff = new StringBuffer(text);
+                        if (!multiple) {
+                            length = appendText(text, 0);
+                            multiple = true;
                         }
-                        buff.append(m_reader.getText());
+                        length = appendText(m_reader.getText(), length);
                     }
                     break;
 
@@ -839,13 +1092,43 @@ public class UnmarshallingContext implements IUnmarshallingContext
             }
             m_reader.nextToken();
         }
-        if (buff == null) {
-            return (text == null) ? "" : text;
+        if (multiple) {
+            return new String(m_textChars, 0, length);
         } else {
-            return buff.toString();
+            return (text == null) ? "" : text;
+        }
+    }
+
+    /**
+     * Make sure there's room in the content text buffer for some number of
+     * characters, growing the buffer if necessary.
+     *
+     * @param length number of characters already in buffer (retained if the
+     * buffer is grown)
+     * @param size total number of characters needed
+     */
+    private void ensureTextChars(int length, int size) {
+        if (size > m_textChars.length) {
+            char[] grow = new char[Math.max(size, m_textChars.length*2)];
+            System.arraycopy(m_textChars, 0, grow, 0, length);
+            m_textChars = grow;
         }
     }
 
+    /**
+     * Append text to the content text buffer.
+     *
+     * @param text text to be appended
+     * @param length number of characters already in buffer
+     * @return number of characters in buffer after append
+     */
+    private int appendText(String text, int length) {
+        int count = text.length();
+        ensureTextChars(length, length + count);
+        text.getChars(0, count, m_textChars, length);
+        return length + count;
+    }
+
     /**
      * Parse required text content. Assumes the parse is already positioned at
      * the text content, so just returns the text.
@@ -872,13 +1155,29 @@ public class UnmarshallingContext implements IUnmarshallingContext
     public String parseContentText(String ns, String tag)
         throws JiBXException {
         String text = accumulateText();
+        parsePastContentEnd(ns, tag);
+        return text;
+    }
+
+    /**
+     * Parse past the end tag following text content. Assumes the parse is
+     * positioned following the content, so the current event should be the end
+     * tag of the element.
+     *
+     * @param ns namespace URI for expected element (may be <code>null</code>
+     * or the empty string for the empty namespace)
+     * @param tag element name expected
+     * @throws JiBXException if not at the expected end tag
+     */
+    private void parsePastContentEnd(String ns, String tag)
+        throws JiBXException {
         switch (m_reader.getEventType()) {
 
             case IXMLReader.END_TAG:
                 if (m_reader.getName().equals(tag) &&
                     verifyNamespace(ns)) {
                     m_reader.nextToken();
-                    return text;
+                    return;
                 } else {
                     throwEndTagNameError(ns, tag);
                 }
@@ -895,7 +1194,261 @@ public class UnmarshallingContext implements IUnmarshallingContext
                     "found end of document " + buildPositionString());
 
         }
-        return null;
+    }
+
+    /**
+     * Accumulate text content as characters. This is equivalent to {@link
+     * #accumulateText()}, but collects the content in a buffer owned by this
+     * context rather than creating a string. Whitespace handling is applied as
+     * the text is copied out of the parser. The range of the accumulated text
+     * is set in the range holder.
+     *
+     * @param ws whitespace handling code (as defined by {@link
+     * WhitespaceConversions})
+     * @return buffer containing accumulated text
+     * @throws JiBXException on error in unmarshalling
+     */
+    private char[] accumulateChars(int ws) throws JiBXException {
+        int length = 0;
+        loop: while (true) {
+            switch (m_reader.getEventType()) {
+
+                case IXMLReader.ENTITY_REF:
+                    if (m_reader.getText() == null) {
+                        throw new JiBXException
+                            ("Unexpanded entity reference in text at " +
+                            buildPositionString());
+                    }
+                    // fall through into text accumulation
+
+                case IXMLReader.CDSECT:
+                case IXMLReader.TEXT:
+                    char[] chars = m_reader.getTextCharacters(m_rangeHolder);
+                    if (chars != null) {
+                        int count = m_rangeHolder[1];
+                        ensureTextChars(length, length + count);
+                        length = WhitespaceConversions.appendNormalized(ws,
+                            chars, m_rangeHolder[0], count, m_textChars,
+                            length);
+                    }
+                    break;
+
+                case IXMLReader.END_TAG:
+                case IXMLReader.START_TAG:
+                case IXMLReader.END_DOCUMENT:
+                    break loop;
+
+                default:
+                    break;
+
+            }
+            m_reader.nextToken();
+        }
+        m_rangeHolder[0] = 0;
+        m_rangeHolder[1] =
+            WhitespaceConversions.finishNormalized(ws, m_textChars, length);
+        return m_textChars;
+    }
+
+    /**
+     * Parse past end of element, returning text content as characters. This is
+     * equivalent to {@link #parseContentText(String, String)}, but avoids
+     * creating a string. The range of the text is set in the range holder.
+     *
+     * @param ns namespace URI for expected element (may be <code>null</code>
+     * or the empty string for the empty namespace)
+     * @param tag element name expected
+     * @return buffer containing content text
+     * @throws JiBXException on any error (possible wrapping other exception)
+     */
+    private char[] parseContentChars(String ns, String tag)
+        throws JiBXException {
+        char[] chars = accumulateChars(WhitespaceConversions.PRESERVE);
+        parsePastContentEnd(ns, tag);
+        return chars;
+    }
+
+    /**
+     * Decode base64 text content. This passes the text from each parse event
+     * directly to the decoder, so that the content never needs to be combined
+     * into a single string. Returns with the parser positioned at the event
+     * following the text content.
+     *
+     * @param decoder base64 decoder
+     * @throws JiBXException on error in unmarshalling or decoding
+     */
+    private void decodeBase64(Base64Decoder decoder) throws JiBXException {
+        try {
+            loop: while (true) {
+                switch (m_reader.getEventType()) {
+
+                    case IXMLReader.ENTITY_REF:
+                        if (m_reader.getText() == null) {
+                            throw new JiBXException
+                                ("Unexpanded entity reference in text at " +
+                                buildPositionString());
+                        }
+                        // fall through into text decoding
+
+                    case IXMLReader.CDSECT:
+                    case IXMLReader.TEXT:
+                        char[] chars = m_reader.getTextCharacters(m_rangeHolder);
+                        if (chars != null) {
+                            decoder.decode(chars, m_rangeHolder[0],
+                                m_rangeHolder[1]);
+                        }
+                        break;
+
+                    case IXMLReader.END_TAG:
+                    case IXMLReader.START_TAG:
+                    case IXMLReader.END_DOCUMENT:
+                        break loop;
+
+                    default:
+                        break;
+
+                }
+                m_reader.nextToken();
+            }
+            decoder.finish();
+        } catch (JiBXException ex) {
+            throw new JiBXException(ex.getMessage() + ' ' +
+                buildPositionString(), ex.getRootCause());
+        }
+    }
+
+    /**
+     * Parse past end of element, returning binary content decoded from base64
+     * text. Assumes you've already parsed past the start tag of the element,
+     * so it just looks for text content followed by the end tag, and returns
+     * with the parser positioned after the end tag.
+     *
+     * @param ns namespace URI for expected element (may be <code>null</code>
+     * or the empty string for the empty namespace)
+     * @param tag element name expected
+     * @return decoded binary data
+     * @throws JiBXException on any error (possible wrapping other exception)
+     */
+    public byte[] parseContentBase64(String ns, String tag)
+        throws JiBXException {
+        Base64Decoder decoder = new Base64Decoder(0);
+        decodeBase64(decoder);
+        parsePastContentEnd(ns, tag);
+        return decoder.getBytes();
+    }
+
+    /**
+     * Parse past end of element, writing binary content decoded from base64
+     * text to a stream. Assumes you've already parsed past the start tag of
+     * the element, so it just looks for text content followed by the end tag,
+     * and returns with the parser positioned after the end tag. The decoded
+     * data is written to the stream as the text is parsed, so the content is
+     * never held in memory in full.
+     *
+     * @param ns namespace URI for expected element (may be <code>null</code>
+     * or the empty string for the empty namespace)
+     * @param tag element name expected
+     * @param out destination for decoded binary data (not closed by this
+     * method)
+     * @throws JiBXException on any error (possible wrapping other exception)
+     */
+    public void parseContentBase64(String ns, String tag, OutputStream out)
+        throws JiBXException {
+        decodeBase64(new Base64Decoder(out));
+        parsePastContentEnd(ns, tag);
+    }
+
+    /**
+     * Parse entire element, returning binary content decoded from base64 text.
+     * Expects to find the element start tag, text content, and end tag, in
+     * that order, and returns with the parser positioned following the end
+     * tag.
+     *
+     * @param ns namespace URI for expected element (may be <code>null</code>
+     * or the empty string for the empty namespace)
+     * @param tag element name expected
+     * @return decoded binary data
+     * @throws JiBXException on any error (possible wrapping other exception)
+     */
+    public byte[] parseElementBase64(String ns, String tag)
+        throws JiBXException {
+        parsePastStartTag(ns, tag);
+        return parseContentBase64(ns, tag);
+    }
+
+    /**
+     * Parse entire element, writing binary content decoded from base64 text to
+     * a stream. Expects to find the element start tag, text content, and end
+     * tag, in that order, and returns with the parser positioned following the
+     * end tag.
+     *
+     * @param ns namespace URI for expected element (may be <code>null</code>
+     * or the empty string for the empty namespace)
+     * @param tag element name expected
+     * @param out destination for decoded binary data (not closed by this
+     * method)
+     * @throws JiBXException on any error (possible wrapping other exception)
+     */
+    public void parseElementBase64(String ns, String tag, OutputStream out)
+        throws JiBXException {
+        parsePastStartTag(ns, tag);
+        parseContentBase64(ns, tag, out);
+    }
+
+    /**
+     * Get attribute value from current start tag as characters. The range of
+     * the value is set in the range holder.
+     *
+     * @param ns namespace URI for expected attribute (may be <code>null</code>
+     * or the empty string for the empty namespace)
+     * @param name attribute name expected
+     * @return array containing value characters, or <code>null</code> if
+     * attribute not present
+     */
+    private char[] optionalAttributeChars(String ns, String name) {
+        int index = m_reader.getAttributeIndex(ns, name);
+        if (index < 0) {
+            return null;
+        } else {
+            return m_reader.getAttributeCharacters(index, m_rangeHolder);
+        }
+    }
+
+    /**
+     * Get required attribute value from current start tag as characters. The
+     * range of the value is set in the range holder.
+     *
+     * @param ns namespace URI for expected attribute (may be <code>null</code>
+     * or the empty string for the empty namespace)
+     * @param name attribute name expected
+     * @return array containing value characters
+     * @throws JiBXException if attribute not present
+     */
+    private char[] attributeChars(String ns, String name)
+        throws JiBXException {
+        char[] chars = optionalAttributeChars(ns, name);
+        if (chars == null) {
+            throw new JiBXException("Missing required attribute " +
+                buildNameString(ns, name) + " " + buildPositionString());
+        } else {
+            return chars;
+        }
+    }
+
+    /**
+     * Build parse exception for a value in a character range. This creates the
+     * text of the value only when an error occurs.
+     *
+     * @param ex exception thrown by conversion
+     * @param chars array containing value characters, with range given by the
+     * range holder
+     * @return parse exception
+     */
+    private JiBXParseException buildRangeException(JiBXException ex,
+        char[] chars) {
+        String text = new String(chars, m_rangeHolder[0], m_rangeHolder[1]);
+        return new JiBXParseException(ex.getMessage() + ' ' +
+            buildPositionString(), text, ex.getRootCause());
     }
 
     /**
@@ -910,12 +1463,28 @@ public class UnmarshallingContext implements IUnmarshallingContext
      * @throws JiBXException on any error (possible wrapping other exception)
      */
     public int parseContentInt(String ns, String tag) throws JiBXException {
-        String text = parseContentText(ns, tag);
         try {
-            return Utility.parseInt(text);
+            return convertInt(parseContentChars(ns, tag));
+        } catch (JiBXParseException e) {
+            e.setNamespace(ns);
+            e.setTagName(tag);
+            throw e;
+        }
+    }
+
+    /**
+     * Convert integer value from characters. The range of the value is given
+     * by the range holder.
+     *
+     * @param chars array containing value characters
+     * @return converted integer value
+     * @throws JiBXException if not a valid integer value
+     */
+    private int convertInt(char[] chars) throws JiBXException {
+        try {
+            return Utility.parseInt(chars, m_rangeHolder[0], m_rangeHolder[1]);
         } catch (JiBXException ex) {
-            throw new JiBXParseException(ex.getMessage() + ' ' +
-                buildPositionString(), text, ns, tag, ex.getRootCause());
+            throw buildRangeException(ex, chars);
         }
     }
 
@@ -999,6 +1568,148 @@ public class UnmarshallingContext implements IUnmarshallingContext
         }
     }
 
+    /**
+     * Parse past end of element, returning text content with whitespace
+     * handling applied. This gives the same result as applying the matching
+     * {@link WhitespaceConversions} method to the text returned by {@link
+     * #parseContentText(String, String)}, but normalizes the text as it is
+     * copied out of the parser so that only the final string is created.
+     *
+     * @param ns namespace URI for expected element (may be <code>null</code>
+     * or the empty string for the empty namespace)
+     * @param tag element name expected
+     * @param ws whitespace handling code (as defined by {@link
+     * WhitespaceConversions})
+     * @return normalized content text from element
+     * @throws JiBXException on any error (possible wrapping other exception)
+     */
+    public String parseContentText(String ns, String tag, int ws)
+        throws JiBXException {
+        if (ws == WhitespaceConversions.PRESERVE) {
+            return parseContentText(ns, tag);
+        } else {
+            char[] chars = accumulateChars(ws);
+            parsePastContentEnd(ns, tag);
+            return new String(chars, 0, m_rangeHolder[1]);
+        }
+    }
+
+    /**
+     * Parse entire element, returning text content with whitespace handling
+     * applied. This is equivalent to {@link #parseElementText(String, String)}
+     * followed by the whitespace conversion, without creating an intermediate
+     * string.
+     *
+     * @param ns namespace URI for expected element (may be <code>null</code>
+     * or the empty string for the empty namespace)
+     * @param tag element name expected
+     * @param ws whitespace handling code (as defined by {@link
+     * WhitespaceConversions})
+     * @return normalized content text from element
+     * @throws JiBXException on any error (possible wrapping other exception)
+     */
+    public String parseElementText(String ns, String tag, int ws)
+        throws JiBXException {
+        parsePastStartTag(ns, tag);
+        return parseContentText(ns, tag, ws);
+    }
+
+    /**
+     * Parse entire element, returning optional text content with whitespace
+     * handling applied. This is equivalent to {@link
+     * #parseElementText(String, String, String)} followed by the whitespace
+     * conversion, without creating an intermediate string. The default text
+     * is returned unchanged, so should already be in normalized form.
+     *
+     * @param ns namespace URI for expected element (may be <code>null</code>
+     * or the empty string for the empty namespace)
+     * @param tag element name expected
+     * @param dflt default text value
+     * @param ws whitespace handling code (as defined by {@link
+     * WhitespaceConversions})
+     * @return normalized content text from element
+     * @throws JiBXException on any error (possible wrapping other exception)
+     */
+    public String parseElementText(String ns, String tag, String dflt, int ws)
+        throws JiBXException {
+        if (parseIfStartTag(ns, tag)) {
+            return parseContentText(ns, tag, ws);
+        } else {
+            return dflt;
+        }
+    }
+
+    /**
+     * Build string from characters with whitespace handling applied. The range
+     * of the characters is given by the range holder.
+     *
+     * @param chars array containing value characters
+     * @param ws whitespace handling code (as defined by {@link
+     * WhitespaceConversions})
+     * @return normalized text
+     */
+    private String normalizeChars(char[] chars, int ws) {
+        int count = m_rangeHolder[1];
+        ensureTextChars(0, count);
+        int length = WhitespaceConversions.appendNormalized(ws, chars,
+            m_rangeHolder[0], count, m_textChars, 0);
+        length = WhitespaceConversions.finishNormalized(ws, m_textChars, length);
+        return new String(m_textChars, 0, length);
+    }
+
+    /**
+     * Get text value of attribute from current start tag with whitespace
+     * handling applied. This is equivalent to {@link #attributeText(String,
+     * String)} followed by the whitespace conversion, but normalizes the value
+     * as it is copied out of the parser. Throws an exception if the attribute
+     * value is not found in the start tag.
+     *
+     * @param ns namespace URI for expected attribute (may be <code>null</code>
+     * or the empty string for the empty namespace)
+     * @param name attribute name expected
+     * @param ws whitespace handling code (as defined by {@link
+     * WhitespaceConversions})
+     * @return normalized attribute value text
+     * @throws JiBXException if attribute not present
+     */
+    public String attributeText(String ns, String name, int ws)
+        throws JiBXException {
+        if (ws == WhitespaceConversions.PRESERVE) {
+            return attributeText(ns, name);
+        } else {
+            return normalizeChars(attributeChars(ns, name), ws);
+        }
+    }
+
+    /**
+     * Get text value of optional attribute from current start tag with
+     * whitespace handling applied. This is equivalent to {@link
+     * #attributeText(String, String, String)} followed by the whitespace
+     * conversion, but normalizes the value as it is copied out of the parser.
+     * The default text is returned unchanged, so should already be in
+     * normalized form.
+     *
+     * @param ns namespace URI for expected attribute (may be <code>null</code>
+     * or the empty string for the empty namespace)
+     * @param name attribute name expected
+     * @param dflt value to be returned if attribute is not present
+     * @param ws whitespace handling code (as defined by {@link
+     * WhitespaceConversions})
+     * @return normalized attribute value text
+     */
+    public String attributeText(String ns, String name, String dflt, int ws) {
+        if (ws == WhitespaceConversions.PRESERVE) {
+            return attributeText(ns, name, dflt);
+        } else {
+            char[] chars = optionalAttributeChars(ns, name);
+            if (chars == null) {
+                return dflt;
+            } else {
+                return normalizeChars(chars, ws);
+            }
+        }
+    }
+
     /**
      * Find the object corresponding to an ID. This method just handles the
      * lookup and checks the object type.
@@ -1010,10 +1721,10 @@ public class UnmarshallingContext implements IUnmarshallingContext
      * @throws JiBXException on any error
      */
     public Object findID(String id, int index) throws JiBXException {
-        Map map = m_idMaps[index];
-        if (map != null) {
-            Object obj = map.get(id);
-            if (obj == null || obj instanceof BackFillHolder) {
+        IDTable table = m_idTables[index];
+        if (table != null) {
+            Object obj = table.get(id);
+            if (obj == null) {
                 return null;
             } else if (m_idClasses == null ||
                 m_idClasses[index].equals(obj.getClass().getName())) {
@@ -1135,12 +1846,12 @@ public class UnmarshallingContext implements IUnmarshallingContext
      * value
      */
     public int attributeInt(String ns, String name) throws JiBXException {
-        String text = attributeText(ns, name);
         try {
-            return Utility.parseInt(text);
-        } catch (JiBXException ex) {
-            throw new JiBXParseException(ex.getMessage() + ' ' +
-                buildPositionString(), text, ns, name, ex.getRootCause());
+            return convertInt(attributeChars(ns, name));
+        } catch (JiBXParseException e) {
+            e.setNamespace(ns);
+            e.setTagName(name);
+            throw e;
         }
     }
 
@@ -1158,15 +1869,16 @@ public class UnmarshallingContext implements IUnmarshallingContext
      */
     public int attributeInt(String ns, String name, int dflt)
         throws JiBXException {
-        String value = getAttributeValue(ns, name);
-        if (value == null) {
+        char[] chars = optionalAttributeChars(ns, name);
+        if (chars == null) {
             return dflt;
         } else {
             try {
-                return Utility.parseInt(value);
-            } catch (JiBXException ex) {
-                throw new JiBXParseException(ex.getMessage() + ' ' +
-                    buildPositionString(), value, ns, name, ex.getRootCause());
+                return convertInt(chars);
+            } catch (JiBXParseException e) {
+                e.setNamespace(ns);
+                e.setTagName(name);
+                throw e;
             }
         }
     }
@@ -1390,6 +2102,22 @@ public class UnmarshallingContext implements IUnmarshallingContext
         }
     }
 
+    /**
+     * Convert byte value from characters. The range of the value is given by
+     * the range holder.
+     *
+     * @param chars array containing value characters
+     * @return converted byte value
+     * @throws JiBXException if not a valid byte value
+     */
+    private byte convertByte(char[] chars) throws JiBXException {
+        try {
+            return Utility.parseByte(chars, m_rangeHolder[0], m_rangeHolder[1]);
+        } catch (JiBXException ex) {
+            throw buildRangeException(ex, chars);
+        }
+    }
+
     /**
      * Get byte value of attribute from current start tag. Throws an exception
      * if the attribute is not found in the start tag, or if it is not a valid
@@ -1403,7 +2131,7 @@ public class UnmarshallingContext implements IUnmarshallingContext
      */
     public byte attributeByte(String ns, String name) throws JiBXException {
     	try {
-    		return convertByte(attributeText(ns, name));
+    		return convertByte(attributeChars(ns, name));
     	} catch (JiBXParseException e) {
     		e.setNamespace(ns);
     		e.setTagName(name);
@@ -1424,12 +2152,12 @@ public class UnmarshallingContext implements IUnmarshallingContext
      */
     public byte attributeByte(String ns, String name, byte dflt)
         throws JiBXException {
-        String text = getAttributeValue(ns, name);
-        if (text == null) {
+        char[] chars = optionalAttributeChars(ns, name);
+        if (chars == null) {
             return dflt;
         } else {
         	try {
-        		return convertByte(text);
+        		return convertByte(chars);
         	} catch (JiBXParseException e) {
         		e.setNamespace(ns);
         		e.setTagName(name);
@@ -1452,7 +2180,7 @@ public class UnmarshallingContext implements IUnmarshallingContext
      */
     public byte parseContentByte(String ns, String tag) throws JiBXException {
     	try {
-    		return convertByte(parseContentText(ns, tag));
+    		return convertByte(parseContentChars(ns, tag));
     	} catch (JiBXParseException e) {
     		e.setNamespace(ns);
     		e.setTagName(tag);
@@ -1494,7 +2222,7 @@ public class UnmarshallingContext implements IUnmarshallingContext
         throws JiBXException {
         if (parseIfStartTag(ns, tag)) {
         	try {
-        		return convertByte(parseContentText(ns, tag));
+        		return convertByte(parseContentChars(ns, tag));
         	} catch (JiBXParseException e) {
         		e.setNamespace(ns);
         		e.setTagName(tag);
@@ -1523,6 +2251,22 @@ public class UnmarshallingContext implements IUnmarshallingContext
         }
     }
 
+    /**
+     * Convert short value from characters. The range of the value is given by
+     * the range holder.
+     *
+     * @param chars array containing value characters
+     * @return converted short value
+     * @throws JiBXException if not a valid short value
+     */
+    private short convertShort(char[] chars) throws JiBXException {
+        try {
+            return Utility.parseShort(chars, m_rangeHolder[0], m_rangeHolder[1]);
+        } catch (JiBXException ex) {
+            throw buildRangeException(ex, chars);
+        }
+    }
+
     /**
      * Get short value of attribute from current start tag. Throws an exception
      * if the attribute is not found in the start tag, or if it is not a valid
@@ -1536,7 +2280,7 @@ public class UnmarshallingContext implements IUnmarshallingContext
      */
     public short attributeShort(String ns, String name) throws JiBXException {
     	try	{
-    		return convertShort(attributeText(ns, name));
+    		return convertShort(attributeChars(ns, name));
     	} catch (JiBXParseException e) {
     		e.setNamespace(ns);
     		e.setTagName(name);
@@ -1557,12 +2301,12 @@ public class UnmarshallingContext implements IUnmarshallingContext
      */
     public short attributeShort(String ns, String name, short dflt)
         throws JiBXException {
-        String text = getAttributeValue(ns, name);
-        if (text == null) {
+        char[] chars = optionalAttributeChars(ns, name);
+        if (chars == null) {
             return dflt;
         } else {
         	try {
-        		return convertShort(text);
+        		return convertShort(chars);
         	} catch (JiBXParseException e) {
         		e.setNamespace(ns);
         		e.setTagName(name);
@@ -1585,7 +2329,7 @@ public class UnmarshallingContext implements IUnmarshallingContext
      */
     public short parseContentShort(String ns, String tag) throws JiBXException {
     	try {
-    		return convertShort(parseContentText(ns, tag));
+    		return convertShort(parseContentChars(ns, tag));
     	} catch (JiBXParseException e) {
     		e.setNamespace(ns);
     		e.setTagName(tag);
@@ -1633,7 +2377,7 @@ public class UnmarshallingContext implements IUnmarshallingContext
         throws JiBXException {
         if (parseIfStartTag(ns, tag)) {
         	try {
-        		return convertShort(parseContentText(ns, tag));
+        		return convertShort(parseContentChars(ns, tag));
         	} catch (JiBXParseException e) {
         		e.setNamespace(ns);
         		e.setTagName(tag);
@@ -1662,6 +2406,22 @@ public class UnmarshallingContext implements IUnmarshallingContext
         }
     }
 
+    /**
+     * Convert char value from characters. The range of the value is given by
+     * the range holder.
+     *
+     * @param chars array containing value characters
+     * @return converted char value
+     * @throws JiBXException if not a valid char value
+     */
+    private char convertChar(char[] chars) throws JiBXException {
+        try {
+            return Utility.parseChar(chars, m_rangeHolder[0], m_rangeHolder[1]);
+        } catch (JiBXException ex) {
+            throw buildRangeException(ex, chars);
+        }
+    }
+
     /**
      * Get char value of attribute from current start tag. Throws an exception
      * if the attribute is not found in the start tag, or if it is not a valid
@@ -1675,7 +2435,7 @@ public class UnmarshallingContext implements IUnmarshallingContext
      */
     public char attributeChar(String ns, String name) throws JiBXException {
     	try {
-    		return convertChar(attributeText(ns, name));
+    		return convertChar(attributeChars(ns, name));
     	} catch (JiBXParseException e) {
     		e.setNamespace(ns);
     		e.setTagName(name);
@@ -1696,12 +2456,12 @@ public class UnmarshallingContext implements IUnmarshallingContext
      */
     public char attributeChar(String ns, String name, char dflt)
         throws JiBXException {
-        String text = getAttributeValue(ns, name);
-        if (text == null) {
+        char[] chars = optionalAttributeChars(ns, name);
+        if (chars == null) {
             return dflt;
         } else {
         	try {
-        		return convertChar(text);
+        		return convertChar(chars);
         	} catch (JiBXParseException e) {
         		e.setNamespace(ns);
         		e.setTagName(name);
@@ -1724,7 +2484,7 @@ public class UnmarshallingContext implements IUnmarshallingContext
      */
     public char parseContentChar(String ns, String tag) throws JiBXException {
     	try {
-    		return convertChar(parseContentText(ns, tag));
+    		return convertChar(parseContentChars(ns, tag));
     	} catch (JiBXParseException e) {
     		e.setNamespace(ns);
     		e.setTagName(tag);
@@ -1772,7 +2532,7 @@ public class UnmarshallingContext implements IUnmarshallingContext
         throws JiBXException {
         if (parseIfStartTag(ns, tag)) {
         	try {
-        		return convertChar(parseContentText(ns, tag));
+        		return convertChar(parseContentChars(ns, tag));
         	} catch (JiBXParseException e) {
         		e.setNamespace(ns);
         		e.setTagName(tag);
@@ -1801,6 +2561,22 @@ public class UnmarshallingContext implements IUnmarshallingContext
         }
     }
 
+    /**
+     * Convert long value from characters. The range of the value is given by
+     * the range holder.
+     *
+     * @param chars array containing value characters
+     * @return converted long value
+     * @throws JiBXException if not a valid long value
+     */
+    private long convertLong(char[] chars) throws JiBXException {
+        try {
+            return Utility.parseLong(chars, m_rangeHolder[0], m_rangeHolder[1]);
+        } catch (JiBXException ex) {
+            throw buildRangeException(ex, chars);
+        }
+    }
+
     /**
      * Get long value of attribute from current start tag. Throws an exception
      * if the attribute is not found in the start tag, or if it is not a valid
@@ -1814,7 +2590,7 @@ public class UnmarshallingContext implements IUnmarshallingContext
      */
     public long attributeLong(String ns, String name) throws JiBXException {
     	try {
-    		return convertLong(attributeText(ns, name));
+    		return convertLong(attributeChars(ns, name));
     	} catch (JiBXParseException e) {
     		e.setNamespace(ns);
     		e.setTagName(name);
@@ -1835,12 +2611,12 @@ public class UnmarshallingContext implements IUnmarshallingContext
      */
     public long attributeLong(String ns, String name, long dflt)
         throws JiBXException {
-        String text = getAttributeValue(ns, name);
-        if (text == null) {
+        char[] chars = optionalAttributeChars(ns, name);
+        if (chars == null) {
             return dflt;
         } else {
         	try {
-        		return convertLong(text);
+        		return convertLong(chars);
         	} catch (JiBXParseException e) {
         		e.setNamespace(ns);
         		e.setTagName(name);
@@ -1864,7 +2640,7 @@ public class UnmarshallingContext implements IUnmarshallingContext
     public long parseElementLong(String ns, String tag) throws JiBXException {
         parsePastStartTag(ns, tag);
         try {
-        	return convertLong(parseContentText(ns, tag));
+        	return convertLong(parseContentChars(ns, tag));
     	} catch (JiBXParseException e) {
     		e.setNamespace(ns);
     		e.setTagName(tag);
@@ -1889,7 +2665,7 @@ public class UnmarshallingContext implements IUnmarshallingContext
         throws JiBXException {
         if (parseIfStartTag(ns, tag)) {
         	try {
-        		return convertLong(parseContentText(ns, tag));
+        		return convertLong(parseContentChars(ns, tag));
         	} catch (JiBXParseException e) {
         		e.setNamespace(ns);
         		e.setTagName(tag);
@@ -1919,6 +2695,58 @@ public class UnmarshallingContext implements IUnmarshallingContext
             buildPositionString(), text);
     }
 
+    /**
+     * Check if a range of characters matches text, ignoring case.
+     *
+     * @param match text to be matched
+     * @param chars array containing characters
+     * @param offset starting offset in array
+     * @param length number of characters
+     * @return <code>true</code> if match, <code>false</code> if not
+     */
+    private static boolean matchesIgnoreCase(String match, char[] chars,
+        int offset, int length) {
+        if (match.length() != length) {
+            return false;
+        }
+        for (int i = 0; i < length; i++) {
+            char chr = chars[offset + i];
+            if (chr != match.charAt(i) && Character.toLowerCase(chr) !=
+                match.charAt(i)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Convert boolean value from characters. This is equivalent to {@link
+     * #convertBoolean(String)}, with the range of the value given by the range
+     * holder.
+     *
+     * @param chars array containing value characters
+     * @return converted boolean value
+     * @throws JiBXException if not a valid boolean value
+     */
+    private boolean convertBoolean(char[] chars) throws JiBXException {
+        int offset = m_rangeHolder[0];
+        int length = m_rangeHolder[1];
+        if (length == 1) {
+            char chr = chars[offset];
+            if (chr == '1') {
+                return true;
+            } else if (chr == '0') {
+                return false;
+            }
+        } else if (matchesIgnoreCase("true", chars, offset, length)) {
+            return true;
+        } else if (matchesIgnoreCase("false", chars, offset, length)) {
+            return false;
+        }
+        throw new JiBXParseException("Invalid boolean value " +
+            buildPositionString(), new String(chars, offset, length));
+    }
+
     /**
      * Get boolean value of attribute from current start tag. Throws an
      * exception if the attribute is not found in the start tag, or if it is
@@ -1934,7 +2762,7 @@ public class UnmarshallingContext implements IUnmarshallingContext
     public boolean attributeBoolean(String ns, String name) 
         throws JiBXException {
     	try    	{
-    		return convertBoolean(attributeText(ns, name));
+    		return convertBoolean(attributeChars(ns, name));
     	} catch (JiBXParseException e)	{
     		e.setNamespace(ns);
     		e.setTagName(name);
@@ -1955,12 +2783,12 @@ public class UnmarshallingContext implements IUnmarshallingContext
      */
     public boolean attributeBoolean(String ns, String name, boolean dflt)
         throws JiBXException {
-        String text = getAttributeValue(ns, name);
-        if (text == null) {
+        char[] chars = optionalAttributeChars(ns, name);
+        if (chars == null) {
             return dflt;
         } else {
         	try	{
-        		return convertBoolean(text);
+        		return convertBoolean(chars);
         	} catch (JiBXParseException e)	{
         		e.setNamespace(ns);
         		e.setTagName(name);
@@ -1985,7 +2813,7 @@ public class UnmarshallingContext implements IUnmarshallingContext
         throws JiBXException {
         parsePastStartTag(ns, tag);
         try	{
-        	return convertBoolean(parseContentText(ns, tag));
+        	return convertBoolean(parseContentChars(ns, tag));
         } catch (JiBXParseException e)	{
         	e.setNamespace(ns);
         	e.setTagName(tag);
@@ -2010,7 +2838,7 @@ public class UnmarshallingContext implements IUnmarshallingContext
         throws JiBXException {
         if (parseIfStartTag(ns, tag)) {
         	try	{
-        		return convertBoolean(parseContentText(ns, tag));
+        		return convertBoolean(parseContentChars(ns, tag));
         	} catch (JiBXParseException e)	{
         		e.setNamespace(ns);
         		e.setTagName(tag);
@@ -2378,9 +3206,23 @@ public class UnmarshallingContext implements IUnmarshallingContext
     }
 
     /**
-     * Register back fill item for undefined ID value. This adds a holder to
-     * the mapping table if not already present, then adds the back fill item
-     * to the holder.
+     * Get table of IDs for index, creating it if necessary.
+     *
+     * @param index ID class index number
+     * @return table
+     */
+    private IDTable getIDTable(int index) {
+        IDTable table = m_idTables[index];
+        if (table == null) {
+            String xclass = (m_idClasses == null) ? null : m_idClasses[index];
+            m_idTables[index] = table = new IDTable(xclass);
+        }
+        return table;
+    }
+
+    /**
+     * Register back fill item for undefined ID value. This records the back
+     * fill item in the ID table, to be processed when the ID is defined.
      *
      * @param id target undefined ID value
      * @param index target reference type index
@@ -2389,19 +3231,7 @@ public class UnmarshallingContext implements IUnmarshallingContext
      */
     public void registerBackFill(String id, int index, BackFillReference fill)
         throws JiBXException {
-        Map map = m_idMaps[index];
-        if (map == null) {
-            m_idMaps[index] = map = new HashMap();
-        }
-        Object obj = map.get(id);
-        if (obj == null) {
-            String xclass = (m_idClasses == null) ? null : m_idClasses[index];
-            BackFillHolder holder = new BackFillHolder(xclass);
-            map.put(id, holder);
-            holder.addBackFill(fill);
-        } else if (obj instanceof BackFillHolder) {
-            ((BackFillHolder)obj).addBackFill(fill);
-        } else {
+        if (!getIDTable(index).addBackFill(id, fill)) {
             throw new JiBXException
                 ("Internal operation error (back fill error) " +
                 buildPositionString());
@@ -2409,10 +3239,10 @@ public class UnmarshallingContext implements IUnmarshallingContext
     }
 
     /**
-     * Register back fill item for last parsed ID value. This adds a holder to
-     * the mapping table if not already present, then adds the back fill item
-     * to the holder. This form of call always applies to the last IDREF value
-     * parsed (from either an element or an attribute).
+     * Register back fill item for last parsed ID value. This records the back
+     * fill item in the ID table, to be processed when the ID is defined. This
+     * form of call always applies to the last IDREF value parsed (from either
+     * an element or an attribute).
      *
      * @param index target reference type index
      * @param fill back fill item
@@ -2424,7 +3254,7 @@ public class UnmarshallingContext implements IUnmarshallingContext
     }
 
     /**
-     * Define object for ID. Adds the owning object to a map with the ID
+     * Define object for ID. Adds the owning object to the ID table with the ID
      * value as key. Throws an exception if the object class does not match
      * that expected from forward references, or if another object has
      * previously been registered with the same ID.
@@ -2436,23 +3266,16 @@ public class UnmarshallingContext implements IUnmarshallingContext
      */
     public void defineID(String id, int index, Object obj)
         throws JiBXException {
-        Map map = m_idMaps[index];
-        if (map == null) {
-            m_idMaps[index] = map = new HashMap();
-        }
-        Object prior = map.put(id, obj);
-        if (prior instanceof BackFillHolder) {
-            BackFillHolder holder = (BackFillHolder)prior;
-            String xclass = holder.getExpectedClass();
-            if (xclass == null || xclass.equals(obj.getClass().getName())) {
-                holder.defineValue(obj);
-            } else {
-                throw new JiBXException("ID object has wrong type " +
-                    buildPositionString());
-            }
-        } else if (prior != null) {
+        int result = getIDTable(index).define(id, obj);
+        if (result == IDTable.WRONG_TYPE) {
+            throw new JiBXException("ID object has wrong type " +
+                buildPositionString());
+        } else if (result == IDTable.DUPLICATE_ID) {
             throw new JiBXException("Duplicate ID definition " +
                 buildPositionString());
+        } else {
+            m_idCount++;
+            m_backFillCount += result;
         }
     }
 
@@ -2551,6 +3374,16 @@ public class UnmarshallingContext implements IUnmarshallingContext
             String mname = m_factory.getUnmarshallerClasses()[index];
             if (mname != null) {
                 
+                // use shared instance from factory when available
+                if (m_factory instanceof BindingFactoryBase) {
+                    IUnmarshaller m = ((BindingFactoryBase)m_factory).
+                        getSharedUnmarshaller(index);
+                    if (m != null) {
+                        m_unmarshallers[index] = m;
+                        return m;
+                    }
+                }
+                
                 // get global unmarshaller class through factory
                 clas = m_factory.getUnmarshallerClass(index);
                 
@@ -2621,6 +3454,10 @@ public class UnmarshallingContext implements IUnmarshallingContext
             
             // get cached map for globals and create map for transients
             m_unmarshalMap = m_factory.getUnmarshalMap();
+            if (m_factory instanceof BindingFactoryBase) {
+                m_dispatchTable =
+                    ((BindingFactoryBase)m_factory).getDispatchTable();
+            }
             m_transientUnmarshalMap = new HashMap();
             for (int i = 0; i < m_names.length; i++) {
                 if (m_transientUnmarshallerClasses[i-m_transientBase] != null &&
@@ -2631,7 +3468,8 @@ public class UnmarshallingContext implements IUnmarshallingContext
         }
         
         // first check for name match in transient unmarshal map
-        Object value = m_transientUnmarshalMap.get(name);
+        Object value = m_transientUnmarshalMap.isEmpty() ?
+            null : m_transientUnmarshalMap.get(name);
         if (value != null) {
             int index = -1;
             if (value instanceof Integer) {
@@ -2660,7 +3498,11 @@ public class UnmarshallingContext implements IUnmarshallingContext
             }
         }
         
-        // next check for match in global unmarshal map
+        // next check for match in global mappings, using table if available
+        if (m_dispatchTable != null) {
+            int index = m_dispatchTable.find(ns, name);
+            return index >= 0 ? getUnmarshaller(index) : null;
+        }
         value = m_unmarshalMap.get(name);
         if (value != null) {
             int index = -1;
@@ -2722,20 +3564,30 @@ public class UnmarshallingContext implements IUnmarshallingContext
      * @throws JiBXException on any error (possibly wrapping other exception)
      */
     public Object unmarshalElement(Class clas) throws JiBXException {
-        String name = toStart();
-        IUnmarshaller unmarshal =
-            getUnmarshaller(m_reader.getNamespace(), name);
-        if (unmarshal == null) {
-            throw new JiBXException("No unmarshaller for element " +
-                currentNameString() + " " + buildPositionString());
-        } else {
-            Object obj = unmarshal.unmarshal(null, this);
-            if (!clas.isInstance(obj)) {
-                throw new JiBXException("Element " + name +
-                    " not compatible with expected type " + clas.getName() +
-                    " " + buildPositionString());
+        long start = m_monitor.unmarshalStarted();
+        try {
+            String name = toStart();
+            IUnmarshaller unmarshal =
+                getUnmarshaller(m_reader.getNamespace(), name);
+            if (unmarshal == null) {
+                throw new JiBXException("No unmarshaller for element " +
+                    currentNameString() + " " + buildPositionString());
+            } else {
+                Object obj = unmarshal.unmarshal(null, this);
+                if (!clas.isInstance(obj)) {
+                    throw new JiBXException("Element " + name +
+                        " not compatible with expected type " +
+                        clas.getName() + " " + buildPositionString());
+                }
+                unmarshalCompleted(obj, start);
+                return obj;
             }
-            return obj;
+        } catch (JiBXException e) {
+            m_monitor.unmarshalFailed(start);
+            throw e;
+        } catch (RuntimeException e) {
+            m_monitor.unmarshalFailed(start);
+            throw e;
         }
     }
 
@@ -2747,16 +3599,60 @@ public class UnmarshallingContext implements IUnmarshallingContext
      * @throws JiBXException on any error (possibly wrapping other exception)
      */
     public Object unmarshalElement() throws JiBXException {
-        String name = toStart();
-        IUnmarshaller unmarshal =
-            getUnmarshaller(m_reader.getNamespace(), name);
-        if (unmarshal == null) {
-            throw new JiBXException("No unmarshaller for element " +
-                currentNameString() + " " + buildPositionString());
-        } else {
-            return unmarshal.unmarshal(null, this);
+        long start = m_monitor.unmarshalStarted();
+        try {
+            String name = toStart();
+            IUnmarshaller unmarshal =
+                getUnmarshaller(m_reader.getNamespace(), name);
+            if (unmarshal == null) {
+                throw new JiBXException("No unmarshaller for element " +
+                    currentNameString() + " " + buildPositionString());
+            } else {
+                Object obj = unmarshal.unmarshal(null, this);
+                unmarshalCompleted(obj, start);
+                return obj;
+            }
+        } catch (JiBXException e) {
+            m_monitor.unmarshalFailed(start);
+            throw e;
+        } catch (RuntimeException e) {
+            m_monitor.unmarshalFailed(start);
+            throw e;
         }
     }
+    
+    /**
+     * Report completed unmarshalling of an element to the monitor, along with
+     * the ID usage since the last report. The counts are cleared after each
+     * report, so that when a document is unmarshalled one record at a time
+     * (as with {@link #iterateElements()}) each record reports only its own
+     * IDs and back-fills.
+     *
+     * @param obj unmarshalled object
+     * @param start value returned by monitor at start of unmarshalling
+     */
+    private void unmarshalCompleted(Object obj, long start) {
+        m_monitor.unmarshalCompleted(obj == null ? null : obj.getClass(),
+            start, m_idCount, m_backFillCount);
+        m_idCount = 0;
+        m_backFillCount = 0;
+    }
+
+    /**
+     * Iterate over the child elements of the current element. If not currently
+     * positioned at a start tag this first advances the parse to the next start
+     * tag, then parses past that start tag. Each call to <code>next()</code> on
+     * the returned iterator unmarshals a single child element using the
+     * unmarshalling defined for that element. The parse is left positioned
+     * following the end tag of the wrapper element when the iteration is
+     * complete.
+     *
+     * @return iterator over unmarshalled child element objects
+     * @throws JiBXException on any error (possibly wrapping other exception)
+     */
+    public Iterator iterateElements() throws JiBXException {
+        return new ElementIterator(this);
+    }
 
     /**
      * Parse past element, ignoring all content. This may be used while
@@ -3002,6 +3898,26 @@ public class UnmarshallingContext implements IUnmarshallingContext
     public Object getUserContext() {
         return m_userContext;
     }
+    
+    /**
+     * Get the monitor for runtime events.
+     *
+     * @return monitor
+     */
+    public IRuntimeMonitor getMonitor() {
+        return m_monitor;
+    }
+    
+    /**
+     * Set the monitor for runtime events. By default, contexts use the monitor
+     * returned by {@link RuntimeSupport#getDefaultMonitor()} at the time the
+     * context was created.
+     *
+     * @param monitor monitor (<code>null</code> to ignore all events)
+     */
+    public void setMonitor(IRuntimeMonitor monitor) {
+        m_monitor = monitor == null ? NullRuntimeMonitor.INSTANCE : monitor;
+    }
 
     /**
      * Push created object to unmarshalling stack. This must be called before
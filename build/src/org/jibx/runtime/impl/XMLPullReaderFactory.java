@@ -32,6 +32,7 @@ import java.io.IOException;
 import java.io.InputStream;
 import java.io.Reader;
 
+import org.jibx.runtime.IRuntimeMonitor;
 import org.jibx.runtime.IXMLReader;
 import org.jibx.runtime.JiBXException;
 import org.xmlpull.v1.XmlPullParser;
@@ -43,7 +44,7 @@ import org.xmlpull.v1.XmlPullParserFactory;
  * 
  * @author Dennis M. Sosnoski
  */
-public class XMLPullReaderFactory implements IXMLReaderFactory
+public class XMLPullReaderFactory implements IMonitoredReaderFactory
 {
     /** Default parser factory name when nothing else found. */
     private static final String DEFAULT_PARSER_NAME =
@@ -122,9 +123,18 @@ public class XMLPullReaderFactory implements IXMLReaderFactory
      */
     public IXMLReader createReader(InputStream is, String name, String enc,
         boolean nsf) throws JiBXException {
+        return createReader(is, name, enc, nsf,
+            RuntimeSupport.getDefaultMonitor());
+    }
+
+    /* (non-Javadoc)
+     * @see org.jibx.runtime.impl.IMonitoredReaderFactory#createReader(java.io.InputStream, java.lang.String, java.lang.String, boolean, org.jibx.runtime.IRuntimeMonitor)
+     */
+    public IXMLReader createReader(InputStream is, String name, String enc,
+        boolean nsf, IRuntimeMonitor monitor) throws JiBXException {
         try {
             return recycleReader(new XMLPullReader(createParser(nsf)), is,
-                name, enc);
+                name, enc, monitor);
         } catch (XmlPullParserException e) {
             throw new JiBXException("Error creating parser", e);
         }
@@ -148,8 +158,22 @@ public class XMLPullReaderFactory implements IXMLReaderFactory
      */
     public IXMLReader recycleReader(IXMLReader old, InputStream is, String name,
         String enc) throws JiBXException {
-        ((XMLPullReader)old).setDocument(is, name, enc);
-        return old;
+        return recycleReader(old, is, name, enc,
+            RuntimeSupport.getDefaultMonitor());
+    }
+
+    /* (non-Javadoc)
+     * @see org.jibx.runtime.impl.IMonitoredReaderFactory#recycleReader(org.jibx.runtime.IXMLReader, java.io.InputStream, java.lang.String, java.lang.String, org.jibx.runtime.IRuntimeMonitor)
+     */
+    public IXMLReader recycleReader(IXMLReader old, InputStream is, String name,
+        String enc, IRuntimeMonitor monitor) throws JiBXException {
+        if (old instanceof XMLPullReader) {
+            ((XMLPullReader)old).setDocument(is, name, enc, monitor);
+            return old;
+        } else {
+            return createReader(is, name, enc, old.isNamespaceAware(),
+                monitor);
+        }
     }
 
     /* (non-Javadoc)
@@ -157,8 +181,12 @@ public class XMLPullReaderFactory implements IXMLReaderFactory
      */
     public IXMLReader recycleReader(IXMLReader old, Reader rdr, String name)
         throws JiBXException {
-        ((XMLPullReader)old).setDocument(rdr, name);
-        return old;
+        if (old instanceof XMLPullReader) {
+            ((XMLPullReader)old).setDocument(rdr, name);
+            return old;
+        } else {
+            return createReader(rdr, name, old.isNamespaceAware());
+        }
     }
 
     /**
@@ -166,7 +194,7 @@ public class XMLPullReaderFactory implements IXMLReaderFactory
      * API was originally based on XMLPull, this basically just delegates all
      * the calls with minimal processing.
      */
-    private static class XMLPullReader implements IXMLReader
+    private static class XMLPullReader implements IReusableReader
     {
         /** Actual parser. */
         private final XmlPullParser m_parser;
@@ -185,6 +213,10 @@ public class XMLPullReaderFactory implements IXMLReaderFactory
         /** Input document character encoding (<code>null</code> if unknown) */
         private String m_encoding;
         
+        /** Buffer for characters of values only available as strings (lazy
+         create, <code>null</code> if not used). */
+        private char[] m_chars;
+        
         /**
          * Constructor used by factory.
          * 
@@ -200,10 +232,11 @@ public class XMLPullReaderFactory implements IXMLReaderFactory
          * @param is document input stream
          * @param name document name (<code>null</code> if unknown)
          * @param enc document character encoding (<code>null</code> if unknown)
+         * @param monitor monitor for runtime events
          * @throws JiBXException on parser configuration error
          */
-        private void setDocument(InputStream is, String name, String enc)
-            throws JiBXException {
+        private void setDocument(InputStream is, String name, String enc,
+            IRuntimeMonitor monitor) throws JiBXException {
             try {
                 if (enc == null) {
                     if (m_streamWrapper == null) {
@@ -213,6 +246,7 @@ public class XMLPullReaderFactory implements IXMLReaderFactory
                     } else {
                         m_streamWrapper.reset();
                     }
+                    m_byteBuffer.setMonitor(monitor);
                     m_byteBuffer.setInput(is);
                     setDocument(m_streamWrapper.getReader(), name);
                     m_encoding = m_streamWrapper.getEncoding();
@@ -245,6 +279,21 @@ public class XMLPullReaderFactory implements IXMLReaderFactory
             }
         }
         
+        /* (non-Javadoc)
+         * @see org.jibx.runtime.impl.IReusableReader#clearDocument()
+         */
+        public void clearDocument() {
+            try {
+                m_parser.setInput((Reader)null);
+            } catch (XmlPullParserException e) { /* deliberately empty */ }
+            if (m_byteBuffer != null) {
+                m_byteBuffer.reset();
+                m_streamWrapper.reset();
+            }
+            m_docName = null;
+            m_encoding = null;
+        }
+        
         /**
          * Format error message from exception.
          * 
@@ -410,6 +459,54 @@ public class XMLPullReaderFactory implements IXMLReaderFactory
             }
         }
 
+        /* (non-Javadoc)
+         * @see org.jibx.runtime.IXMLReader#getAttributeIndex(java.lang.String, java.lang.String)
+         */
+        public int getAttributeIndex(String ns, String name) {
+            if (ns == null) {
+                ns = "";
+            }
+            int count = m_parser.getAttributeCount();
+            if (count < 0) {
+                throw new IllegalStateException
+                    ("Internal state error: not at start tag");
+            }
+            for (int i = 0; i < count; i++) {
+                if (name.equals(m_parser.getAttributeName(i))) {
+                    String comp = m_parser.getAttributeNamespace(i);
+                    if (ns.equals(comp == null ? "" : comp)) {
+                        return i;
+                    }
+                }
+            }
+            return -1;
+        }
+
+        /**
+         * Copy string value to character buffer.
+         *
+         * @param text value
+         * @param holder array to be set with start offset and length
+         * @return character buffer
+         */
+        private char[] copyChars(String text, int[] holder) {
+            int length = text.length();
+            if (m_chars == null || m_chars.length < length) {
+                m_chars = new char[Math.max(length, 64)];
+            }
+            text.getChars(0, length, m_chars, 0);
+            holder[0] = 0;
+            holder[1] = length;
+            return m_chars;
+        }
+
+        /* (non-Javadoc)
+         * @see org.jibx.runtime.IXMLReader#getAttributeCharacters(int, int[])
+         */
+        public char[] getAttributeCharacters(int index, int[] holder) {
+            return copyChars(getAttributeValue(index), holder);
+        }
+
         /* (non-Javadoc)
          * @see org.jibx.runtime.IXMLReader#getText()
          */
@@ -417,6 +514,23 @@ public class XMLPullReaderFactory implements IXMLReaderFactory
             return m_parser.getText();
         }
 
+        /* (non-Javadoc)
+         * @see org.jibx.runtime.IXMLReader#getTextCharacters(int[])
+         */
+        public char[] getTextCharacters(int[] holder) {
+            
+            // entity reference characters are the reference, not the value
+            try {
+                if (m_parser.getEventType() == ENTITY_REF) {
+                    String text = m_parser.getText();
+                    return text == null ? null : copyChars(text, holder);
+                }
+            } catch (XmlPullParserException e) {
+                throw new IllegalStateException(describeException(e));
+            }
+            return m_parser.getTextCharacters(holder);
+        }
+
         /* (non-Javadoc)
          * @see org.jibx.runtime.IXMLReader#getNestingDepth()
          */
@@ -97,6 +97,18 @@ implements IExtensibleWriter
      */
     protected abstract void writeMarkup(char chr) throws IOException;
     
+    /**
+     * Write element or attribute name to output. This default implementation
+     * just writes the name as markup text, but subclasses may override it to
+     * take advantage of names being reused.
+     *
+     * @param name unqualified element or attribute name
+     * @throws IOException if error writing to document
+     */
+    protected void writeName(String name) throws IOException {
+        writeMarkup(name);
+    }
+    
     /**
      * Write namespace prefix to output. This internal method is used to throw
      * an exception when an undeclared prefix is used.
@@ -200,7 +212,7 @@ implements IExtensibleWriter
         indentAfterFirst();
         writeMarkup('<');
         writePrefix(index);
-        writeMarkup(name);
+        writeName(name);
         m_textSeen = m_contentSeen = false;
     }
     
@@ -258,7 +270,7 @@ implements IExtensibleWriter
         throws IOException {
         writeMarkup(' ');
         writePrefix(index);
-        writeMarkup(name);
+        writeName(name);
         writeMarkup("=\"");
         writeAttributeText(value);
         writeMarkup('"');
@@ -315,7 +327,7 @@ implements IExtensibleWriter
         indentAfterFirst();
         writeMarkup('<');
         writePrefix(index);
-        writeMarkup(name);
+        writeName(name);
         m_textSeen = m_contentSeen = false;
     }
     
@@ -339,7 +351,7 @@ implements IExtensibleWriter
             // content was written, which means start tag closed and end needed
             writeMarkup("</");
             writePrefix(index);
-            writeMarkup(name);
+            writeName(name);
             writeMarkup('>');
             
         } else {
@@ -31,6 +31,7 @@ import java.io.IOException;
 import java.util.Stack;
 
 import org.jibx.runtime.IXMLWriter;
+import org.jibx.runtime.Utility;
 
 /**
  * Base implementation of XML writer interface namespace handling. This tracks
@@ -292,6 +293,140 @@ public abstract class XMLWriterNamespaceBase implements IXMLWriter
         }
     }
     
+    /**
+     * Add attribute with <code>int</code> value to current open start tag.
+     * This is only valid after a call to {@link #startTagOpen} or {@link
+     * #startTagNamespaces} and before the corresponding call to {@link
+     * #closeStartTag}. This implementation converts the value to text, and
+     * should be overridden by writers which can handle the value directly.
+     *
+     * @param index namespace URI index number
+     * @param name unqualified attribute name
+     * @param value attribute value
+     * @throws IOException on error writing to document
+     */
+    public void addAttribute(int index, String name, int value)
+        throws IOException {
+        addAttribute(index, name, Integer.toString(value));
+    }
+    
+    /**
+     * Add attribute with <code>long</code> value to current open start tag.
+     * This is only valid after a call to {@link #startTagOpen} or {@link
+     * #startTagNamespaces} and before the corresponding call to {@link
+     * #closeStartTag}. This implementation converts the value to text, and
+     * should be overridden by writers which can handle the value directly.
+     *
+     * @param index namespace URI index number
+     * @param name unqualified attribute name
+     * @param value attribute value
+     * @throws IOException on error writing to document
+     */
+    public void addAttribute(int index, String name, long value)
+        throws IOException {
+        addAttribute(index, name, Long.toString(value));
+    }
+    
+    /**
+     * Add attribute with <code>float</code> value to current open start tag.
+     * This is only valid after a call to {@link #startTagOpen} or {@link
+     * #startTagNamespaces} and before the corresponding call to {@link
+     * #closeStartTag}. This implementation converts the value to text, and
+     * should be overridden by writers which can handle the value directly.
+     *
+     * @param index namespace URI index number
+     * @param name unqualified attribute name
+     * @param value attribute value
+     * @throws IOException on error writing to document
+     */
+    public void addAttribute(int index, String name, float value)
+        throws IOException {
+        addAttribute(index, name, Utility.serializeFloat(value));
+    }
+    
+    /**
+     * Add attribute with <code>double</code> value to current open start tag.
+     * This is only valid after a call to {@link #startTagOpen} or {@link
+     * #startTagNamespaces} and before the corresponding call to {@link
+     * #closeStartTag}. This implementation converts the value to text, and
+     * should be overridden by writers which can handle the value directly.
+     *
+     * @param index namespace URI index number
+     * @param name unqualified attribute name
+     * @param value attribute value
+     * @throws IOException on error writing to document
+     */
+    public void addAttribute(int index, String name, double value)
+        throws IOException {
+        addAttribute(index, name, Utility.serializeDouble(value));
+    }
+    
+    /**
+     * Write <code>int</code> value as character data text content to document.
+     * This implementation converts the value to text, and should be overridden
+     * by writers which can handle the value directly.
+     *
+     * @param value content value
+     * @throws IOException on error writing to document
+     */
+    public void writeTextContent(int value) throws IOException {
+        writeTextContent(Integer.toString(value));
+    }
+    
+    /**
+     * Write <code>long</code> value as character data text content to
+     * document. This implementation converts the value to text, and should be
+     * overridden by writers which can handle the value directly.
+     *
+     * @param value content value
+     * @throws IOException on error writing to document
+     */
+    public void writeTextContent(long value) throws IOException {
+        writeTextContent(Long.toString(value));
+    }
+    
+    /**
+     * Write <code>float</code> value as character data text content to
+     * document. This implementation converts the value to text, and should be
+     * overridden by writers which can handle the value directly.
+     *
+     * @param value content value
+     * @throws IOException on error writing to document
+     */
+    public void writeTextContent(float value) throws IOException {
+        writeTextContent(Utility.serializeFloat(value));
+    }
+    
+    /**
+     * Write <code>double</code> value as character data text content to
+     * document. This implementation converts the value to text, and should be
+     * overridden by writers which can handle the value directly.
+     *
+     * @param value content value
+     * @throws IOException on error writing to document
+     */
+    public void writeTextContent(double value) throws IOException {
+        writeTextContent(Utility.serializeDouble(value));
+    }
+    
+    /**
+     * Write binary data as base64 text content to document. This
+     * implementation just encodes the data to a string and writes that as
+     * ordinary text, and should be overridden by writers which can handle the
+     * encoded characters directly.
+     *
+     * @param data binary data
+     * @param offset starting offset of data to be written
+     * @param length number of bytes of data to be written
+     * @throws IOException on error writing to document
+     */
+    public void writeBase64(byte[] data, int offset, int length)
+        throws IOException {
+        char[] chrs = new char[(length + 2) / 3 * 4];
+        writeTextContent(new String(chrs, 0,
+            Utility.encodeBase64(data, offset, length, chrs, 0)));
+    }
+    
     /**
      * Get the current element nesting depth. Elements are only counted in the
      * depth returned when they're officially open - after the start tag has
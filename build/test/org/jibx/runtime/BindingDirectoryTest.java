@@ -0,0 +1,123 @@
+/*
+ * Created on Oct 17, 2026
+ */
+
+package org.jibx.runtime;
+
+import junit.framework.TestCase;
+
+import org.jibx.runtime.impl.TestBindingFactory;
+
+/**
+ * Test binding factory lookup caching in {@link BindingDirectory}.
+ */
+public class BindingDirectoryTest extends TestCase
+{
+    /** Binding list for this class, as added by the binding compiler. */
+    public static final String JiBX_bindingList =
+        "|org.jibx.runtime.BindingDirectoryTest$JiBX_testFactory|";
+
+    /**
+     * Factory class for the test binding.
+     */
+    public static class JiBX_testFactory
+    {
+        private static final IBindingFactory s_instance =
+            new TestBindingFactory();
+
+        public static IBindingFactory getInstance() {
+            return s_instance;
+        }
+    }
+
+    /**
+     * Class loader which just delegates to the parent, used to get distinct
+     * lookup keys for the same factory.
+     */
+    private static class DelegatingLoader extends ClassLoader
+    {
+        private DelegatingLoader() {
+            super(BindingDirectoryTest.class.getClassLoader());
+        }
+    }
+
+    protected void setUp() throws Exception {
+        BindingDirectory.clearCache();
+    }
+
+    protected void tearDown() throws Exception {
+        BindingDirectory.clearCache();
+    }
+
+    public void testClassLookupCached() throws Exception {
+        IBindingFactory fact = BindingDirectory.getFactory(getClass());
+        assertSame(JiBX_testFactory.getInstance(), fact);
+        assertEquals(0, BindingDirectory.getCacheHitCount());
+        assertEquals(1, BindingDirectory.getCacheMissCount());
+        assertSame(fact, BindingDirectory.getFactory(getClass()));
+        assertSame(fact, BindingDirectory.getFactory(getClass()));
+        assertEquals(2, BindingDirectory.getCacheHitCount());
+        assertEquals(1, BindingDirectory.getCacheMissCount());
+    }
+
+    public void testNamedLookupCountedOnce() throws Exception {
+        IBindingFactory fact = BindingDirectory.getFactory("test", getClass());
+        assertSame(JiBX_testFactory.getInstance(), fact);
+        assertEquals(0, BindingDirectory.getCacheHitCount());
+        assertEquals(1, BindingDirectory.getCacheMissCount());
+        assertSame(fact, BindingDirectory.getFactory("test", getClass()));
+        assertEquals(1, BindingDirectory.getCacheHitCount());
+        assertEquals(1, BindingDirectory.getCacheMissCount());
+    }
+
+    public void testNamedAndClassLookupsSeparate() throws Exception {
+        BindingDirectory.getFactory("test", getClass());
+        BindingDirectory.getFactory(getClass());
+        assertEquals(0, BindingDirectory.getCacheHitCount());
+        assertEquals(2, BindingDirectory.getCacheMissCount());
+    }
+
+    public void testClassLoaderSeparation() throws Exception {
+        ClassLoader loader1 = new DelegatingLoader();
+        ClassLoader loader2 = new DelegatingLoader();
+        IBindingFactory fact1 =
+            BindingDirectory.getFactory("test", getClass(), loader1);
+        IBindingFactory fact2 =
+            BindingDirectory.getFactory("test", getClass(), loader2);
+        assertSame(fact1, fact2);
+        assertEquals(0, BindingDirectory.getCacheHitCount());
+        assertEquals(2, BindingDirectory.getCacheMissCount());
+        BindingDirectory.getFactory("test", getClass(), loader1);
+        BindingDirectory.getFactory("test", getClass(), loader2);
+        assertEquals(2, BindingDirectory.getCacheHitCount());
+        assertEquals(2, BindingDirectory.getCacheMissCount());
+    }
+
+    public void testUnknownBindingNotCached() throws Exception {
+        try {
+            BindingDirectory.getFactory("missing", getClass());
+            fail("Expected exception for unknown binding");
+        } catch (JiBXException e) {
+            // expected
+        }
+        try {
+            BindingDirectory.getFactory("missing", getClass());
+            fail("Expected exception for unknown binding");
+        } catch (JiBXException e) {
+            // expected
+        }
+        assertEquals(0, BindingDirectory.getCacheHitCount());
+        assertEquals(2, BindingDirectory.getCacheMissCount());
+    }
+
+    public void testClearCache() throws Exception {
+        BindingDirectory.getFactory(getClass());
+        BindingDirectory.getFactory(getClass());
+        BindingDirectory.clearCache();
+        assertEquals(0, BindingDirectory.getCacheHitCount());
+        assertEquals(0, BindingDirectory.getCacheMissCount());
+        BindingDirectory.getFactory(getClass());
+        assertEquals(0, BindingDirectory.getCacheHitCount());
+        assertEquals(1, BindingDirectory.getCacheMissCount());
+    }
+}
@@ -0,0 +1,55 @@
+/*
+ * Created on Oct 17, 2026
+ */
+
+package org.jibx.runtime;
+
+import junit.framework.TestCase;
+
+/**
+ * Test the named value set support class.
+ */
+public class EnumSetTest extends TestCase
+{
+    public void testNames() {
+        EnumSet set = new EnumSet(1, new String[] { "one", "two", "three" });
+        assertEquals(1, set.getValue("one"));
+        assertEquals(3, set.getValue("three"));
+        assertEquals(-1, set.getValue("four"));
+        assertEquals("two", set.getName(2));
+        assertNull(set.getName(0));
+        assertEquals(3, set.maxIndex());
+    }
+    
+    public void testItems() {
+        EnumSet.EnumItem[] items = {
+            new EnumSet.EnumItem(5, "zeta"),
+            new EnumSet.EnumItem(0, "alpha"),
+            new EnumSet.EnumItem(2, "gamma")
+        };
+        EnumSet set = new EnumSet(items);
+        assertEquals(0, set.getValue("alpha"));
+        assertEquals(5, set.getValueChecked("zeta"));
+        assertEquals("gamma", set.getNameChecked(2));
+        try {
+            set.getValueChecked("beta");
+            fail("Expected exception for undefined name");
+        } catch (IllegalArgumentException e) {
+            // expected
+        }
+    }
+    
+    public void testExtension() {
+        EnumSet base = new EnumSet(0, new String[] { "a", "b" });
+        EnumSet set = new EnumSet(base, 2, new String[] { "c" });
+        assertEquals(1, set.getValue("b"));
+        assertEquals(2, set.getValue("c"));
+        assertEquals(-1, base.getValue("c"));
+    }
+    
+    public void testEmpty() {
+        EnumSet set = new EnumSet(0, new String[0]);
+        assertEquals(-1, set.getValue("a"));
+        assertEquals(-1, set.maxIndex());
+    }
+}
@@ -0,0 +1,60 @@
+/*
+ * Created on Oct 17, 2026
+ */
+
+package org.jibx.runtime;
+
+import java.math.BigDecimal;
+
+import junit.framework.TestCase;
+
+/**
+ * Test BigDecimal conversions.
+ */
+public class Java5DecimalConvertTest extends TestCase
+{
+    private static final String[] TEXTS = {
+        "0", "-0", "+0", "0.00", "-0.00", ".5", "5.", "007.50", "-.5",
+        "123456789012345678", "1234567890123456789", "-999999999999999999",
+        "0.000000000000000000001", "100000000000000000000.5", "1E5", "-1.5e-3"
+    };
+    
+    private static final String[] INVALIDS = {
+        "", "-", "+", ".", "1.2.3", "abc", " 1", "1e"
+    };
+    
+    public void testDeserialize() {
+        assertNull(Java5DecimalConvert.deserializeDecimal(null));
+        for (int i = 0; i < TEXTS.length; i++) {
+            BigDecimal expect = new BigDecimal(TEXTS[i]);
+            BigDecimal actual = Java5DecimalConvert.deserializeDecimal(TEXTS[i]);
+            assertEquals(TEXTS[i], expect.unscaledValue(),
+                actual.unscaledValue());
+            assertEquals(TEXTS[i], expect.scale(), actual.scale());
+        }
+        for (int i = 0; i < INVALIDS.length; i++) {
+            try {
+                Java5DecimalConvert.deserializeDecimal(INVALIDS[i]);
+                fail("Expected exception for '" + INVALIDS[i] + "'");
+            } catch (NumberFormatException e) { /* expected */ }
+        }
+    }
+    
+    public void testSerialize() {
+        for (int i = 0; i < TEXTS.length; i++) {
+            BigDecimal value = new BigDecimal(TEXTS[i]);
+            BigDecimal[] values = {
+                value, value.negate(), value.movePointLeft(3),
+                value.movePointRight(40), value.setScale(value.scale() + 2)
+            };
+            for (int j = 0; j < values.length; j++) {
+                assertEquals(values[j].toPlainString(),
+                    Java5DecimalConvert.serializeDecimal(values[j]));
+            }
+        }
+        assertEquals("1000", Java5DecimalConvert.serializeDecimal(
+            new BigDecimal("1E3")));
+        assertEquals("-0.050", Java5DecimalConvert.serializeDecimal(
+            BigDecimal.valueOf(-50, 3)));
+    }
+}
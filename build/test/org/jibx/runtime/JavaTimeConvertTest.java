@@ -0,0 +1,210 @@
+/*
+ * Created on Oct 17, 2026
+ */
+
+package org.jibx.runtime;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.OffsetDateTime;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.time.ZonedDateTime;
+
+import junit.framework.TestCase;
+
+/**
+ * Java 8 date/time conversion tests.
+ */
+public class JavaTimeConvertTest extends TestCase
+{
+    private void assertInvalidDate(String text) {
+        try {
+            JavaTimeConvert.deserializeLocalDate(text);
+            fail("Expected exception for " + text);
+        } catch (JiBXException e) {
+            // expected
+        }
+    }
+    
+    private void assertInvalidDateTime(String text) {
+        try {
+            JavaTimeConvert.deserializeLocalDateTime(text);
+            fail("Expected exception for " + text);
+        } catch (JiBXException e) {
+            // expected
+        }
+    }
+    
+    private void assertInvalidDuration(String text) {
+        try {
+            JavaTimeConvert.deserializeDuration(text);
+            fail("Expected exception for " + text);
+        } catch (JiBXException e) {
+            // expected
+        }
+    }
+    
+    public void testLocalDate() throws JiBXException {
+        assertNull(JavaTimeConvert.deserializeLocalDate(null));
+        assertEquals(LocalDate.of(2008, 2, 29), JavaTimeConvert.deserializeLocalDate("2008-02-29"));
+        assertEquals(LocalDate.of(2008, 2, 29), JavaTimeConvert.deserializeLocalDate("2008-02-29Z"));
+        assertEquals(LocalDate.of(2008, 2, 29), JavaTimeConvert.deserializeLocalDate("2008-02-29-05:00"));
+        assertEquals(LocalDate.of(12345, 1, 1), JavaTimeConvert.deserializeLocalDate("12345-01-01"));
+        assertEquals(LocalDate.of(0, 12, 31), JavaTimeConvert.deserializeLocalDate("-0001-12-31"));
+        assertEquals("2008-02-29", JavaTimeConvert.serializeLocalDate(LocalDate.of(2008, 2, 29)));
+        assertEquals("0099-01-09", JavaTimeConvert.serializeLocalDate(LocalDate.of(99, 1, 9)));
+        assertEquals("-0001-12-31", JavaTimeConvert.serializeLocalDate(LocalDate.of(0, 12, 31)));
+        assertEquals("12345-01-01", JavaTimeConvert.serializeLocalDate(LocalDate.of(12345, 1, 1)));
+        assertInvalidDate("2007-02-29");
+        assertInvalidDate("2008-13-01");
+        assertInvalidDate("0000-01-01");
+        assertInvalidDate("08-01-01");
+        assertInvalidDate("02008-01-01");
+        assertInvalidDate("2008-1-01");
+        assertInvalidDate("2008-01-01T");
+        assertInvalidDate("2008-01-01+5:00");
+        assertInvalidDate("-1000000001-01-01");
+        assertInvalidDate("2000000000-01-01");
+        assertInvalidDate("10000000000-01-01");
+    }
+    
+    public void testLocalDateLimits() throws JiBXException {
+        assertEquals("-1000000000-01-01", JavaTimeConvert.serializeLocalDate(LocalDate.MIN));
+        assertEquals(LocalDate.MIN, JavaTimeConvert.deserializeLocalDate("-1000000000-01-01"));
+        assertEquals("999999999-12-31", JavaTimeConvert.serializeLocalDate(LocalDate.MAX));
+        assertEquals(LocalDate.MAX, JavaTimeConvert.deserializeLocalDate("999999999-12-31"));
+        assertEquals(LocalDateTime.MIN,
+            JavaTimeConvert.deserializeLocalDateTime(JavaTimeConvert.serializeLocalDateTime(LocalDateTime.MIN)));
+        assertEquals(LocalDateTime.MAX,
+            JavaTimeConvert.deserializeLocalDateTime(JavaTimeConvert.serializeLocalDateTime(LocalDateTime.MAX)));
+    }
+    
+    public void testLocalDateTime() throws JiBXException {
+        assertNull(JavaTimeConvert.deserializeLocalDateTime(null));
+        assertEquals(LocalDateTime.of(2008, 2, 29, 13, 45, 7),
+            JavaTimeConvert.deserializeLocalDateTime("2008-02-29T13:45:07"));
+        assertEquals(LocalDateTime.of(2008, 2, 29, 13, 45, 7, 120000000),
+            JavaTimeConvert.deserializeLocalDateTime("2008-02-29T13:45:07.12+01:00"));
+        assertEquals(LocalDateTime.of(2008, 2, 29, 13, 45, 7, 123456789),
+            JavaTimeConvert.deserializeLocalDateTime("2008-02-29T13:45:07.1234567891Z"));
+        assertEquals(LocalDateTime.of(2009, 1, 1, 0, 0),
+            JavaTimeConvert.deserializeLocalDateTime("2008-12-31T24:00:00"));
+        assertEquals("2008-02-29T13:45:07",
+            JavaTimeConvert.serializeLocalDateTime(LocalDateTime.of(2008, 2, 29, 13, 45, 7)));
+        assertEquals("2008-02-29T03:04:05.0012",
+            JavaTimeConvert.serializeLocalDateTime(LocalDateTime.of(2008, 2, 29, 3, 4, 5, 1200000)));
+        assertEquals("2008-02-29T03:04:05.000000001",
+            JavaTimeConvert.serializeLocalDateTime(LocalDateTime.of(2008, 2, 29, 3, 4, 5, 1)));
+        assertInvalidDateTime("2008-02-29");
+        assertInvalidDateTime("2008-02-29 13:45:07");
+        assertInvalidDateTime("2008-02-29T13:45");
+        assertInvalidDateTime("2008-02-29T13:45:07.");
+        assertInvalidDateTime("2008-02-29T13:45:60");
+        assertInvalidDateTime("2008-02-29T24:00:01");
+        assertInvalidDateTime("2008-02-29T13:45:07+15:00");
+    }
+    
+    public void testOffsetDateTime() throws JiBXException {
+        assertNull(JavaTimeConvert.deserializeOffsetDateTime(null));
+        assertEquals(OffsetDateTime.of(2008, 2, 29, 13, 45, 7, 0, ZoneOffset.ofHoursMinutes(-5, -30)),
+            JavaTimeConvert.deserializeOffsetDateTime("2008-02-29T13:45:07-05:30"));
+        assertEquals(OffsetDateTime.of(2008, 2, 29, 13, 45, 7, 0, ZoneOffset.UTC),
+            JavaTimeConvert.deserializeOffsetDateTime("2008-02-29T13:45:07"));
+        assertEquals("2008-02-29T13:45:07.5+14:00", JavaTimeConvert.serializeOffsetDateTime(
+            OffsetDateTime.of(2008, 2, 29, 13, 45, 7, 500000000, ZoneOffset.ofHours(14))));
+        assertEquals("2008-02-29T13:45:07Z", JavaTimeConvert.serializeOffsetDateTime(
+            OffsetDateTime.of(2008, 2, 29, 13, 45, 7, 0, ZoneOffset.UTC)));
+    }
+    
+    public void testZonedDateTime() throws JiBXException {
+        assertNull(JavaTimeConvert.deserializeZonedDateTime(null));
+        ZonedDateTime time = JavaTimeConvert.deserializeZonedDateTime("2008-07-01T12:00:00+02:00");
+        assertEquals(ZoneOffset.ofHours(2), time.getZone());
+        assertEquals(LocalDateTime.of(2008, 7, 1, 12, 0), time.toLocalDateTime());
+        assertEquals("2008-07-01T12:00:00+02:00", JavaTimeConvert.serializeZonedDateTime(
+            ZonedDateTime.of(2008, 7, 1, 12, 0, 0, 0, ZoneId.of("Europe/Paris"))));
+    }
+    
+    public void testInstant() throws JiBXException {
+        assertNull(JavaTimeConvert.deserializeInstant(null));
+        assertEquals(Instant.ofEpochSecond(0), JavaTimeConvert.deserializeInstant("1970-01-01T00:00:00Z"));
+        assertEquals(Instant.ofEpochSecond(0), JavaTimeConvert.deserializeInstant("1970-01-01T00:00:00"));
+        assertEquals(Instant.ofEpochSecond(-3600, 1000),
+            JavaTimeConvert.deserializeInstant("1970-01-01T00:00:00.000001+01:00"));
+        assertEquals("1970-01-01T00:00:00Z", JavaTimeConvert.serializeInstant(Instant.ofEpochSecond(0)));
+        assertEquals("1969-12-31T23:00:00.000001Z",
+            JavaTimeConvert.serializeInstant(Instant.ofEpochSecond(-3600, 1000)));
+        assertEquals(Instant.ofEpochSecond(-12219292800L),
+            JavaTimeConvert.deserializeInstant("1582-10-15T00:00:00Z"));
+        assertEquals("0001-01-01T00:00:00Z",
+            JavaTimeConvert.serializeInstant(Instant.ofEpochSecond(-62135596800L)));
+        assertEquals("-0001-12-31T23:59:59Z",
+            JavaTimeConvert.serializeInstant(Instant.ofEpochSecond(-62135596801L)));
+    }
+    
+    public void testInstantLimits() throws JiBXException {
+        assertEquals("1000000000-12-31T23:59:59.999999999Z", JavaTimeConvert.serializeInstant(Instant.MAX));
+        assertEquals(Instant.MAX, JavaTimeConvert.deserializeInstant("1000000000-12-31T23:59:59.999999999Z"));
+        assertEquals("-1000000001-01-01T00:00:00Z", JavaTimeConvert.serializeInstant(Instant.MIN));
+        assertEquals(Instant.MIN, JavaTimeConvert.deserializeInstant("-1000000001-01-01T00:00:00Z"));
+        try {
+            JavaTimeConvert.deserializeInstant("1000000000-12-31T23:59:59.999999999-01:00");
+            fail("Expected exception for instant out of range");
+        } catch (JiBXException e) {
+            // expected
+        }
+        try {
+            JavaTimeConvert.deserializeInstant("1000000001-01-01T00:00:00Z");
+            fail("Expected exception for instant out of range");
+        } catch (JiBXException e) {
+            // expected
+        }
+    }
+    
+    public void testDuration() throws JiBXException {
+        assertNull(JavaTimeConvert.deserializeDuration(null));
+        assertEquals(Duration.ofDays(3).plusHours(4).plusMinutes(5).plusSeconds(6).plusMillis(70),
+            JavaTimeConvert.deserializeDuration("P3DT4H5M6.07S"));
+        assertEquals(Duration.ofMinutes(-90), JavaTimeConvert.deserializeDuration("-PT90M"));
+        assertEquals(Duration.ofDays(1), JavaTimeConvert.deserializeDuration("P0Y0M1D"));
+        assertEquals(Duration.ZERO, JavaTimeConvert.deserializeDuration("PT0S"));
+        assertEquals("P3DT4H5M6.07S", JavaTimeConvert.serializeDuration(
+            Duration.ofDays(3).plusHours(4).plusMinutes(5).plusSeconds(6).plusMillis(70)));
+        assertEquals("-PT1H30M", JavaTimeConvert.serializeDuration(Duration.ofMinutes(-90)));
+        assertEquals("-PT0.5S", JavaTimeConvert.serializeDuration(Duration.ofMillis(-500)));
+        assertEquals("P2D", JavaTimeConvert.serializeDuration(Duration.ofDays(2)));
+        assertEquals("PT0S", JavaTimeConvert.serializeDuration(Duration.ZERO));
+        assertInvalidDuration("");
+        assertInvalidDuration("P");
+        assertInvalidDuration("PT");
+        assertInvalidDuration("P1Y");
+        assertInvalidDuration("P1H");
+        assertInvalidDuration("PT1D");
+        assertInvalidDuration("PT1S2M");
+        assertInvalidDuration("P1.5D");
+        assertInvalidDuration("PT1.S5");
+        assertInvalidDuration("P1DT");
+        assertInvalidDuration("PT.S");
+        assertInvalidDuration("PT.5S");
+        assertInvalidDuration("PT1.S");
+        assertInvalidDuration("PT9223372036854775808S");
+        assertInvalidDuration("P106751991167301D");
+    }
+    
+    public void testDurationLimits() throws JiBXException {
+        Duration min = Duration.ofSeconds(Long.MIN_VALUE);
+        assertEquals("-P106751991167300DT15H30M8S", JavaTimeConvert.serializeDuration(min));
+        assertEquals(min, JavaTimeConvert.deserializeDuration("-P106751991167300DT15H30M8S"));
+        Duration max = Duration.ofSeconds(Long.MAX_VALUE, 999999999);
+        assertEquals("P106751991167300DT15H30M7.999999999S", JavaTimeConvert.serializeDuration(max));
+        assertEquals(max, JavaTimeConvert.deserializeDuration("P106751991167300DT15H30M7.999999999S"));
+        Duration low = Duration.ofSeconds(Long.MIN_VALUE, 1);
+        assertEquals("-P106751991167300DT15H30M7.999999999S", JavaTimeConvert.serializeDuration(low));
+        assertEquals(low, JavaTimeConvert.deserializeDuration("-P106751991167300DT15H30M7.999999999S"));
+        assertInvalidDuration("-P106751991167300DT15H30M8.5S");
+        assertInvalidDuration("P106751991167300DT15H30M8S");
+    }
+}
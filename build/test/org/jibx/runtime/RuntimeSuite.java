@@ -4,14 +4,55 @@ import junit.framework.Test;
 import junit.framework.TestCase;
 import junit.framework.TestSuite;
 
+import org.jibx.runtime.impl.Base64DecoderTest;
+import org.jibx.runtime.impl.BufferPoolTest;
+import org.jibx.runtime.impl.ChannelOutByteBufferTest;
+import org.jibx.runtime.impl.ConcurrencyTest;
+import org.jibx.runtime.impl.ContextPoolTest;
+import org.jibx.runtime.impl.DoubleFormatterTest;
+import org.jibx.runtime.impl.DoubleParserTest;
+import org.jibx.runtime.impl.CountingRuntimeMonitorTest;
+import org.jibx.runtime.impl.ElementDispatchTableTest;
+import org.jibx.runtime.impl.ElementIteratorTest;
+import org.jibx.runtime.impl.EncodedNameCacheTest;
+import org.jibx.runtime.impl.EnumValueTableTest;
+import org.jibx.runtime.impl.HandlerSharingTest;
+import org.jibx.runtime.impl.StreamWriterTest;
+import org.jibx.runtime.impl.FeedInByteBufferTest;
+import org.jibx.runtime.impl.IDTableTest;
+import org.jibx.runtime.impl.MarshallingContextTest;
+import org.jibx.runtime.impl.UTF8StreamReaderTest;
+
 public class RuntimeSuite extends TestCase
 {
     public static Test suite() {
         TestSuite suite = new TestSuite();
         suite.addTestSuite(UtilityTest.class);
+        suite.addTestSuite(BindingDirectoryTest.class);
         suite.addTestSuite(WhitespaceConversionsTest.class);
         suite.addTestSuite(JodaConvertTest.class);
+        suite.addTestSuite(JavaTimeConvertTest.class);
+        suite.addTestSuite(Java5DecimalConvertTest.class);
         suite.addTestSuite(JiBXConstrainedParseExceptionTest.class);
+        suite.addTestSuite(EnumSetTest.class);
+        suite.addTestSuite(BufferPoolTest.class);
+        suite.addTestSuite(ChannelOutByteBufferTest.class);
+        suite.addTestSuite(ConcurrencyTest.class);
+        suite.addTestSuite(ContextPoolTest.class);
+        suite.addTestSuite(HandlerSharingTest.class);
+        suite.addTestSuite(CountingRuntimeMonitorTest.class);
+        suite.addTestSuite(UTF8StreamReaderTest.class);
+        suite.addTestSuite(FeedInByteBufferTest.class);
+        suite.addTestSuite(IDTableTest.class);
+        suite.addTestSuite(ElementDispatchTableTest.class);
+        suite.addTestSuite(EnumValueTableTest.class);
+        suite.addTestSuite(Base64DecoderTest.class);
+        suite.addTestSuite(DoubleFormatterTest.class);
+        suite.addTestSuite(DoubleParserTest.class);
+        suite.addTestSuite(ElementIteratorTest.class);
+        suite.addTestSuite(MarshallingContextTest.class);
+        suite.addTestSuite(EncodedNameCacheTest.class);
+        suite.addTestSuite(StreamWriterTest.class);
         return suite;
     }
 }
@@ -76,6 +76,49 @@ public class UtilityTest extends TestCase {
 		} catch (JiBXException ex) {}
 	}
 
+	private static int parseIntRange(String text) throws JiBXException {
+		char[] chars = ("xx" + text + "yy").toCharArray();
+		return Utility.parseInt(chars, 2, text.length());
+	}
+
+	public void testParseIntRange() throws JiBXException {
+		assertEquals(0, parseIntRange("0"));
+		assertEquals(2000000000, parseIntRange(" 2000000000\n"));
+		assertEquals(-2000000000, parseIntRange("-2000000000"));
+		assertEquals(2000000000, parseIntRange("+2000000000"));
+		assertEquals(Integer.MAX_VALUE, parseIntRange("2147483647"));
+		assertEquals(Integer.MIN_VALUE, parseIntRange("-2147483648"));
+		String[] bads = { "", " ", "-", "+", "2147483648", "-2147483649",
+			"20000000000", "2000000X", "1 2" };
+		for (int i = 0; i < bads.length; i++) {
+			try {
+				parseIntRange(bads[i]);
+				fail("Accepted '" + bads[i] + "'");
+			} catch (JiBXException ex) {}
+		}
+	}
+
+	public void testParseLongRange() throws JiBXException {
+		char[] chars = "-9223372036854775808 9223372036854775807".toCharArray();
+		assertEquals(Long.MIN_VALUE, Utility.parseLong(chars, 0, 20));
+		assertEquals(Long.MAX_VALUE, Utility.parseLong(chars, 21, 19));
+		assertEquals(-3, Utility.parseShort("-3".toCharArray(), 0, 2));
+		assertEquals(127, Utility.parseByte("127".toCharArray(), 0, 3));
+		assertEquals(65535, Utility.parseChar("65535".toCharArray(), 0, 5));
+		try {
+			Utility.parseLong("9223372036854775808".toCharArray(), 0, 19);
+			fail();
+		} catch (JiBXException ex) {}
+		try {
+			Utility.parseByte("128".toCharArray(), 0, 3);
+			fail();
+		} catch (JiBXException ex) {}
+		try {
+			Utility.parseChar("-1".toCharArray(), 0, 2);
+			fail();
+		} catch (JiBXException ex) {}
+	}
+
 	public void testSerializeInt() throws JiBXException {
 		assertEquals("0", Utility.serializeInt(0));
 		assertEquals("2000000", Utility.serializeInt(2000000));
@@ -852,6 +895,20 @@ public class UtilityTest extends TestCase {
 		assertEquals(Utility.serializeBase64
             ("what  will   print     out".getBytes()),
             "d2hhdCAgd2lsbCAgIHByaW50ICAgICBvdXQ=");
+		for (int length = 0; length < 300; length++) {
+			byte[] byts = new byte[length];
+			for (int i = 0; i < length; i++) {
+				byts[i] = (byte)(i * 7);
+			}
+			StringBuffer buff = new StringBuffer();
+			for (int i = 0; i < length; i += 3) {
+				Utility.encodeChunk(i, byts, buff);
+				if (i > 0 && i % 57 == 0 && (i + 3) < length) {
+					buff.append("\r\n");
+				}
+			}
+			assertEquals(buff.toString(), Utility.serializeBase64(byts));
+		}
 	}
 
 	public void testIsEqual() {
@@ -860,6 +917,24 @@ public class UtilityTest extends TestCase {
 		assertFalse(Utility.isEqual("text", null));
 		assertTrue(Utility.isEqual("text", "text"));
 	}
+
+	public void testFormatSynchronizedBuffer() throws JiBXException {
+		long time = Utility.parseDateTime("2026-10-17T12:30:00Z") +
+			Utility.TIME_BASE;
+		StringBuffer buff = new StringBuffer("x");
+		Utility.formatYearNumber(-5, buff);
+		Utility.formatTwoDigits(7, buff);
+		Utility.formatYear(time, buff);
+		assertEquals("x-0006072026", buff.toString());
+		buff.setLength(0);
+		long rem = Utility.formatYearMonth(time, buff);
+		assertEquals("2026-10", buff.toString());
+		assertEquals(Utility.formatYearMonth(time, new StringBuilder()), rem);
+		buff.setLength(0);
+		int extra = Utility.formatYearMonthDay(time, buff);
+		assertEquals("2026-10-17", buff.toString());
+		assertEquals(45000000, extra);
+	}
     
 	public static void main(String[] args) {
 		String[] names = { UtilityTest.class.getName() };
@@ -80,4 +80,30 @@ public class WhitespaceConversionsTest extends TestCase
         assertEquals("Trailing CR not converted", "ab", WhitespaceConversions.trim("\rab"));
         assertEquals("Leading/trailing spaces not converted", "ab", WhitespaceConversions.trim("   ab   "));
     }
+    
+    private static String normalize(int mode, String text, int split) {
+        char[] chars = text.toCharArray();
+        char[] buff = new char[chars.length];
+        int fill = WhitespaceConversions.appendNormalized(mode, chars, 0, split, buff, 0);
+        fill = WhitespaceConversions.appendNormalized(mode, chars, split, chars.length - split, buff, fill);
+        fill = WhitespaceConversions.finishNormalized(mode, buff, fill);
+        return new String(buff, 0, fill);
+    }
+    
+    public void testAppendNormalized() throws JiBXException {
+        String[] texts = { "", "ab", "  \t\r\n ", "a\tb", " a \t  b\n", "\r\nab c  d\t", "a  b ", " x" };
+        int[] modes = { WhitespaceConversions.PRESERVE, WhitespaceConversions.REPLACE, WhitespaceConversions.COLLAPSE,
+            WhitespaceConversions.TRIM };
+        for (int i = 0; i < texts.length; i++) {
+            String text = texts[i];
+            for (int j = 0; j < modes.length; j++) {
+                int mode = modes[j];
+                String expect = WhitespaceConversions.convert(text, mode);
+                for (int split = 0; split <= text.length(); split++) {
+                    assertEquals("Mode " + mode + " split " + split + " of '" + text + "'", expect,
+                        normalize(mode, text, split));
+                }
+            }
+        }
+    }
 }
\ No newline at end of file
@@ -0,0 +1,100 @@
+/*
+ * Created on Oct 17, 2026
+ */
+
+package org.jibx.runtime.impl;
+
+import java.io.ByteArrayOutputStream;
+
+import junit.framework.TestCase;
+
+import org.jibx.runtime.JiBXException;
+import org.jibx.runtime.Utility;
+
+/**
+ * Test incremental base64 decoding.
+ */
+public class Base64DecoderTest extends TestCase
+{
+    private static byte[] buildBytes(int length) {
+        byte[] byts = new byte[length];
+        for (int i = 0; i < length; i++) {
+            byts[i] = (byte)(i * 37 + 11);
+        }
+        return byts;
+    }
+    
+    private static void assertBytes(byte[] expect, byte[] actual) {
+        assertEquals(expect.length, actual.length);
+        for (int i = 0; i < expect.length; i++) {
+            assertEquals("byte " + i, expect[i], actual[i]);
+        }
+    }
+    
+    public void testSplitText() throws Exception {
+        for (int length = 0; length < 12; length++) {
+            byte[] byts = buildBytes(length);
+            char[] text = Utility.serializeBase64(byts).toCharArray();
+            for (int split = 0; split <= text.length; split++) {
+                Base64Decoder decoder = new Base64Decoder(0);
+                decoder.decode(text, 0, split);
+                decoder.decode(text, split, text.length - split);
+                decoder.finish();
+                assertBytes(byts, decoder.getBytes());
+            }
+        }
+    }
+    
+    public void testWhitespace() throws Exception {
+        byte[] byts = buildBytes(200);
+        String text = Utility.serializeBase64(byts);
+        assertTrue(text.indexOf('\n') > 0);
+        Base64Decoder decoder = new Base64Decoder(0);
+        decoder.decode(" \t" + text + "\n ");
+        decoder.finish();
+        assertBytes(byts, decoder.getBytes());
+    }
+    
+    public void testStream() throws Exception {
+        byte[] byts = buildBytes(10000);
+        char[] text = Utility.serializeBase64(byts).toCharArray();
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        Base64Decoder decoder = new Base64Decoder(out);
+        for (int i = 0; i < text.length; i += 1000) {
+            decoder.decode(text, i, Math.min(1000, text.length - i));
+        }
+        decoder.finish();
+        assertBytes(byts, out.toByteArray());
+    }
+    
+    private static void checkInvalid(String text) {
+        try {
+            Base64Decoder decoder = new Base64Decoder(0);
+            decoder.decode(text);
+            decoder.finish();
+            fail("Expected exception for '" + text + "'");
+        } catch (JiBXException e) { /* expected */ }
+    }
+    
+    public void testInvalid() throws Exception {
+        checkInvalid("QUJD=");
+        checkInvalid("QU=D");
+        checkInvalid("QUI=QUJD");
+        checkInvalid("Q===");
+        checkInvalid("QUJDR");
+    }
+    
+    public void testEncode() throws Exception {
+        for (int length = 0; length < 12; length++) {
+            byte[] byts = buildBytes(length + 2);
+            char[] chrs = new char[(length + 2) / 3 * 4 + 1];
+            chrs[0] = '!';
+            int fill = Utility.encodeBase64(byts, 1, length, chrs, 1);
+            assertEquals(chrs.length, fill);
+            byte[] expect = new byte[length];
+            System.arraycopy(byts, 1, expect, 0, length);
+            assertEquals(Utility.serializeBase64(expect),
+                new String(chrs, 1, fill - 1));
+        }
+    }
+}
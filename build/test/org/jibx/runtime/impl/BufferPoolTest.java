@@ -0,0 +1,127 @@
+/*
+ * Created on Oct 17, 2026
+ */
+
+package org.jibx.runtime.impl;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+
+import junit.framework.TestCase;
+
+/**
+ * Test the buffer pool and its use by the byte buffers.
+ */
+public class BufferPoolTest extends TestCase
+{
+    public void testSizeClasses() {
+        BufferPool pool = new BufferPool(1L << 30);
+        assertEquals(BufferPool.MINIMUM_SIZE, pool.borrow(1).length);
+        assertEquals(BufferPool.MINIMUM_SIZE,
+            pool.borrow(BufferPool.MINIMUM_SIZE).length);
+        assertEquals(BufferPool.MINIMUM_SIZE*2,
+            pool.borrow(BufferPool.MINIMUM_SIZE+1).length);
+        assertEquals(BufferPool.MAXIMUM_SIZE,
+            pool.borrow(BufferPool.MAXIMUM_SIZE-1).length);
+        assertEquals(BufferPool.MAXIMUM_SIZE+1,
+            pool.borrow(BufferPool.MAXIMUM_SIZE+1).length);
+        assertEquals(0, pool.getHitCount());
+        assertEquals(5, pool.getMissCount());
+    }
+    
+    public void testReuse() {
+        BufferPool pool = new BufferPool(1L << 30);
+        
+        // thread cache holds one array of each small size class
+        byte[] small1 = pool.borrow(10000);
+        byte[] small2 = pool.borrow(10000);
+        pool.release(small1);
+        pool.release(small2);
+        assertEquals(small2.length, pool.getRetainedBytes());
+        assertSame(small1, pool.borrow(9000));
+        assertSame(small2, pool.borrow(9000));
+        assertEquals(0, pool.getRetainedBytes());
+        
+        // large arrays always go to the shared pool
+        byte[] large = pool.borrow(1000000);
+        pool.release(large);
+        assertEquals(large.length, pool.getRetainedBytes());
+        assertSame(large, pool.borrow(600000));
+        assertEquals(3, pool.getHitCount());
+        assertEquals(3, pool.getMissCount());
+        pool.resetStatistics();
+        assertEquals(0, pool.getHitCount());
+        assertEquals(0, pool.getMissCount());
+    }
+    
+    public void testIgnoredArrays() {
+        BufferPool pool = new BufferPool(1L << 30);
+        pool.release(new byte[5000]);
+        pool.release(new byte[BufferPool.MAXIMUM_SIZE*2]);
+        pool.borrow(5000);
+        pool.borrow(BufferPool.MAXIMUM_SIZE*2);
+        assertEquals(0, pool.getHitCount());
+        assertEquals(0, pool.getRetainedBytes());
+    }
+    
+    public void testRetainedLimit() {
+        BufferPool pool = new BufferPool(BufferPool.MAXIMUM_SIZE);
+        byte[] first = pool.borrow(BufferPool.MAXIMUM_SIZE);
+        byte[] second = pool.borrow(BufferPool.MAXIMUM_SIZE);
+        pool.release(first);
+        pool.release(second);
+        assertEquals(BufferPool.MAXIMUM_SIZE, pool.getRetainedBytes());
+        assertSame(first, pool.borrow(BufferPool.MAXIMUM_SIZE));
+        assertNotSame(second, pool.borrow(BufferPool.MAXIMUM_SIZE));
+        pool.release(first);
+        pool.clear();
+        assertEquals(0, pool.getRetainedBytes());
+        pool.setMaximumRetained(0);
+        byte[] small = pool.borrow(100);
+        pool.release(small);
+        assertNotSame(small, pool.borrow(100));
+    }
+    
+    public void testOutByteBuffer() throws IOException {
+        OutByteBuffer buff = new OutByteBuffer();
+        byte[] initial = buff.getBuffer();
+        for (int pass = 0; pass < 2; pass++) {
+            ByteArrayOutputStream out = new ByteArrayOutputStream();
+            buff.setOutput(out);
+            buff.free(0, 100000);
+            byte[] array = buff.getBuffer();
+            assertTrue(array.length >= 100000);
+            for (int i = 0; i < 100000; i++) {
+                array[i] = (byte)i;
+            }
+            buff.setOffset(100000);
+            buff.finish();
+            assertSame(initial, buff.getBuffer());
+            byte[] bytes = out.toByteArray();
+            assertEquals(100000, bytes.length);
+            assertEquals((byte)99999, bytes[99999]);
+        }
+    }
+    
+    public void testInByteBuffer() throws IOException {
+        byte[] data = new byte[50000];
+        for (int i = 0; i < data.length; i++) {
+            data[i] = (byte)i;
+        }
+        InByteBuffer buff = new InByteBuffer();
+        byte[] initial = buff.getBuffer();
+        for (int pass = 0; pass < 2; pass++) {
+            buff.setInput(new ByteArrayInputStream(data));
+            assertTrue(buff.require(100));
+            buff.setOffset(buff.getOffset() + 10);
+            assertTrue(buff.require(data.length - 10));
+            byte[] array = buff.getBuffer();
+            assertEquals((byte)10, array[buff.getOffset()]);
+            assertEquals((byte)(data.length-1),
+                array[buff.getOffset()+data.length-11]);
+            buff.finish();
+            assertSame(initial, buff.getBuffer());
+        }
+    }
+}
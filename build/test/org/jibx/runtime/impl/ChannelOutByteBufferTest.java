@@ -0,0 +1,187 @@
+/*
+ * Created on Oct 16, 2026
+ */
+
+package org.jibx.runtime.impl;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.GatheringByteChannel;
+
+import junit.framework.TestCase;
+
+/**
+ * Test the channel output buffer.
+ */
+public class ChannelOutByteBufferTest extends TestCase
+{
+    /**
+     * Gathering channel accepting a limited number of bytes on each write
+     * call, to check handling of partial writes.
+     */
+    private static class GatherChannel implements GatheringByteChannel
+    {
+        private final ByteArrayOutputStream m_out =
+            new ByteArrayOutputStream();
+        private final int m_limit;
+        private int m_gathers;
+        private int m_writes;
+        private boolean m_closed;
+        
+        private GatherChannel(int limit) {
+            m_limit = limit;
+        }
+        
+        public long write(ByteBuffer[] srcs, int offset, int length) {
+            m_gathers++;
+            long total = 0;
+            for (int i = offset; i < offset + length; i++) {
+                total += write(srcs[i], (int)(m_limit - total));
+            }
+            return total;
+        }
+        
+        public long write(ByteBuffer[] srcs) {
+            return write(srcs, 0, srcs.length);
+        }
+        
+        private int write(ByteBuffer src, int max) {
+            int count = Math.min(src.remaining(), max);
+            for (int i = 0; i < count; i++) {
+                m_out.write(src.get());
+            }
+            return count;
+        }
+        
+        public int write(ByteBuffer src) {
+            m_writes++;
+            return write(src, m_limit);
+        }
+        
+        public boolean isOpen() {
+            return !m_closed;
+        }
+        
+        public void close() {
+            m_closed = true;
+        }
+    }
+    
+    /**
+     * Write a sequence of bytes through the buffer in chunks, using the buffer
+     * access rules followed by the stream writers.
+     *
+     * @param buff output buffer
+     * @param total number of bytes to write
+     * @param chunk number of bytes to write at a time
+     * @param reserve number of bytes reserved at end of buffer on each write
+     * @throws IOException on error
+     */
+    private static void writeBytes(ChannelOutByteBuffer buff, int total,
+        int chunk, int reserve) throws IOException {
+        int value = 0;
+        byte[] array = buff.getBuffer();
+        int offset = buff.getOffset();
+        while (value < total) {
+            int count = Math.min(chunk, total - value);
+            if (array.length - offset < count) {
+                buff.setOffset(offset);
+                buff.free(Math.max(offset - reserve, 0), count);
+                array = buff.getBuffer();
+                offset = buff.getOffset();
+            }
+            for (int i = 0; i < count; i++) {
+                array[offset++] = (byte)value++;
+            }
+        }
+        buff.setOffset(offset);
+        buff.finish();
+    }
+    
+    private static void verifyBytes(byte[] bytes, int total) {
+        assertEquals(total, bytes.length);
+        for (int i = 0; i < total; i++) {
+            if (bytes[i] != (byte)i) {
+                fail("Wrong value at offset " + i);
+            }
+        }
+    }
+    
+    public void testGatheringWrites() throws IOException {
+        ChannelOutByteBuffer buff = new ChannelOutByteBuffer(100, 4);
+        GatherChannel chan = new GatherChannel(Integer.MAX_VALUE);
+        buff.setOutput(chan);
+        writeBytes(buff, 10000, 30, 0);
+        verifyBytes(chan.m_out.toByteArray(), 10000);
+        assertTrue(chan.m_closed);
+        assertEquals(0, chan.m_writes);
+        assertTrue("Segments not combined", chan.m_gathers < 10000/100);
+    }
+    
+    public void testPartialWrites() throws IOException {
+        ChannelOutByteBuffer buff = new ChannelOutByteBuffer(64, 3);
+        GatherChannel chan = new GatherChannel(7);
+        buff.setOutput(chan);
+        writeBytes(buff, 5000, 17, 5);
+        verifyBytes(chan.m_out.toByteArray(), 5000);
+    }
+    
+    public void testGrowBuffer() throws IOException {
+        ChannelOutByteBuffer buff = new ChannelOutByteBuffer(16, 2);
+        GatherChannel chan = new GatherChannel(Integer.MAX_VALUE);
+        buff.setOutput(chan);
+        writeBytes(buff, 3000, 100, 10);
+        verifyBytes(chan.m_out.toByteArray(), 3000);
+        assertTrue(buff.getBuffer().length >= 100);
+    }
+    
+    public void testGrowWithSpares() throws IOException {
+        ChannelOutByteBuffer buff = new ChannelOutByteBuffer(100, 2);
+        GatherChannel chan = new GatherChannel(Integer.MAX_VALUE);
+        buff.setOutput(chan);
+        
+        // small writes first, so that spare arrays are accumulated
+        int[] chunks = { 30, 30, 30, 30, 30, 30, 30, 30, 30, 30, 150, 150, 150,
+            30, 150, 500, 30, 500, 500, 30, 30 };
+        int value = 0;
+        byte[] array = buff.getBuffer();
+        int offset = buff.getOffset();
+        for (int i = 0; i < chunks.length; i++) {
+            int count = chunks[i];
+            if (array.length - offset < count) {
+                buff.setOffset(offset);
+                buff.free(offset, count);
+                array = buff.getBuffer();
+                offset = buff.getOffset();
+                assertTrue("Insufficient space after free",
+                    array.length - offset >= count);
+            }
+            for (int j = 0; j < count; j++) {
+                array[offset++] = (byte)value++;
+            }
+        }
+        buff.setOffset(offset);
+        buff.finish();
+        verifyBytes(chan.m_out.toByteArray(), value);
+    }
+    
+    public void testSimpleChannel() throws IOException {
+        ChannelOutByteBuffer buff = new ChannelOutByteBuffer(50, 4);
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        buff.setOutput(Channels.newChannel(out));
+        writeBytes(buff, 2000, 13, 0);
+        verifyBytes(out.toByteArray(), 2000);
+    }
+    
+    public void testReuse() throws IOException {
+        ChannelOutByteBuffer buff = new ChannelOutByteBuffer(40, 2);
+        for (int i = 0; i < 3; i++) {
+            GatherChannel chan = new GatherChannel(Integer.MAX_VALUE);
+            buff.setOutput(chan);
+            writeBytes(buff, 1000, 9, 0);
+            verifyBytes(chan.m_out.toByteArray(), 1000);
+        }
+    }
+}
@@ -0,0 +1,137 @@
+/*
+ * Created on Oct 17, 2026
+ */
+
+package org.jibx.runtime.impl;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.StringReader;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+
+import junit.framework.TestCase;
+
+import org.jibx.runtime.IBindingFactory;
+import org.jibx.runtime.IXMLReader;
+
+/**
+ * Test concurrent marshalling and unmarshalling round trips, to check that
+ * threads sharing the runtime don't interfere with each other. All threads use
+ * the same binding factory, so they share its context pools and unmarshal map,
+ * and most documents are parsed through the pooled {@link StAXReaderFactory}.
+ */
+public class ConcurrencyTest extends TestCase
+{
+    private static final int THREAD_COUNT = 16;
+    
+    private static final int ROUND_TRIPS = 200;
+    
+    /**
+     * Perform one round trip, marshalling a document with values based on the
+     * thread and iteration numbers and then unmarshalling it and checking the
+     * values.
+     *
+     * @param fact binding factory shared by all threads
+     * @param thread thread number
+     * @param iter iteration number
+     * @throws Exception on any error
+     */
+    private static void roundTrip(IBindingFactory fact, int thread, int iter)
+        throws Exception {
+        String enc = (iter % 2 == 0) ? "UTF-8" : "ISO-8859-1";
+        MarshallingContext mctx =
+            (MarshallingContext)fact.borrowMarshallingContext();
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        mctx.startDocument(enc, null, out);
+        mctx.startTag(0, "items");
+        for (int i = 0; i < 20; i++) {
+            mctx.startTagAttributes(0, "item").attribute(0, "t", thread).
+                closeStartContent().content(iter * 100L + i).endTag(0, "item");
+        }
+        mctx.endTag(0, "items");
+        mctx.endDocument();
+        fact.releaseMarshallingContext(mctx);
+        
+        // new context each time, so every round trip gets the unmarshal map
+        UnmarshallingContext uctx =
+            (UnmarshallingContext)fact.createUnmarshallingContext();
+        byte[] bytes = out.toByteArray();
+        StAXReaderFactory stax = StAXReaderFactory.getInstance();
+        boolean nsf = (iter / 3) % 2 == 0;
+        switch (iter % 3) {
+            
+            case 0:
+                uctx.setDocument(new ByteArrayInputStream(bytes), enc);
+                break;
+                
+            case 1:
+                uctx.setDocument(stax.createReader
+                    (new ByteArrayInputStream(bytes), null, enc, nsf));
+                break;
+                
+            default:
+                uctx.setDocument(stax.createReader
+                    (new StringReader(new String(bytes, enc)), null, nsf));
+                break;
+                
+        }
+        uctx.parsePastStartTag(null, "items");
+        for (int i = 0; i < 20; i++) {
+            uctx.toStart();
+            assertEquals(thread, uctx.attributeInt(null, "t"));
+            assertEquals(Long.toString(iter * 100L + i),
+                uctx.unmarshalElement());
+        }
+        uctx.parsePastEndTag(null, "items");
+    }
+    
+    public void testRoundTrips() throws Exception {
+        final IBindingFactory fact = new TestBindingFactory();
+        final CountDownLatch start = new CountDownLatch(1);
+        final List failures = Collections.synchronizedList(new ArrayList());
+        Thread[] threads = new Thread[THREAD_COUNT];
+        for (int i = 0; i < THREAD_COUNT; i++) {
+            final int number = i;
+            threads[i] = new Thread() {
+                public void run() {
+                    try {
+                        start.await();
+                        for (int j = 0; j < ROUND_TRIPS; j++) {
+                            roundTrip(fact, number, j);
+                        }
+                    } catch (Throwable t) {
+                        failures.add(t);
+                    }
+                }
+            };
+        }
+        for (int i = 0; i < THREAD_COUNT; i++) {
+            threads[i].start();
+        }
+        start.countDown();
+        for (int i = 0; i < THREAD_COUNT; i++) {
+            threads[i].join();
+        }
+        if (!failures.isEmpty()) {
+            Throwable t = (Throwable)failures.get(0);
+            t.printStackTrace();
+            fail(failures.size() + " threads failed, first with " + t);
+        }
+    }
+    
+    public void testStAXNamespaceHandling() throws Exception {
+        StAXReaderFactory fact = StAXReaderFactory.getInstance();
+        String xml = "<a:x xmlns:a=\"urn:a\"/>";
+        for (int i = 0; i < 4; i++) {
+            boolean nsf = i % 2 == 0;
+            IXMLReader rdr = fact.createReader(new StringReader(xml), null,
+                nsf);
+            assertEquals(nsf, rdr.isNamespaceAware());
+            rdr.next();
+            assertEquals(nsf ? "x" : "a:x", rdr.getName());
+        }
+    }
+}
@@ -0,0 +1,208 @@
+/*
+ * Created on Oct 16, 2026
+ */
+
+package org.jibx.runtime.impl;
+
+import java.io.ByteArrayInputStream;
+import java.io.StringReader;
+import java.nio.ByteBuffer;
+
+import junit.framework.TestCase;
+
+import org.jibx.runtime.IMarshallingContext;
+import org.jibx.runtime.IUnmarshallingContext;
+import org.jibx.runtime.IXMLReader;
+import org.jibx.runtime.JiBXException;
+
+/**
+ * Test the lock-free pool used for recycling contexts, and the borrow and
+ * release methods of the binding factory using the pool.
+ */
+public class ContextPoolTest extends TestCase
+{
+    public void testEmptyPool() {
+        ContextPool pool = new ContextPool(4);
+        assertEquals(4, pool.getCapacity());
+        assertNull(pool.borrow());
+    }
+    
+    public void testBorrowRelease() {
+        ContextPool pool = new ContextPool(2);
+        Object a = new Object();
+        Object b = new Object();
+        assertTrue(pool.release(a));
+        assertTrue(pool.release(b));
+        assertFalse(pool.release(new Object()));
+        Object first = pool.borrow();
+        Object second = pool.borrow();
+        assertNotNull(first);
+        assertNotNull(second);
+        assertNotSame(first, second);
+        assertTrue(first == a || first == b);
+        assertTrue(second == a || second == b);
+        assertNull(pool.borrow());
+    }
+    
+    public void testDisabledPool() {
+        ContextPool pool = new ContextPool(0);
+        assertFalse(pool.release(new Object()));
+        assertNull(pool.borrow());
+    }
+    
+    public void testClear() {
+        ContextPool pool = new ContextPool(3);
+        pool.release(new Object());
+        pool.release(new Object());
+        pool.clear();
+        assertNull(pool.borrow());
+    }
+    
+    public void testConcurrentUse() throws InterruptedException {
+        final ContextPool pool = new ContextPool(4);
+        final int[] errors = new int[1];
+        Thread[] threads = new Thread[8];
+        for (int i = 0; i < threads.length; i++) {
+            threads[i] = new Thread() {
+                public void run() {
+                    for (int j = 0; j < 10000; j++) {
+                        Object obj = pool.borrow();
+                        if (obj == null) {
+                            obj = new int[] { 0 };
+                        }
+                        int[] count = (int[])obj;
+                        if (count[0] != 0) {
+                            synchronized (errors) {
+                                errors[0]++;
+                            }
+                        }
+                        count[0]++;
+                        count[0]--;
+                        pool.release(obj);
+                    }
+                }
+            };
+            threads[i].start();
+        }
+        for (int i = 0; i < threads.length; i++) {
+            threads[i].join();
+        }
+        assertEquals(0, errors[0]);
+    }
+    
+    public void testFactoryBorrowRelease() throws JiBXException {
+        TestBindingFactory fact = new TestBindingFactory();
+        fact.setContextPoolSize(2);
+        IMarshallingContext mctx = fact.borrowMarshallingContext();
+        IUnmarshallingContext uctx = fact.borrowUnmarshallingContext();
+        assertNotSame(mctx, fact.borrowMarshallingContext());
+        assertNotSame(uctx, fact.borrowUnmarshallingContext());
+        fact.releaseMarshallingContext(mctx);
+        fact.releaseUnmarshallingContext(uctx);
+        assertSame(mctx, fact.borrowMarshallingContext());
+        assertSame(uctx, fact.borrowUnmarshallingContext());
+        
+        // contexts from another factory, and null, are ignored
+        fact.releaseUnmarshallingContext(null);
+        IUnmarshallingContext other =
+            new TestBindingFactory().createUnmarshallingContext();
+        fact.releaseUnmarshallingContext(other);
+        assertNotSame(other, fact.borrowUnmarshallingContext());
+    }
+    
+    public void testFactoryDoubleRelease() throws JiBXException {
+        TestBindingFactory fact = new TestBindingFactory();
+        fact.setContextPoolSize(4);
+        IMarshallingContext mctx = fact.borrowMarshallingContext();
+        IUnmarshallingContext uctx = fact.borrowUnmarshallingContext();
+        fact.releaseMarshallingContext(mctx);
+        fact.releaseMarshallingContext(mctx);
+        fact.releaseUnmarshallingContext(uctx);
+        fact.releaseUnmarshallingContext(uctx);
+        assertSame(mctx, fact.borrowMarshallingContext());
+        assertNotSame(mctx, fact.borrowMarshallingContext());
+        assertSame(uctx, fact.borrowUnmarshallingContext());
+        assertNotSame(uctx, fact.borrowUnmarshallingContext());
+    }
+    
+    public void testFactoryPoolCapacity() throws JiBXException {
+        TestBindingFactory fact = new TestBindingFactory();
+        fact.setContextPoolSize(1);
+        assertEquals(1, fact.getContextPoolSize());
+        IUnmarshallingContext first = fact.borrowUnmarshallingContext();
+        IUnmarshallingContext second = fact.borrowUnmarshallingContext();
+        fact.releaseUnmarshallingContext(first);
+        fact.releaseUnmarshallingContext(second);
+        assertSame(first, fact.borrowUnmarshallingContext());
+        IUnmarshallingContext third = fact.borrowUnmarshallingContext();
+        assertNotSame(first, third);
+        assertNotSame(second, third);
+        
+        // pooling disabled
+        fact.setContextPoolSize(0);
+        fact.releaseUnmarshallingContext(first);
+        assertNotSame(first, fact.borrowUnmarshallingContext());
+    }
+    
+    public void testFactoryReleaseResets() throws JiBXException {
+        TestBindingFactory fact = new TestBindingFactory();
+        MarshallingContext mctx =
+            (MarshallingContext)fact.borrowMarshallingContext();
+        mctx.setUserContext("user");
+        mctx.setIndent(2);
+        fact.releaseMarshallingContext(mctx);
+        assertSame(mctx, fact.borrowMarshallingContext());
+        assertNull(mctx.getUserContext());
+        assertEquals(-1, mctx.getIndent());
+        
+        UnmarshallingContext uctx =
+            (UnmarshallingContext)fact.borrowUnmarshallingContext();
+        uctx.setDocument(new StringReader("<item>a</item>"));
+        uctx.setUserContext("user");
+        uctx.pushObject("outer");
+        fact.releaseUnmarshallingContext(uctx);
+        assertSame(uctx, fact.borrowUnmarshallingContext());
+        assertNull(uctx.getUserContext());
+        assertEquals(0, uctx.getStackDepth());
+        uctx.setDocument(new StringReader("<item>b</item>"));
+        assertEquals("b", uctx.unmarshalElement());
+    }
+    
+    public void testFactoryReleaseClearsDocument() throws Exception {
+        TestBindingFactory fact = new TestBindingFactory();
+        UnmarshallingContext uctx =
+            (UnmarshallingContext)fact.borrowUnmarshallingContext();
+        uctx.setDocument(ByteBuffer.wrap("<item>a</item>".getBytes("UTF-8")),
+            "first", null);
+        assertEquals("first", uctx.getDocumentName());
+        uctx.toStart();
+        fact.releaseUnmarshallingContext(uctx);
+        assertSame(uctx, fact.borrowUnmarshallingContext());
+        assertNull(uctx.getDocumentName());
+        uctx.setDocument(ByteBuffer.wrap("<item>b</item>".getBytes("UTF-8")),
+            "second", null);
+        assertEquals("second", uctx.getDocumentName());
+        assertEquals("b", uctx.unmarshalElement());
+    }
+    
+    public void testFactoryReleaseKeepsPullReader() throws Exception {
+        TestBindingFactory fact = new TestBindingFactory();
+        XMLPullReaderFactory rfact = XMLPullReaderFactory.getInstance();
+        UnmarshallingContext uctx =
+            (UnmarshallingContext)fact.borrowUnmarshallingContext();
+        IXMLReader rdr = rfact.createReader(new ByteArrayInputStream
+            ("<item>a</item>".getBytes("UTF-8")), "first", null, true);
+        uctx.setDocument(rdr);
+        assertEquals("a", uctx.unmarshalElement());
+        fact.releaseUnmarshallingContext(uctx);
+        assertSame(uctx, fact.borrowUnmarshallingContext());
+        assertSame(rdr, uctx.getReader());
+        assertNull(uctx.getDocumentName());
+        uctx.setDocument(rfact.recycleReader(uctx.getReader(),
+            new ByteArrayInputStream("<item>b</item>".getBytes("UTF-8")),
+            "second", null));
+        assertSame(rdr, uctx.getReader());
+        assertEquals("second", uctx.getDocumentName());
+        assertEquals("b", uctx.unmarshalElement());
+    }
+}
@@ -0,0 +1,292 @@
+/*
+ * Created on Oct 17, 2026
+ */
+
+package org.jibx.runtime.impl;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.StringReader;
+import java.lang.management.ManagementFactory;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.util.Iterator;
+
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+
+import junit.framework.TestCase;
+
+import org.jibx.runtime.IMarshallable;
+import org.jibx.runtime.IMarshallingContext;
+import org.jibx.runtime.IUnmarshaller;
+import org.jibx.runtime.IUnmarshallingContext;
+import org.jibx.runtime.JiBXException;
+
+/**
+ * Test the counting runtime monitor and the monitor hooks in the contexts and
+ * buffers.
+ */
+public class CountingRuntimeMonitorTest extends TestCase
+{
+    /**
+     * Root object marshalled as an <code>item</code> element with text content.
+     */
+    private static class Item implements IMarshallable
+    {
+        private final String m_text;
+        
+        private Item(String text) {
+            m_text = text;
+        }
+        
+        public String JiBX_getName() {
+            return "item";
+        }
+        
+        public void marshal(IMarshallingContext ctx) throws JiBXException {
+            if (m_text == null) {
+                throw new JiBXException("No text");
+            }
+            ((MarshallingContext)ctx).element(0, "item", m_text);
+        }
+    }
+    
+    /**
+     * Unmarshaller for an <code>item</code> element which defines the text
+     * content as an ID, and registers a forward reference to the ID given by
+     * the optional <code>next</code> attribute.
+     */
+    public static class IdItemUnmarshaller implements IUnmarshaller
+    {
+        public boolean isPresent(IUnmarshallingContext ctx)
+            throws JiBXException {
+            return ctx.isAt(null, "item");
+        }
+
+        public Object unmarshal(Object obj, IUnmarshallingContext ctx)
+            throws JiBXException {
+            UnmarshallingContext uctx = (UnmarshallingContext)ctx;
+            String next = uctx.attributeText(null, "next", null);
+            if (next != null) {
+                uctx.registerBackFill(next, 0, new BackFillReference() {
+                    public void backfill(Object obj) {}
+                });
+            }
+            String text = uctx.parseElementText(null, "item");
+            uctx.defineID(text, 0, text);
+            return text;
+        }
+    }
+    
+    private static final String[] URIS = {
+        "", MarshallingContext.XML_NAMESPACE
+    };
+    
+    private CountingRuntimeMonitor m_monitor;
+    
+    protected void setUp() {
+        m_monitor = new CountingRuntimeMonitor();
+    }
+    
+    protected void tearDown() {
+        RuntimeSupport.setDefaultMonitor(null);
+    }
+    
+    private MarshallingContext createMarshallingContext() {
+        MarshallingContext ctx = new MarshallingContext(new String[0],
+            new String[0], URIS, null);
+        ctx.setMonitor(m_monitor);
+        return ctx;
+    }
+    
+    private UnmarshallingContext createUnmarshallingContext() throws JiBXException {
+        UnmarshallingContext ctx = (UnmarshallingContext)new TestBindingFactory().
+            createUnmarshallingContext();
+        ctx.setMonitor(m_monitor);
+        return ctx;
+    }
+    
+    public void testDefaultMonitor() throws JiBXException {
+        assertSame(NullRuntimeMonitor.INSTANCE,
+            RuntimeSupport.getDefaultMonitor());
+        assertSame(NullRuntimeMonitor.INSTANCE,
+            new UnmarshallingContext().getMonitor());
+        RuntimeSupport.setDefaultMonitor(m_monitor);
+        assertSame(m_monitor, new UnmarshallingContext().getMonitor());
+        assertSame(m_monitor, new MarshallingContext(new String[0],
+            new String[0], URIS, null).getMonitor());
+        MarshallingContext mctx = createMarshallingContext();
+        mctx.setMonitor(null);
+        assertSame(NullRuntimeMonitor.INSTANCE, mctx.getMonitor());
+    }
+    
+    public void testUnmarshal() throws Exception {
+        byte[] bytes = "<item>text</item>".getBytes("UTF-8");
+        UnmarshallingContext ctx = createUnmarshallingContext();
+        for (int i = 0; i < 3; i++) {
+            ctx.setDocument(ByteBuffer.wrap(bytes), null, "UTF-8");
+            assertEquals("text", ctx.unmarshalElement());
+        }
+        assertEquals(3, m_monitor.getDocumentsOpened());
+        assertEquals(3, m_monitor.getUnmarshalCount());
+        assertEquals(0, m_monitor.getUnmarshalFailures());
+        assertEquals(3 * bytes.length, m_monitor.getBytesRead());
+        assertEquals(3, m_monitor.getRootUnmarshalCount("java.lang.String"));
+        assertEquals(m_monitor.getUnmarshalTime(),
+            m_monitor.getRootUnmarshalTime("java.lang.String"));
+        assertTrue(m_monitor.getUnmarshalTimePercentile(50.0) > 0);
+        assertTrue(m_monitor.getUnmarshalTimePercentile(100.0) >=
+            m_monitor.getUnmarshalTimePercentile(50.0));
+        
+        // unmapped root element reported as failure
+        ctx.setDocument(ByteBuffer.wrap("<other/>".getBytes("UTF-8")), null,
+            "UTF-8");
+        try {
+            ctx.unmarshalElement();
+            fail("Expected JiBXException");
+        } catch (JiBXException e) { /* expected */ }
+        assertEquals(4, m_monitor.getDocumentsOpened());
+        assertEquals(3, m_monitor.getUnmarshalCount());
+        assertEquals(1, m_monitor.getUnmarshalFailures());
+    }
+    
+    public void testIdCounts() throws Exception {
+        UnmarshallingContext ctx = createUnmarshallingContext();
+        ctx.setDocument(ByteBuffer.wrap("<item>text</item>".getBytes("UTF-8")),
+            null, "UTF-8");
+        final Object[] holder = new Object[2];
+        ctx.registerBackFill("b", 0, new BackFillReference() {
+            public void backfill(Object obj) {
+                holder[0] = obj;
+            }
+        });
+        ctx.registerBackFill("b", 0, new BackFillReference() {
+            public void backfill(Object obj) {
+                holder[1] = obj;
+            }
+        });
+        ctx.defineID("a", 0, "first");
+        ctx.defineID("b", 0, "second");
+        ctx.unmarshalElement();
+        assertEquals("second", holder[0]);
+        assertEquals("second", holder[1]);
+        assertEquals(2, m_monitor.getIdCount());
+        assertEquals(2, m_monitor.getMaximumIdCount());
+        assertEquals(2, m_monitor.getBackFillCount());
+        
+        // counts are per document
+        ctx.setDocument(ByteBuffer.wrap("<item>text</item>".getBytes("UTF-8")),
+            null, "UTF-8");
+        ctx.defineID("c", 0, "third");
+        ctx.unmarshalElement();
+        assertEquals(3, m_monitor.getIdCount());
+        assertEquals(2, m_monitor.getMaximumIdCount());
+        assertEquals(2, m_monitor.getBackFillCount());
+    }
+    
+    public void testIdCountsPerRecord() throws Exception {
+        UnmarshallingContext ctx = (UnmarshallingContext)new TestBindingFactory(
+            IdItemUnmarshaller.class.getName(),
+            TestBindingFactory.ItemMarshaller.class.getName()).
+            createUnmarshallingContext();
+        ctx.setMonitor(m_monitor);
+        ctx.setDocument(new StringReader("<items><item next=\"b\">a</item>" +
+            "<item next=\"c\">b</item><item>c</item></items>"));
+        Iterator iter = ctx.iterateElements();
+        assertEquals("a", iter.next());
+        assertEquals("b", iter.next());
+        assertEquals("c", iter.next());
+        assertFalse(iter.hasNext());
+        
+        // each record reports only its own IDs and back-fills
+        assertEquals(3, m_monitor.getUnmarshalCount());
+        assertEquals(3, m_monitor.getIdCount());
+        assertEquals(1, m_monitor.getMaximumIdCount());
+        assertEquals(2, m_monitor.getBackFillCount());
+    }
+    
+    public void testMarshal() throws Exception {
+        MarshallingContext ctx = createMarshallingContext();
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        ctx.marshalDocument(new Item("text"), "UTF-8", null, out);
+        assertEquals(1, m_monitor.getMarshalCount());
+        assertEquals(1, m_monitor.getDocumentsEnded());
+        assertEquals(out.size(), m_monitor.getBytesWritten());
+        assertEquals(1, m_monitor.getRootMarshalCount(Item.class.getName()));
+        String[] roots = m_monitor.getRootClasses();
+        assertEquals(1, roots.length);
+        assertEquals(Item.class.getName(), roots[0]);
+        
+        // failure in marshalling
+        try {
+            ctx.marshalDocument(new Item(null), "UTF-8", null,
+                new ByteArrayOutputStream());
+            fail("Expected JiBXException");
+        } catch (JiBXException e) { /* expected */ }
+        assertEquals(1, m_monitor.getMarshalCount());
+        assertEquals(1, m_monitor.getMarshalFailures());
+        
+        m_monitor.reset();
+        assertEquals(0, m_monitor.getMarshalCount());
+        assertEquals(0, m_monitor.getBytesWritten());
+        assertEquals(0, m_monitor.getMarshalTimePercentile(99.0));
+        assertEquals(0, m_monitor.getRootClasses().length);
+    }
+    
+    public void testBufferGrowth() throws Exception {
+        OutByteBuffer buff = new OutByteBuffer(16);
+        buff.setMonitor(m_monitor);
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        buff.setOutput(out);
+        buff.setOffset(10);
+        buff.free(10, 40);
+        assertEquals(1, m_monitor.getBufferGrowths());
+        assertEquals(10, m_monitor.getBytesWritten());
+        buff.setOffset(buff.getOffset() + 20);
+        buff.finish();
+        assertEquals(30, m_monitor.getBytesWritten());
+        assertEquals(30, out.size());
+    }
+    
+    public void testContextMonitorUsedByBuffers() throws Exception {
+        UnmarshallingContext uctx = createUnmarshallingContext();
+        MarshallingContext mctx = createMarshallingContext();
+        CountingRuntimeMonitor other = new CountingRuntimeMonitor();
+        RuntimeSupport.setDefaultMonitor(other);
+        byte[] bytes = "<item>text</item>".getBytes("UTF-8");
+        uctx.setDocument(ByteBuffer.wrap(bytes), null, null);
+        assertEquals("text", uctx.unmarshalElement());
+        assertEquals(bytes.length, m_monitor.getBytesRead());
+        uctx.setDocument(UTF8ReaderFactory.getInstance().createReader
+            (new ByteArrayInputStream(bytes), null, null, true, m_monitor));
+        assertEquals("text", uctx.unmarshalElement());
+        assertEquals(2 * bytes.length, m_monitor.getBytesRead());
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        mctx.setOutput(Channels.newChannel(out), "UTF-8");
+        mctx.marshalDocument(new Item("text"));
+        assertEquals(out.size(), m_monitor.getBytesWritten());
+        mctx.setOutput(new ByteArrayOutputStream(), "UTF-8");
+        mctx.marshalDocument(new Item("more"));
+        assertEquals(2 * out.size(), m_monitor.getBytesWritten());
+        assertEquals(0, other.getBytesRead());
+        assertEquals(0, other.getBytesWritten());
+    }
+    
+    public void testRegister() throws Exception {
+        MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+        ObjectName name = m_monitor.register();
+        try {
+            assertEquals(CountingRuntimeMonitor.DEFAULT_OBJECT_NAME,
+                name.toString());
+            createMarshallingContext().marshalDocument(new Item("x"), "UTF-8",
+                null, new ByteArrayOutputStream());
+            assertEquals(new Long(1), server.getAttribute(name,
+                "MarshalCount"));
+        } finally {
+            m_monitor.unregister();
+        }
+        assertFalse(server.isRegistered(name));
+        m_monitor.unregister();
+    }
+}
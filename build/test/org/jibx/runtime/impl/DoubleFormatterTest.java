@@ -0,0 +1,154 @@
+/*
+ * Created on Oct 17, 2026
+ */
+
+package org.jibx.runtime.impl;
+
+import java.math.BigDecimal;
+import java.math.MathContext;
+import java.math.RoundingMode;
+import java.util.Random;
+
+import junit.framework.TestCase;
+
+/**
+ * Test shortest decimal formatting of floating point values.
+ */
+public class DoubleFormatterTest extends TestCase
+{
+    public void testDoubleValues() {
+        assertEquals("0.0", DoubleFormatter.toString(0.0));
+        assertEquals("-0.0", DoubleFormatter.toString(-0.0));
+        assertEquals("1.0", DoubleFormatter.toString(1.0));
+        assertEquals("-1.5", DoubleFormatter.toString(-1.5));
+        assertEquals("100.0", DoubleFormatter.toString(100.0));
+        assertEquals("0.1", DoubleFormatter.toString(0.1));
+        assertEquals("0.001", DoubleFormatter.toString(0.001));
+        assertEquals("0.002", DoubleFormatter.toString(2.0E-3));
+        assertEquals("1.0E-4", DoubleFormatter.toString(1.0E-4));
+        assertEquals("9999999.0", DoubleFormatter.toString(9999999.0));
+        assertEquals("1.0E7", DoubleFormatter.toString(1.0E7));
+        assertEquals("1.2345678E7", DoubleFormatter.toString(12345678.0));
+        assertEquals("1.0E23", DoubleFormatter.toString(1.0E23));
+        assertEquals("2.0E23", DoubleFormatter.toString(2.0E23));
+        assertEquals("0.30000000000000004", DoubleFormatter.toString(0.1 + 0.2));
+        assertEquals("9.007199254740992E15",
+            DoubleFormatter.toString(9007199254740992.0));
+        assertEquals("1.7976931348623157E308",
+            DoubleFormatter.toString(Double.MAX_VALUE));
+        assertEquals("2.2250738585072014E-308",
+            DoubleFormatter.toString(Double.MIN_NORMAL));
+        assertEquals("4.9E-324", DoubleFormatter.toString(Double.MIN_VALUE));
+        assertEquals("9.9E-324", DoubleFormatter.toString(2 * Double.MIN_VALUE));
+        assertEquals("INF", DoubleFormatter.toString(Double.POSITIVE_INFINITY));
+        assertEquals("-INF", DoubleFormatter.toString(Double.NEGATIVE_INFINITY));
+        assertEquals("NaN", DoubleFormatter.toString(Double.NaN));
+    }
+    
+    public void testFloatValues() {
+        assertEquals("0.0", DoubleFormatter.toString(0.0f));
+        assertEquals("-0.0", DoubleFormatter.toString(-0.0f));
+        assertEquals("1.0", DoubleFormatter.toString(1.0f));
+        assertEquals("0.1", DoubleFormatter.toString(0.1f));
+        assertEquals("1.0E-10", DoubleFormatter.toString(1.0E-10f));
+        assertEquals("1.0E9", DoubleFormatter.toString(1.0E9f));
+        assertEquals("3.4028235E38", DoubleFormatter.toString(Float.MAX_VALUE));
+        assertEquals("1.1754944E-38",
+            DoubleFormatter.toString(Float.MIN_NORMAL));
+        assertEquals("1.4E-45", DoubleFormatter.toString(Float.MIN_VALUE));
+        assertEquals("INF", DoubleFormatter.toString(Float.POSITIVE_INFINITY));
+        assertEquals("-INF", DoubleFormatter.toString(Float.NEGATIVE_INFINITY));
+        assertEquals("NaN", DoubleFormatter.toString(Float.NaN));
+    }
+    
+    public void testBufferOffset() {
+        byte[] buff = new byte[DoubleFormatter.MAX_LENGTH + 2];
+        int end = DoubleFormatter.format(-2.2250738585072014E-308, buff, 2);
+        assertEquals(buff.length, end);
+        assertEquals("-2.2250738585072014E-308", new String(buff, 2, end - 2));
+    }
+    
+    private static int countDigits(String text) {
+        int count = 0;
+        boolean lead = true;
+        int last = 0;
+        for (int i = 0; i < text.length(); i++) {
+            char chr = text.charAt(i);
+            if (chr == 'E') {
+                break;
+            } else if (chr >= '1' && chr <= '9') {
+                lead = false;
+                count++;
+                last = count;
+            } else if (chr == '0' && !lead) {
+                count++;
+            }
+        }
+        return last;
+    }
+    
+    private static void checkShortest(double value, String text) {
+        assertEquals(text, Double.doubleToLongBits(value),
+            Double.doubleToLongBits(Double.parseDouble(text)));
+        int digits = countDigits(text);
+        if (digits > 2) {
+            BigDecimal exact = new BigDecimal(value);
+            MathContext down = new MathContext(digits - 1, RoundingMode.FLOOR);
+            MathContext up = new MathContext(digits - 1, RoundingMode.CEILING);
+            assertTrue(text, exact.round(down).doubleValue() != value);
+            assertTrue(text, exact.round(up).doubleValue() != value);
+        }
+    }
+    
+    private static void checkShortest(float value, String text) {
+        assertEquals(text, Float.floatToIntBits(value),
+            Float.floatToIntBits(Float.parseFloat(text)));
+        int digits = countDigits(text);
+        if (digits > 2) {
+            BigDecimal exact = new BigDecimal(value);
+            MathContext down = new MathContext(digits - 1, RoundingMode.FLOOR);
+            MathContext up = new MathContext(digits - 1, RoundingMode.CEILING);
+            assertTrue(text, exact.round(down).floatValue() != value);
+            assertTrue(text, exact.round(up).floatValue() != value);
+        }
+    }
+    
+    public void testRandomValues() {
+        Random rand = new Random(24);
+        for (int i = 0; i < 20000; i++) {
+            double dvalue = Double.longBitsToDouble(rand.nextLong());
+            if (!Double.isNaN(dvalue) && !Double.isInfinite(dvalue)) {
+                checkShortest(dvalue, DoubleFormatter.toString(dvalue));
+            }
+            dvalue = rand.nextInt(100000000) / 1000.0;
+            checkShortest(dvalue, DoubleFormatter.toString(dvalue));
+            float fvalue = Float.intBitsToFloat(rand.nextInt());
+            if (!Float.isNaN(fvalue) && !Float.isInfinite(fvalue)) {
+                checkShortest(fvalue, DoubleFormatter.toString(fvalue));
+            }
+        }
+    }
+    
+    public void testPowerBoundaries() {
+        for (int exp = 0; exp < 0x7FF; exp++) {
+            long bits = (long)exp << 52;
+            double[] values = {
+                Double.longBitsToDouble(bits), Double.longBitsToDouble(bits + 1),
+                Double.longBitsToDouble(bits | 0xFFFFFFFFFFFFFL)
+            };
+            for (int i = 0; i < values.length; i++) {
+                checkShortest(values[i], DoubleFormatter.toString(values[i]));
+            }
+        }
+        for (int exp = 0; exp < 0xFF; exp++) {
+            int bits = exp << 23;
+            float[] values = {
+                Float.intBitsToFloat(bits), Float.intBitsToFloat(bits + 1),
+                Float.intBitsToFloat(bits | 0x7FFFFF)
+            };
+            for (int i = 0; i < values.length; i++) {
+                checkShortest(values[i], DoubleFormatter.toString(values[i]));
+            }
+        }
+    }
+}
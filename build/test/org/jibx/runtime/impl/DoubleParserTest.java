@@ -0,0 +1,93 @@
+/*
+ * Created on Oct 17, 2026
+ */
+
+package org.jibx.runtime.impl;
+
+import java.math.BigDecimal;
+import java.util.Random;
+
+import junit.framework.TestCase;
+
+/**
+ * Test fast parsing of floating point values, checking that the results match
+ * the standard Java methods.
+ */
+public class DoubleParserTest extends TestCase
+{
+    private static final String[] TEXTS = {
+        "0", "-0", "+0", "0.0", "-0.0", ".5", "5.", "1e5", "1E-5", "-1.5e+3",
+        "00000001.50000", "9007199254740993", "9007199254740992",
+        "123456789012345678901", "9999999999999999999", "18446744073709551615",
+        "1e23", "8.589973e9", "0.1", "0.3", "1e400", "-1e400", "1e-400",
+        "0e999999999", "1e0000000000000005", "1e-99999999999",
+        "1.7976931348623157e308", "1.7976931348623159e308",
+        "2.2250738585072011e-308", "2.2250738585072012e-308", "4.9e-324",
+        "2.4703282292062327e-324", "2.4703282292062328e-324",
+        "3.4028235e38", "3.4028236e38", "1.4e-45", "7e-46", "16777217",
+        "1.00000005960464477539062499", "1.000000059604644775390625",
+        "1.00000005960464477539062501", "NaN", "-Infinity", "0x1p3", "1d"
+    };
+    
+    private static final String[] INVALIDS = {
+        "", "-", "+", ".", "e5", "1e", "1e+", "1.2.3", "1x", "--1", "1e5.0"
+    };
+    
+    private static void checkValue(String text) {
+        assertEquals(text, Double.doubleToRawLongBits(Double.parseDouble(text)),
+            Double.doubleToRawLongBits(DoubleParser.parseDouble(text)));
+        assertEquals(text, Float.floatToRawIntBits(Float.parseFloat(text)),
+            Float.floatToRawIntBits(DoubleParser.parseFloat(text)));
+    }
+    
+    public void testValues() {
+        for (int i = 0; i < TEXTS.length; i++) {
+            checkValue(TEXTS[i]);
+        }
+    }
+    
+    public void testInvalid() {
+        for (int i = 0; i < INVALIDS.length; i++) {
+            try {
+                DoubleParser.parseDouble(INVALIDS[i]);
+                fail("Expected exception for '" + INVALIDS[i] + "'");
+            } catch (NumberFormatException e) { /* expected */ }
+            try {
+                DoubleParser.parseFloat(INVALIDS[i]);
+                fail("Expected exception for '" + INVALIDS[i] + "'");
+            } catch (NumberFormatException e) { /* expected */ }
+        }
+    }
+    
+    public void testRandomValues() {
+        Random rand = new Random(24);
+        for (int i = 0; i < 20000; i++) {
+            double dvalue = Double.longBitsToDouble(rand.nextLong());
+            if (!Double.isNaN(dvalue) && !Double.isInfinite(dvalue)) {
+                checkValue(Double.toString(dvalue));
+                
+                // check text for midpoint with next value up
+                double next = Math.nextUp(Math.abs(dvalue));
+                if (!Double.isInfinite(next)) {
+                    BigDecimal mid = new BigDecimal(Math.abs(dvalue)).
+                        add(new BigDecimal(next)).divide(BigDecimal.valueOf(2));
+                    if (mid.precision() <= 19) {
+                        checkValue(mid.toString());
+                    }
+                }
+            }
+            float fvalue = Float.intBitsToFloat(rand.nextInt());
+            if (!Float.isNaN(fvalue) && !Float.isInfinite(fvalue)) {
+                checkValue(Float.toString(fvalue));
+            }
+            StringBuilder buff = new StringBuilder();
+            int count = rand.nextInt(19) + 1;
+            for (int j = 0; j < count; j++) {
+                buff.append((char)('0' + rand.nextInt(10)));
+            }
+            buff.insert(rand.nextInt(count + 1), '.');
+            buff.append('e').append(rand.nextInt(700) - 350);
+            checkValue(buff.toString());
+        }
+    }
+}
@@ -0,0 +1,51 @@
+/*
+ * Created on Oct 17, 2026
+ */
+
+package org.jibx.runtime.impl;
+
+import junit.framework.TestCase;
+
+/**
+ * Test the element name dispatch table used for global mappings.
+ */
+public class ElementDispatchTableTest extends TestCase
+{
+    public void testEmpty() {
+        ElementDispatchTable table = new ElementDispatchTable(new String[0],
+            new String[0]);
+        assertEquals(-1, table.find(null, "a"));
+    }
+    
+    public void testNamespaces() {
+        String[] nss = { null, "", "urn:a", "urn:b", "urn:a", null };
+        String[] names = { "item", "other", "item", "item", null, "list" };
+        ElementDispatchTable table = new ElementDispatchTable(nss, names);
+        assertEquals(0, table.find(null, "item"));
+        assertEquals(0, table.find("", "item"));
+        assertEquals(2, table.find("urn:a", "item"));
+        assertEquals(3, table.find(new String("urn:b"), new String("item")));
+        assertEquals(-1, table.find("urn:c", "item"));
+        assertEquals(1, table.find(null, "other"));
+        assertEquals(1, table.find("", "other"));
+        assertEquals(-1, table.find("urn:a", "other"));
+        assertEquals(5, table.find("", "list"));
+        assertEquals(-1, table.find(null, "missing"));
+    }
+    
+    public void testManyNames() {
+        int count = 1000;
+        String[] nss = new String[count];
+        String[] names = new String[count];
+        for (int i = 0; i < count; i++) {
+            nss[i] = (i % 3 == 0) ? "" : "urn:ns" + (i % 3);
+            names[i] = "element" + (i / 3);
+        }
+        ElementDispatchTable table = new ElementDispatchTable(nss, names);
+        for (int i = 0; i < count; i++) {
+            String ns = (i % 3 == 0) ? null : "urn:ns" + (i % 3);
+            assertEquals(i, table.find(ns, "element" + (i / 3)));
+        }
+        assertEquals(-1, table.find(null, "element" + count));
+    }
+}
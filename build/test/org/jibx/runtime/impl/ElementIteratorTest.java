@@ -0,0 +1,84 @@
+/*
+ * Created on Oct 16, 2026
+ */
+
+package org.jibx.runtime.impl;
+
+import java.io.StringReader;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+import junit.framework.TestCase;
+
+import org.jibx.runtime.JiBXException;
+
+/**
+ * Test the streaming child element iterator.
+ */
+public class ElementIteratorTest extends TestCase
+{
+    private UnmarshallingContext createContext(String xml)
+        throws JiBXException {
+        UnmarshallingContext ctx = (UnmarshallingContext)new TestBindingFactory().
+            createUnmarshallingContext();
+        ctx.setDocument(new StringReader(xml));
+        return ctx;
+    }
+    
+    public void testIterate() throws JiBXException {
+        UnmarshallingContext ctx = createContext("<?xml version=\"1.0\"?>" +
+            "<items>\n  <item>a</item>\n  <item>b</item>\n  <item>c</item>" +
+            "\n</items>");
+        Iterator iter = ctx.iterateElements();
+        assertTrue(iter.hasNext());
+        assertTrue(iter.hasNext());
+        assertEquals("a", iter.next());
+        assertEquals("b", iter.next());
+        assertTrue(iter.hasNext());
+        assertEquals("c", iter.next());
+        assertFalse(iter.hasNext());
+        assertFalse(iter.hasNext());
+        try {
+            iter.next();
+            fail("Expected NoSuchElementException");
+        } catch (NoSuchElementException e) { /* expected */ }
+        try {
+            iter.remove();
+            fail("Expected UnsupportedOperationException");
+        } catch (UnsupportedOperationException e) { /* expected */ }
+    }
+    
+    public void testEmptyWrapper() throws JiBXException {
+        assertFalse(createContext("<items/>").iterateElements().hasNext());
+        assertFalse(createContext("<items> </items>").iterateElements().
+            hasNext());
+    }
+    
+    public void testManyRecords() throws JiBXException {
+        StringBuilder buff = new StringBuilder("<items>");
+        for (int i = 0; i < 10000; i++) {
+            buff.append("<item>").append(i).append("</item>");
+        }
+        buff.append("</items>");
+        Iterator iter = createContext(buff.toString()).iterateElements();
+        int count = 0;
+        while (iter.hasNext()) {
+            assertEquals(Integer.toString(count++), iter.next());
+        }
+        assertEquals(10000, count);
+    }
+    
+    public void testUnmappedElement() throws JiBXException {
+        Iterator iter = createContext("<items><item>a</item><other/></items>").
+            iterateElements();
+        assertEquals("a", iter.next());
+        assertTrue(iter.hasNext());
+        try {
+            iter.next();
+            fail("Expected IllegalStateException");
+        } catch (IllegalStateException e) {
+            assertTrue(e.getCause() instanceof JiBXException);
+        }
+        assertFalse(iter.hasNext());
+    }
+}
@@ -0,0 +1,81 @@
+/*
+ * Created on Oct 16, 2026
+ */
+
+package org.jibx.runtime.impl;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+
+import junit.framework.TestCase;
+
+/**
+ * Test the encoded name cache and its use by the stream writers.
+ */
+public class EncodedNameCacheTest extends TestCase
+{
+    private static final String[] URIS = {
+        "", MarshallingContext.XML_NAMESPACE
+    };
+    
+    public void testCache() {
+        EncodedNameCache cache = new EncodedNameCache();
+        for (int i = 0; i < 1000; i++) {
+            String name = "name" + i;
+            assertNull(cache.get(name));
+            cache.add(name, new byte[] { (byte)i });
+        }
+        assertEquals(1000, cache.size());
+        for (int i = 0; i < 1000; i++) {
+            byte[] bytes = cache.get(new String("name" + i));
+            assertNotNull(bytes);
+            assertEquals((byte)i, bytes[0]);
+        }
+    }
+    
+    public void testCacheLimit() {
+        EncodedNameCache cache = new EncodedNameCache();
+        for (int i = 0; i < 10000; i++) {
+            cache.add("name" + i, new byte[0]);
+        }
+        assertEquals(4096, cache.size());
+        assertNotNull(cache.get("name0"));
+        assertNull(cache.get("name9999"));
+    }
+    
+    private static String write(StreamWriterBase writer, String name,
+        String enc) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        OutByteBuffer buff = new OutByteBuffer();
+        buff.setOutput(out);
+        writer.setBuffer(buff);
+        for (int i = 0; i < 2; i++) {
+            writer.startTagOpen(0, name);
+            writer.addAttribute(0, name, "v");
+            writer.closeStartTag();
+            writer.startTagClosed(0, "x");
+            writer.endTag(0, "x");
+            writer.endTag(0, name);
+        }
+        writer.close();
+        return out.toString(enc);
+    }
+    
+    public void testUTF8Names() throws IOException {
+        String name = "n\u00E9\u4E2D\uD800\uDC00";
+        String tag = "<" + name + " " + name + "=\"v\"><x/></" + name + ">";
+        assertEquals(tag + tag,
+            write(new UTF8StreamWriter(URIS), name, "UTF-8"));
+    }
+    
+    public void testISO88591Names() throws IOException {
+        String name = "n\u00E9";
+        String tag = "<" + name + " " + name + "=\"v\"><x/></" + name + ">";
+        assertEquals(tag + tag,
+            write(new ISO88591StreamWriter(URIS), name, "ISO-8859-1"));
+        try {
+            write(new ISO88591StreamWriter(URIS), "n\u4E2D", "ISO-8859-1");
+            fail("Expected exception for unrepresentable name");
+        } catch (IOException e) { /* expected */ }
+    }
+}
@@ -0,0 +1,66 @@
+/*
+ * Created on Oct 17, 2026
+ */
+
+package org.jibx.runtime.impl;
+
+import org.jibx.runtime.JiBXException;
+
+import junit.framework.TestCase;
+
+/**
+ * Test the text value lookup table used by generated enum deserializers.
+ */
+public class EnumValueTableTest extends TestCase
+{
+    public void testEmpty() {
+        EnumValueTable table = new EnumValueTable(new Object[0],
+            new String[0], "test.Empty");
+        assertNull(table.find("a"));
+    }
+    
+    public void testLookup() throws JiBXException {
+        Object[] values = { "A", "B", "C" };
+        String[] texts = { "alpha", "beta", "1-gamma" };
+        EnumValueTable table = new EnumValueTable(values, texts, "test.Abc");
+        assertSame(values[0], table.get("alpha"));
+        assertSame(values[1], table.get(new String("beta")));
+        assertSame(values[2], table.find("1-gamma"));
+        assertNull(table.find("delta"));
+        assertNull(table.find(""));
+    }
+    
+    public void testDuplicateText() {
+        Object[] values = { "A", "B" };
+        String[] texts = { "same", "same" };
+        EnumValueTable table = new EnumValueTable(values, texts, "test.Dup");
+        assertSame(values[0], table.find("same"));
+    }
+    
+    public void testManyValues() {
+        int count = 500;
+        Object[] values = new Object[count];
+        String[] texts = new String[count];
+        for (int i = 0; i < count; i++) {
+            values[i] = new Integer(i);
+            texts[i] = "value" + i;
+        }
+        EnumValueTable table = new EnumValueTable(values, texts, "test.Many");
+        for (int i = 0; i < count; i++) {
+            assertSame(values[i], table.find("value" + i));
+        }
+        assertNull(table.find("value" + count));
+    }
+    
+    public void testNotFound() {
+        EnumValueTable table = new EnumValueTable(new Object[] { "A" },
+            new String[] { "a" }, "test.Single");
+        try {
+            table.get("b");
+            fail("Expected exception for missing value");
+        } catch (JiBXException e) {
+            assertEquals("No match found for value 'b' in enum class " +
+                "test.Single", e.getMessage());
+        }
+    }
+}
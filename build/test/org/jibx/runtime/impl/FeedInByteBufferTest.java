@@ -0,0 +1,189 @@
+/*
+ * Created on Oct 17, 2026
+ */
+
+package org.jibx.runtime.impl;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+
+import junit.framework.TestCase;
+
+import org.jibx.runtime.JiBXException;
+
+/**
+ * Test the fed input buffer, and unmarshalling from fed input.
+ */
+public class FeedInByteBufferTest extends TestCase
+{
+    private static final String RECORDS = "<?xml version=\"1.0\"?>\n" +
+        "<!DOCTYPE items [ <!ENTITY x \"]>\"> ]>\n" +
+        "<items a=\"/>\">\n" +
+        "  <item>a</item>\n" +
+        "  <!-- <item>x</item> -->\n" +
+        "  <item><![CDATA[</item>]]></item>\n" +
+        "  <?pi <item>?>\n" +
+        "  <item>c<b/></item>\n" +
+        "  <empty/>\n" +
+        "</items>";
+    
+    private static byte[] bytes(String text) throws IOException {
+        return text.getBytes("UTF-8");
+    }
+    
+    /**
+     * Feed document one byte at a time, recording the number of records
+     * available after each byte.
+     *
+     * @param buff buffer
+     * @param data document
+     * @return record counts
+     * @throws IOException on error
+     */
+    private static int[] feedBytes(FeedInByteBuffer buff, byte[] data)
+        throws IOException {
+        int[] counts = new int[data.length];
+        for (int i = 0; i < data.length; i++) {
+            buff.feed(data, i, 1);
+            counts[i] = buff.getRecordCount();
+        }
+        return counts;
+    }
+    
+    public void testScanning() throws IOException {
+        FeedInByteBuffer buff = new FeedInByteBuffer();
+        String text = RECORDS;
+        int[] counts = feedBytes(buff, bytes(text));
+        assertTrue(buff.isDocumentComplete());
+        assertEquals(4, buff.getRecordCount());
+        
+        // each record becomes available at the next element tag
+        assertEquals(0, counts[text.indexOf("<item>", 0) + 5]);
+        int second = text.indexOf("<item><![CDATA");
+        assertEquals(0, counts[second + 4]);
+        assertEquals(1, counts[second + 5]);
+        int third = text.indexOf("<item>c");
+        assertEquals(1, counts[third + 4]);
+        assertEquals(2, counts[third + 5]);
+        int empty = text.indexOf("<empty/>");
+        assertEquals(2, counts[empty + 6]);
+        assertEquals(3, counts[empty + 7]);
+        assertEquals(3, counts[text.length() - 2]);
+    }
+    
+    public void testDoctypeSubset() throws Exception {
+        String[] docs = {
+            "<!DOCTYPE a [<!-- it's -->]><a/>",
+            "<!DOCTYPE a [<!-- ] \" -->]><a/>",
+            "<!DOCTYPE a [<?pi it's ]?>]><a/>",
+            "<!DOCTYPE a SYSTEM 'a[.dtd' [<!ENTITY e '-->'>]><a/>"
+        };
+        for (int i = 0; i < docs.length; i++) {
+            FeedInByteBuffer buff = new FeedInByteBuffer();
+            feedBytes(buff, bytes(docs[i]));
+            assertTrue(docs[i], buff.isDocumentComplete());
+        }
+        FeedInByteBuffer buff = new FeedInByteBuffer();
+        byte[] data = bytes(docs[0]);
+        buff.feed(data, 0, data.length);
+        UnmarshallingContext ctx = new UnmarshallingContext();
+        ctx.setDocument(buff, null, null);
+        ctx.parsePastElement(null, "a");
+    }
+    
+    public void testUnmarshalComplete() throws Exception {
+        FeedInByteBuffer buff = new FeedInByteBuffer(16);
+        byte[] data = bytes(RECORDS);
+        int offset = 0;
+        while (!buff.isDocumentComplete()) {
+            int length = Math.min(7, data.length - offset);
+            buff.feed(ByteBuffer.wrap(data, offset, length));
+            offset += length;
+        }
+        assertEquals(data.length, offset);
+        UnmarshallingContext ctx = new UnmarshallingContext();
+        ctx.setDocument(buff, null, null);
+        ctx.parsePastStartTag(null, "items");
+        assertEquals("a", ctx.parseElementText(null, "item"));
+        assertEquals("</item>", ctx.parseElementText(null, "item"));
+        ctx.parsePastStartTag(null, "item");
+        ctx.parsePastElement(null, "b");
+        ctx.parsePastCurrentEndTag(null, "item");
+        ctx.parsePastElement(null, "empty");
+        ctx.parsePastCurrentEndTag(null, "items");
+    }
+    
+    public void testUnmarshalRecords() throws Exception {
+        StringBuilder text = new StringBuilder("<items>");
+        for (int i = 0; i < 1000; i++) {
+            text.append("\n <item>value ").append(i).append("</item>");
+        }
+        text.append("\n</items>");
+        byte[] data = bytes(text.toString());
+        FeedInByteBuffer buff = new FeedInByteBuffer(64);
+        UnmarshallingContext ctx = new UnmarshallingContext();
+        boolean started = false;
+        int count = 0;
+        for (int offset = 0; offset < data.length; offset += 13) {
+            buff.feed(data, offset, Math.min(13, data.length - offset));
+            if (!started && buff.getRecordCount() > 0) {
+                ctx.setDocument(buff, null, null);
+                ctx.parsePastStartTag(null, "items");
+                started = true;
+            }
+            while (count < buff.getRecordCount()) {
+                assertEquals("value " + count,
+                    ctx.parseElementText(null, "item"));
+                count++;
+            }
+        }
+        assertTrue(buff.isDocumentComplete());
+        assertEquals(1000, count);
+        ctx.parsePastCurrentEndTag(null, "items");
+    }
+    
+    public void testNotAvailable() throws Exception {
+        FeedInByteBuffer buff = new FeedInByteBuffer();
+        byte[] data = bytes("<items><item>a</item>");
+        buff.feed(data, 0, data.length);
+        UnmarshallingContext ctx = new UnmarshallingContext();
+        ctx.setDocument(buff, null, null);
+        ctx.parsePastStartTag(null, "items");
+        try {
+            ctx.parseElementText(null, "item");
+            fail("Expected exception for data not available");
+        } catch (JiBXException e) {
+            assertTrue(e.getRootCause() instanceof IOException);
+        }
+    }
+    
+    public void testEndOfInput() throws Exception {
+        FeedInByteBuffer buff = new FeedInByteBuffer();
+        byte[] data = bytes("<items><item>a</item><item>b</item>");
+        buff.feed(data, 0, data.length);
+        assertEquals(1, buff.getRecordCount());
+        buff.endOfInput();
+        assertEquals(2, buff.getRecordCount());
+        assertFalse(buff.isDocumentComplete());
+        try {
+            buff.feed(data, 0, 1);
+            fail("Expected exception for data after end of input");
+        } catch (IOException e) { /* expected */ }
+    }
+    
+    public void testNextDocument() throws Exception {
+        FeedInByteBuffer buff = new FeedInByteBuffer();
+        byte[] data = bytes("<a>1</a><b x='>'>2</b><c/>");
+        buff.feed(data, 0, data.length);
+        UnmarshallingContext ctx = new UnmarshallingContext();
+        String[] names = { "a", "b", "c" };
+        String[] values = { "1", "2", "" };
+        for (int i = 0; i < names.length; i++) {
+            assertTrue(buff.isDocumentComplete());
+            ctx.setDocument(buff, null, "UTF-8");
+            assertEquals(values[i], ctx.parseElementText(null, names[i]));
+            buff.nextDocument();
+        }
+        assertFalse(buff.isDocumentComplete());
+    }
+}
@@ -0,0 +1,91 @@
+/*
+ * Created on Oct 17, 2026
+ */
+
+package org.jibx.runtime.impl;
+
+import java.io.StringReader;
+
+import junit.framework.TestCase;
+
+import org.jibx.runtime.IMarshaller;
+import org.jibx.runtime.IUnmarshaller;
+import org.jibx.runtime.JiBXException;
+
+/**
+ * Test sharing of marshaller and unmarshaller instances between the contexts
+ * created by a binding factory.
+ */
+public class HandlerSharingTest extends TestCase
+{
+    private static final String MAPPING = "java.lang.String";
+    
+    private static TestBindingFactory createGeneratedFactory() {
+        return new TestBindingFactory(
+            JiBX_TestHandlers.ItemUnmarshaller.class.getName(),
+            JiBX_TestHandlers.ItemMarshaller.class.getName());
+    }
+    
+    private static IMarshaller getMarshaller(BindingFactoryBase fact)
+        throws JiBXException {
+        return ((MarshallingContext)fact.createMarshallingContext()).
+            getMarshaller(MAPPING);
+    }
+    
+    private static IUnmarshaller getUnmarshaller(BindingFactoryBase fact)
+        throws JiBXException {
+        return ((UnmarshallingContext)fact.createUnmarshallingContext()).
+            getUnmarshaller(MAPPING);
+    }
+    
+    public void testGeneratedShared() throws JiBXException {
+        TestBindingFactory fact = createGeneratedFactory();
+        assertTrue(fact.isHandlerSharing());
+        IMarshaller mar = getMarshaller(fact);
+        IUnmarshaller umar = getUnmarshaller(fact);
+        assertTrue(mar instanceof JiBX_TestHandlers.ItemMarshaller);
+        assertTrue(umar instanceof JiBX_TestHandlers.ItemUnmarshaller);
+        assertSame(mar, getMarshaller(fact));
+        assertSame(umar, getUnmarshaller(fact));
+        assertSame(mar, fact.getSharedMarshaller(0));
+        assertSame(umar, fact.getSharedUnmarshaller(0));
+        
+        // instances are not shared between factories
+        TestBindingFactory other = createGeneratedFactory();
+        assertNotSame(mar, getMarshaller(other));
+        assertNotSame(umar, getUnmarshaller(other));
+    }
+    
+    public void testUserDefinedNotShared() throws JiBXException {
+        TestBindingFactory fact = new TestBindingFactory();
+        assertNull(fact.getSharedMarshaller(0));
+        assertNull(fact.getSharedUnmarshaller(0));
+        assertNotSame(getMarshaller(fact), getMarshaller(fact));
+        assertNotSame(getUnmarshaller(fact), getUnmarshaller(fact));
+        
+        // instance is still reused within a context
+        UnmarshallingContext ctx =
+            (UnmarshallingContext)fact.createUnmarshallingContext();
+        assertSame(ctx.getUnmarshaller(MAPPING), ctx.getUnmarshaller(MAPPING));
+    }
+    
+    public void testSharingDisabled() throws JiBXException {
+        TestBindingFactory fact = createGeneratedFactory();
+        fact.setHandlerSharing(false);
+        assertFalse(fact.isHandlerSharing());
+        assertNull(fact.getSharedMarshaller(0));
+        assertNull(fact.getSharedUnmarshaller(0));
+        assertNotSame(getMarshaller(fact), getMarshaller(fact));
+        assertNotSame(getUnmarshaller(fact), getUnmarshaller(fact));
+    }
+    
+    public void testSharedUnmarshal() throws JiBXException {
+        TestBindingFactory fact = createGeneratedFactory();
+        for (int i = 0; i < 3; i++) {
+            UnmarshallingContext ctx =
+                (UnmarshallingContext)fact.createUnmarshallingContext();
+            ctx.setDocument(new StringReader("<item>" + i + "</item>"));
+            assertEquals(Integer.toString(i), ctx.unmarshalElement());
+        }
+    }
+}
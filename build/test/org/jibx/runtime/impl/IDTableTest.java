@@ -0,0 +1,98 @@
+/*
+ * Created on Oct 16, 2026
+ */
+
+package org.jibx.runtime.impl;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+
+import junit.framework.TestCase;
+
+import org.jibx.runtime.JiBXException;
+
+/**
+ * Test the ID table and the context ID handling built on it.
+ */
+public class IDTableTest extends TestCase
+{
+    private static class Fill implements BackFillReference
+    {
+        private final ArrayList m_filled;
+        private final int m_number;
+
+        private Fill(ArrayList filled, int number) {
+            m_filled = filled;
+            m_number = number;
+        }
+
+        public void backfill(Object obj) {
+            m_filled.add(obj + ":" + m_number);
+        }
+    }
+
+    public void testDefineAndGet() {
+        IDTable table = new IDTable(null);
+        for (int i = 0; i < 5000; i++) {
+            assertEquals(0, table.define("id" + i, new Integer(i)));
+        }
+        assertEquals(5000, table.size());
+        for (int i = 0; i < 5000; i++) {
+            assertEquals(new Integer(i), table.get("id" + i));
+        }
+        assertNull(table.get("id5000"));
+        assertEquals(IDTable.DUPLICATE_ID, table.define("id17", "x"));
+    }
+
+    public void testBackFill() {
+        IDTable table = new IDTable(null);
+        ArrayList filled = new ArrayList();
+        for (int i = 0; i < 3000; i++) {
+            assertTrue(table.addBackFill("id" + (i % 1000),
+                new Fill(filled, i)));
+        }
+        assertNull(table.get("id3"));
+        assertEquals(3, table.define("id3", "a"));
+        assertEquals(3, filled.size());
+        assertEquals("a:3", filled.get(0));
+        assertEquals("a:1003", filled.get(1));
+        assertEquals("a:2003", filled.get(2));
+        assertFalse(table.addBackFill("id3", new Fill(filled, 0)));
+        for (int i = 0; i < 1000; i++) {
+            if (i != 3) {
+                assertEquals(3, table.define("id" + i, "b"));
+            }
+        }
+        assertEquals(3000, filled.size());
+        
+        // freed entries are reused
+        assertTrue(table.addBackFill("new", new Fill(filled, 0)));
+        assertEquals(1, table.define("new", "c"));
+    }
+
+    public void testWrongType() {
+        IDTable table = new IDTable(String.class.getName());
+        assertEquals(0, table.define("a", new Integer(1)));
+        table.addBackFill("b", new Fill(new ArrayList(), 0));
+        assertEquals(IDTable.WRONG_TYPE, table.define("b", new Integer(1)));
+    }
+
+    public void testContextReferences() throws Exception {
+        String[] empty = new String[0];
+        UnmarshallingContext uctx = new UnmarshallingContext(0, empty, empty,
+            empty, null, null);
+        uctx.setDocument(ByteBuffer.wrap("<a/>".getBytes("UTF-8")), null, null);
+        ArrayList filled = new ArrayList();
+        uctx.registerBackFill("x", 0, new Fill(filled, 1));
+        assertNull(uctx.findID("x", 0));
+        uctx.defineID("x", 0, "obj");
+        assertEquals("obj", uctx.findID("x", 0));
+        assertEquals(1, filled.size());
+        try {
+            uctx.defineID("x", 0, "other");
+            fail("Expected duplicate ID exception");
+        } catch (JiBXException e) {
+            // expected
+        }
+    }
+}
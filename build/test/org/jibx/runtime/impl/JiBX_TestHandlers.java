@@ -0,0 +1,18 @@
+/*
+ * Created on Oct 17, 2026
+ */
+
+package org.jibx.runtime.impl;
+
+/**
+ * Handlers using the generated class name prefix, so that they are treated as
+ * stateless generated handlers by the binding factory.
+ */
+public class JiBX_TestHandlers
+{
+    public static class ItemMarshaller
+        extends TestBindingFactory.ItemMarshaller {}
+    
+    public static class ItemUnmarshaller
+        extends TestBindingFactory.ItemUnmarshaller {}
+}
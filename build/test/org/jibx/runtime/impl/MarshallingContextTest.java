@@ -0,0 +1,337 @@
+/*
+ * Created on Oct 16, 2026
+ */
+
+package org.jibx.runtime.impl;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.StringWriter;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+import junit.framework.TestCase;
+
+import org.jibx.runtime.IMarshallable;
+import org.jibx.runtime.IMarshallingContext;
+import org.jibx.runtime.JiBXException;
+import org.jibx.runtime.Utility;
+
+/**
+ * Test marshalling context handling of iterated content and typed values.
+ */
+public class MarshallingContextTest extends TestCase
+{
+    private static final String[] URIS = {
+        "", MarshallingContext.XML_NAMESPACE, "urn:items"
+    };
+    
+    /**
+     * Item written as an <code>item</code> element with text content.
+     */
+    private static class Item implements IMarshallable
+    {
+        private final String m_value;
+        
+        private Item(String value) {
+            m_value = value;
+        }
+        
+        public String JiBX_getName() {
+            return "item";
+        }
+        
+        public void marshal(IMarshallingContext ctx) throws JiBXException {
+            ((MarshallingContext)ctx).element(0, "item", m_value);
+        }
+    }
+    
+    /**
+     * Iterator generating items as requested, tracking the number of items
+     * generated.
+     */
+    private static class ItemGenerator implements Iterator
+    {
+        private final int m_limit;
+        private int m_count;
+        
+        private ItemGenerator(int limit) {
+            m_limit = limit;
+        }
+        
+        public boolean hasNext() {
+            return m_count < m_limit;
+        }
+        
+        public Object next() {
+            if (m_count < m_limit) {
+                return new Item(Integer.toString(m_count++));
+            } else {
+                throw new NoSuchElementException();
+            }
+        }
+        
+        public void remove() {
+            throw new UnsupportedOperationException();
+        }
+    }
+    
+    /**
+     * Stream tracking the total number of bytes written.
+     */
+    private static class CountingStream extends ByteArrayOutputStream
+    {
+        private int m_writes;
+        
+        public void write(byte[] b, int off, int len) {
+            m_writes++;
+            super.write(b, off, len);
+        }
+    }
+    
+    private static MarshallingContext createContext() {
+        return new MarshallingContext(new String[0], new String[0], URIS,
+            null);
+    }
+    
+    public void testMarshalElements() throws Exception {
+        MarshallingContext ctx = createContext();
+        StringWriter writer = new StringWriter();
+        ctx.setOutput(writer);
+        ctx.marshalElements(null, "items", new ItemGenerator(3));
+        ctx.endDocument();
+        assertEquals("<items><item>0</item><item>1</item><item>2</item>" +
+            "</items>", writer.toString());
+    }
+    
+    public void testEmptyIterator() throws Exception {
+        MarshallingContext ctx = createContext();
+        StringWriter writer = new StringWriter();
+        ctx.setOutput(writer);
+        ctx.marshalElements("", "items", new ItemGenerator(0));
+        ctx.endDocument();
+        assertEquals("<items/>", writer.toString());
+    }
+    
+    public void testNamespacedWrapper() throws Exception {
+        MarshallingContext ctx = createContext();
+        StringWriter writer = new StringWriter();
+        ctx.setOutput(writer);
+        ctx.marshalElements("urn:items", "items", new ItemGenerator(1));
+        ctx.endDocument();
+        assertEquals("<items xmlns=\"urn:items\"><item>0</item></items>",
+            writer.toString());
+        try {
+            createContext().marshalElements("urn:other", "items",
+                new ItemGenerator(1));
+            fail("Expected exception for undefined namespace");
+        } catch (JiBXException e) { /* expected */ }
+    }
+    
+    public void testStreamedOutput() throws Exception {
+        MarshallingContext ctx = createContext();
+        CountingStream out = new CountingStream();
+        ctx.startDocument("UTF-8", null, out);
+        int count = 20000;
+        ctx.marshalElements(null, "items", new ItemGenerator(count));
+        ctx.endDocument();
+        assertTrue("Output not written incrementally", out.m_writes > 1);
+        String text = out.toString("UTF-8");
+        assertTrue(text.startsWith("<?xml version=\"1.0\" encoding=\"UTF-8\"?>" +
+            "<items><item>0</item>"));
+        assertTrue(text.endsWith("<item>" + (count-1) + "</item></items>"));
+    }
+    
+    public void testChannelOutput() throws Exception {
+        String[] encs = { "UTF-8", "ISO-8859-1", "UTF-16" };
+        for (int i = 0; i < encs.length; i++) {
+            MarshallingContext ctx = createContext();
+            ByteArrayOutputStream out = new ByteArrayOutputStream();
+            ctx.startDocument(encs[i], null, out);
+            ctx.marshalElements(null, "items", new ItemGenerator(5000));
+            ctx.endDocument();
+            String expect = out.toString(encs[i]);
+            out = new ByteArrayOutputStream();
+            ctx.setOutput(Channels.newChannel(out), encs[i]);
+            ctx.startDocument(encs[i], null);
+            ctx.marshalElements(null, "items", new ItemGenerator(5000));
+            ctx.endDocument();
+            assertEquals(encs[i], expect, out.toString(encs[i]));
+        }
+    }
+    
+    public void testUnmarshallableItem() throws Exception {
+        MarshallingContext ctx = createContext();
+        ctx.setOutput(new StringWriter());
+        try {
+            ctx.marshalCollection(Collections.singletonList("text").
+                iterator());
+            fail("Expected exception for unmarshallable item");
+        } catch (JiBXException e) { /* expected */ }
+    }
+    
+    private static final long[] NUMBERS = {
+        0, 1, -1, 9, 10, -10, 99, 100, 12345, -98765, Integer.MAX_VALUE,
+        Integer.MIN_VALUE, Integer.MAX_VALUE + 1L, Integer.MIN_VALUE - 1L,
+        1000000000000L, -999999999999999L, Long.MAX_VALUE, Long.MIN_VALUE
+    };
+    
+    private static String expectedNumbers() {
+        StringBuilder buff = new StringBuilder("<n>");
+        for (int i = 0; i < NUMBERS.length; i++) {
+            long value = NUMBERS[i];
+            if (value == (int)value) {
+                int ivalue = (int)value;
+                buff.append("<i a=\"").append(ivalue).append("\">").
+                    append(ivalue).append("</i>");
+            }
+            buff.append("<l a=\"").append(value).append("\">").
+                append(value).append("</l>");
+        }
+        return buff.append("</n>").toString();
+    }
+    
+    private static void marshalNumbers(MarshallingContext ctx)
+        throws JiBXException {
+        ctx.startTag(0, "n");
+        for (int i = 0; i < NUMBERS.length; i++) {
+            long value = NUMBERS[i];
+            if (value == (int)value) {
+                int ivalue = (int)value;
+                ctx.startTagAttributes(0, "i").attribute(0, "a", ivalue).
+                    closeStartContent().content(ivalue).endTag(0, "i");
+            }
+            ctx.startTagAttributes(0, "l").attribute(0, "a", value).
+                closeStartContent().content(value).endTag(0, "l");
+        }
+        ctx.endTag(0, "n");
+        ctx.endDocument();
+    }
+    
+    public void testNumericValues() throws Exception {
+        String expect = expectedNumbers();
+        String[] encs = { "UTF-8", "ISO-8859-1" };
+        for (int i = 0; i < encs.length; i++) {
+            MarshallingContext ctx = createContext();
+            ByteArrayOutputStream out = new ByteArrayOutputStream();
+            ctx.setOutput(out, encs[i]);
+            marshalNumbers(ctx);
+            assertEquals(encs[i], expect, out.toString(encs[i]));
+        }
+        MarshallingContext ctx = createContext();
+        StringWriter writer = new StringWriter();
+        ctx.setOutput(writer);
+        marshalNumbers(ctx);
+        assertEquals(expect, writer.toString());
+    }
+    
+    public void testNumericElements() throws Exception {
+        MarshallingContext ctx = createContext();
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        ctx.setOutput(out, "UTF-8");
+        ctx.startTag(0, "n").element(0, "i", -42).
+            element(0, "l", 1L << 40).endTag(0, "n");
+        ctx.endDocument();
+        assertEquals("<n><i>-42</i><l>1099511627776</l></n>",
+            out.toString("UTF-8"));
+    }
+    
+    public void testBase64Content() throws Exception {
+        byte[] byts = new byte[10000];
+        for (int i = 0; i < byts.length; i++) {
+            byts[i] = (byte)(i * 31);
+        }
+        String text = Utility.serializeBase64(byts).replaceAll("\r\n", "");
+        String expect = "<b><a>" + text + "</a><s>" + text + "</s><f>" +
+            text.substring(4) + "</f><d>" + text + "</d></b>";
+        String[] encs = { "UTF-8", "ISO-8859-1", "UTF-16" };
+        for (int i = 0; i <= encs.length; i++) {
+            MarshallingContext ctx = createContext();
+            ByteArrayOutputStream out = new ByteArrayOutputStream();
+            StringWriter writer = new StringWriter();
+            if (i < encs.length) {
+                ctx.setOutput(out, encs[i]);
+            } else {
+                ctx.setOutput(writer);
+            }
+            ByteBuffer buff = ByteBuffer.allocateDirect(byts.length);
+            buff.put(byts).flip();
+            ctx.startTag(0, "b").startTag(0, "a").contentBase64(byts).
+                endTag(0, "a").startTag(0, "s").
+                contentBase64(new ByteArrayInputStream(byts)).endTag(0, "s").
+                startTag(0, "f").
+                contentBase64(ByteBuffer.wrap(byts, 3, byts.length - 3)).
+                endTag(0, "f").startTag(0, "d").contentBase64(buff).
+                endTag(0, "d").endTag(0, "b");
+            ctx.endDocument();
+            assertEquals(0, buff.position());
+            if (i < encs.length) {
+                assertEquals(encs[i], expect, out.toString(encs[i]));
+            } else {
+                assertEquals(expect, writer.toString());
+            }
+        }
+    }
+    
+    private static final double[] DOUBLES = {
+        0.0, -0.0, 1.0, -2.5, 0.1, 1.0E-4, 1.0E23, Double.MAX_VALUE,
+        Double.MIN_VALUE, Double.POSITIVE_INFINITY, Double.NEGATIVE_INFINITY,
+        Double.NaN
+    };
+    
+    private static final float[] FLOATS = {
+        0.0f, 1.0f, -0.1f, 3.4028235E38f, Float.NEGATIVE_INFINITY
+    };
+    
+    public void testFloatingValues() throws Exception {
+        StringBuilder buff = new StringBuilder("<n>");
+        for (int i = 0; i < DOUBLES.length; i++) {
+            String text = Utility.serializeDouble(DOUBLES[i]);
+            buff.append("<d a=\"").append(text).append("\">").append(text).
+                append("</d>");
+        }
+        for (int i = 0; i < FLOATS.length; i++) {
+            String text = Utility.serializeFloat(FLOATS[i]);
+            buff.append("<f a=\"").append(text).append("\">").append(text).
+                append("</f>");
+        }
+        String expect = buff.append("</n>").toString();
+        String[] encs = { "UTF-8", "ISO-8859-1", null };
+        for (int i = 0; i < encs.length; i++) {
+            MarshallingContext ctx = createContext();
+            ByteArrayOutputStream out = new ByteArrayOutputStream();
+            StringWriter writer = new StringWriter();
+            if (encs[i] == null) {
+                ctx.setOutput(writer);
+            } else {
+                ctx.setOutput(out, encs[i]);
+            }
+            ctx.startTag(0, "n");
+            for (int j = 0; j < DOUBLES.length; j++) {
+                ctx.startTagAttributes(0, "d").attribute(0, "a", DOUBLES[j]).
+                    closeStartContent().content(DOUBLES[j]).endTag(0, "d");
+            }
+            for (int j = 0; j < FLOATS.length; j++) {
+                ctx.startTagAttributes(0, "f").attribute(0, "a", FLOATS[j]).
+                    closeStartContent().content(FLOATS[j]).endTag(0, "f");
+            }
+            ctx.endTag(0, "n");
+            ctx.endDocument();
+            if (encs[i] == null) {
+                assertEquals(expect, writer.toString());
+            } else {
+                assertEquals(encs[i], expect, out.toString(encs[i]));
+            }
+        }
+        MarshallingContext ctx = createContext();
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        ctx.setOutput(out, "UTF-8");
+        ctx.startTag(0, "n").element(0, "d", 0.5).element(0, "f", 1.0E-10f).
+            endTag(0, "n");
+        ctx.endDocument();
+        assertEquals("<n><d>0.5</d><f>1.0E-10</f></n>", out.toString("UTF-8"));
+    }
+}
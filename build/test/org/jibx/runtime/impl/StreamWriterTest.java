@@ -0,0 +1,111 @@
+/*
+ * Created on Oct 16, 2026
+ */
+
+package org.jibx.runtime.impl;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+
+import junit.framework.TestCase;
+
+/**
+ * Test text escaping and encoding by the stream writers.
+ */
+public class StreamWriterTest extends TestCase
+{
+    private static final String[] URIS = {
+        "", MarshallingContext.XML_NAMESPACE
+    };
+    
+    private static final String LONG_ASCII =
+        "The quick brown fox jumps over the lazy dog, again and again. ";
+    
+    private static String write(StreamWriterBase writer, String enc,
+        String text) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        OutByteBuffer buff = new OutByteBuffer();
+        buff.setOutput(out);
+        writer.setBuffer(buff);
+        writer.startTagOpen(0, "a");
+        writer.addAttribute(0, "v", text);
+        writer.closeStartTag();
+        writer.writeTextContent(text);
+        writer.endTag(0, "a");
+        writer.close();
+        return new String(out.toByteArray(), enc);
+    }
+    
+    private static String writeUTF8(String text) throws IOException {
+        return write(new UTF8StreamWriter(URIS), "UTF-8", text);
+    }
+    
+    private static String writeISO(String text) throws IOException {
+        return write(new ISO88591StreamWriter(URIS), "ISO-8859-1", text);
+    }
+    
+    private static void verifyBoth(String text, String attr, String content)
+        throws IOException {
+        String expect = "<a v=\"" + attr + "\">" + content + "</a>";
+        assertEquals(expect, writeUTF8(text));
+        assertEquals(expect, writeISO(text));
+    }
+    
+    public void testPlainText() throws IOException {
+        verifyBoth("", "", "");
+        verifyBoth("x", "x", "x");
+        verifyBoth(LONG_ASCII + LONG_ASCII, LONG_ASCII + LONG_ASCII,
+            LONG_ASCII + LONG_ASCII);
+        verifyBoth("a\tb\nc\rd", "a\tb\nc\rd", "a\tb\nc\rd");
+    }
+    
+    public void testEscapes() throws IOException {
+        verifyBoth("<&>\"", "&lt;&amp;>&quot;", "&lt;&amp;>\"");
+        verifyBoth(LONG_ASCII + "&" + LONG_ASCII + "<",
+            LONG_ASCII + "&amp;" + LONG_ASCII + "&lt;",
+            LONG_ASCII + "&amp;" + LONG_ASCII + "&lt;");
+        verifyBoth("a]]>b", "a]]&gt;b", "a]]&gt;b");
+        verifyBoth("]]>", "]]&gt;", "]]&gt;");
+        verifyBoth(LONG_ASCII + "]]>", LONG_ASCII + "]]&gt;",
+            LONG_ASCII + "]]&gt;");
+    }
+    
+    public void testMultibyte() throws IOException {
+        String text = "caf\u00e9 na\u00efve " + LONG_ASCII + "\u00ff";
+        verifyBoth(text, text, text);
+        text = "\u65e5\u672c\u8a9e" + LONG_ASCII + "\u00e9\u4e2d";
+        assertEquals("<a v=\"" + text + "\">" + text + "</a>",
+            writeUTF8(text));
+        text = "x\ud83d\ude00y\uffe5";
+        assertEquals("<a v=\"" + text + "\">" + text + "</a>",
+            writeUTF8(text));
+    }
+    
+    public void testISOCharacterReference() throws IOException {
+        assertEquals("<a v=\"x&#x20AC;y\">x&#x20AC;y</a>",
+            writeISO("x\u20acy"));
+        assertEquals("<a v=\"x&#x1F600;y&#x0100;\">x&#x1F600;y&#x0100;</a>",
+            writeISO("x\ud83d\ude00y\u0100"));
+        assertEquals("<a v=\"&#x10FFFF;\">&#x10FFFF;</a>",
+            writeISO("\udbff\udfff"));
+    }
+    
+    private static void verifyIllegal(StreamWriterBase writer, String text) {
+        try {
+            writer.setBuffer(new OutByteBuffer());
+            writer.writeTextContent(text);
+            fail("Expected exception for illegal character");
+        } catch (IOException e) {
+            // expected
+        }
+    }
+    
+    public void testIllegalCharacters() {
+        String[] texts = { "a\u0001b", LONG_ASCII + "\u0000", "\ud800x",
+            "x\uffff" };
+        for (int i = 0; i < texts.length; i++) {
+            verifyIllegal(new UTF8StreamWriter(URIS), texts[i]);
+            verifyIllegal(new ISO88591StreamWriter(URIS), texts[i]);
+        }
+    }
+}
@@ -0,0 +1,84 @@
+/*
+ * Created on Oct 17, 2026
+ */
+
+package org.jibx.runtime.impl;
+
+import org.jibx.runtime.IBindingFactory;
+import org.jibx.runtime.IMarshaller;
+import org.jibx.runtime.IMarshallingContext;
+import org.jibx.runtime.IUnmarshaller;
+import org.jibx.runtime.IUnmarshallingContext;
+import org.jibx.runtime.JiBXException;
+
+/**
+ * Minimal binding factory for runtime tests, with a single global mapping for
+ * the <code>item</code> element.
+ */
+public class TestBindingFactory extends BindingFactoryBase
+{
+    /**
+     * Unmarshaller for the <code>item</code> element, returning the text
+     * content.
+     */
+    public static class ItemUnmarshaller implements IUnmarshaller
+    {
+        public boolean isPresent(IUnmarshallingContext ctx)
+            throws JiBXException {
+            return ctx.isAt(null, "item");
+        }
+
+        public Object unmarshal(Object obj, IUnmarshallingContext ctx)
+            throws JiBXException {
+            return ((UnmarshallingContext)ctx).parseElementText(null, "item");
+        }
+    }
+    
+    /**
+     * Marshaller writing a <code>String</code> as an <code>item</code> element
+     * with text content.
+     */
+    public static class ItemMarshaller implements IMarshaller
+    {
+        public boolean isExtension(String mapname) {
+            return false;
+        }
+
+        public void marshal(Object obj, IMarshallingContext ctx)
+            throws JiBXException {
+            ((MarshallingContext)ctx).element(0, "item", (String)obj);
+        }
+    }
+    
+    public TestBindingFactory(String umarname, String marname) {
+        super("test", 1, 0, "java.lang.String", "java.lang.String",
+            umarname, marname,
+            new String[] { "", MarshallingContext.XML_NAMESPACE },
+            new String[] { "", "xml" }, "item", "\u0001", null, "", "", "", "", "",
+            new String[0]);
+    }
+    
+    public TestBindingFactory() {
+        this(ItemUnmarshaller.class.getName(), ItemMarshaller.class.getName());
+    }
+    
+    public int getCompilerVersion() {
+        return IBindingFactory.CURRENT_VERSION_NUMBER;
+    }
+    
+    public String getCompilerDistribution() {
+        return "test";
+    }
+    
+    public String[] getElementNamespaces() {
+        return new String[] { null };
+    }
+    
+    public String[] getElementNames() {
+        return new String[] { "item" };
+    }
+    
+    public int getTypeIndex(String type) {
+        return -1;
+    }
+}
@@ -0,0 +1,660 @@
+/*
+ * Created on Oct 16, 2026
+ */
+
+package org.jibx.runtime.impl;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.UnsupportedEncodingException;
+import java.lang.reflect.Field;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.util.Arrays;
+
+import junit.framework.TestCase;
+
+import org.jibx.runtime.IXMLReader;
+import org.jibx.runtime.JiBXException;
+import org.jibx.runtime.JiBXParseException;
+import org.jibx.runtime.Utility;
+import org.jibx.runtime.WhitespaceConversions;
+
+/**
+ * Test the byte-level reader for UTF-8 and single-byte encodings.
+ */
+public class UTF8StreamReaderTest extends TestCase
+{
+    private static UTF8StreamReader createReader(String text, String enc,
+        boolean nsa) throws JiBXException, UnsupportedEncodingException {
+        UTF8StreamReader rdr = new UTF8StreamReader(nsa);
+        assertTrue(rdr.setDocument(new ByteArrayInputStream(text.getBytes(enc)),
+            null, null));
+        return rdr;
+    }
+
+    public void testSimpleDocument() throws Exception {
+        UTF8StreamReader rdr = createReader("<?xml version=\"1.0\"?>\n" +
+            "<root a=\"1\" b='two'><item>text</item><empty/></root>", "UTF-8",
+            true);
+        assertEquals(IXMLReader.START_DOCUMENT, rdr.getEventType());
+        assertEquals(IXMLReader.START_TAG, rdr.next());
+        assertSame("root", rdr.getName());
+        assertEquals("", rdr.getNamespace());
+        assertEquals(1, rdr.getNestingDepth());
+        assertEquals(2, rdr.getAttributeCount());
+        assertSame("a", rdr.getAttributeName(0));
+        assertEquals("1", rdr.getAttributeValue(0));
+        assertEquals("two", rdr.getAttributeValue(null, "b"));
+        assertNull(rdr.getAttributeValue(null, "c"));
+        assertEquals(IXMLReader.START_TAG, rdr.next());
+        assertSame("item", rdr.getName());
+        assertEquals(IXMLReader.TEXT, rdr.next());
+        assertEquals("text", rdr.getText());
+        assertEquals(IXMLReader.END_TAG, rdr.next());
+        assertSame("item", rdr.getName());
+        assertEquals(2, rdr.getNestingDepth());
+        assertEquals(IXMLReader.START_TAG, rdr.next());
+        assertSame("empty", rdr.getName());
+        assertEquals(IXMLReader.END_TAG, rdr.next());
+        assertSame("empty", rdr.getName());
+        assertEquals(IXMLReader.END_TAG, rdr.next());
+        assertSame("root", rdr.getName());
+        assertEquals(IXMLReader.END_DOCUMENT, rdr.next());
+        assertEquals(0, rdr.getNestingDepth());
+    }
+
+    public void testNamespaces() throws Exception {
+        UTF8StreamReader rdr = createReader("<a:root xmlns:a=\"urn:a\" " +
+            "xmlns=\"urn:d\" a:x=\"1\" y=\"2\"><child/></a:root>", "UTF-8",
+            true);
+        assertEquals(IXMLReader.START_TAG, rdr.next());
+        assertSame("root", rdr.getName());
+        assertEquals("a", rdr.getPrefix());
+        assertEquals("urn:a", rdr.getNamespace());
+        assertEquals(2, rdr.getNamespaceCount(1));
+        assertEquals(2, rdr.getAttributeCount());
+        assertEquals("urn:a", rdr.getAttributeNamespace(0));
+        assertEquals("1", rdr.getAttributeValue("urn:a", "x"));
+        assertEquals("", rdr.getAttributeNamespace(1));
+        assertEquals("urn:d", rdr.getNamespace(null));
+        assertEquals(IXMLReader.START_TAG, rdr.next());
+        assertEquals("urn:d", rdr.getNamespace());
+        assertEquals(IXMLReader.END_TAG, rdr.next());
+        assertEquals(IXMLReader.END_TAG, rdr.next());
+        assertEquals("urn:a", rdr.getNamespace());
+        assertEquals(IXMLReader.END_DOCUMENT, rdr.next());
+        assertNull(rdr.getNamespace("a"));
+    }
+
+    public void testNamespacesDisabled() throws Exception {
+        UTF8StreamReader rdr = createReader("<a:root xmlns:a=\"urn:a\"/>",
+            "UTF-8", false);
+        assertEquals(IXMLReader.START_TAG, rdr.next());
+        assertEquals("a:root", rdr.getName());
+        assertEquals("", rdr.getNamespace());
+        assertEquals(1, rdr.getAttributeCount());
+        assertEquals("xmlns:a", rdr.getAttributeName(0));
+    }
+
+    public void testCharacterRanges() throws Exception {
+        UTF8StreamReader rdr = createReader("<root a=\"12\" b=\"x&amp;y\">" +
+            "a&lt;b</root>", "UTF-8", true);
+        int[] holder = new int[2];
+        assertEquals(IXMLReader.START_TAG, rdr.next());
+        assertEquals(1, rdr.getAttributeIndex(null, "b"));
+        assertEquals(-1, rdr.getAttributeIndex("urn:a", "b"));
+        char[] chars = rdr.getAttributeCharacters(0, holder);
+        assertEquals("12", new String(chars, holder[0], holder[1]));
+        chars = rdr.getAttributeCharacters(1, holder);
+        assertEquals("x&y", new String(chars, holder[0], holder[1]));
+        assertEquals(IXMLReader.TEXT, rdr.next());
+        chars = rdr.getTextCharacters(holder);
+        assertEquals("a<b", new String(chars, holder[0], holder[1]));
+        assertEquals("a<b", rdr.getText());
+        assertEquals(IXMLReader.END_TAG, rdr.next());
+        assertNull(rdr.getTextCharacters(holder));
+    }
+
+    public void testContextPrimitives() throws Exception {
+        UnmarshallingContext uctx = new UnmarshallingContext();
+        uctx.setDocument(ByteBuffer.wrap(("<root a=\" -12 \" b=\"TRUE\">" +
+            "<i>4&#50;</i><l>9223372036854775807</l><s>x</s></root>").
+            getBytes("UTF-8")), null, null);
+        uctx.toStart();
+        assertEquals(-12, uctx.attributeInt(null, "a"));
+        assertTrue(uctx.attributeBoolean(null, "b"));
+        assertEquals(7L, uctx.attributeLong(null, "c", 7L));
+        uctx.parsePastStartTag(null, "root");
+        assertEquals(42, uctx.parseElementInt(null, "i"));
+        assertEquals(Long.MAX_VALUE, uctx.parseElementLong(null, "l"));
+        try {
+            uctx.parseElementShort(null, "s");
+            fail("Expected parse exception");
+        } catch (JiBXParseException e) {
+            assertTrue(e.getMessage().endsWith("value 'x' for tag 's'"));
+        }
+    }
+
+    public void testContextBase64() throws Exception {
+        byte[] byts = new byte[5000];
+        for (int i = 0; i < byts.length; i++) {
+            byts[i] = (byte)(i * 13);
+        }
+        String text = Utility.serializeBase64(byts);
+        String xml = "<r><a>" + text + "</a><b>\n" + text.substring(0, 8) +
+            "<!-- split -->" + text.substring(8) + "</b><c>QUJD=</c></r>";
+        UnmarshallingContext uctx = new UnmarshallingContext();
+        uctx.setDocument(ByteBuffer.wrap(xml.getBytes("UTF-8")), null, null);
+        uctx.parsePastStartTag(null, "r");
+        byte[] result = uctx.parseElementBase64(null, "a");
+        assertTrue(Arrays.equals(byts, result));
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        uctx.parseElementBase64(null, "b", out);
+        assertTrue(Arrays.equals(byts, out.toByteArray()));
+        try {
+            uctx.parseElementBase64(null, "c");
+            fail("Expected exception for invalid base64");
+        } catch (JiBXException e) { /* expected */ }
+    }
+
+    public void testContextEscapedText() throws Exception {
+        String xml = "<r><t>a&amp;b&#x41;<![CDATA[<c>]]>&lt;d</t></r>";
+        UnmarshallingContext uctx = new UnmarshallingContext();
+        uctx.setDocument(ByteBuffer.wrap(xml.getBytes("UTF-8")), null, null);
+        uctx.parsePastStartTag(null, "r");
+        assertEquals("a&bA<c><d", uctx.parseElementText(null, "t"));
+        uctx.setDocument(new ByteArrayInputStream(xml.getBytes("UTF-8")),
+            null);
+        uctx.parsePastStartTag(null, "r");
+        assertEquals("a&bA<c><d", uctx.parseElementText(null, "t"));
+    }
+
+    public void testContextWhitespace() throws Exception {
+        String text = "  a \t<!-- split --> \n<![CDATA[ b\t]]>c  ";
+        String xml = "<r x='&#9;a  b ' y=' '><t>" + text + "</t><t>" + text +
+            "</t><t>" + text + "</t><t>" + text + "</t></r>";
+        String plain = "  a \t \n b\tc  ";
+        UnmarshallingContext uctx = new UnmarshallingContext();
+        uctx.setDocument(ByteBuffer.wrap(xml.getBytes("UTF-8")), null, null);
+        uctx.toStart();
+        assertEquals(" a  b ", uctx.attributeText(null, "x",
+            WhitespaceConversions.REPLACE));
+        assertEquals("a b", uctx.attributeText(null, "x",
+            WhitespaceConversions.COLLAPSE));
+        assertEquals("a  b", uctx.attributeText(null, "x",
+            WhitespaceConversions.TRIM));
+        assertEquals("\ta  b ", uctx.attributeText(null, "x",
+            WhitespaceConversions.PRESERVE));
+        assertEquals("", uctx.attributeText(null, "y", "dflt",
+            WhitespaceConversions.COLLAPSE));
+        assertEquals("dflt", uctx.attributeText(null, "z", "dflt",
+            WhitespaceConversions.COLLAPSE));
+        try {
+            uctx.attributeText(null, "z", WhitespaceConversions.COLLAPSE);
+            fail("Expected exception for missing attribute");
+        } catch (JiBXException e) { /* expected */ }
+        uctx.parsePastStartTag(null, "r");
+        assertEquals(WhitespaceConversions.replace(plain),
+            uctx.parseElementText(null, "t", WhitespaceConversions.REPLACE));
+        assertEquals(WhitespaceConversions.collapse(plain),
+            uctx.parseElementText(null, "t", WhitespaceConversions.COLLAPSE));
+        assertEquals(WhitespaceConversions.trim(plain),
+            uctx.parseElementText(null, "t", "dflt",
+            WhitespaceConversions.TRIM));
+        assertEquals(plain,
+            uctx.parseElementText(null, "t", WhitespaceConversions.PRESERVE));
+        assertEquals("dflt", uctx.parseElementText(null, "t", "dflt",
+            WhitespaceConversions.COLLAPSE));
+    }
+
+    public void testTextConsolidation() throws Exception {
+        UTF8StreamReader rdr = createReader("<root>a&amp;b<!-- skip -->" +
+            "<![CDATA[<c>]]>&#x41;&#66;\r\nd</root>", "UTF-8", true);
+        assertEquals(IXMLReader.START_TAG, rdr.next());
+        assertEquals(IXMLReader.TEXT, rdr.next());
+        assertEquals("a&b<c>AB\nd", rdr.getText());
+        assertEquals(IXMLReader.END_TAG, rdr.next());
+    }
+
+    public void testTextBeforeAttributeEntity() throws Exception {
+        UTF8StreamReader rdr = createReader("<a>hello&amp;world" +
+            "<b w=\"a&amp;bcdefgh\"/><!--c-->x<c v='&lt;'/></a>", "UTF-8",
+            true);
+        assertEquals(IXMLReader.START_TAG, rdr.next());
+        assertEquals(IXMLReader.TEXT, rdr.next());
+        assertEquals("hello&world", rdr.getText());
+        assertEquals(IXMLReader.START_TAG, rdr.next());
+        assertEquals("a&bcdefgh", rdr.getAttributeValue(0));
+        assertEquals(IXMLReader.END_TAG, rdr.next());
+        assertEquals(IXMLReader.TEXT, rdr.next());
+        int[] holder = new int[2];
+        char[] chars = rdr.getTextCharacters(holder);
+        assertEquals("x", new String(chars, holder[0], holder[1]));
+        assertEquals(IXMLReader.START_TAG, rdr.next());
+        assertEquals("<", rdr.getAttributeValue(0));
+    }
+
+    public void testTokens() throws Exception {
+        UTF8StreamReader rdr = createReader("<!DOCTYPE root [<!ENTITY x " +
+            "'y'>]><root>a&lt;<!--c--><?pi data?></root>", "UTF-8", true);
+        assertEquals(IXMLReader.DOCDECL, rdr.nextToken());
+        assertEquals(IXMLReader.START_TAG, rdr.nextToken());
+        assertEquals(IXMLReader.TEXT, rdr.nextToken());
+        assertEquals("a", rdr.getText());
+        assertEquals(IXMLReader.ENTITY_REF, rdr.nextToken());
+        assertEquals("lt", rdr.getName());
+        assertEquals("<", rdr.getText());
+        assertEquals(IXMLReader.COMMENT, rdr.nextToken());
+        assertEquals("c", rdr.getText());
+        assertEquals(IXMLReader.PROCESSING_INSTRUCTION, rdr.nextToken());
+        assertEquals("pi data", rdr.getText());
+        assertEquals(IXMLReader.END_TAG, rdr.nextToken());
+        assertEquals(IXMLReader.END_DOCUMENT, rdr.nextToken());
+    }
+
+    public void testAttributeNormalization() throws Exception {
+        UTF8StreamReader rdr = createReader("<root a=\"x\ty\r\nz\" " +
+            "b=\"&quot;q&apos;&#10;\"/>", "UTF-8", true);
+        assertEquals(IXMLReader.START_TAG, rdr.next());
+        assertEquals("x y z", rdr.getAttributeValue(0));
+        assertEquals("\"q'\n", rdr.getAttributeValue(1));
+    }
+
+    public void testMultibyte() throws Exception {
+        String text = "caf\u00E9 \u4E2D\u6587 \uD83D\uDE00";
+        UTF8StreamReader rdr = createReader("<r\u00E9sum\u00E9 n=\"" + text +
+            "\">" + text + "</r\u00E9sum\u00E9>", "UTF-8", true);
+        assertEquals(IXMLReader.START_TAG, rdr.next());
+        assertEquals("r\u00E9sum\u00E9", rdr.getName());
+        assertEquals(text, rdr.getAttributeValue(0));
+        assertEquals(IXMLReader.TEXT, rdr.next());
+        assertEquals(text, rdr.getText());
+        assertEquals(IXMLReader.END_TAG, rdr.next());
+    }
+
+    public void testSingleByteEncoding() throws Exception {
+        String text = "<?xml version=\"1.0\" encoding=\"ISO-8859-1\"?>" +
+            "<root>caf\u00E9</root>";
+        UTF8StreamReader rdr = createReader(text, "ISO-8859-1", true);
+        assertEquals("ISO-8859-1", rdr.getInputEncoding());
+        assertEquals(IXMLReader.START_TAG, rdr.next());
+        assertEquals(IXMLReader.TEXT, rdr.next());
+        assertEquals("caf\u00E9", rdr.getText());
+    }
+
+    public void testUnsupportedEncoding() throws Exception {
+        String text = "<?xml version=\"1.0\" encoding=\"UTF-16\"?><root/>";
+        UTF8StreamReader rdr = new UTF8StreamReader(true);
+        byte[] bytes = text.getBytes("UTF-16");
+        assertFalse(rdr.setDocument(new ByteArrayInputStream(bytes), null,
+            null));
+        byte[] copy = new byte[bytes.length];
+        assertEquals(bytes.length, rdr.detachStream().read(copy));
+    }
+
+    public void testBufferBoundaries() throws Exception {
+        StringBuffer buff = new StringBuffer("<root>");
+        for (int i = 0; i < 2000; i++) {
+            buff.append("<item index=\"").append(i).append("\">value \u00E9 ").
+                append(i).append("</item>\n");
+        }
+        buff.append("</root>");
+        UTF8StreamReader rdr = createReader(buff.toString(), "UTF-8", true);
+        assertEquals(IXMLReader.START_TAG, rdr.next());
+        for (int i = 0; i < 2000; i++) {
+            assertEquals(IXMLReader.START_TAG, rdr.next());
+            assertSame("item", rdr.getName());
+            assertEquals(Integer.toString(i), rdr.getAttributeValue(0));
+            assertEquals(IXMLReader.TEXT, rdr.next());
+            assertEquals("value \u00E9 " + i, rdr.getText());
+            assertEquals(IXMLReader.END_TAG, rdr.next());
+            assertEquals(IXMLReader.TEXT, rdr.next());
+        }
+        assertEquals(IXMLReader.END_TAG, rdr.next());
+        assertEquals(2001, rdr.getLineNumber());
+        assertEquals(IXMLReader.END_DOCUMENT, rdr.next());
+    }
+
+    public void testMismatchedEndTag() throws Exception {
+        UTF8StreamReader rdr = createReader("<root><a></b></root>", "UTF-8",
+            true);
+        rdr.next();
+        rdr.next();
+        try {
+            rdr.next();
+            fail("Expected exception for mismatched end tag");
+        } catch (JiBXException e) {
+            // expected
+        }
+    }
+
+    public void testUndeclaredPrefix() throws Exception {
+        UTF8StreamReader rdr = createReader("<root xmlns:x='urn:x'>" +
+            "<x:a xmlns:x=''/></root>", "UTF-8", true);
+        rdr.next();
+        try {
+            rdr.next();
+            fail("Expected exception for empty namespace URI with prefix");
+        } catch (JiBXException e) {
+            // expected
+        }
+        rdr = createReader("<root xmlns='urn:x'><a xmlns=''/></root>",
+            "UTF-8", true);
+        rdr.next();
+        assertEquals(IXMLReader.START_TAG, rdr.next());
+        assertEquals("", rdr.getNamespace());
+    }
+
+    public void testUndefinedPrefix() throws Exception {
+        UTF8StreamReader rdr = createReader("<x:root/>", "UTF-8", true);
+        try {
+            rdr.next();
+            fail("Expected exception for undefined prefix");
+        } catch (JiBXException e) {
+            // expected
+        }
+    }
+
+    /**
+     * Check that parsing a document fails with a parse exception.
+     *
+     * @param bytes document
+     * @param what description of error, for failure message
+     */
+    private static void assertRejected(byte[] bytes, String what)
+        throws Exception {
+        UTF8StreamReader rdr = new UTF8StreamReader(true);
+        assertTrue(rdr.setDocument(new ByteArrayInputStream(bytes), null,
+            null));
+        try {
+            while (rdr.next() != IXMLReader.END_DOCUMENT);
+            fail("Expected exception for " + what);
+        } catch (JiBXException e) {
+            assertTrue(e.getMessage().indexOf("(line ") > 0);
+        }
+    }
+
+    /**
+     * Build a UTF-8 document with the supplied bytes as the text content of
+     * the root element.
+     *
+     * @param content text content bytes
+     * @return document
+     */
+    private static byte[] textDocument(byte[] content) throws Exception {
+        ByteArrayOutputStream bos = new ByteArrayOutputStream();
+        bos.write("<root>".getBytes("UTF-8"));
+        bos.write(content);
+        bos.write("</root>".getBytes("UTF-8"));
+        return bos.toByteArray();
+    }
+
+    public void testMalformedUtf8() throws Exception {
+        assertRejected(textDocument(new byte[] { (byte)0xC0, (byte)0xAF }),
+            "overlong two-byte form");
+        assertRejected(textDocument(new byte[] { (byte)0xE0, (byte)0x80,
+            (byte)0xAF }), "overlong three-byte form");
+        assertRejected(textDocument(new byte[] { (byte)0xF5, (byte)0x80,
+            (byte)0x80, (byte)0x80 }), "lead byte F5");
+        assertRejected(textDocument(new byte[] { (byte)0xF7, (byte)0xBF,
+            (byte)0xBF, (byte)0xBF }), "lead byte F7");
+        assertRejected(textDocument(new byte[] { (byte)0xED, (byte)0xA0,
+            (byte)0x80 }), "encoded surrogate");
+        assertRejected(textDocument(new byte[] { (byte)0xF4, (byte)0x90,
+            (byte)0x80, (byte)0x80 }), "code point above U+10FFFF");
+        assertRejected(textDocument(new byte[] { (byte)0xE4, (byte)0xB8 }),
+            "truncated sequence");
+        assertRejected("<root a=\"\u00C0\u00AF\"/>".getBytes("ISO-8859-1"),
+            "overlong form in attribute");
+        assertRejected(textDocument(new byte[] { 'a', '<', '!', '-', '-',
+            (byte)0xC0, (byte)0xAF, '-', '-', '>' }), "overlong form in comment");
+    }
+
+    public void testMalformedReportedByNext() throws Exception {
+        UTF8StreamReader rdr = new UTF8StreamReader(true);
+        rdr.setDocument(new ByteArrayInputStream(textDocument(new byte[] {
+            'a', (byte)0xED, (byte)0xBF, (byte)0xBF })), "doc", null);
+        assertEquals(IXMLReader.START_TAG, rdr.next());
+        try {
+            rdr.next();
+            fail("Expected exception for encoded surrogate");
+        } catch (JiBXException e) {
+            assertTrue(e.getMessage().indexOf("in doc") > 0);
+        }
+    }
+
+    public void testValidMultibyteLimits() throws Exception {
+        UTF8StreamReader rdr = new UTF8StreamReader(true);
+        rdr.setDocument(new ByteArrayInputStream(textDocument(new byte[] {
+            (byte)0xC2, (byte)0x80, (byte)0xEF, (byte)0xBF, (byte)0xBD,
+            (byte)0xF4, (byte)0x8F, (byte)0xBF, (byte)0xBF })), null, null);
+        assertEquals(IXMLReader.START_TAG, rdr.next());
+        assertEquals(IXMLReader.TEXT, rdr.next());
+        assertEquals("\u0080\uFFFD\uDBFF\uDFFF", rdr.getText());
+    }
+
+    public void testCdataEndInText() throws Exception {
+        assertRejected("<root>a]]>b</root>".getBytes("UTF-8"), "']]>' in text");
+        UTF8StreamReader rdr = createReader("<root>a]]&gt;b]]</root>",
+            "UTF-8", true);
+        rdr.next();
+        assertEquals(IXMLReader.TEXT, rdr.next());
+        assertEquals("a]]>b]]", rdr.getText());
+    }
+
+    public void testInvalidNameStart() throws Exception {
+        assertRejected("<1a/>".getBytes("UTF-8"), "digit name start");
+        assertRejected("<root -a=\"x\"/>".getBytes("UTF-8"),
+            "hyphen attribute name start");
+        assertRejected("<root><.a/></root>".getBytes("UTF-8"),
+            "period name start");
+    }
+
+    public void testDoubleHyphenInComment() throws Exception {
+        assertRejected("<root><!-- a -- b --></root>".getBytes("UTF-8"),
+            "'--' in comment");
+        assertRejected("<root><!-- a ---></root>".getBytes("UTF-8"),
+            "comment ending with '-'");
+        UTF8StreamReader rdr = createReader("<root><!-- a - b --></root>",
+            "UTF-8", true);
+        rdr.next();
+        assertEquals(IXMLReader.COMMENT, rdr.nextToken());
+        assertEquals(" a - b ", rdr.getText());
+    }
+
+    public void testControlCharacter() throws Exception {
+        assertRejected("<root>a\u0001b</root>".getBytes("UTF-8"),
+            "control character in text");
+        assertRejected("<root a=\"\u0001\"/>".getBytes("UTF-8"),
+            "control character in attribute");
+        assertRejected("<root><![CDATA[\u001F]]></root>".getBytes("UTF-8"),
+            "control character in CDATA");
+        assertRejected("<root>&#1;</root>".getBytes("UTF-8"),
+            "control character reference");
+    }
+
+    public void testLateXmlDeclaration() throws Exception {
+        assertRejected("<root><?xml version=\"1.0\"?></root>".getBytes("UTF-8"),
+            "XML declaration in content");
+        assertRejected("<!-- c --><?xml version=\"1.0\"?><root/>".getBytes(
+            "UTF-8"), "XML declaration after comment");
+        UTF8StreamReader rdr = createReader("<root><?xml-stylesheet x?></root>",
+            "UTF-8", true);
+        rdr.next();
+        assertEquals(IXMLReader.PROCESSING_INSTRUCTION, rdr.nextToken());
+    }
+
+    public void testEmptyCdata() throws Exception {
+        UTF8StreamReader rdr = createReader("<root><![CDATA[]]></root>",
+            "UTF-8", true);
+        assertEquals(IXMLReader.START_TAG, rdr.next());
+        assertEquals(IXMLReader.END_TAG, rdr.next());
+        rdr = createReader("<root>a<![CDATA[]]>b</root>", "UTF-8", true);
+        rdr.next();
+        assertEquals(IXMLReader.TEXT, rdr.next());
+        assertEquals("ab", rdr.getText());
+        assertEquals(IXMLReader.END_TAG, rdr.next());
+    }
+
+    public void testFactoryRecycle() throws Exception {
+        UTF8ReaderFactory fact = UTF8ReaderFactory.getInstance();
+        IXMLReader rdr = fact.createReader(new ByteArrayInputStream
+            ("<a/>".getBytes("UTF-8")), null, null, true);
+        assertTrue(rdr instanceof UTF8StreamReader);
+        assertEquals(IXMLReader.START_TAG, rdr.next());
+        IXMLReader recycled = fact.recycleReader(rdr, new ByteArrayInputStream
+            ("<b/>".getBytes("UTF-8")), null, "UTF-8");
+        assertSame(rdr, recycled);
+        assertEquals(IXMLReader.START_TAG, recycled.next());
+        assertEquals("b", recycled.getName());
+    }
+
+    private static String buildItems(int count) {
+        StringBuffer buff = new StringBuffer("<root>");
+        for (int i = 0; i < count; i++) {
+            buff.append("<item index=\"").append(i).append("\">value \u00E9 ").
+                append(i).append("</item>\n");
+        }
+        buff.append("</root>");
+        return buff.toString();
+    }
+
+    private static void checkItems(IXMLReader rdr, int count)
+        throws JiBXException {
+        assertEquals(IXMLReader.START_TAG, rdr.next());
+        for (int i = 0; i < count; i++) {
+            assertEquals(IXMLReader.START_TAG, rdr.next());
+            assertEquals(Integer.toString(i), rdr.getAttributeValue(0));
+            assertEquals(IXMLReader.TEXT, rdr.next());
+            assertEquals("value \u00E9 " + i, rdr.getText());
+            assertEquals(IXMLReader.END_TAG, rdr.next());
+            assertEquals(IXMLReader.TEXT, rdr.next());
+        }
+        assertEquals(IXMLReader.END_TAG, rdr.next());
+        assertEquals(IXMLReader.END_DOCUMENT, rdr.next());
+    }
+
+    public void testHeapBuffer() throws Exception {
+        byte[] bytes = ("xx<root a=\"1\">text</root>yy").getBytes("UTF-8");
+        ByteBuffer buff = ByteBuffer.wrap(bytes, 2, bytes.length - 4).slice();
+        UTF8StreamReader rdr = new UTF8StreamReader(true);
+        assertTrue(rdr.setDocument(buff, null, null));
+        assertEquals(IXMLReader.START_TAG, rdr.next());
+        assertEquals("1", rdr.getAttributeValue(0));
+        assertEquals(IXMLReader.TEXT, rdr.next());
+        assertEquals("text", rdr.getText());
+        assertEquals(IXMLReader.END_TAG, rdr.next());
+        assertEquals(IXMLReader.END_DOCUMENT, rdr.next());
+        assertEquals(0, buff.position());
+    }
+
+    public void testDirectBuffer() throws Exception {
+        byte[] bytes = buildItems(5000).getBytes("UTF-8");
+        ByteBuffer buff = ByteBuffer.allocateDirect(bytes.length);
+        buff.put(bytes);
+        buff.flip();
+        UTF8StreamReader rdr = new UTF8StreamReader(true);
+        assertTrue(rdr.setDocument(buff, null, null));
+        checkItems(rdr, 5000);
+    }
+
+    public void testMappedFile() throws Exception {
+        File file = File.createTempFile("jibx", ".xml");
+        try {
+            FileOutputStream fos = new FileOutputStream(file);
+            fos.write(buildItems(5000).getBytes("UTF-8"));
+            fos.close();
+            IXMLReader rdr = UTF8ReaderFactory.getInstance().createReader
+                (new FileInputStream(file).getChannel(), null, null, true);
+            checkItems(rdr, 5000);
+            UnmarshallingContext uctx = new UnmarshallingContext();
+            uctx.setDocument(file, null);
+            assertEquals(file.getPath(), uctx.getDocumentName());
+            uctx.toStart();
+            assertTrue(uctx.isAt(null, "root"));
+        } finally {
+            file.delete();
+        }
+    }
+
+    public void testFileClosedOnError() throws Exception {
+        File file = File.createTempFile("jibx", ".xml");
+        try {
+            FileOutputStream fos = new FileOutputStream(file);
+            fos.write("<root><a></b></root>".getBytes("UTF-8"));
+            fos.close();
+            FileChannel chan = new FileInputStream(file).getChannel();
+            IXMLReader rdr = UTF8ReaderFactory.getInstance().createReader(chan,
+                null, null, true);
+            assertEquals(IXMLReader.START_TAG, rdr.next());
+            assertEquals(IXMLReader.START_TAG, rdr.next());
+            assertTrue(chan.isOpen());
+            try {
+                rdr.next();
+                fail("Expected exception for mismatched end tag");
+            } catch (JiBXException e) {
+                // expected
+            }
+            assertFalse(chan.isOpen());
+        } finally {
+            file.delete();
+        }
+    }
+
+    /**
+     * Get the file stream held by a context.
+     *
+     * @param uctx context
+     * @return stream (<code>null</code> if none)
+     */
+    private static FileInputStream getInputFile(UnmarshallingContext uctx)
+        throws Exception {
+        Field field = UnmarshallingContext.class.getDeclaredField("m_inputFile");
+        field.setAccessible(true);
+        return (FileInputStream)field.get(uctx);
+    }
+
+    public void testContextFileClosed() throws Exception {
+        File file = File.createTempFile("jibx", ".xml");
+        try {
+            FileOutputStream fos = new FileOutputStream(file);
+            fos.write("<?xml version=\"1.0\" encoding=\"UTF-16\"?><root/>".
+                getBytes("UTF-16"));
+            fos.close();
+            UnmarshallingContext uctx = new UnmarshallingContext();
+
+            // fallback parser for unsupported encoding, closed when cleared
+            uctx.setDocument(file, null);
+            FileInputStream fis = getInputFile(uctx);
+            assertTrue(fis.getChannel().isOpen());
+            uctx.toStart();
+            assertTrue(uctx.isAt(null, "root"));
+            uctx.clearDocument();
+            assertFalse(fis.getChannel().isOpen());
+            assertNull(getInputFile(uctx));
+
+            // closed when next document set
+            uctx.setDocument(file, null);
+            fis = getInputFile(uctx);
+            uctx.setDocument(new ByteArrayInputStream("<root/>".getBytes(
+                "UTF-8")), null);
+            assertFalse(fis.getChannel().isOpen());
+            assertNull(getInputFile(uctx));
+        } finally {
+            file.delete();
+        }
+    }
+
+    public void testBufferFallback() throws Exception {
+        String text = "<?xml version=\"1.0\" encoding=\"UTF-16\"?><root/>";
+        IXMLReader rdr = UTF8ReaderFactory.getInstance().createReader
+            (ByteBuffer.wrap(text.getBytes("UTF-16")), null, null, true);
+        assertFalse(rdr instanceof UTF8StreamReader);
+        assertEquals(IXMLReader.START_TAG, rdr.next());
+        assertEquals("root", rdr.getName());
+    }
+}
@@ -104,6 +104,25 @@ class TestDocument implements IXMLReader {
 		return m_attributeValue;
 	}
 
+	public int getAttributeIndex(String ns, String name) {
+		return m_attributeValue == null ? -1 : 0;
+	}
+
+	public char[] getAttributeCharacters(int index, int[] holder) {
+		holder[0] = 0;
+		holder[1] = m_attributeValue.length();
+		return m_attributeValue.toCharArray();
+	}
+
+	public char[] getTextCharacters(int[] holder) {
+		if (m_textContent == null) {
+			return null;
+		}
+		holder[0] = 0;
+		holder[1] = m_textContent.length();
+		return m_textContent.toCharArray();
+	}
+
 	public int getColumnNumber() {
 		return 0;
 	}
@@ -0,0 +1,24 @@
+package simple;
+
+class MyClass8
+{
+    private int intAttr;
+    private short shortAttr;
+    private byte byteAttr;
+    private long longAttr;
+    private int intOptionalAttr;
+    private long longOptionalAttr;
+    private int intElement;
+    private short shortElement;
+    private byte byteElement;
+    private long longElement;
+    private int intOptionalElement;
+    private long longOptionalElement;
+    private int[] ints;
+    private float floatAttr;
+    private double doubleAttr;
+    private float floatElement;
+    private double doubleElement;
+    private double doubleOptionalElement;
+    private double[] doubles;
+}